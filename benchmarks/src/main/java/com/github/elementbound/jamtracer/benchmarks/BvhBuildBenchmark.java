@@ -0,0 +1,101 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhBuilder;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.MedianBvhBuilder;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SahBvhBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for bounding volume hierarchy construction.
+ *
+ * <p>Scores are per build, over a scene of random shapes. The parallel builder runs in the common
+ * fork/join pool.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class BvhBuildBenchmark {
+  private static final long SEED = 17L;
+
+  @Param({"256", "4096", "65536"})
+  private int sceneSize;
+
+  @Param({"median", "sah", "sah-parallel"})
+  private String builderName;
+
+  private List<Shape> shapes;
+  private BvhBuilder builder;
+
+  /**
+   * Set up shapes and builder.
+   */
+  @Setup
+  public void setup() {
+    var random = new Random(SEED);
+
+    shapes = new ArrayList<>();
+    for (int i = 0; i < sceneSize; i++) {
+      Shape shape = random.nextBoolean() ? new SphereShape() : new CubeShape();
+      shape.getTransform().update()
+          .setPosition(randomVector(random, 16.0))
+          .setRotation(randomVector(random, 180.0))
+          .setScale(Vector3.ONE.scale(0.1 + 0.4 * random.nextDouble()))
+          .done();
+
+      // Cache bounds up front, so only the build itself is measured
+      shape.getBounds();
+      shapes.add(shape);
+    }
+
+    switch (builderName) {
+      case "sah":
+        builder = new SahBvhBuilder();
+        break;
+      case "sah-parallel":
+        builder = new SahBvhBuilder(ForkJoinPool.commonPool());
+        break;
+      default:
+        builder = new MedianBvhBuilder();
+    }
+  }
+
+  /**
+   * Build hierarchy.
+   *
+   * @return root node
+   */
+  @Benchmark
+  public Object build() {
+    return builder.build(shapes);
+  }
+
+  private static Vector3 randomVector(Random random, double extent) {
+    return new Vector3(
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent
+    );
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.core.Matrix;
+import com.github.elementbound.jamtracer.core.Matrix4;
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for vector and matrix operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class MathBenchmark {
+  private Vector vectorA;
+  private Vector vectorB;
+  private Matrix matrixA;
+  private Matrix matrixB;
+
+  private Vector3 vector3A;
+  private Vector3 vector3B;
+  private Matrix4 matrix4A;
+  private Matrix4 matrix4B;
+
+  /**
+   * Set up operands.
+   */
+  @Setup
+  public void setup() {
+    vectorA = new Vector(1.0, 2.0, 3.0, 1.0);
+    vectorB = new Vector(-3.0, 0.5, 2.0, 1.0);
+    matrixA = Matrix.rotateAroundZ(Math.toRadians(30.0))
+        .multiply(Matrix.translate(new Vector(1.0, 2.0, 3.0)));
+    matrixB = Matrix.rotateAroundX(Math.toRadians(45.0))
+        .multiply(Matrix.scale(new Vector(2.0, 2.0, 2.0)));
+
+    vector3A = Vector3.fromVector(vectorA);
+    vector3B = Vector3.fromVector(vectorB);
+    matrix4A = Matrix4.fromMatrix(matrixA);
+    matrix4B = Matrix4.fromMatrix(matrixB);
+  }
+
+  @Benchmark
+  public Vector vectorAdd() {
+    return vectorA.add(vectorB);
+  }
+
+  @Benchmark
+  public double vectorDot() {
+    return vectorA.dot(vectorB);
+  }
+
+  @Benchmark
+  public Vector vectorNormalized() {
+    return vectorB.normalized();
+  }
+
+  @Benchmark
+  public Matrix matrixMultiply() {
+    return matrixA.multiply(matrixB);
+  }
+
+  @Benchmark
+  public Vector matrixTransform() {
+    return matrixA.transform(vectorA);
+  }
+
+  @Benchmark
+  public Vector3 vector3Add() {
+    return vector3A.add(vector3B);
+  }
+
+  @Benchmark
+  public double vector3Dot() {
+    return vector3A.dot(vector3B);
+  }
+
+  @Benchmark
+  public Vector3 vector3Normalized() {
+    return vector3B.normalized();
+  }
+
+  @Benchmark
+  public Matrix4 matrix4Multiply() {
+    return matrix4A.multiply(matrix4B);
+  }
+
+  @Benchmark
+  public Vector3 matrix4TransformPoint() {
+    return matrix4A.transformPoint(vector3A);
+  }
+}
@@ -0,0 +1,180 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.input.ObjMeshReader;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for importing OBJ files.
+ *
+ * <p>Scores are per import, including building the mesh hierarchy, of a UV sphere written with
+ * positions, texture coordinates and normals. The parallel reader runs in the common fork/join
+ * pool.</p>
+ *
+ * <p>Peak heap usage is reported as the {@code peakHeapMegabytes} secondary result. The heap is
+ * collected before every import, and the result is the sum of the heap pools' peaks, so it's an
+ * upper bound that includes whatever the JVM retains between imports.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class ObjImportBenchmark {
+  private static final double MEGABYTE = 1024.0 * 1024.0;
+
+  @Param({"256", "1024"})
+  private int segments;
+
+  @Param({"sequential", "parallel"})
+  private String readerName;
+
+  private Path path;
+  private ObjMeshReader reader;
+  private List<MemoryPoolMXBean> heapPools;
+
+  /**
+   * Peak heap usage.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class HeapCounters {
+    public double peakHeapMegabytes;
+
+    /**
+     * Reset peak.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      peakHeapMegabytes = 0.0;
+    }
+  }
+
+  /**
+   * Write OBJ file and set up reader.
+   *
+   * @throws IOException if the file can't be written
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    path = Files.createTempFile("sphere", ".obj");
+    Files.writeString(path, sphereObj(segments), StandardCharsets.US_ASCII);
+
+    reader = "parallel".equals(readerName)
+        ? new ObjMeshReader(ForkJoinPool.commonPool())
+        : new ObjMeshReader();
+
+    heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Collect garbage and reset peak heap usage.
+   */
+  @Setup(Level.Invocation)
+  public void resetHeap() {
+    System.gc();
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+  }
+
+  /**
+   * Delete OBJ file.
+   *
+   * @throws IOException if the file can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.delete(path);
+  }
+
+  /**
+   * Import file.
+   *
+   * @param counters peak heap counter
+   *
+   * @return mesh
+   *
+   * @throws IOException if the file can't be read
+   */
+  @Benchmark
+  public MeshShape read(HeapCounters counters) throws IOException {
+    var mesh = reader.read(path);
+
+    long peak = 0;
+    for (var pool : heapPools) {
+      peak += pool.getPeakUsage().getUsed();
+    }
+    counters.peakHeapMegabytes = Math.max(counters.peakHeapMegabytes, peak / MEGABYTE);
+
+    return mesh;
+  }
+
+  /**
+   * Unit sphere with a seam, so vertices on it have two texture coordinates.
+   */
+  private static String sphereObj(int segments) {
+    var obj = new StringBuilder();
+    int rings = segments / 2;
+
+    for (int ring = 0; ring <= rings; ring++) {
+      double polar = Math.PI * ring / rings;
+      for (int segment = 0; segment <= segments; segment++) {
+        double azimuth = 2.0 * Math.PI * segment / segments;
+        double x = Math.sin(polar) * Math.cos(azimuth);
+        double y = Math.cos(polar);
+        double z = Math.sin(polar) * Math.sin(azimuth);
+
+        if (segment < segments) {
+          obj.append(String.format(Locale.ROOT, "v %.6f %.6f %.6f%nvn %.6f %.6f %.6f%n",
+              x, y, z, x, y, z));
+        }
+        obj.append(String.format(Locale.ROOT, "vt %.6f %.6f%n",
+            (double) segment / segments, (double) ring / rings));
+      }
+    }
+
+    for (int ring = 0; ring < rings; ring++) {
+      for (int segment = 0; segment < segments; segment++) {
+        int next = (segment + 1) % segments;
+        int p0 = ring * segments + segment + 1;
+        int p1 = ring * segments + next + 1;
+        int p2 = (ring + 1) * segments + next + 1;
+        int p3 = (ring + 1) * segments + segment + 1;
+        int t0 = ring * (segments + 1) + segment + 1;
+        int t3 = (ring + 1) * (segments + 1) + segment + 1;
+
+        obj.append(String.format(Locale.ROOT, "f %d/%d/%d %d/%d/%d %d/%d/%d %d/%d/%d%n",
+            p0, t0, p0, p1, t0 + 1, p1, p2, t3 + 1, p2, p3, t3, p3));
+      }
+    }
+
+    return obj.toString();
+  }
+}
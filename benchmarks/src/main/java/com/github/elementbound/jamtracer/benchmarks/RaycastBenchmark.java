@@ -0,0 +1,381 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.GridScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SimpleScene;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for ray transforms and ray-shape intersection.
+ *
+ * <p>Every invocation casts the same batch of rays, roughly half of which hit the tested shape.
+ * Scores are per ray. Packet benchmarks cast camera rays instead, in square packets of
+ * neighboring pixels.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class RaycastBenchmark {
+  private static final int RAY_COUNT = 1024;
+  private static final long SEED = 17L;
+  private static final int IMAGE_SIZE = 32;
+  private static final int PACKET_SIZE = 8;
+
+  private Ray[] rays;
+  private Ray[] cameraRays;
+  private RayPacket packet;
+  private HitRecord[] hits;
+  private Transform transform;
+  private Shape sphere;
+  private Shape cube;
+  private Shape alignedSphere;
+  private Shape alignedCube;
+
+  /**
+   * Set up rays and shapes.
+   */
+  @Setup
+  public void setup() {
+    var random = new Random(SEED);
+
+    rays = new Ray[RAY_COUNT];
+    for (int i = 0; i < RAY_COUNT; i++) {
+      rays[i] = Ray.lookat(randomVector(random, 8.0), randomVector(random, 1.5));
+    }
+
+    // Camera rays, ordered packet by packet
+    cameraRays = new Ray[IMAGE_SIZE * IMAGE_SIZE];
+    var eye = new Vector3(0.0, -10.0, 0.0);
+    int i = 0;
+    for (int blockY = 0; blockY < IMAGE_SIZE; blockY += PACKET_SIZE) {
+      for (int blockX = 0; blockX < IMAGE_SIZE; blockX += PACKET_SIZE) {
+        for (int y = blockY; y < blockY + PACKET_SIZE; y++) {
+          for (int x = blockX; x < blockX + PACKET_SIZE; x++) {
+            var target = new Vector3(8.0 * x / IMAGE_SIZE - 4.0, 0.0, 8.0 * y / IMAGE_SIZE - 4.0);
+            cameraRays[i++] = Ray.lookat(eye, target);
+          }
+        }
+      }
+    }
+
+    packet = new RayPacket(PACKET_SIZE * PACKET_SIZE);
+    hits = new HitRecord[PACKET_SIZE * PACKET_SIZE];
+    for (int j = 0; j < hits.length; j++) {
+      hits[j] = new HitRecord();
+    }
+
+    transform = new Transform(
+        new Vector3(0.5, -0.25, 0.0),
+        new Vector3(15.0, 30.0, 45.0),
+        new Vector3(1.0, 0.75, 1.25)
+    );
+
+    sphere = new SphereShape();
+    sphere.setTransform(transform);
+
+    cube = new CubeShape();
+    cube.setTransform(transform);
+
+    // Axis aligned shapes are intersected in world space
+    alignedSphere = new SphereShape();
+    alignedSphere.setTransform(new Transform(transform.getPosition(), Vector3.ZERO, Vector3.ONE));
+
+    alignedCube = new CubeShape();
+    alignedCube.setTransform(new Transform(transform.getPosition(), Vector3.ZERO,
+        transform.getScale()));
+  }
+
+  /**
+   * Transform rays to object space.
+   *
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void inverseTransformRay(Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(transform.inverseTransformRay(ray));
+    }
+  }
+
+  /**
+   * Raycast sphere.
+   *
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void sphereRaycast(Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(sphere.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast cube.
+   *
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void cubeRaycast(Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(cube.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast axis aligned sphere.
+   *
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void alignedSphereRaycast(Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(alignedSphere.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast axis aligned cube.
+   *
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void alignedCubeRaycast(Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(alignedCube.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast triangle mesh of a sphere, with the same transform as the sphere.
+   *
+   * @param meshState mesh
+   * @param blackhole blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void meshRaycast(MeshState meshState, Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(meshState.mesh.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast scene of random shapes.
+   *
+   * @param sceneState scene
+   * @param blackhole  blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void simpleSceneRaycast(SceneState sceneState, Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(sceneState.simpleScene.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast bounding volume hierarchy of random shapes.
+   *
+   * @param sceneState scene
+   * @param blackhole  blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void bvhSceneRaycast(SceneState sceneState, Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(sceneState.bvhScene.raycast(ray));
+    }
+  }
+
+  /**
+   * Raycast bounding volume hierarchy of random shapes with camera rays, one by one.
+   *
+   * @param sceneState scene
+   * @param blackhole  blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(IMAGE_SIZE * IMAGE_SIZE)
+  public void bvhSceneCameraRaycast(SceneState sceneState, Blackhole blackhole) {
+    var hit = hits[0];
+
+    for (var ray : cameraRays) {
+      hit.reset();
+      blackhole.consume(sceneState.bvhScene.raycast(ray, hit));
+    }
+  }
+
+  /**
+   * Raycast bounding volume hierarchy of random shapes with camera rays, in packets.
+   *
+   * @param sceneState scene
+   * @param blackhole  blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(IMAGE_SIZE * IMAGE_SIZE)
+  public void bvhScenePacketRaycast(SceneState sceneState, Blackhole blackhole) {
+    for (int i = 0; i < cameraRays.length; i += packet.capacity()) {
+      packet.clear();
+      for (int j = 0; j < packet.capacity(); j++) {
+        packet.add(cameraRays[i + j]);
+        hits[j].reset();
+      }
+
+      sceneState.bvhScene.raycast(packet, hits);
+      blackhole.consume(hits);
+    }
+  }
+
+  /**
+   * Raycast uniform grid of random shapes.
+   *
+   * @param sceneState scene
+   * @param blackhole  blackhole
+   */
+  @Benchmark
+  @OperationsPerInvocation(RAY_COUNT)
+  public void gridSceneRaycast(SceneState sceneState, Blackhole blackhole) {
+    for (var ray : rays) {
+      blackhole.consume(sceneState.gridScene.raycast(ray));
+    }
+  }
+
+  private static Vector3 randomVector(Random random, double extent) {
+    return new Vector3(
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent
+    );
+  }
+
+  /**
+   * Scene with a configurable number of random shapes.
+   */
+  @State(Scope.Thread)
+  public static class SceneState {
+    @Param({"16", "256"})
+    private int sceneSize;
+
+    private Scene simpleScene;
+    private Scene bvhScene;
+    private Scene gridScene;
+
+    /**
+     * Set up scenes, both with the same shapes.
+     */
+    @Setup
+    public void setup() {
+      var random = new Random(SEED);
+
+      simpleScene = new SimpleScene();
+      bvhScene = new BvhScene();
+      gridScene = new GridScene();
+      for (int i = 0; i < sceneSize; i++) {
+        Shape shape = random.nextBoolean() ? new SphereShape() : new CubeShape();
+        shape.getTransform().update()
+            .setPosition(randomVector(random, 4.0))
+            .setRotation(randomVector(random, 180.0))
+            .setScale(Vector3.ONE.scale(0.1 + 0.4 * random.nextDouble()))
+            .done();
+        simpleScene.addShape(shape);
+        bvhScene.addShape(shape);
+        gridScene.addShape(shape);
+      }
+      simpleScene.prepare();
+      bvhScene.prepare();
+      gridScene.prepare();
+    }
+  }
+
+  /**
+   * Unit sphere as a triangle mesh, with a configurable number of segments around the equator.
+   */
+  @State(Scope.Thread)
+  public static class MeshState {
+    @Param({"64", "512"})
+    private int segments;
+
+    private Shape mesh;
+
+    /**
+     * Set up mesh, with as many rings as half the segments.
+     */
+    @Setup
+    public void setup() {
+      int rings = segments / 2;
+      int vertexCount = (rings + 1) * (segments + 1);
+      var positions = new float[3 * vertexCount];
+      var texcoords = new float[2 * vertexCount];
+      var indices = new int[6 * rings * segments];
+
+      for (int ring = 0; ring <= rings; ring++) {
+        double latitude = Math.PI * ring / rings - Math.PI / 2.0;
+
+        for (int segment = 0; segment <= segments; segment++) {
+          double longitude = 2.0 * Math.PI * segment / segments;
+          int vertex = ring * (segments + 1) + segment;
+
+          positions[3 * vertex] = (float) (Math.cos(latitude) * Math.cos(longitude));
+          positions[3 * vertex + 1] = (float) (Math.cos(latitude) * Math.sin(longitude));
+          positions[3 * vertex + 2] = (float) Math.sin(latitude);
+          texcoords[2 * vertex] = (float) segment / segments;
+          texcoords[2 * vertex + 1] = (float) ring / rings;
+        }
+      }
+
+      int i = 0;
+      for (int ring = 0; ring < rings; ring++) {
+        for (int segment = 0; segment < segments; segment++) {
+          int vertex = ring * (segments + 1) + segment;
+          int above = vertex + segments + 1;
+
+          indices[i++] = vertex;
+          indices[i++] = vertex + 1;
+          indices[i++] = above + 1;
+          indices[i++] = vertex;
+          indices[i++] = above + 1;
+          indices[i++] = above;
+        }
+      }
+
+      // Normals of a unit sphere match its positions
+      mesh = new MeshShape(positions, positions.clone(), texcoords, indices);
+      mesh.setTransform(new Transform(
+          new Vector3(0.5, -0.25, 0.0),
+          new Vector3(15.0, 30.0, 45.0),
+          new Vector3(1.0, 0.75, 1.25)
+      ));
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.demo.JamDemo;
+import com.github.elementbound.jamtracer.demo.ParrotDemo;
+import com.github.elementbound.jamtracer.demo.SphereDemo;
+import com.github.elementbound.jamtracer.display.FramebufferDisplay;
+import com.github.elementbound.jamtracer.raytracing.Raytracer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for rendering full frames of the demos, headless.
+ *
+ * <p>Demos are updated once during setup and not afterwards, so every invocation renders the same
+ * camera pose.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+  @Param({"sphere", "parrot"})
+  private String demo;
+
+  @Param({"320"})
+  private int width;
+
+  @Param({"180"})
+  private int height;
+
+  @Param({"4"})
+  private int rayDepthLimit;
+
+  @Param({"1", "8"})
+  private int packetSize;
+
+  @Param({"false", "true"})
+  private boolean wavefront;
+
+  private FramebufferDisplay display;
+  private Raytracer raytracer;
+
+  /**
+   * Set up raytracer and demo.
+   */
+  @Setup
+  public void setup() {
+    display = new FramebufferDisplay(width, height);
+
+    raytracer = new Raytracer();
+    raytracer.setDisplay(display);
+    raytracer.setRayDepthLimit(rayDepthLimit);
+    raytracer.setPacketSize(packetSize);
+    raytracer.setWavefrontEnabled(wavefront);
+
+    createDemo(demo).update(raytracer);
+  }
+
+  /**
+   * Shut down render threads.
+   */
+  @TearDown
+  public void tearDown() {
+    raytracer.getTileScheduler().close();
+  }
+
+  /**
+   * Render a full frame.
+   *
+   * @return rendered pixels
+   */
+  @Benchmark
+  public float[] render() {
+    raytracer.render();
+    return display.getData();
+  }
+
+  private static JamDemo createDemo(String name) {
+    switch (name) {
+      case "sphere":
+        return new SphereDemo();
+      case "parrot":
+        return new ParrotDemo();
+      default:
+        throw new IllegalArgumentException("Unknown demo: " + name);
+    }
+  }
+}
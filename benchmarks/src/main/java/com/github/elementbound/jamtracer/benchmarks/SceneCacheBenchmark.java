@@ -0,0 +1,183 @@
+package com.github.elementbound.jamtracer.benchmarks;
+
+import com.github.elementbound.jamtracer.cache.SceneCache;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the scene cache, compared to building the scene.
+ *
+ * <p>Scores are per scene of a UV sphere mesh, with as many rings as half the segments, and a few
+ * thousand random spheres and cubes in a {@link BvhScene}. Building includes the mesh's and the
+ * scene's hierarchies, but not generating the mesh.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class SceneCacheBenchmark {
+  private static final long SEED = 37L;
+  private static final long KEY = 1L;
+  private static final int SHAPE_COUNT = 4096;
+
+  @Param({"256", "1024"})
+  private int segments;
+
+  private float[] positions;
+  private float[] texcoords;
+  private int[] indices;
+  private Path directory;
+  private SceneCache cache;
+  private SceneCache writeCache;
+  private Scene scene;
+
+  /**
+   * Generate mesh and write cache.
+   *
+   * @throws IOException if the cache can't be written
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    int rings = segments / 2;
+    int vertexCount = (rings + 1) * (segments + 1);
+    positions = new float[3 * vertexCount];
+    texcoords = new float[2 * vertexCount];
+    indices = new int[6 * rings * segments];
+
+    for (int ring = 0; ring <= rings; ring++) {
+      double latitude = Math.PI * ring / rings - Math.PI / 2.0;
+
+      for (int segment = 0; segment <= segments; segment++) {
+        double longitude = 2.0 * Math.PI * segment / segments;
+        int vertex = ring * (segments + 1) + segment;
+
+        positions[3 * vertex] = (float) (Math.cos(latitude) * Math.cos(longitude));
+        positions[3 * vertex + 1] = (float) (Math.cos(latitude) * Math.sin(longitude));
+        positions[3 * vertex + 2] = (float) Math.sin(latitude);
+        texcoords[2 * vertex] = (float) segment / segments;
+        texcoords[2 * vertex + 1] = (float) ring / rings;
+      }
+    }
+
+    int i = 0;
+    for (int ring = 0; ring < rings; ring++) {
+      for (int segment = 0; segment < segments; segment++) {
+        int vertex = ring * (segments + 1) + segment;
+        int above = vertex + segments + 1;
+
+        indices[i++] = vertex;
+        indices[i++] = vertex + 1;
+        indices[i++] = above + 1;
+        indices[i++] = vertex;
+        indices[i++] = above + 1;
+        indices[i++] = above;
+      }
+    }
+
+    directory = Files.createTempDirectory("jamtracer-cache");
+    cache = new SceneCache(directory.resolve("read.jtsc"));
+    writeCache = new SceneCache(directory.resolve("write.jtsc"));
+    scene = build();
+    cache.write(scene, KEY);
+  }
+
+  /**
+   * Delete caches.
+   *
+   * @throws IOException if the caches can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(cache.getPath());
+    Files.deleteIfExists(writeCache.getPath());
+    Files.delete(directory);
+  }
+
+  /**
+   * Build scene from the mesh arrays.
+   *
+   * @return scene
+   */
+  @Benchmark
+  public Scene build() {
+    var random = new Random(SEED);
+    var result = new BvhScene();
+
+    // Normals of a unit sphere match its positions
+    var mesh = new MeshShape(positions.clone(), positions.clone(), texcoords.clone(),
+        indices.clone());
+    mesh.getTransform().update()
+        .setScale(Vector3.ONE.scale(4.0))
+        .done();
+    result.addShape(mesh);
+
+    for (int i = 0; i < SHAPE_COUNT; i++) {
+      Shape shape = random.nextBoolean() ? new SphereShape() : new CubeShape();
+      shape.setTransform(new Transform(randomVector(random, 16.0), randomVector(random, 180.0),
+          Vector3.ONE.scale(0.1 + 0.4 * random.nextDouble())));
+      result.addShape(shape);
+    }
+
+    result.prepare();
+    return result;
+  }
+
+  /**
+   * Write scene to cache.
+   *
+   * @return cache
+   *
+   * @throws IOException if the cache can't be written
+   */
+  @Benchmark
+  public SceneCache write() throws IOException {
+    writeCache.write(scene, KEY);
+    return writeCache;
+  }
+
+  /**
+   * Read scene from cache.
+   *
+   * @return scene
+   *
+   * @throws IOException if the cache can't be read
+   */
+  @Benchmark
+  public Scene read() throws IOException {
+    return cache.read(KEY);
+  }
+
+  private static Vector3 randomVector(Random random, double extent) {
+    return new Vector3(
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent
+    );
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * JMH benchmarks for Jamtracer.
+ *
+ * <p>Every benchmark returns its result, so JMH can consume it and the JIT can't eliminate the
+ * measured code. Inputs are generated from fixed seeds, so runs are comparable over time.</p>
+ */
+package com.github.elementbound.jamtracer.benchmarks;
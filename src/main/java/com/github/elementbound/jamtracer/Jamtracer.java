@@ -1,10 +1,14 @@
 package com.github.elementbound.jamtracer;
 
+import com.github.elementbound.jamtracer.cli.BatchOptions;
+import com.github.elementbound.jamtracer.cli.BatchRenderer;
 import com.github.elementbound.jamtracer.demo.JamDemo;
 import com.github.elementbound.jamtracer.demo.ParrotDemo;
 import com.github.elementbound.jamtracer.display.AWTWindowDisplay;
 import com.github.elementbound.jamtracer.display.Display;
 import com.github.elementbound.jamtracer.raytracing.Raytracer;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -18,10 +22,38 @@ public class Jamtracer {
 
   /**
    * Jamtracer entry point.
+   * <p>Without arguments, renders the parrot demo in a window. Otherwise renders headless in batch
+   * mode, see {@link BatchOptions#USAGE}.</p>
    *
    * @param args CLI params
    */
   public static void main(String[] args) {
+    if (args.length > 0) {
+      runBatch(args);
+    } else {
+      runInteractive();
+    }
+  }
+
+  private static void runBatch(String[] args) {
+    if (Arrays.asList(args).contains("--help")) {
+      System.out.println(BatchOptions.USAGE);
+      return;
+    }
+
+    try {
+      new BatchRenderer(BatchOptions.parse(args)).run(System.out);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(BatchOptions.USAGE);
+      System.exit(2);
+    } catch (IOException e) {
+      System.err.println("Failed to save frame: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  private static void runInteractive() {
     Display display = new AWTWindowDisplay(WIDTH, HEIGHT);
     display.onClose().subscribe(v -> System.exit(0));
 
@@ -0,0 +1,185 @@
+package com.github.elementbound.jamtracer.cache;
+
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary cache file of a prepared scene, so it can be reloaded without building it again.
+ *
+ * <p>The cache holds the scene along with everything it references: shapes and their transforms,
+ * materials, pigments, lights, mesh arrays, instanced scenes, and the hierarchies of
+ * {@link com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene}s and
+ * {@link com.github.elementbound.jamtracer.raytracing.shape.MeshShape}s. Reading memory-maps the
+ * file and restores hierarchies as they were, so loading costs little more than copying the
+ * arrays out of the mapping, regardless of how long parsing and building took. Grids are cheap to
+ * build, and are rebuilt on load.</p>
+ *
+ * <p>Caches are written with a key identifying the inputs the scene was built from, e.g. the one
+ * returned by {@link #keyOf(Path...)}. A cache is only read if its key and format version match
+ * and its checksum is valid, otherwise it's stale, and {@link #load(long, Supplier)} rebuilds it.
+ * Writes go to a temporary file first, which then replaces the cache, so readers never see a
+ * partially written cache.</p>
+ *
+ * <p>Objects shared between shapes, e.g. materials or instanced scenes, stay shared after loading,
+ * but every shape gets its own transform. Custom hierarchy builders are not stored. Only the
+ * shape, material, pigment and light types of Jamtracer are supported, and caches are limited to
+ * 2 GiB, the maximum size of a single mapping.</p>
+ */
+public class SceneCache {
+  private final Path path;
+
+  /**
+   * Create cache.
+   *
+   * @param path cache file path
+   */
+  public SceneCache(Path path) {
+    this.path = path;
+  }
+
+  /**
+   * Get cache file path.
+   *
+   * @return path
+   */
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Compute key from source files' paths, sizes and modification times.
+   * <p>Keys change whenever a source file is replaced or modified, making caches built from them
+   * stale.</p>
+   *
+   * @param sources source files
+   *
+   * @return key
+   *
+   * @throws IOException if a source file can't be accessed
+   */
+  public static long keyOf(Path... sources) throws IOException {
+    long key = 17L;
+
+    for (var source : sources) {
+      key = 31L * key + source.toAbsolutePath().normalize().toString().hashCode();
+      key = 31L * key + Files.size(source);
+      key = 31L * key + Files.getLastModifiedTime(source).toMillis();
+    }
+
+    return key;
+  }
+
+  /**
+   * Read scene from cache, or build it and write the cache if it's missing or stale.
+   *
+   * @param key     key of the scene's inputs
+   * @param factory builds the scene, prepared for rendering
+   *
+   * @return scene
+   *
+   * @throws IOException if writing the cache fails
+   * @throws IllegalArgumentException if the built scene holds objects of unsupported types
+   */
+  public Scene load(long key, Supplier<Scene> factory) throws IOException {
+    try {
+      return read(key);
+    } catch (IOException e) {
+      // Missing, stale or corrupt, build it again
+    }
+
+    var scene = factory.get();
+    write(scene, key);
+    return scene;
+  }
+
+  /**
+   * Read scene from cache.
+   *
+   * @param key key of the scene's inputs
+   *
+   * @return scene, prepared for rendering
+   *
+   * @throws IOException if reading fails, or the cache is stale or corrupt
+   */
+  public Scene read(long key) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      if (size < SceneFormat.HEADER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a scene cache: " + path);
+      }
+
+      // The mapping stays valid after the channel is closed
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+          .order(SceneFormat.BYTE_ORDER);
+
+      if (buffer.getInt() != SceneFormat.MAGIC) {
+        throw new IOException("Not a scene cache: " + path);
+      }
+
+      int version = buffer.getInt();
+      if (version != SceneFormat.VERSION) {
+        throw new IOException("Unsupported scene cache version " + version + ": " + path);
+      }
+
+      if (buffer.getLong() != key) {
+        throw new IOException("Stale scene cache: " + path);
+      }
+
+      long length = buffer.getLong();
+      long expectedChecksum = buffer.getLong();
+      var checksum = new CRC32C();
+      checksum.update(buffer.slice());
+
+      if (length != size - SceneFormat.HEADER_SIZE || checksum.getValue() != expectedChecksum) {
+        throw new IOException("Corrupt scene cache: " + path);
+      }
+
+      try {
+        return new SceneDecoder(buffer).decode();
+      } catch (BufferUnderflowException | IllegalArgumentException e) {
+        throw new IOException("Corrupt scene cache: " + path, e);
+      }
+    }
+  }
+
+  /**
+   * Write scene to cache, replacing it if it exists.
+   *
+   * @param scene scene, prepared for rendering
+   * @param key   key of the scene's inputs
+   *
+   * @throws IOException if writing fails
+   * @throws IllegalArgumentException if the scene holds objects of unsupported types
+   */
+  public void write(Scene scene, long key) throws IOException {
+    var directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+
+    var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+    try {
+      try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        new SceneEncoder(channel).encode(scene, key);
+      }
+
+      try {
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package com.github.elementbound.jamtracer.cache;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.light.Light;
+import com.github.elementbound.jamtracer.raytracing.light.PointLight;
+import com.github.elementbound.jamtracer.raytracing.material.DiffuseMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.material.ReflectiveMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.SkyMaterial;
+import com.github.elementbound.jamtracer.raytracing.pigment.ColorPigment;
+import com.github.elementbound.jamtracer.raytracing.pigment.GradientPigment;
+import com.github.elementbound.jamtracer.raytracing.pigment.Pigment;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.FlatBvh;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.GridScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SceneInstance;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SimpleScene;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoder reading a scene from the payload of a cache file, see {@link SceneFormat}.
+ *
+ * <p>Arrays are bulk-copied from the buffer, which is typically memory-mapped. Hierarchies are
+ * restored from their arrays instead of being rebuilt, only grids are rebuilt by preparing their
+ * scenes.</p>
+ */
+final class SceneDecoder {
+  private final ByteBuffer buffer;
+  private final List<Object> records;
+
+  /**
+   * Create decoder.
+   *
+   * @param buffer payload, from position to limit
+   */
+  SceneDecoder(ByteBuffer buffer) {
+    this.buffer = buffer.slice().order(SceneFormat.BYTE_ORDER);
+    this.records = new ArrayList<>();
+  }
+
+  /**
+   * Read scene.
+   *
+   * @return scene
+   *
+   * @throws IOException if the payload is malformed
+   */
+  Scene decode() throws IOException {
+    while (buffer.hasRemaining()) {
+      records.add(readRecord());
+    }
+
+    if (records.isEmpty() || !(records.get(records.size() - 1) instanceof Scene)) {
+      throw new IOException("Scene cache holds no scene");
+    }
+
+    return (Scene) records.get(records.size() - 1);
+  }
+
+  private Object readRecord() throws IOException {
+    byte tag = buffer.get();
+
+    switch (tag) {
+      case SceneFormat.COLOR_PIGMENT:
+        return new ColorPigment(getColor());
+      case SceneFormat.GRADIENT_PIGMENT:
+        return new GradientPigment(getColor(), getColor(), Vector.fromArray(getDoubles()));
+      case SceneFormat.DEFAULT_MATERIAL:
+        return Material.DEFAULT_MATERIAL;
+      case SceneFormat.DEFAULT_SCENE_MATERIAL:
+        return Material.DEFAULT_SCENE_MATERIAL;
+      case SceneFormat.DIFFUSE_MATERIAL:
+        return new DiffuseMaterial(getReference(Pigment.class, true));
+      case SceneFormat.REFLECTIVE_MATERIAL:
+        return new ReflectiveMaterial();
+      case SceneFormat.SKY_MATERIAL:
+        return new SkyMaterial(getReference(Pigment.class, true));
+      case SceneFormat.DIRECTIONAL_LIGHT:
+        return readDirectionalLight();
+      case SceneFormat.POINT_LIGHT:
+        return readPointLight();
+      case SceneFormat.SPHERE_SHAPE:
+        return readShape(new SphereShape());
+      case SceneFormat.CUBE_SHAPE:
+        return readShape(new CubeShape());
+      case SceneFormat.MESH_SHAPE:
+        return readMesh();
+      case SceneFormat.SCENE_INSTANCE:
+        return readShape(new SceneInstance(getReference(Scene.class, false)));
+      case SceneFormat.SIMPLE_SCENE:
+        return readScene(new SimpleScene());
+      case SceneFormat.BVH_SCENE:
+        return readBvhScene();
+      case SceneFormat.GRID_SCENE:
+        return readGridScene();
+      default:
+        throw new IOException("Unknown record type " + tag);
+    }
+  }
+
+  private Light readDirectionalLight() {
+    var light = new DirectionalLight();
+    light.setColor(getColor());
+    light.setIntensity(buffer.getDouble());
+
+    var direction = getVector3();
+    if (direction != null) {
+      light.setDirection(direction);
+    }
+
+    return light;
+  }
+
+  private Light readPointLight() {
+    var light = new PointLight();
+    light.setColor(getColor());
+    light.setIntensity(buffer.getDouble());
+    light.setPosition(getVector3());
+    return light;
+  }
+
+  private Shape readShape(Shape shape) throws IOException {
+    shape.setTransform(getTransform());
+    shape.setMaterial(getReference(Material.class, true));
+    return shape;
+  }
+
+  private Shape readMesh() throws IOException {
+    var transform = getTransform();
+    var material = getReference(Material.class, true);
+    var positions = getFloats();
+    var normals = buffer.get() != 0 ? getFloats() : null;
+    var texcoords = buffer.get() != 0 ? getFloats() : null;
+    var indices = getInts();
+    var hierarchyBounds = getFloats();
+    var hierarchyNodes = getInts();
+
+    var mesh = new MeshShape(positions, normals, texcoords, indices, hierarchyBounds,
+        hierarchyNodes);
+    mesh.setTransform(transform);
+    mesh.setMaterial(material);
+    return mesh;
+  }
+
+  private Scene readScene(Scene scene) throws IOException {
+    scene.setTransform(getTransform());
+    scene.setMaterial(getReference(Material.class, true));
+
+    for (int i = buffer.getInt(); i > 0; i--) {
+      scene.addLight(getReference(Light.class, false));
+    }
+
+    for (int i = buffer.getInt(); i > 0; i--) {
+      scene.addShape(getReference(Shape.class, false));
+    }
+
+    return scene;
+  }
+
+  private Scene readBvhScene() throws IOException {
+    var scene = (BvhScene) readScene(new BvhScene());
+    scene.setRefitEnabled(buffer.get() != 0);
+    scene.setRebuildThreshold(buffer.getDouble());
+
+    if (buffer.get() == 0) {
+      scene.prepare();
+      return scene;
+    }
+
+    var bounds = getDoubles();
+    var nodes = getInts();
+    var shapes = new Shape[getLength(Integer.BYTES)];
+    for (int i = 0; i < shapes.length; i++) {
+      shapes[i] = getReference(Shape.class, false);
+    }
+
+    scene.prepare(FlatBvh.of(bounds, nodes, shapes));
+    return scene;
+  }
+
+  private Scene readGridScene() throws IOException {
+    double density = buffer.getDouble();
+    if (!(density > 0.0)) {
+      throw new IOException("Invalid grid density " + density);
+    }
+
+    var scene = readScene(new GridScene(density));
+    scene.prepare();
+    return scene;
+  }
+
+  private <T> T getReference(Class<T> type, boolean isNullable) throws IOException {
+    int index = buffer.getInt();
+
+    if (index == SceneFormat.NULL_REFERENCE && isNullable) {
+      return null;
+    }
+
+    if (index < 0 || index >= records.size() || !type.isInstance(records.get(index))) {
+      throw new IOException("Invalid reference to " + type.getSimpleName() + " " + index);
+    }
+
+    return type.cast(records.get(index));
+  }
+
+  private Transform getTransform() {
+    return new Transform(getVector3(), getVector3(), getVector3());
+  }
+
+  private Color getColor() {
+    return buffer.get() != 0
+        ? new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble())
+        : null;
+  }
+
+  private Vector3 getVector3() {
+    return buffer.get() != 0
+        ? new Vector3(buffer.getDouble(), buffer.getDouble(), buffer.getDouble())
+        : null;
+  }
+
+  private float[] getFloats() throws IOException {
+    var values = new float[getLength(Float.BYTES)];
+    buffer.asFloatBuffer().get(values);
+    buffer.position(buffer.position() + values.length * Float.BYTES);
+    return values;
+  }
+
+  private double[] getDoubles() throws IOException {
+    var values = new double[getLength(Double.BYTES)];
+    buffer.asDoubleBuffer().get(values);
+    buffer.position(buffer.position() + values.length * Double.BYTES);
+    return values;
+  }
+
+  private int[] getInts() throws IOException {
+    var values = new int[getLength(Integer.BYTES)];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + values.length * Integer.BYTES);
+    return values;
+  }
+
+  private int getLength(int elementSize) throws IOException {
+    int length = buffer.getInt();
+
+    // Checked up front, so corrupt lengths don't allocate huge arrays
+    if (length < 0 || length > buffer.remaining() / elementSize) {
+      throw new IOException("Invalid array length " + length);
+    }
+
+    return length;
+  }
+}
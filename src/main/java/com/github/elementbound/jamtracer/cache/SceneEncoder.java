@@ -0,0 +1,376 @@
+package com.github.elementbound.jamtracer.cache;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.light.Light;
+import com.github.elementbound.jamtracer.raytracing.light.PointLight;
+import com.github.elementbound.jamtracer.raytracing.material.DiffuseMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.material.ReflectiveMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.SkyMaterial;
+import com.github.elementbound.jamtracer.raytracing.pigment.ColorPigment;
+import com.github.elementbound.jamtracer.raytracing.pigment.GradientPigment;
+import com.github.elementbound.jamtracer.raytracing.pigment.Pigment;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.GridScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SceneInstance;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SimpleScene;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Encoder writing a scene and everything it references to a channel, see {@link SceneFormat}.
+ *
+ * <p>Records are written through a fixed size buffer, so arrays of any size are streamed to the
+ * channel without another copy on the heap. Objects referenced by a record are written before
+ * it.</p>
+ */
+final class SceneEncoder {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final CRC32C checksum;
+  private final Map<Object, Integer> references;
+  private int recordCount;
+  private long length;
+
+  /**
+   * Create encoder.
+   *
+   * @param channel channel to write to, from its start
+   */
+  SceneEncoder(FileChannel channel) {
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(SceneFormat.BYTE_ORDER);
+    this.checksum = new CRC32C();
+    this.references = new IdentityHashMap<>();
+  }
+
+  /**
+   * Write scene.
+   *
+   * @param scene scene
+   * @param key   cache key
+   *
+   * @throws IOException if writing fails
+   * @throws IllegalArgumentException if the scene holds objects of unsupported types
+   */
+  void encode(Scene scene, long key) throws IOException {
+    channel.position(SceneFormat.HEADER_SIZE);
+    reference(scene);
+    flush();
+
+    var header = ByteBuffer.allocate(SceneFormat.HEADER_SIZE).order(SceneFormat.BYTE_ORDER)
+        .putInt(SceneFormat.MAGIC)
+        .putInt(SceneFormat.VERSION)
+        .putLong(key)
+        .putLong(length)
+        .putLong(checksum.getValue())
+        .flip();
+
+    channel.position(0L);
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+  }
+
+  private int reference(Object object) throws IOException {
+    if (object == null) {
+      return SceneFormat.NULL_REFERENCE;
+    }
+
+    var index = references.get(object);
+    if (index != null) {
+      if (index == SceneFormat.NULL_REFERENCE) {
+        throw new IllegalArgumentException("Scene instances itself!");
+      }
+
+      return index;
+    }
+
+    // Marks scenes being written, so instancing cycles are caught instead of recursing forever
+    references.put(object, SceneFormat.NULL_REFERENCE);
+
+    if (object instanceof Pigment) {
+      writePigment((Pigment) object);
+    } else if (object instanceof Material) {
+      writeMaterial((Material) object);
+    } else if (object instanceof Light) {
+      writeLight((Light) object);
+    } else if (object instanceof Scene) {
+      writeScene((Scene) object);
+    } else {
+      writeShape((Shape) object);
+    }
+
+    references.put(object, recordCount);
+    return recordCount++;
+  }
+
+  private void writePigment(Pigment pigment) throws IOException {
+    if (pigment instanceof ColorPigment) {
+      putByte(SceneFormat.COLOR_PIGMENT);
+      putColor(((ColorPigment) pigment).getColor());
+    } else if (pigment instanceof GradientPigment) {
+      var gradient = (GradientPigment) pigment;
+      putByte(SceneFormat.GRADIENT_PIGMENT);
+      putColor(gradient.getStartColor());
+      putColor(gradient.getEndColor());
+      putVector(gradient.getDirection());
+    } else {
+      throw unsupported(pigment);
+    }
+  }
+
+  private void writeMaterial(Material material) throws IOException {
+    if (material == Material.DEFAULT_MATERIAL) {
+      putByte(SceneFormat.DEFAULT_MATERIAL);
+    } else if (material == Material.DEFAULT_SCENE_MATERIAL) {
+      putByte(SceneFormat.DEFAULT_SCENE_MATERIAL);
+    } else if (material instanceof DiffuseMaterial) {
+      int pigment = reference(((DiffuseMaterial) material).getPigment());
+      putByte(SceneFormat.DIFFUSE_MATERIAL);
+      putInt(pigment);
+    } else if (material instanceof ReflectiveMaterial) {
+      putByte(SceneFormat.REFLECTIVE_MATERIAL);
+    } else if (material instanceof SkyMaterial) {
+      int pigment = reference(((SkyMaterial) material).getPigment());
+      putByte(SceneFormat.SKY_MATERIAL);
+      putInt(pigment);
+    } else {
+      throw unsupported(material);
+    }
+  }
+
+  private void writeLight(Light light) throws IOException {
+    if (light instanceof DirectionalLight) {
+      putByte(SceneFormat.DIRECTIONAL_LIGHT);
+      putColor(light.getColor());
+      putDouble(light.getIntensity());
+      putVector3(((DirectionalLight) light).getDirection());
+    } else if (light instanceof PointLight) {
+      putByte(SceneFormat.POINT_LIGHT);
+      putColor(light.getColor());
+      putDouble(light.getIntensity());
+      putVector3(((PointLight) light).getPosition());
+    } else {
+      throw unsupported(light);
+    }
+  }
+
+  private void writeShape(Shape shape) throws IOException {
+    int material = reference(shape.getMaterial());
+
+    if (shape instanceof SphereShape) {
+      putByte(SceneFormat.SPHERE_SHAPE);
+    } else if (shape instanceof CubeShape) {
+      putByte(SceneFormat.CUBE_SHAPE);
+    } else if (shape instanceof MeshShape) {
+      putByte(SceneFormat.MESH_SHAPE);
+    } else if (shape instanceof SceneInstance) {
+      int scene = reference(((SceneInstance) shape).getScene());
+      putByte(SceneFormat.SCENE_INSTANCE);
+      putInt(scene);
+    } else {
+      throw unsupported(shape);
+    }
+
+    putTransform(shape.getTransform());
+    putInt(material);
+
+    if (shape instanceof MeshShape) {
+      var mesh = (MeshShape) shape;
+      putFloats(mesh.getPositions());
+      putOptionalFloats(mesh.getNormals());
+      putOptionalFloats(mesh.getTexcoords());
+      putInts(mesh.getIndices());
+      putFloats(mesh.getHierarchyBounds());
+      putInts(mesh.getHierarchyNodes());
+    }
+  }
+
+  private void writeScene(Scene scene) throws IOException {
+    // Referenced objects are written first, so the scene's record can't be interleaved with them
+    final int material = reference(scene.getMaterial());
+    final int[] lights = referenceAll(scene.getLights().toArray());
+    final int[] shapes = referenceAll(scene.getShapes().toArray());
+
+    if (scene instanceof SimpleScene) {
+      putByte(SceneFormat.SIMPLE_SCENE);
+    } else if (scene instanceof BvhScene) {
+      putByte(SceneFormat.BVH_SCENE);
+    } else if (scene instanceof GridScene) {
+      putByte(SceneFormat.GRID_SCENE);
+      putDouble(((GridScene) scene).getDensity());
+    } else {
+      throw unsupported(scene);
+    }
+
+    putTransform(scene.getTransform());
+    putInt(material);
+    putInts(lights);
+    putInts(shapes);
+
+    if (scene instanceof BvhScene) {
+      var bvhScene = (BvhScene) scene;
+      var bvh = bvhScene.getHierarchy();
+
+      putByte((byte) (bvhScene.isRefitEnabled() ? 1 : 0));
+      putDouble(bvhScene.getRebuildThreshold());
+      putByte((byte) (bvh != null ? 1 : 0));
+
+      if (bvh != null) {
+        var bvhShapes = new Object[bvh.getShapeCount()];
+        for (int i = 0; i < bvhShapes.length; i++) {
+          bvhShapes[i] = bvh.getShape(i);
+        }
+
+        putDoubles(bvh.getNodeBounds());
+        putInts(bvh.getNodes());
+        putInts(referenceAll(bvhShapes));
+      }
+    }
+  }
+
+  private int[] referenceAll(Object[] objects) throws IOException {
+    var indices = new int[objects.length];
+
+    for (int i = 0; i < objects.length; i++) {
+      indices[i] = reference(objects[i]);
+    }
+
+    return indices;
+  }
+
+  private void putTransform(Transform transform) throws IOException {
+    putVector3(transform.getPosition());
+    putVector3(transform.getRotation());
+    putVector3(transform.getScale());
+  }
+
+  private void putColor(Color color) throws IOException {
+    putByte((byte) (color != null ? 1 : 0));
+
+    if (color != null) {
+      putDouble(color.getRed());
+      putDouble(color.getGreen());
+      putDouble(color.getBlue());
+      putDouble(color.getAlpha());
+    }
+  }
+
+  private void putVector3(Vector3 vector) throws IOException {
+    putByte((byte) (vector != null ? 1 : 0));
+
+    if (vector != null) {
+      putDouble(vector.getX());
+      putDouble(vector.getY());
+      putDouble(vector.getZ());
+    }
+  }
+
+  private void putVector(Vector vector) throws IOException {
+    var components = new double[vector.dimensions()];
+    for (int i = 0; i < components.length; i++) {
+      components[i] = vector.get(i);
+    }
+
+    putDoubles(components);
+  }
+
+  private void putByte(byte value) throws IOException {
+    ensure(Byte.BYTES);
+    buffer.put(value);
+  }
+
+  private void putInt(int value) throws IOException {
+    ensure(Integer.BYTES);
+    buffer.putInt(value);
+  }
+
+  private void putDouble(double value) throws IOException {
+    ensure(Double.BYTES);
+    buffer.putDouble(value);
+  }
+
+  private void putOptionalFloats(float[] values) throws IOException {
+    putByte((byte) (values != null ? 1 : 0));
+
+    if (values != null) {
+      putFloats(values);
+    }
+  }
+
+  private void putFloats(float[] values) throws IOException {
+    putInt(values.length);
+
+    for (int offset = 0; offset < values.length; ) {
+      ensure(Float.BYTES);
+      int count = Math.min(values.length - offset, buffer.remaining() / Float.BYTES);
+      buffer.asFloatBuffer().put(values, offset, count);
+      buffer.position(buffer.position() + count * Float.BYTES);
+      offset += count;
+    }
+  }
+
+  private void putDoubles(double[] values) throws IOException {
+    putInt(values.length);
+
+    for (int offset = 0; offset < values.length; ) {
+      ensure(Double.BYTES);
+      int count = Math.min(values.length - offset, buffer.remaining() / Double.BYTES);
+      buffer.asDoubleBuffer().put(values, offset, count);
+      buffer.position(buffer.position() + count * Double.BYTES);
+      offset += count;
+    }
+  }
+
+  private void putInts(int[] values) throws IOException {
+    putInt(values.length);
+
+    for (int offset = 0; offset < values.length; ) {
+      ensure(Integer.BYTES);
+      int count = Math.min(values.length - offset, buffer.remaining() / Integer.BYTES);
+      buffer.asIntBuffer().put(values, offset, count);
+      buffer.position(buffer.position() + count * Integer.BYTES);
+      offset += count;
+    }
+  }
+
+  private void ensure(int size) throws IOException {
+    if (buffer.remaining() < size) {
+      flush();
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    length += buffer.remaining();
+
+    checksum.update(buffer);
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+
+  private static IllegalArgumentException unsupported(Object object) {
+    return new IllegalArgumentException("Unsupported type in scene: " + object.getClass());
+  }
+}
@@ -0,0 +1,49 @@
+package com.github.elementbound.jamtracer.cache;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants of the binary scene cache format.
+ *
+ * <p>A cache file starts with a fixed size header: the magic number, the format version, the key
+ * the cache was written with, the payload length and the CRC32C checksum of the payload. The
+ * payload is a sequence of records, each one a tag followed by the record's data. Records refer to
+ * earlier records by their index, or {@link #NULL_REFERENCE}, so every object is written once and
+ * shared objects stay shared. The last record is the cached scene.</p>
+ *
+ * <p>Every value is little-endian. Arrays are written as their length followed by their
+ * elements.</p>
+ */
+final class SceneFormat {
+  static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  /** Reads "JTSC" in little-endian. */
+  static final int MAGIC = 0x4353544a;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int NULL_REFERENCE = -1;
+
+  static final byte COLOR_PIGMENT = 1;
+  static final byte GRADIENT_PIGMENT = 2;
+
+  static final byte DEFAULT_MATERIAL = 10;
+  static final byte DEFAULT_SCENE_MATERIAL = 11;
+  static final byte DIFFUSE_MATERIAL = 12;
+  static final byte REFLECTIVE_MATERIAL = 13;
+  static final byte SKY_MATERIAL = 14;
+
+  static final byte DIRECTIONAL_LIGHT = 20;
+  static final byte POINT_LIGHT = 21;
+
+  static final byte SPHERE_SHAPE = 30;
+  static final byte CUBE_SHAPE = 31;
+  static final byte MESH_SHAPE = 32;
+  static final byte SCENE_INSTANCE = 33;
+
+  static final byte SIMPLE_SCENE = 40;
+  static final byte BVH_SCENE = 41;
+  static final byte GRID_SCENE = 42;
+
+  private SceneFormat() {
+  }
+}
@@ -0,0 +1,169 @@
+package com.github.elementbound.jamtracer.cli;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Options for headless batch rendering, parsed from the command line.
+ *
+ * @param demo          name of the demo to render
+ * @param width         image width in pixels
+ * @param height        image height in pixels
+ * @param frames        number of frames to render
+ * @param threads       number of render threads
+ * @param rayDepthLimit ray depth limit
+ * @param output        output path pattern, or null to discard frames
+ * @param logIntervalMs statistics logging period in milliseconds, or 0 to disable
+ */
+public record BatchOptions(String demo, int width, int height, int frames, int threads,
+                           int rayDepthLimit, String output, long logIntervalMs) {
+  public static final String USAGE = String.join(System.lineSeparator(),
+      "Usage: jamtracer [options]",
+      "Without options, renders the parrot demo in a window.",
+      "With options, renders frames headless and exits with timing stats.",
+      "",
+      "  --demo <name>          demo to render: sphere, parrot (default: parrot)",
+      "  --width <pixels>       image width (default: 640)",
+      "  --height <pixels>      image height (default: 360)",
+      "  --frames <count>       number of frames to render (default: 1)",
+      "  --threads <count>      number of render threads (default: available processors)",
+      "  --depth <count>        ray depth limit (default: 4)",
+      "  --output <path>        output image per frame, .png, .ppm or .pfm; frame numbers are",
+      "                         inserted via a format specifier, e.g. frame-%04d.png",
+      "                         (default: frames are not saved)",
+      "  --log-interval <ms>    log render statistics periodically (default: off)",
+      "  --help                 show this message"
+  );
+
+  /**
+   * Create options with defaults.
+   *
+   * @return default options
+   */
+  public static BatchOptions defaults() {
+    return new BatchOptions("parrot", 640, 360, 1, Runtime.getRuntime().availableProcessors(),
+        4, null, 0L);
+  }
+
+  /**
+   * Parse options from command line arguments.
+   * <p>Options not specified are left at their defaults.</p>
+   *
+   * @param args command line arguments
+   *
+   * @return options
+   *
+   * @throws IllegalArgumentException if arguments are invalid
+   */
+  public static BatchOptions parse(String[] args) {
+    var defaults = defaults();
+    String demo = defaults.demo;
+    int width = defaults.width;
+    int height = defaults.height;
+    int frames = defaults.frames;
+    int threads = defaults.threads;
+    int rayDepthLimit = defaults.rayDepthLimit;
+    String output = defaults.output;
+    long logIntervalMs = defaults.logIntervalMs;
+
+    for (int i = 0; i < args.length; i++) {
+      String option = args[i];
+
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for option " + option);
+      }
+
+      String value = args[++i];
+
+      switch (option) {
+        case "--demo":
+          demo = value.toLowerCase(Locale.ROOT);
+          break;
+        case "--width":
+          width = parsePositive(option, value);
+          break;
+        case "--height":
+          height = parsePositive(option, value);
+          break;
+        case "--frames":
+          frames = parsePositive(option, value);
+          break;
+        case "--threads":
+          threads = parsePositive(option, value);
+          break;
+        case "--depth":
+          rayDepthLimit = parseNonNegative(option, value);
+          break;
+        case "--output":
+          output = value;
+          break;
+        case "--log-interval":
+          logIntervalMs = parsePositive(option, value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + option);
+      }
+    }
+
+    return new BatchOptions(demo, width, height, frames, threads, rayDepthLimit, output,
+        logIntervalMs);
+  }
+
+  /**
+   * Get output path for a given frame.
+   *
+   * <p>If the output pattern contains a format specifier, it is formatted with the frame number.
+   * Otherwise, when rendering multiple frames, the frame number is inserted before the file
+   * extension, so frames don't overwrite each other.</p>
+   *
+   * @param frame frame number, starting from 0
+   *
+   * @return output path, or null if frames are not saved
+   */
+  public Path getOutputPath(int frame) {
+    if (output == null) {
+      return null;
+    } else if (output.contains("%")) {
+      return Path.of(String.format(Locale.ROOT, output, frame));
+    } else if (frames == 1) {
+      return Path.of(output);
+    }
+
+    int extensionIndex = output.lastIndexOf('.');
+    if (extensionIndex < 0) {
+      extensionIndex = output.length();
+    }
+
+    return Path.of(String.format(Locale.ROOT, "%s-%04d%s", output.substring(0, extensionIndex),
+        frame, output.substring(extensionIndex)));
+  }
+
+  private static int parsePositive(String option, String value) {
+    int result = parseInteger(option, value);
+
+    if (result <= 0) {
+      throw new IllegalArgumentException("Value for " + option + " must be positive: " + value);
+    }
+
+    return result;
+  }
+
+  private static int parseNonNegative(String option, String value) {
+    int result = parseInteger(option, value);
+
+    if (result < 0) {
+      throw new IllegalArgumentException("Value for " + option + " must not be negative: "
+          + value);
+    }
+
+    return result;
+  }
+
+  private static int parseInteger(String option, String value) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number for " + option + ": " + value, e);
+    }
+  }
+}
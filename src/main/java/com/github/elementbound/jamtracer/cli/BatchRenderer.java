@@ -0,0 +1,117 @@
+package com.github.elementbound.jamtracer.cli;
+
+import com.github.elementbound.jamtracer.demo.JamDemo;
+import com.github.elementbound.jamtracer.demo.ParrotDemo;
+import com.github.elementbound.jamtracer.demo.SphereDemo;
+import com.github.elementbound.jamtracer.display.FramebufferDisplay;
+import com.github.elementbound.jamtracer.output.ImageWriter;
+import com.github.elementbound.jamtracer.raytracing.Raytracer;
+import com.github.elementbound.jamtracer.raytracing.RenderStatistics;
+import com.github.elementbound.jamtracer.raytracing.RenderStatisticsLogger;
+import com.github.elementbound.jamtracer.raytracing.TileScheduler;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Renders demo frames headless, optionally saving them to disk.
+ */
+public class BatchRenderer {
+  private static final Map<String, Supplier<JamDemo>> DEMOS = Map.of(
+      "sphere", SphereDemo::new,
+      "parrot", ParrotDemo::new
+  );
+
+  private final BatchOptions options;
+
+  /**
+   * Create batch renderer.
+   *
+   * @param options batch options
+   *
+   * @throws IllegalArgumentException if the demo is unknown
+   */
+  public BatchRenderer(BatchOptions options) {
+    if (!DEMOS.containsKey(options.demo())) {
+      throw new IllegalArgumentException("Unknown demo " + options.demo()
+          + ", available: " + String.join(", ", DEMOS.keySet()));
+    }
+
+    this.options = options;
+  }
+
+  /**
+   * Render every frame.
+   *
+   * @param out stream to print progress and stats to
+   *
+   * @return statistics of the whole batch
+   *
+   * @throws IOException if saving a frame fails
+   */
+  public RenderStatistics.Snapshot run(PrintStream out) throws IOException {
+    var display = new FramebufferDisplay(options.width(), options.height());
+    var demo = DEMOS.get(options.demo()).get();
+
+    var raytracer = new Raytracer();
+    raytracer.setDisplay(display);
+    raytracer.setRayDepthLimit(options.rayDepthLimit());
+
+    var statisticsLogger = options.logIntervalMs() > 0L
+        ? new RenderStatisticsLogger(raytracer.getStatistics(), options.logIntervalMs())
+        : null;
+
+    long start = System.nanoTime();
+
+    try (var scheduler = new TileScheduler(TileScheduler.DEFAULT_TILE_SIZE,
+        TileScheduler.DEFAULT_TILE_SIZE, options.threads())) {
+      raytracer.setTileScheduler(scheduler);
+
+      for (int frame = 0; frame < options.frames(); frame++) {
+        demo.update(raytracer);
+        raytracer.render();
+
+        var path = options.getOutputPath(frame);
+        if (path != null) {
+          if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+          }
+
+          ImageWriter.forPath(path).write(display, path);
+        }
+      }
+    } finally {
+      if (statisticsLogger != null) {
+        statisticsLogger.close();
+      }
+    }
+
+    long elapsedNanos = System.nanoTime() - start;
+    var statistics = raytracer.getStatistics().snapshot();
+
+    printSummary(out, statistics, elapsedNanos);
+
+    return statistics;
+  }
+
+  private void printSummary(PrintStream out, RenderStatistics.Snapshot statistics,
+                            long elapsedNanos) {
+    double elapsedSeconds = elapsedNanos / 1e9;
+    double renderMs = statistics.totalFrameNanos() / 1e6;
+
+    out.printf(Locale.ROOT, "Rendered %d frame(s) of %s at %dx%d on %d thread(s)%n",
+        statistics.frames(), options.demo(), options.width(), options.height(),
+        options.threads());
+    out.printf(Locale.ROOT, "Total time: %.3f s, render time: %.3f s, %.2f ms/frame, %.2f fps%n",
+        elapsedSeconds, renderMs / 1e3, renderMs / statistics.frames(),
+        statistics.frames() / elapsedSeconds);
+    out.printf(Locale.ROOT, "Rays: %d (%.0f rays/s), primary: %d, reflection: %d, shadow: %d%n",
+        statistics.totalRays(), statistics.raysPerSecond(), statistics.primaryRays(),
+        statistics.reflectionRays(), statistics.shadowRays());
+    out.printf(Locale.ROOT, "Intersection tests: %d, hits: %d%n",
+        statistics.intersectionTests(), statistics.intersectionHits());
+  }
+}
@@ -0,0 +1,363 @@
+package com.github.elementbound.jamtracer.core;
+
+/**
+ * Immutable class to represent 4x4 matrices for transforming 3D vectors.
+ *
+ * <p>Uses the same conventions as {@link Matrix}, i.e. vectors are treated as row vectors and
+ * translation is stored in the last row. Components are stored as separate fields and every
+ * operation is written out per component, so this class is preferred over {@link Matrix} in
+ * performance-critical code.</p>
+ */
+public final class Matrix4 {
+  private static final Matrix4 IDENTITY = new Matrix4(
+      1.0, 0.0, 0.0, 0.0,
+      0.0, 1.0, 0.0, 0.0,
+      0.0, 0.0, 1.0, 0.0,
+      0.0, 0.0, 0.0, 1.0
+  );
+
+  private final double m00;
+  private final double m01;
+  private final double m02;
+  private final double m03;
+  private final double m10;
+  private final double m11;
+  private final double m12;
+  private final double m13;
+  private final double m20;
+  private final double m21;
+  private final double m22;
+  private final double m23;
+  private final double m30;
+  private final double m31;
+  private final double m32;
+  private final double m33;
+
+  /**
+   * Create matrix from components, in row-major order.
+   *
+   * @param m00 row 0, column 0
+   * @param m01 row 0, column 1
+   * @param m02 row 0, column 2
+   * @param m03 row 0, column 3
+   * @param m10 row 1, column 0
+   * @param m11 row 1, column 1
+   * @param m12 row 1, column 2
+   * @param m13 row 1, column 3
+   * @param m20 row 2, column 0
+   * @param m21 row 2, column 1
+   * @param m22 row 2, column 2
+   * @param m23 row 2, column 3
+   * @param m30 row 3, column 0
+   * @param m31 row 3, column 1
+   * @param m32 row 3, column 2
+   * @param m33 row 3, column 3
+   */
+  public Matrix4(double m00, double m01, double m02, double m03,
+                 double m10, double m11, double m12, double m13,
+                 double m20, double m21, double m22, double m23,
+                 double m30, double m31, double m32, double m33) {
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m02 = m02;
+    this.m03 = m03;
+    this.m10 = m10;
+    this.m11 = m11;
+    this.m12 = m12;
+    this.m13 = m13;
+    this.m20 = m20;
+    this.m21 = m21;
+    this.m22 = m22;
+    this.m23 = m23;
+    this.m30 = m30;
+    this.m31 = m31;
+    this.m32 = m32;
+    this.m33 = m33;
+  }
+
+  /**
+   * Get matrix component.
+   *
+   * @param row    component row
+   * @param column component column
+   *
+   * @return component value
+   */
+  public double get(int row, int column) {
+    assert row < 4 : "Row index out of bounds!";
+    assert column < 4 : "Column index out of bounds!";
+
+    switch (row * 4 + column) {
+      case 0: return m00;
+      case 1: return m01;
+      case 2: return m02;
+      case 3: return m03;
+      case 4: return m10;
+      case 5: return m11;
+      case 6: return m12;
+      case 7: return m13;
+      case 8: return m20;
+      case 9: return m21;
+      case 10: return m22;
+      case 11: return m23;
+      case 12: return m30;
+      case 13: return m31;
+      case 14: return m32;
+      default: return m33;
+    }
+  }
+
+  /**
+   * Multiply by matrix.
+   *
+   * @param that matrix
+   *
+   * @return multiplication result
+   */
+  public Matrix4 multiply(Matrix4 that) {
+    return new Matrix4(
+        m00 * that.m00 + m01 * that.m10 + m02 * that.m20 + m03 * that.m30,
+        m00 * that.m01 + m01 * that.m11 + m02 * that.m21 + m03 * that.m31,
+        m00 * that.m02 + m01 * that.m12 + m02 * that.m22 + m03 * that.m32,
+        m00 * that.m03 + m01 * that.m13 + m02 * that.m23 + m03 * that.m33,
+
+        m10 * that.m00 + m11 * that.m10 + m12 * that.m20 + m13 * that.m30,
+        m10 * that.m01 + m11 * that.m11 + m12 * that.m21 + m13 * that.m31,
+        m10 * that.m02 + m11 * that.m12 + m12 * that.m22 + m13 * that.m32,
+        m10 * that.m03 + m11 * that.m13 + m12 * that.m23 + m13 * that.m33,
+
+        m20 * that.m00 + m21 * that.m10 + m22 * that.m20 + m23 * that.m30,
+        m20 * that.m01 + m21 * that.m11 + m22 * that.m21 + m23 * that.m31,
+        m20 * that.m02 + m21 * that.m12 + m22 * that.m22 + m23 * that.m32,
+        m20 * that.m03 + m21 * that.m13 + m22 * that.m23 + m23 * that.m33,
+
+        m30 * that.m00 + m31 * that.m10 + m32 * that.m20 + m33 * that.m30,
+        m30 * that.m01 + m31 * that.m11 + m32 * that.m21 + m33 * that.m31,
+        m30 * that.m02 + m31 * that.m12 + m32 * that.m22 + m33 * that.m32,
+        m30 * that.m03 + m31 * that.m13 + m32 * that.m23 + m33 * that.m33
+    );
+  }
+
+  /**
+   * Transform point by matrix, i.e. with translation applied.
+   *
+   * @param point point
+   *
+   * @return transformed point
+   */
+  public Vector3 transformPoint(Vector3 point) {
+    double x = point.getX();
+    double y = point.getY();
+    double z = point.getZ();
+
+    return new Vector3(
+        m00 * x + m10 * y + m20 * z + m30,
+        m01 * x + m11 * y + m21 * z + m31,
+        m02 * x + m12 * y + m22 * z + m32
+    );
+  }
+
+  /**
+   * Transform direction by matrix, i.e. without translation.
+   *
+   * @param direction direction
+   *
+   * @return transformed direction
+   */
+  public Vector3 transformDirection(Vector3 direction) {
+    double x = direction.getX();
+    double y = direction.getY();
+    double z = direction.getZ();
+
+    return new Vector3(
+        m00 * x + m10 * y + m20 * z,
+        m01 * x + m11 * y + m21 * z,
+        m02 * x + m12 * y + m22 * z
+    );
+  }
+
+  /**
+   * Get transposed matrix.
+   *
+   * @return transposed matrix
+   */
+  public Matrix4 transposed() {
+    return new Matrix4(
+        m00, m10, m20, m30,
+        m01, m11, m21, m31,
+        m02, m12, m22, m32,
+        m03, m13, m23, m33
+    );
+  }
+
+  /**
+   * Convert to generic matrix.
+   *
+   * @return generic matrix
+   */
+  public Matrix toMatrix() {
+    return Matrix.fromArray(4, 4, new double[]{
+      m00, m10, m20, m30,
+      m01, m11, m21, m31,
+      m02, m12, m22, m32,
+      m03, m13, m23, m33
+    });
+  }
+
+  /**
+   * Get identity matrix.
+   *
+   * @return identity matrix
+   */
+  public static Matrix4 identity() {
+    return IDENTITY;
+  }
+
+  /**
+   * Create translation matrix.
+   *
+   * @param offset translation
+   *
+   * @return translation matrix
+   */
+  public static Matrix4 translate(Vector3 offset) {
+    return new Matrix4(
+        1.0, 0.0, 0.0, 0.0,
+        0.0, 1.0, 0.0, 0.0,
+        0.0, 0.0, 1.0, 0.0,
+        offset.getX(), offset.getY(), offset.getZ(), 1.0
+    );
+  }
+
+  /**
+   * Create a scaling matrix.
+   *
+   * @param scalars scalars per axis
+   *
+   * @return scaling matrix
+   */
+  public static Matrix4 scale(Vector3 scalars) {
+    return new Matrix4(
+        scalars.getX(), 0.0, 0.0, 0.0,
+        0.0, scalars.getY(), 0.0, 0.0,
+        0.0, 0.0, scalars.getZ(), 0.0,
+        0.0, 0.0, 0.0, 1.0
+    );
+  }
+
+  /**
+   * Create a matrix to rotate around the X axis.
+   *
+   * @param angle angle
+   *
+   * @return rotation matrix
+   */
+  public static Matrix4 rotateAroundX(double angle) {
+    double sin = Math.sin(angle);
+    double cos = Math.cos(angle);
+
+    return new Matrix4(
+        1.0, 0.0, 0.0, 0.0,
+        0.0, cos, sin, 0.0,
+        0.0, -sin, cos, 0.0,
+        0.0, 0.0, 0.0, 1.0
+    );
+  }
+
+  /**
+   * Create a matrix to rotate around the Y axis.
+   *
+   * @param angle angle
+   *
+   * @return rotation matrix
+   */
+  public static Matrix4 rotateAroundY(double angle) {
+    double sin = Math.sin(angle);
+    double cos = Math.cos(angle);
+
+    return new Matrix4(
+        cos, 0.0, -sin, 0.0,
+        0.0, 1.0, 0.0, 0.0,
+        sin, 0.0, cos, 0.0,
+        0.0, 0.0, 0.0, 1.0
+    );
+  }
+
+  /**
+   * Create a matrix to rotate around the Z axis.
+   *
+   * @param angle angle
+   *
+   * @return rotation matrix
+   */
+  public static Matrix4 rotateAroundZ(double angle) {
+    double sin = Math.sin(angle);
+    double cos = Math.cos(angle);
+
+    return new Matrix4(
+        cos, sin, 0.0, 0.0,
+        -sin, cos, 0.0, 0.0,
+        0.0, 0.0, 1.0, 0.0,
+        0.0, 0.0, 0.0, 1.0
+    );
+  }
+
+  /**
+   * Create matrix from generic matrix.
+   * <p>The matrix <em>must</em> be 4x4.</p>
+   *
+   * @param matrix matrix
+   *
+   * @return 4x4 matrix
+   */
+  public static Matrix4 fromMatrix(Matrix matrix) {
+    return new Matrix4(
+        matrix.get(0, 0), matrix.get(0, 1), matrix.get(0, 2), matrix.get(0, 3),
+        matrix.get(1, 0), matrix.get(1, 1), matrix.get(1, 2), matrix.get(1, 3),
+        matrix.get(2, 0), matrix.get(2, 1), matrix.get(2, 2), matrix.get(2, 3),
+        matrix.get(3, 0), matrix.get(3, 1), matrix.get(3, 2), matrix.get(3, 3)
+    );
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("Matrix4{");
+    for (int row = 0; row < 4; row++) {
+      sb.append(row == 0 ? "[" : ", [");
+      for (int column = 0; column < 4; column++) {
+        sb.append(column == 0 ? "" : ", ").append(get(row, column));
+      }
+      sb.append(']');
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    Matrix4 matrix = (Matrix4) o;
+
+    for (int row = 0; row < 4; row++) {
+      for (int column = 0; column < 4; column++) {
+        if (!MathUtils.fuzzyEquals(this.get(row, column), matrix.get(row, column))) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return toMatrix().hashCode();
+  }
+}
@@ -0,0 +1,297 @@
+package com.github.elementbound.jamtracer.core;
+
+/**
+ * Immutable class to represent 3D vectors.
+ *
+ * <p>Components are stored as separate fields and every operation is written out per component,
+ * so this class is preferred over {@link Vector} in performance-critical code.</p>
+ */
+public final class Vector3 {
+  public static final Vector3 ONE = new Vector3(1.0, 1.0, 1.0);
+  public static final Vector3 ZERO = new Vector3(0.0, 0.0, 0.0);
+  public static final Vector3 NEGATIVE_ONE = new Vector3(-1.0, -1.0, -1.0);
+
+  public static final Vector3 RIGHT = new Vector3(1.0, 0.0, 0.0);
+  public static final Vector3 FORWARD = new Vector3(0.0, 1.0, 0.0);
+  public static final Vector3 UP = new Vector3(0.0, 0.0, 1.0);
+
+  public static final Vector3 LEFT = new Vector3(-1.0, 0.0, 0.0);
+  public static final Vector3 BACKWARD = new Vector3(0.0, -1.0, 0.0);
+  public static final Vector3 DOWN = new Vector3(0.0, 0.0, -1.0);
+
+  private final double x;
+  private final double y;
+  private final double z;
+
+  /**
+   * Create a vector from coordinates.
+   *
+   * @param x x coordinate
+   * @param y y coordinate
+   * @param z z coordinate
+   */
+  public Vector3(double x, double y, double z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * Create a 3D vector from a generic vector.
+   * <p>The vector <em>must</em> have at least 3 dimensions, any further components are
+   * dropped.</p>
+   *
+   * @param vector vector
+   *
+   * @return 3D vector
+   */
+  public static Vector3 fromVector(Vector vector) {
+    assert vector.dimensions() >= 3 : "Can't create 3D vector from " + vector.dimensions() + "D!";
+
+    return new Vector3(vector.get(0), vector.get(1), vector.get(2));
+  }
+
+  /**
+   * Convert to generic vector.
+   *
+   * @return generic vector
+   */
+  public Vector toVector() {
+    return new Vector(x, y, z);
+  }
+
+  /**
+   * Get X component.
+   *
+   * @return x component
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * Get Y component.
+   *
+   * @return y component
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * Get Z component.
+   *
+   * @return z component
+   */
+  public double getZ() {
+    return z;
+  }
+
+  /**
+   * Get vector component.
+   *
+   * @param i component index
+   *
+   * @return component value
+   */
+  public double get(int i) {
+    assert i < 3 : "Component index out of bounds!";
+
+    return i == 0 ? x : (i == 1 ? y : z);
+  }
+
+  /**
+   * Add two vectors.
+   *
+   * @param that right hand vector
+   *
+   * @return piecewise sum of vectors
+   */
+  public Vector3 add(Vector3 that) {
+    return new Vector3(x + that.x, y + that.y, z + that.z);
+  }
+
+  /**
+   * Subtract two vectors.
+   *
+   * @param that right hand vector
+   *
+   * @return piecewise difference of vectors
+   */
+  public Vector3 subtract(Vector3 that) {
+    return new Vector3(x - that.x, y - that.y, z - that.z);
+  }
+
+  /**
+   * Scale vector by a given value.
+   *
+   * @param scalar scalar
+   *
+   * @return scaled vector
+   */
+  public Vector3 scale(double scalar) {
+    return new Vector3(x * scalar, y * scalar, z * scalar);
+  }
+
+  /**
+   * Multiply piece-wise by another vector.
+   *
+   * @param that right hand vector
+   *
+   * @return piecewise multiplication of vectors
+   */
+  public Vector3 multiply(Vector3 that) {
+    return new Vector3(x * that.x, y * that.y, z * that.z);
+  }
+
+  /**
+   * Divide piece-wise by another vector.
+   *
+   * @param that right hand vector
+   *
+   * @return piecewise division of vectors
+   */
+  public Vector3 divide(Vector3 that) {
+    return new Vector3(x / that.x, y / that.y, z / that.z);
+  }
+
+  /**
+   * Calculate piecewise reciprocal.
+   *
+   * @return piecewise reciprocal
+   */
+  public Vector3 reciprocal() {
+    return new Vector3(1.0 / x, 1.0 / y, 1.0 / z);
+  }
+
+  /**
+   * Calculate vector dot product.
+   *
+   * @param that right hand vector
+   *
+   * @return dot product
+   */
+  public double dot(Vector3 that) {
+    return x * that.x + y * that.y + z * that.z;
+  }
+
+  /**
+   * Calculate vector cross product.
+   *
+   * @param that right hand vector
+   *
+   * @return cross product
+   */
+  public Vector3 cross(Vector3 that) {
+    return new Vector3(
+        y * that.z - z * that.y,
+        z * that.x - x * that.z,
+        x * that.y - y * that.x
+    );
+  }
+
+  /**
+   * Get squared vector length.
+   *
+   * @return squared vector length
+   */
+  public double lengthSquared() {
+    return x * x + y * y + z * z;
+  }
+
+  /**
+   * Get vector length.
+   *
+   * @return vector length
+   */
+  public double length() {
+    return Math.sqrt(lengthSquared());
+  }
+
+  /**
+   * Is this vector normalized ( i.e. length equals 1? )
+   *
+   * @return true if normalized
+   */
+  public boolean isNormalized() {
+    return MathUtils.fuzzyEquals(length(), 1.0);
+  }
+
+  /**
+   * Return a normalized version of this vector ( i.e. with a length of 1 )
+   *
+   * @return normal vector
+   */
+  public Vector3 normalized() {
+    double length = length();
+
+    if (MathUtils.fuzzyEquals(length, 1.0)) {
+      return this;
+    } else if (length != 0.0) {
+      return scale(1.0 / length);
+    } else {
+      return ZERO;
+    }
+  }
+
+  /**
+   * Calculate distance between two points.
+   *
+   * @param a point A
+   * @param b point B
+   *
+   * @return distance
+   */
+  public static double distance(Vector3 a, Vector3 b) {
+    double dx = b.x - a.x;
+    double dy = b.y - a.y;
+    double dz = b.z - a.z;
+
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  /**
+   * Reflect vector along normal.
+   *
+   * @param incidence incoming vector
+   * @param normal    surface normal
+   *
+   * @return reflected vector
+   */
+  public static Vector3 reflect(Vector3 incidence, Vector3 normal) {
+    return incidence.subtract(normal.scale(2.0 * incidence.dot(normal)));
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("Vector3{");
+    sb.append('[').append(x).append(", ").append(y).append(", ").append(z).append(']');
+    sb.append('}');
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    Vector3 vector = (Vector3) o;
+
+    return Double.compare(x, vector.x) == 0
+        && Double.compare(y, vector.y) == 0
+        && Double.compare(z, vector.z) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Double.hashCode(x);
+    result = 31 * result + Double.hashCode(y);
+    result = 31 * result + Double.hashCode(z);
+    return result;
+  }
+}
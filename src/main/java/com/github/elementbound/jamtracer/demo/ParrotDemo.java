@@ -2,6 +2,7 @@ package com.github.elementbound.jamtracer.demo;
 
 import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Raytracer;
 import com.github.elementbound.jamtracer.raytracing.Transform;
 import com.github.elementbound.jamtracer.raytracing.camera.PerspectiveCamera;
@@ -66,11 +67,11 @@ public class ParrotDemo implements JamDemo {
     camera.setAspectRatio(raytracer.getDisplay().getWidth(), raytracer.getDisplay().getHeight());
 
     camera.getTransform().update()
-        .setRotation(new Vector(pitch, 0.0, yaw))
+        .setRotation(new Vector3(pitch, 0.0, yaw))
         .done();
 
     var backward = camera.getTransform().getMatrix()
-        .transform(Vector.BACKWARD.asHeterogeneousNormal()).asHomogeneous()
+        .transformDirection(Vector3.BACKWARD)
         .scale(8.0);
 
     camera.getTransform().update()
@@ -103,19 +104,19 @@ public class ParrotDemo implements JamDemo {
     final var leftLight = new DirectionalLight();
     leftLight.setColor(parrotColors[0]);
     leftLight.setIntensity(1.0);
-    leftLight.setDirection(new Vector(-0.5, 0.5, -1.0));
+    leftLight.setDirection(new Vector3(-0.5, 0.5, -1.0));
     scene.addLight(leftLight);
 
     final var rightLight = new DirectionalLight();
     rightLight.setColor(parrotColors[4]);
     rightLight.setIntensity(1.0);
-    rightLight.setDirection(new Vector(+0.5, -0.25, -1.0));
+    rightLight.setDirection(new Vector3(+0.5, -0.25, -1.0));
     scene.addLight(rightLight);
 
     Shape floor = new CubeShape();
     floor.getTransform().update()
-        .setScale(new Vector(4.0, 4.0, 0.25))
-        .setPosition(new Vector(0.0, 0.0, 0.0))
+        .setScale(new Vector3(4.0, 4.0, 0.25))
+        .setPosition(new Vector3(0.0, 0.0, 0.0))
         .done();
     floor.setMaterial(reflectiveMaterial);
 
@@ -135,44 +136,44 @@ public class ParrotDemo implements JamDemo {
     Stream.of(
         // Body
         new Transform(
-            new Vector(0.000, 0.000, 0.288),
-            new Vector(0.000, 0.000, 0.000),
-            new Vector(1.285, 1.218, 1.803)
+            new Vector3(0.000, 0.000, 0.288),
+            new Vector3(0.000, 0.000, 0.000),
+            new Vector3(1.285, 1.218, 1.803)
         ),
 
         // Head
         new Transform(
-            new Vector(0.000, -0.106, 1.572),
-            new Vector(14.200, 0.000, 0.000),
-            new Vector(1.000, 1.000, 1.361)
+            new Vector3(0.000, -0.106, 1.572),
+            new Vector3(14.200, 0.000, 0.000),
+            new Vector3(1.000, 1.000, 1.361)
         ),
 
         // Beak top
         new Transform(
-            new Vector(0.000, -1.090, 1.848),
-            new Vector(0.000, 0.000, 0.000),
-            new Vector(0.243, 0.243, 0.243)
+            new Vector3(0.000, -1.090, 1.848),
+            new Vector3(0.000, 0.000, 0.000),
+            new Vector3(0.243, 0.243, 0.243)
         ),
 
         // Beak bottom
         new Transform(
-            new Vector(0.000, -1.161, 1.636),
-            new Vector(-5.390, 0.000, 0.000),
-            new Vector(0.243, 0.255, 0.395)
+            new Vector3(0.000, -1.161, 1.636),
+            new Vector3(-5.390, 0.000, 0.000),
+            new Vector3(0.243, 0.255, 0.395)
         ),
 
         // Left eye
         new Transform(
-            new Vector(0.439, -0.892, 2.210),
-            new Vector(0.000, 0.000, 0.000),
-            new Vector(0.179, 0.179, 0.246)
+            new Vector3(0.439, -0.892, 2.210),
+            new Vector3(0.000, 0.000, 0.000),
+            new Vector3(0.179, 0.179, 0.246)
         ),
 
         // Right eye
         new Transform(
-            new Vector(-0.439, -0.892, 2.210),
-            new Vector(0.000, 0.000, 0.000),
-            new Vector(0.179, 0.179, 0.246)
+            new Vector3(-0.439, -0.892, 2.210),
+            new Vector3(0.000, 0.000, 0.000),
+            new Vector3(0.179, 0.179, 0.246)
         )
     ).map(transform -> {
       var shape = new SphereShape();
@@ -2,6 +2,7 @@ package com.github.elementbound.jamtracer.demo;
 
 import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Raytracer;
 import com.github.elementbound.jamtracer.raytracing.camera.PerspectiveCamera;
 import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
@@ -40,11 +41,11 @@ public class SphereDemo implements JamDemo {
     camera.setAspectRatio(raytracer.getDisplay().getWidth(), raytracer.getDisplay().getHeight());
 
     camera.getTransform().update()
-        .setRotation(new Vector(pitch, 0.0, yaw))
+        .setRotation(new Vector3(pitch, 0.0, yaw))
         .done();
 
     var backward = camera.getTransform().getMatrix()
-        .transform(Vector.BACKWARD.asHeterogeneousNormal()).asHomogeneous()
+        .transformDirection(Vector3.BACKWARD)
         .scale(8.0);
 
     camera.getTransform().update()
@@ -77,12 +78,12 @@ public class SphereDemo implements JamDemo {
     scene.addLight(sun);
     sun.setColor(Color.WHITE);
     sun.setIntensity(1.0);
-    sun.setDirection(new Vector(-1.0, -1.0, -1.0));
+    sun.setDirection(new Vector3(-1.0, -1.0, -1.0));
 
     Shape floor = new CubeShape();
     floor.getTransform().update()
-        .setScale(new Vector(4.0, 4.0, 1.0))
-        .setPosition(new Vector(0.0, 0.0, -1.0))
+        .setScale(new Vector3(4.0, 4.0, 1.0))
+        .setPosition(new Vector3(0.0, 0.0, -1.0))
         .done();
     floor.setMaterial(reflectiveMaterial);
 
@@ -92,7 +93,7 @@ public class SphereDemo implements JamDemo {
         .map(i -> {
           var sphere = new SphereShape();
           sphere.getTransform().update()
-              .setPosition(new Vector(i, 0.0, (1.0 + i) * 1.0))
+              .setPosition(new Vector3(i, 0.0, (1.0 + i) * 1.0))
               .done();
           sphere.setMaterial(i != 0.0 ? reflectiveMaterial : material);
           return sphere;
@@ -2,6 +2,7 @@ package com.github.elementbound.jamtracer.display;
 
 import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.core.ColorUtils;
+import com.github.elementbound.jamtracer.core.MathUtils;
 import com.github.elementbound.jamtracer.event.EventSource;
 import java.awt.Frame;
 import java.awt.Graphics;
@@ -76,6 +77,18 @@ public class AWTWindowDisplay implements Display {
     this.image.setRGB(x, y, ColorUtils.asRGB(color));
   }
 
+  @Override
+  public void setPixels(int x, int y, int width, int height, float[] rgb) {
+    int[] packed = new int[width * height];
+
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = (toByte(rgb[i * 3]) << 16) | (toByte(rgb[i * 3 + 1]) << 8)
+          | toByte(rgb[i * 3 + 2]);
+    }
+
+    this.image.setRGB(x, y, width, height, packed, 0, width);
+  }
+
   @Override
   public Color getPixel(int x, int y) {
     return ColorUtils.fromRGB(this.image.getRGB(x, y));
@@ -101,6 +114,10 @@ public class AWTWindowDisplay implements Display {
     return onClose;
   }
 
+  private static int toByte(float value) {
+    return (int) (MathUtils.saturate(value) * 255.0);
+  }
+
   @Override
   public void present() {
     var size = window.getSize();
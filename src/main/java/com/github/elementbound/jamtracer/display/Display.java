@@ -26,6 +26,53 @@ public interface Display {
    */
   Color getPixel(int x, int y);
 
+  /**
+   * Set a rectangular block of pixels.
+   * <p>Colors are packed as consecutive RGB float triplets, row by row, i.e. the array must
+   * contain at least <code>width * height * 3</code> items.</p>
+   *
+   * @param x      block's left X coordinate
+   * @param y      block's top Y coordinate
+   * @param width  block width
+   * @param height block height
+   * @param rgb    packed colors
+   */
+  default void setPixels(int x, int y, int width, int height, float[] rgb) {
+    for (int row = 0; row < height; row++) {
+      for (int column = 0; column < width; column++) {
+        int i = (row * width + column) * 3;
+        setPixel(x + column, y + row, new Color(rgb[i], rgb[i + 1], rgb[i + 2]));
+      }
+    }
+  }
+
+  /**
+   * Set a whole row of pixels.
+   * <p>Colors are packed as consecutive RGB float triplets.</p>
+   *
+   * @param y   row's Y coordinate
+   * @param rgb packed colors
+   */
+  default void setRow(int y, float[] rgb) {
+    setPixels(0, y, getWidth(), 1, rgb);
+  }
+
+  /**
+   * Get a whole row of pixels.
+   * <p>Colors are packed as consecutive RGB float triplets.</p>
+   *
+   * @param y   row's Y coordinate
+   * @param rgb destination array, with at least <code>width * 3</code> items
+   */
+  default void getRow(int y, float[] rgb) {
+    for (int x = 0; x < getWidth(); x++) {
+      var color = getPixel(x, y);
+      rgb[x * 3] = (float) color.getRed();
+      rgb[x * 3 + 1] = (float) color.getGreen();
+      rgb[x * 3 + 2] = (float) color.getBlue();
+    }
+  }
+
   /**
    * Get display width.
    *
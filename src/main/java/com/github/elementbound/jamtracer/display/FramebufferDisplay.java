@@ -0,0 +1,118 @@
+package com.github.elementbound.jamtracer.display;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.event.EventSource;
+
+/**
+ * Headless, in-memory implementation of {@link Display}.
+ *
+ * <p>Pixels are stored in a flat float array as RGB triplets, row by row, without clamping, so
+ * HDR values are kept. The display is open until {@link #close()} is called and presenting is a
+ * no-op.</p>
+ */
+public class FramebufferDisplay implements Display {
+  /**
+   * Number of channels per pixel.
+   */
+  public static final int CHANNELS = 3;
+
+  private final int width;
+  private final int height;
+  private final float[] data;
+  private final EventSource<Void> onClose;
+  private volatile boolean isOpen;
+
+  /**
+   * Create a new {@link FramebufferDisplay} with given size.
+   *
+   * @param width  display width
+   * @param height display height
+   */
+  public FramebufferDisplay(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.data = new float[width * height * CHANNELS];
+    this.onClose = new EventSource<>();
+    this.isOpen = true;
+  }
+
+  @Override
+  public void setPixel(int x, int y, Color color) {
+    int i = (y * width + x) * CHANNELS;
+
+    data[i] = (float) color.getRed();
+    data[i + 1] = (float) color.getGreen();
+    data[i + 2] = (float) color.getBlue();
+  }
+
+  @Override
+  public Color getPixel(int x, int y) {
+    int i = (y * width + x) * CHANNELS;
+
+    return new Color(data[i], data[i + 1], data[i + 2]);
+  }
+
+  @Override
+  public void setPixels(int x, int y, int width, int height, float[] rgb) {
+    for (int row = 0; row < height; row++) {
+      System.arraycopy(rgb, row * width * CHANNELS,
+          data, ((y + row) * this.width + x) * CHANNELS,
+          width * CHANNELS);
+    }
+  }
+
+  @Override
+  public void setRow(int y, float[] rgb) {
+    System.arraycopy(rgb, 0, data, y * width * CHANNELS, width * CHANNELS);
+  }
+
+  @Override
+  public void getRow(int y, float[] rgb) {
+    System.arraycopy(data, y * width * CHANNELS, rgb, 0, width * CHANNELS);
+  }
+
+  /**
+   * Get underlying pixel data.
+   * <p>The array is <em>not</em> copied, changes to it are reflected on the display.</p>
+   *
+   * @return pixel data as RGB triplets, row by row
+   */
+  public float[] getData() {
+    return data;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return isOpen;
+  }
+
+  @Override
+  public EventSource<Void> onClose() {
+    return onClose;
+  }
+
+  @Override
+  public void present() {
+    // Nothing to present to.
+  }
+
+  /**
+   * Close display.
+   */
+  public void close() {
+    if (isOpen) {
+      isOpen = false;
+      onClose.emit(null);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.github.elementbound.jamtracer.input;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive floats.
+ */
+final class FloatList {
+  private float[] values;
+  private int size;
+
+  /**
+   * Create empty list.
+   *
+   * @param capacity initial capacity
+   */
+  FloatList(int capacity) {
+    values = new float[Math.max(capacity, 16)];
+  }
+
+  /**
+   * Append value.
+   *
+   * @param value value
+   */
+  void add(float value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, 2 * size);
+    }
+
+    values[size++] = value;
+  }
+
+  /**
+   * Get value.
+   *
+   * @param index index
+   *
+   * @return value
+   */
+  float get(int index) {
+    return values[index];
+  }
+
+  /**
+   * Get number of values.
+   *
+   * @return size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Copy values to array.
+   *
+   * @param target target array
+   * @param offset offset in target array
+   * @param count  number of values to copy, at most the list size
+   */
+  void copyTo(float[] target, int offset, int count) {
+    System.arraycopy(values, 0, target, offset, count);
+  }
+
+  /**
+   * Get values as an array of exactly the list's size.
+   *
+   * @return values
+   */
+  float[] toArray() {
+    return values.length == size ? values : Arrays.copyOf(values, size);
+  }
+}
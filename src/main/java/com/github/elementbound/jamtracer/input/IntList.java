@@ -0,0 +1,72 @@
+package com.github.elementbound.jamtracer.input;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints.
+ */
+final class IntList {
+  private int[] values;
+  private int size;
+
+  /**
+   * Create empty list.
+   *
+   * @param capacity initial capacity
+   */
+  IntList(int capacity) {
+    values = new int[Math.max(capacity, 16)];
+  }
+
+  /**
+   * Append value.
+   *
+   * @param value value
+   */
+  void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, 2 * size);
+    }
+
+    values[size++] = value;
+  }
+
+  /**
+   * Get value.
+   *
+   * @param index index
+   *
+   * @return value
+   */
+  int get(int index) {
+    return values[index];
+  }
+
+  /**
+   * Replace value.
+   *
+   * @param index index
+   * @param value new value
+   */
+  void set(int index, int value) {
+    values[index] = value;
+  }
+
+  /**
+   * Get number of values.
+   *
+   * @return size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Get values as an array of exactly the list's size.
+   *
+   * @return values
+   */
+  int[] toArray() {
+    return values.length == size ? values : Arrays.copyOf(values, size);
+  }
+}
@@ -0,0 +1,323 @@
+package com.github.elementbound.jamtracer.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Parser for a range of whole lines of an OBJ file.
+ *
+ * <p>Vertex positions, texture coordinates and normals are collected into flat lists. Faces are
+ * triangulated as fans and stored as corners, each one referencing a position, a texture
+ * coordinate and a normal by index, or {@link #NONE} if the attribute is missing.</p>
+ *
+ * <p>Positive indices are absolute, and are stored zero-based. Negative indices are relative to
+ * the number of attributes read so far, which depends on every preceding chunk too. These are
+ * stored relative to the start of the chunk, which may be negative, and marked in
+ * {@link #isRelative(int)}, so they can be resolved once the chunks are merged.</p>
+ *
+ * <p>Numbers are parsed straight from the buffer's bytes, without building strings. Statements
+ * other than vertices and faces are skipped.</p>
+ */
+final class ObjChunk {
+  static final int NONE = Integer.MIN_VALUE;
+
+  /** Powers of ten up to the largest one that's exactly representable as a double. */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final int MAX_DIGITS = 18;
+
+  final FloatList positions;
+  final FloatList texcoords;
+  final FloatList normals;
+  final IntList corners;
+
+  private final ByteBuffer buffer;
+  private final int from;
+  private final int to;
+  private BitSet relative;
+  private int at;
+
+  /**
+   * Create parser.
+   *
+   * @param buffer buffer holding the file
+   * @param from   offset of the first line, inclusive
+   * @param to     offset after the last line, exclusive
+   */
+  ObjChunk(ByteBuffer buffer, int from, int to) {
+    // Vertex and face lines take at least 20 bytes for typical meshes, and faces outnumber vertices
+    final int estimate = (to - from) / 20;
+
+    this.buffer = buffer;
+    this.from = from;
+    this.to = to;
+    this.positions = new FloatList(estimate);
+    this.texcoords = new FloatList(0);
+    this.normals = new FloatList(0);
+    this.corners = new IntList(3 * estimate);
+  }
+
+  /**
+   * Parse lines.
+   *
+   * @throws IOException if the data is malformed
+   */
+  void parse() throws IOException {
+    at = from;
+
+    while (at < to) {
+      skipBlanks();
+
+      if (peek(0) == 'v' && isBlank(peek(1))) {
+        at += 1;
+        readVector(positions, 3);
+      } else if (peek(0) == 'v' && peek(1) == 't' && isBlank(peek(2))) {
+        at += 2;
+        readVector(texcoords, 2);
+      } else if (peek(0) == 'v' && peek(1) == 'n' && isBlank(peek(2))) {
+        at += 2;
+        readVector(normals, 3);
+      } else if (peek(0) == 'f' && isBlank(peek(1))) {
+        at += 1;
+        readFace();
+      }
+
+      skipLine();
+    }
+  }
+
+  /**
+   * Check whether a stored corner index is relative to the start of the chunk.
+   *
+   * @param index index in {@link #corners}
+   *
+   * @return true if relative, false if absolute
+   */
+  boolean isRelative(int index) {
+    return relative != null && relative.get(index);
+  }
+
+  private void readVector(FloatList target, int count) throws IOException {
+    // Further components, e.g. the weight of positions, are skipped along with the line
+    for (int i = 0; i < count; i++) {
+      target.add(readFloat());
+    }
+  }
+
+  private void readFace() throws IOException {
+    long first0 = 0;
+    long first1 = 0;
+    long first2 = 0;
+    long previous0 = 0;
+    long previous1 = 0;
+    long previous2 = 0;
+    int count = 0;
+
+    while (true) {
+      skipBlanks();
+      if (isLineEnd(peek(0))) {
+        break;
+      }
+
+      long position = readIndex(positions.size() / 3);
+      long texcoord = NONE;
+      long normal = NONE;
+
+      if (peek(0) == '/') {
+        at++;
+        if (peek(0) != '/') {
+          texcoord = readIndex(texcoords.size() / 2);
+        }
+
+        if (peek(0) == '/') {
+          at++;
+          normal = readIndex(normals.size() / 3);
+        }
+      }
+
+      if (count == 0) {
+        first0 = position;
+        first1 = texcoord;
+        first2 = normal;
+      } else if (count >= 2) {
+        addCorner(first0, first1, first2);
+        addCorner(previous0, previous1, previous2);
+        addCorner(position, texcoord, normal);
+      }
+
+      previous0 = position;
+      previous1 = texcoord;
+      previous2 = normal;
+      count++;
+    }
+
+    if (count < 3) {
+      throw error("Face with less than three vertices");
+    }
+  }
+
+  private void addCorner(long position, long texcoord, long normal) {
+    addIndex(position);
+    addIndex(texcoord);
+    addIndex(normal);
+  }
+
+  private void addIndex(long reference) {
+    // References carry the relative flag in their lowest bit, see readIndex
+    if (reference == NONE) {
+      corners.add(NONE);
+      return;
+    }
+
+    if ((reference & 1L) != 0) {
+      if (relative == null) {
+        relative = new BitSet();
+      }
+      relative.set(corners.size());
+    }
+
+    corners.add((int) (reference >> 1));
+  }
+
+  private long readIndex(int count) throws IOException {
+    boolean isNegative = peek(0) == '-';
+    if (isNegative) {
+      at++;
+    }
+
+    long value = 0;
+    int start = at;
+    while (isDigit(peek(0)) && value <= Integer.MAX_VALUE) {
+      value = 10 * value + (peek(0) - '0');
+      at++;
+    }
+
+    if (at == start || value == 0 || value > Integer.MAX_VALUE) {
+      throw error("Invalid vertex index");
+    }
+
+    return isNegative
+        ? ((count - value) << 1) | 1L
+        : (value - 1) << 1;
+  }
+
+  private float readFloat() throws IOException {
+    skipBlanks();
+
+    boolean isNegative = peek(0) == '-';
+    if (isNegative || peek(0) == '+') {
+      at++;
+    }
+
+    long mantissa = 0;
+    int exponent = 0;
+    int digits = 0;
+    boolean hasDigits = false;
+
+    for (boolean isFraction = false; ; at++) {
+      byte c = peek(0);
+
+      if (isDigit(c)) {
+        hasDigits = true;
+
+        // Leading zeros don't count towards precision, digits beyond it are dropped
+        if (digits < MAX_DIGITS) {
+          mantissa = 10 * mantissa + (c - '0');
+          digits += mantissa > 0 ? 1 : 0;
+          exponent -= isFraction ? 1 : 0;
+        } else {
+          exponent += isFraction ? 0 : 1;
+        }
+      } else if (c == '.' && !isFraction) {
+        isFraction = true;
+      } else {
+        break;
+      }
+    }
+
+    if (!hasDigits) {
+      throw error("Invalid number");
+    }
+
+    if (peek(0) == 'e' || peek(0) == 'E') {
+      at++;
+      boolean isNegativeExponent = peek(0) == '-';
+      if (isNegativeExponent || peek(0) == '+') {
+        at++;
+      }
+
+      int exponentValue = 0;
+      int start = at;
+      while (isDigit(peek(0))) {
+        // Clamp, anything this large over- or underflows anyway
+        exponentValue = Math.min(10 * exponentValue + (peek(0) - '0'), 1000);
+        at++;
+      }
+
+      if (at == start) {
+        throw error("Invalid exponent");
+      }
+
+      exponent += isNegativeExponent ? -exponentValue : exponentValue;
+    }
+
+    if (!isBlank(peek(0)) && !isLineEnd(peek(0))) {
+      throw error("Invalid number");
+    }
+
+    // Exact when both the mantissa and the power of ten are, which is the case for typical data
+    double value;
+    if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+      value = mantissa * POWERS_OF_TEN[exponent];
+    } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+      value = mantissa / POWERS_OF_TEN[-exponent];
+    } else {
+      value = mantissa * Math.pow(10.0, exponent);
+    }
+
+    float result = (float) (isNegative ? -value : value);
+    if (!Float.isFinite(result)) {
+      throw error("Number out of range");
+    }
+
+    return result;
+  }
+
+  private void skipBlanks() {
+    while (isBlank(peek(0))) {
+      at++;
+    }
+  }
+
+  private void skipLine() {
+    while (at < to && buffer.get(at) != '\n') {
+      at++;
+    }
+
+    at++;
+  }
+
+  private byte peek(int offset) {
+    int index = at + offset;
+    return index < to ? buffer.get(index) : (byte) '\n';
+  }
+
+  private IOException error(String message) {
+    return new IOException(message + " at offset " + at);
+  }
+
+  private static boolean isBlank(byte c) {
+    return c == ' ' || c == '\t';
+  }
+
+  private static boolean isLineEnd(byte c) {
+    return c == '\n' || c == '\r' || c == '#';
+  }
+
+  private static boolean isDigit(byte c) {
+    return c >= '0' && c <= '9';
+  }
+}
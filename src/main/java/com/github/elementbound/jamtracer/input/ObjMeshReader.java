@@ -0,0 +1,432 @@
+package com.github.elementbound.jamtracer.input;
+
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reader for Wavefront OBJ files, loading every face of the file into a single {@link MeshShape}.
+ *
+ * <p>Files are memory-mapped and parsed straight from the mapped bytes, so the file contents are
+ * never copied to the heap. Vertex positions, texture coordinates, normals and faces are read,
+ * every other statement is skipped. Polygons are triangulated as fans. Texture coordinates and
+ * normals are only kept if every face references them.</p>
+ *
+ * <p>OBJ faces index positions, texture coordinates and normals separately, while meshes use a
+ * single index per vertex. If every face uses the same index for each attribute, the attributes
+ * are used as-is. Otherwise, a vertex is created for every distinct combination of indices.</p>
+ *
+ * <p>Given a {@link ForkJoinPool}, the file is split into chunks of whole lines, which are parsed
+ * in parallel and merged in file order, so the resulting mesh is identical to the one read
+ * sequentially. Files are limited to 2 GiB, the maximum size of a single mapping.</p>
+ */
+public class ObjMeshReader {
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Create sequential reader.
+   */
+  public ObjMeshReader() {
+    this(null, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Create parallel reader.
+   *
+   * @param pool pool to parse chunks in
+   */
+  public ObjMeshReader(ForkJoinPool pool) {
+    this(pool, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Create reader.
+   *
+   * @param pool      pool to parse chunks in, or null to read sequentially
+   * @param chunkSize minimum number of bytes per chunk
+   */
+  public ObjMeshReader(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive!");
+    }
+
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Read mesh from file.
+   *
+   * @param path file path
+   *
+   * @return mesh
+   *
+   * @throws IOException if reading fails or the file is not a valid OBJ mesh
+   */
+  public MeshShape read(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File too large to map: " + path);
+      }
+
+      // The mapping stays valid after the channel is closed
+      return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  /**
+   * Read mesh from buffer.
+   * <p>The buffer's position and limit are left untouched.</p>
+   *
+   * @param buffer buffer holding the file, from position to limit
+   *
+   * @return mesh
+   *
+   * @throws IOException if the data is not a valid OBJ mesh
+   */
+  public MeshShape read(ByteBuffer buffer) throws IOException {
+    var chunks = split(buffer);
+
+    try {
+      if (pool == null || chunks.length == 1) {
+        Arrays.stream(chunks).forEach(ObjMeshReader::parse);
+      } else {
+        pool.invoke(ForkJoinTask.adapt(() ->
+            Arrays.stream(chunks).parallel().forEach(ObjMeshReader::parse)));
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    return merge(chunks);
+  }
+
+  private ObjChunk[] split(ByteBuffer buffer) {
+    int start = buffer.position();
+    int size = buffer.limit() - start;
+    int count = pool == null ? 1 : Math.max(1, size / chunkSize);
+    var chunks = new ObjChunk[count];
+    int from = start;
+
+    for (int i = 0; i < count; i++) {
+      int end = lineStart(buffer, start + (int) ((long) size * (i + 1) / count));
+      chunks[i] = new ObjChunk(buffer, from, end);
+      from = end;
+    }
+
+    return chunks;
+  }
+
+  private static int lineStart(ByteBuffer buffer, int offset) {
+    // Move offset past the end of the line it's in
+    while (offset < buffer.limit() && buffer.get(offset - 1) != '\n') {
+      offset++;
+    }
+
+    return offset;
+  }
+
+  private static void parse(ObjChunk chunk) {
+    try {
+      chunk.parse();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static MeshShape merge(ObjChunk[] chunks) throws IOException {
+    int positionCount = 0;
+    int texcoordCount = 0;
+    int normalCount = 0;
+    int cornerCount = 0;
+
+    for (var chunk : chunks) {
+      positionCount += chunk.positions.size() / 3;
+      texcoordCount += chunk.texcoords.size() / 2;
+      normalCount += chunk.normals.size() / 3;
+      cornerCount += chunk.corners.size() / 3;
+    }
+
+    if (cornerCount == 0) {
+      throw new IOException("No faces found");
+    }
+
+    // Resolve indices relative to a chunk, now that the number of preceding attributes is known
+    int positionOffset = 0;
+    int texcoordOffset = 0;
+    int normalOffset = 0;
+
+    for (var chunk : chunks) {
+      for (int i = 0; i < chunk.corners.size(); i += 3) {
+        resolve(chunk, i, positionOffset, positionCount);
+        resolve(chunk, i + 1, texcoordOffset, texcoordCount);
+        resolve(chunk, i + 2, normalOffset, normalCount);
+      }
+
+      positionOffset += chunk.positions.size() / 3;
+      texcoordOffset += chunk.texcoords.size() / 2;
+      normalOffset += chunk.normals.size() / 3;
+    }
+
+    boolean hasTexcoords = true;
+    boolean hasNormals = true;
+    boolean isShared = true;
+
+    for (var chunk : chunks) {
+      var corners = chunk.corners;
+
+      for (int i = 0; i < corners.size(); i += 3) {
+        int position = corners.get(i);
+        int texcoord = corners.get(i + 1);
+        int normal = corners.get(i + 2);
+
+        hasTexcoords &= texcoord != ObjChunk.NONE;
+        hasNormals &= normal != ObjChunk.NONE;
+        isShared &= (texcoord == ObjChunk.NONE || texcoord == position)
+            && (normal == ObjChunk.NONE || normal == position);
+      }
+    }
+
+    return isShared
+        ? mergeShared(chunks, positionCount, cornerCount, hasTexcoords, hasNormals)
+        : mergeSplit(chunks, cornerCount, hasTexcoords, hasNormals);
+  }
+
+  private static void resolve(ObjChunk chunk, int index, int offset, int count)
+      throws IOException {
+    int value = chunk.corners.get(index);
+
+    if (value == ObjChunk.NONE) {
+      return;
+    }
+
+    if (chunk.isRelative(index)) {
+      value += offset;
+    }
+
+    if (value < 0 || value >= count) {
+      throw new IOException("Vertex index out of range: " + (value + 1));
+    }
+
+    chunk.corners.set(index, value);
+  }
+
+  private static MeshShape mergeShared(ObjChunk[] chunks, int positionCount, int cornerCount,
+                                       boolean hasTexcoords, boolean hasNormals) {
+    var positions = new float[3 * positionCount];
+    var texcoords = hasTexcoords ? new float[2 * positionCount] : null;
+    var normals = hasNormals ? new float[3 * positionCount] : null;
+    var indices = new int[cornerCount];
+
+    int positionOffset = 0;
+    int texcoordOffset = 0;
+    int normalOffset = 0;
+    int cornerOffset = 0;
+
+    // Attributes past the last position can't be referenced, and are dropped
+    for (var chunk : chunks) {
+      int size = chunk.positions.size();
+      chunk.positions.copyTo(positions, positionOffset, size);
+      positionOffset += size;
+
+      if (texcoords != null) {
+        size = Math.min(chunk.texcoords.size(), texcoords.length - texcoordOffset);
+        chunk.texcoords.copyTo(texcoords, texcoordOffset, size);
+        texcoordOffset += size;
+      }
+
+      if (normals != null) {
+        size = Math.min(chunk.normals.size(), normals.length - normalOffset);
+        chunk.normals.copyTo(normals, normalOffset, size);
+        normalOffset += size;
+      }
+
+      var corners = chunk.corners;
+      for (int i = 0; i < corners.size(); i += 3) {
+        indices[cornerOffset++] = corners.get(i);
+      }
+    }
+
+    return new MeshShape(positions, normals, texcoords, indices);
+  }
+
+  private static MeshShape mergeSplit(ObjChunk[] chunks, int cornerCount,
+                                      boolean hasTexcoords, boolean hasNormals) {
+    var attributes = new Attributes(chunks);
+    // Closed meshes have about one vertex for every six corners
+    var vertices = new VertexTable(cornerCount / 6);
+    var positions = new FloatList(cornerCount / 2);
+    var texcoords = hasTexcoords ? new FloatList(cornerCount / 3) : null;
+    var normals = hasNormals ? new FloatList(cornerCount / 2) : null;
+    var indices = new int[cornerCount];
+    int cornerOffset = 0;
+
+    for (var chunk : chunks) {
+      var corners = chunk.corners;
+
+      for (int i = 0; i < corners.size(); i += 3) {
+        int position = corners.get(i);
+        int texcoord = hasTexcoords ? corners.get(i + 1) : 0;
+        int normal = hasNormals ? corners.get(i + 2) : 0;
+        int vertex = vertices.add(position, texcoord, normal);
+
+        if (vertex == positions.size() / 3) {
+          attributes.copyPosition(position, positions);
+
+          if (texcoords != null) {
+            attributes.copyTexcoord(texcoord, texcoords);
+          }
+
+          if (normals != null) {
+            attributes.copyNormal(normal, normals);
+          }
+        }
+
+        indices[cornerOffset++] = vertex;
+      }
+    }
+
+    return new MeshShape(positions.toArray(),
+        normals != null ? normals.toArray() : null,
+        texcoords != null ? texcoords.toArray() : null,
+        indices);
+  }
+
+  /**
+   * Attributes of every chunk, addressed by their index in the whole file.
+   */
+  private static class Attributes {
+    private final ObjChunk[] chunks;
+    private final int[] positionOffsets;
+    private final int[] texcoordOffsets;
+    private final int[] normalOffsets;
+
+    private Attributes(ObjChunk[] chunks) {
+      this.chunks = chunks;
+      this.positionOffsets = new int[chunks.length];
+      this.texcoordOffsets = new int[chunks.length];
+      this.normalOffsets = new int[chunks.length];
+
+      for (int i = 1; i < chunks.length; i++) {
+        positionOffsets[i] = positionOffsets[i - 1] + chunks[i - 1].positions.size() / 3;
+        texcoordOffsets[i] = texcoordOffsets[i - 1] + chunks[i - 1].texcoords.size() / 2;
+        normalOffsets[i] = normalOffsets[i - 1] + chunks[i - 1].normals.size() / 3;
+      }
+    }
+
+    private void copyPosition(int index, FloatList target) {
+      int chunk = find(positionOffsets, index);
+      copy(chunks[chunk].positions, 3 * (index - positionOffsets[chunk]), 3, target);
+    }
+
+    private void copyTexcoord(int index, FloatList target) {
+      int chunk = find(texcoordOffsets, index);
+      copy(chunks[chunk].texcoords, 2 * (index - texcoordOffsets[chunk]), 2, target);
+    }
+
+    private void copyNormal(int index, FloatList target) {
+      int chunk = find(normalOffsets, index);
+      copy(chunks[chunk].normals, 3 * (index - normalOffsets[chunk]), 3, target);
+    }
+
+    private static int find(int[] offsets, int index) {
+      // Last chunk starting at or before the index, skipping chunks without attributes
+      int chunk = Arrays.binarySearch(offsets, index);
+      if (chunk < 0) {
+        return -chunk - 2;
+      }
+
+      while (chunk + 1 < offsets.length && offsets[chunk + 1] == index) {
+        chunk++;
+      }
+
+      return chunk;
+    }
+
+    private static void copy(FloatList source, int offset, int count, FloatList target) {
+      for (int i = 0; i < count; i++) {
+        target.add(source.get(offset + i));
+      }
+    }
+  }
+
+  /**
+   * Hash table assigning a vertex to every distinct combination of attribute indices.
+   */
+  private static class VertexTable {
+    private int[] keys;
+    private int[] vertices;
+    private int size;
+
+    private VertexTable(int expectedSize) {
+      int capacity = Integer.highestOneBit(Math.max(16, expectedSize)) * 2;
+      keys = new int[3 * capacity];
+      vertices = new int[capacity];
+      Arrays.fill(vertices, -1);
+    }
+
+    private int add(int position, int texcoord, int normal) {
+      int mask = vertices.length - 1;
+      int slot = hash(position, texcoord, normal) & mask;
+
+      while (vertices[slot] >= 0) {
+        if (keys[3 * slot] == position && keys[3 * slot + 1] == texcoord
+            && keys[3 * slot + 2] == normal) {
+          return vertices[slot];
+        }
+
+        slot = (slot + 1) & mask;
+      }
+
+      keys[3 * slot] = position;
+      keys[3 * slot + 1] = texcoord;
+      keys[3 * slot + 2] = normal;
+      vertices[slot] = size;
+      size++;
+
+      if (2 * size > vertices.length) {
+        grow();
+      }
+
+      return size - 1;
+    }
+
+    private void grow() {
+      var oldKeys = keys;
+      var oldVertices = vertices;
+      keys = new int[2 * oldKeys.length];
+      vertices = new int[2 * oldVertices.length];
+      Arrays.fill(vertices, -1);
+
+      int mask = vertices.length - 1;
+      for (int i = 0; i < oldVertices.length; i++) {
+        if (oldVertices[i] >= 0) {
+          int slot = hash(oldKeys[3 * i], oldKeys[3 * i + 1], oldKeys[3 * i + 2]) & mask;
+          while (vertices[slot] >= 0) {
+            slot = (slot + 1) & mask;
+          }
+
+          System.arraycopy(oldKeys, 3 * i, keys, 3 * slot, 3);
+          vertices[slot] = oldVertices[i];
+        }
+      }
+    }
+
+    private static int hash(int position, int texcoord, int normal) {
+      int hash = position * 0x9e3779b1 + texcoord * 0x85ebca6b + normal * 0xc2b2ae35;
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.github.elementbound.jamtracer.output;
+
+import com.github.elementbound.jamtracer.core.MathUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilities shared by image writers.
+ */
+final class ChannelUtils {
+  private ChannelUtils() {
+  }
+
+  /**
+   * Write buffer contents to channel, until the buffer is drained.
+   *
+   * @param buffer  buffer, flipped for reading
+   * @param channel channel
+   *
+   * @throws IOException if writing fails
+   */
+  static void writeFully(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Write ASCII text to channel.
+   *
+   * @param text    text
+   * @param channel channel
+   *
+   * @throws IOException if writing fails
+   */
+  static void writeAscii(String text, WritableByteChannel channel) throws IOException {
+    writeFully(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)), channel);
+  }
+
+  /**
+   * Convert a color component to a byte, clamping HDR values to LDR.
+   *
+   * @param value color component
+   *
+   * @return byte value in [0,255] range
+   */
+  static byte toByte(float value) {
+    return (byte) (MathUtils.saturate(value) * 255.0);
+  }
+}
@@ -0,0 +1,102 @@
+package com.github.elementbound.jamtracer.output;
+
+import com.github.elementbound.jamtracer.display.Display;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Interface for writing images in a given file format.
+ *
+ * <p>Images are encoded row by row through a {@link RowEncoder}, so rows can be written as soon as
+ * they are available, without holding a copy of the whole image.</p>
+ */
+public interface ImageWriter {
+  /**
+   * Start writing an image to a channel.
+   *
+   * @param channel target channel
+   * @param width   image width
+   * @param height  image height
+   *
+   * @return encoder accepting the image rows
+   *
+   * @throws IOException if writing fails
+   */
+  RowEncoder open(WritableByteChannel channel, int width, int height) throws IOException;
+
+  /**
+   * Check if the format expects rows from bottom to top.
+   *
+   * @return true if rows must be written bottom-up, false if top-down
+   */
+  default boolean isBottomUp() {
+    return false;
+  }
+
+  /**
+   * Write display contents to a channel.
+   *
+   * @param display display to read pixels from
+   * @param channel target channel
+   *
+   * @throws IOException if writing fails
+   */
+  default void write(Display display, WritableByteChannel channel) throws IOException {
+    int width = display.getWidth();
+    int height = display.getHeight();
+    float[] row = new float[width * 3];
+
+    var encoder = open(channel, width, height);
+
+    for (int i = 0; i < height; i++) {
+      display.getRow(isBottomUp() ? height - 1 - i : i, row);
+      encoder.writeRow(row);
+    }
+
+    encoder.finish();
+  }
+
+  /**
+   * Write display contents to a file, replacing it if it exists.
+   *
+   * @param display display to read pixels from
+   * @param path    target file
+   *
+   * @throws IOException if writing fails
+   */
+  default void write(Display display, Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      write(display, channel);
+    }
+  }
+
+  /**
+   * Get writer based on file extension.
+   *
+   * @param path file path
+   *
+   * @return image writer
+   *
+   * @throws IllegalArgumentException if the extension is not supported
+   */
+  static ImageWriter forPath(Path path) {
+    var name = path.getFileName().toString();
+    var extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+
+    switch (extension) {
+      case "ppm":
+        return new PpmImageWriter();
+      case "pfm":
+        return new PfmImageWriter();
+      case "png":
+        return new PngImageWriter();
+      default:
+        throw new IllegalArgumentException("Unsupported image format: " + name);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.github.elementbound.jamtracer.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writer for PFM ( portable float map ) images.
+ *
+ * <p>Colors are stored as little-endian 32-bit floats, without clamping, so HDR values are kept.
+ * As per the format, rows are stored from bottom to top.</p>
+ */
+public class PfmImageWriter implements ImageWriter {
+  @Override
+  public RowEncoder open(WritableByteChannel channel, int width, int height) throws IOException {
+    // Negative scale marks little-endian data
+    ChannelUtils.writeAscii("PF\n" + width + " " + height + "\n-1.0\n", channel);
+
+    var buffer = ByteBuffer.allocateDirect(width * 3 * Float.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+
+    return new RowEncoder() {
+      @Override
+      public void writeRow(float[] rgb) throws IOException {
+        buffer.clear();
+        buffer.asFloatBuffer().put(rgb, 0, width * 3);
+        buffer.limit(width * 3 * Float.BYTES);
+
+        ChannelUtils.writeFully(buffer, channel);
+      }
+
+      @Override
+      public void finish() {
+        // Nothing after the pixel data.
+      }
+    };
+  }
+
+  @Override
+  public boolean isBottomUp() {
+    return true;
+  }
+}
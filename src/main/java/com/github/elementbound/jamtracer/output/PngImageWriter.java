@@ -0,0 +1,149 @@
+package com.github.elementbound.jamtracer.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writer for PNG images.
+ *
+ * <p>Colors are clamped to LDR and stored as 8-bit RGB. Rows are deflated as they arrive and
+ * compressed data is flushed to the channel in IDAT chunks whenever the chunk buffer fills up.</p>
+ */
+public class PngImageWriter implements ImageWriter {
+  private static final byte[] SIGNATURE = {
+    (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'
+  };
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final int BYTES_PER_PIXEL = 3;
+  private static final byte FILTER_SUB = 1;
+
+  private final int compressionLevel;
+
+  /**
+   * Create writer with default compression level.
+   */
+  public PngImageWriter() {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Create writer.
+   *
+   * @param compressionLevel deflate compression level, see {@link Deflater}
+   */
+  public PngImageWriter(int compressionLevel) {
+    this.compressionLevel = compressionLevel;
+  }
+
+  @Override
+  public RowEncoder open(WritableByteChannel channel, int width, int height) throws IOException {
+    return new PngRowEncoder(channel, width, height);
+  }
+
+  private class PngRowEncoder implements RowEncoder {
+    private final WritableByteChannel channel;
+    private final int width;
+
+    private final Deflater deflater = new Deflater(compressionLevel);
+    private final CRC32 crc = new CRC32();
+
+    private final ByteBuffer row;
+    private final ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    private final ByteBuffer chunkFrame = ByteBuffer.allocateDirect(8);
+
+    private PngRowEncoder(WritableByteChannel channel, int width, int height) throws IOException {
+      this.channel = channel;
+      this.width = width;
+      this.row = ByteBuffer.allocateDirect(1 + width * BYTES_PER_PIXEL);
+
+      ChannelUtils.writeFully(ByteBuffer.wrap(SIGNATURE), channel);
+
+      var header = ByteBuffer.allocateDirect(13)
+          .putInt(width)
+          .putInt(height)
+          .put((byte) 8) // Bit depth
+          .put((byte) 2) // Color type: RGB
+          .put((byte) 0) // Compression method: deflate
+          .put((byte) 0) // Filter method: adaptive
+          .put((byte) 0); // Interlace: none
+      writeChunk("IHDR", header.flip());
+    }
+
+    @Override
+    public void writeRow(float[] rgb) throws IOException {
+      row.clear();
+      row.put(FILTER_SUB);
+
+      byte previous0 = 0;
+      byte previous1 = 0;
+      byte previous2 = 0;
+
+      for (int i = 0; i < width * BYTES_PER_PIXEL; i += BYTES_PER_PIXEL) {
+        byte current0 = ChannelUtils.toByte(rgb[i]);
+        byte current1 = ChannelUtils.toByte(rgb[i + 1]);
+        byte current2 = ChannelUtils.toByte(rgb[i + 2]);
+
+        row.put((byte) (current0 - previous0));
+        row.put((byte) (current1 - previous1));
+        row.put((byte) (current2 - previous2));
+
+        previous0 = current0;
+        previous1 = current1;
+        previous2 = current2;
+      }
+
+      deflater.setInput(row.flip());
+      while (!deflater.needsInput()) {
+        deflate();
+      }
+    }
+
+    @Override
+    public void finish() throws IOException {
+      deflater.finish();
+      while (!deflater.finished()) {
+        deflate();
+      }
+      deflater.end();
+
+      if (chunk.position() > 0) {
+        writeChunk("IDAT", chunk.flip());
+      }
+
+      writeChunk("IEND", chunk.clear().flip());
+    }
+
+    private void deflate() throws IOException {
+      deflater.deflate(chunk);
+
+      if (!chunk.hasRemaining()) {
+        writeChunk("IDAT", chunk.flip());
+        chunk.clear();
+      }
+    }
+
+    private void writeChunk(String type, ByteBuffer data) throws IOException {
+      var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+      crc.reset();
+      crc.update(typeBytes);
+      crc.update(data.duplicate());
+
+      chunkFrame.clear()
+          .putInt(data.remaining())
+          .put(typeBytes)
+          .flip();
+      ChannelUtils.writeFully(chunkFrame, channel);
+      ChannelUtils.writeFully(data, channel);
+
+      chunkFrame.clear()
+          .putInt((int) crc.getValue())
+          .flip();
+      ChannelUtils.writeFully(chunkFrame, channel);
+    }
+  }
+}
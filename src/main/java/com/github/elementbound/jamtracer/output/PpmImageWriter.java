@@ -0,0 +1,37 @@
+package com.github.elementbound.jamtracer.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writer for binary PPM ( P6 ) images.
+ *
+ * <p>Colors are clamped to LDR and stored as 8 bits per channel.</p>
+ */
+public class PpmImageWriter implements ImageWriter {
+  @Override
+  public RowEncoder open(WritableByteChannel channel, int width, int height) throws IOException {
+    ChannelUtils.writeAscii("P6\n" + width + " " + height + "\n255\n", channel);
+
+    var buffer = ByteBuffer.allocateDirect(width * 3);
+
+    return new RowEncoder() {
+      @Override
+      public void writeRow(float[] rgb) throws IOException {
+        buffer.clear();
+        for (int i = 0; i < width * 3; i++) {
+          buffer.put(ChannelUtils.toByte(rgb[i]));
+        }
+        buffer.flip();
+
+        ChannelUtils.writeFully(buffer, channel);
+      }
+
+      @Override
+      public void finish() {
+        // Nothing after the pixel data.
+      }
+    };
+  }
+}
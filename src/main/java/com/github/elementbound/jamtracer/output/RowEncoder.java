@@ -0,0 +1,29 @@
+package com.github.elementbound.jamtracer.output;
+
+import java.io.IOException;
+
+/**
+ * Encoder for a single image, accepting its rows one by one.
+ *
+ * <p>Rows must be supplied in the order expected by the {@link ImageWriter}, i.e. top-down unless
+ * {@link ImageWriter#isBottomUp()} says otherwise.</p>
+ */
+public interface RowEncoder {
+  /**
+   * Encode the next row.
+   * <p>Colors are packed as consecutive RGB float triplets.</p>
+   *
+   * @param rgb row colors
+   *
+   * @throws IOException if writing fails
+   */
+  void writeRow(float[] rgb) throws IOException;
+
+  /**
+   * Finish encoding, once all rows are written.
+   * <p>The channel is <em>not</em> closed.</p>
+   *
+   * @throws IOException if writing fails
+   */
+  void finish() throws IOException;
+}
@@ -0,0 +1,317 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Matrix4;
+import com.github.elementbound.jamtracer.core.Vector3;
+import java.util.Objects;
+
+/**
+ * Immutable class representing an axis-aligned bounding box.
+ */
+public class BoundingBox {
+  /**
+   * Empty bounding box, containing nothing.
+   * <p>Any union with the empty box will return the other box.</p>
+   */
+  public static final BoundingBox EMPTY = new BoundingBox(
+      Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+  );
+
+  /**
+   * Infinite bounding box, containing everything.
+   */
+  public static final BoundingBox INFINITE = new BoundingBox(
+      Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+      Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY
+  );
+
+  /**
+   * Box spanning from -1 to +1 on each axis.
+   * <p>This is the object-space bounding box of the built-in unit shapes.</p>
+   */
+  public static final BoundingBox UNIT = new BoundingBox(-1.0, -1.0, -1.0, 1.0, 1.0, 1.0);
+
+  private final double minX;
+  private final double minY;
+  private final double minZ;
+  private final double maxX;
+  private final double maxY;
+  private final double maxZ;
+
+  /**
+   * Construct bounding box from its extremes.
+   *
+   * @param minX minimum X coordinate
+   * @param minY minimum Y coordinate
+   * @param minZ minimum Z coordinate
+   * @param maxX maximum X coordinate
+   * @param maxY maximum Y coordinate
+   * @param maxZ maximum Z coordinate
+   */
+  public BoundingBox(double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ) {
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+  }
+
+  /**
+   * Construct bounding box from two corner points.
+   *
+   * @param min minimum corner
+   * @param max maximum corner
+   */
+  public BoundingBox(Vector3 min, Vector3 max) {
+    this(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+  }
+
+  /**
+   * Get minimum corner.
+   *
+   * @return minimum corner
+   */
+  public Vector3 getMin() {
+    return new Vector3(minX, minY, minZ);
+  }
+
+  /**
+   * Get minimum coordinate along axis.
+   *
+   * @param axis axis index, 0 for X, 1 for Y, 2 for Z
+   *
+   * @return minimum coordinate
+   */
+  public double getMin(int axis) {
+    return axis == 0 ? minX : (axis == 1 ? minY : minZ);
+  }
+
+  /**
+   * Get maximum corner.
+   *
+   * @return maximum corner
+   */
+  public Vector3 getMax() {
+    return new Vector3(maxX, maxY, maxZ);
+  }
+
+  /**
+   * Get maximum coordinate along axis.
+   *
+   * @param axis axis index, 0 for X, 1 for Y, 2 for Z
+   *
+   * @return maximum coordinate
+   */
+  public double getMax(int axis) {
+    return axis == 0 ? maxX : (axis == 1 ? maxY : maxZ);
+  }
+
+  /**
+   * Get box center along axis.
+   *
+   * @param axis axis index, 0 for X, 1 for Y, 2 for Z
+   *
+   * @return center coordinate
+   */
+  public double getCenter(int axis) {
+    return (getMin(axis) + getMax(axis)) / 2.0;
+  }
+
+  /**
+   * Check if the box is empty, i.e. contains no points.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return minX > maxX || minY > maxY || minZ > maxZ;
+  }
+
+  /**
+   * Check if the box is finite on all axes.
+   *
+   * @return true if finite
+   */
+  public boolean isFinite() {
+    return Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(minZ)
+        && Double.isFinite(maxX) && Double.isFinite(maxY) && Double.isFinite(maxZ);
+  }
+
+  /**
+   * Calculate the box's surface area.
+   *
+   * @return surface area, or zero for empty boxes
+   */
+  public double surfaceArea() {
+    if (isEmpty()) {
+      return 0.0;
+    }
+
+    double dx = maxX - minX;
+    double dy = maxY - minY;
+    double dz = maxZ - minZ;
+
+    return 2.0 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  /**
+   * Create a box enclosing both this and the other box.
+   *
+   * @param that other box
+   *
+   * @return union of boxes
+   */
+  public BoundingBox union(BoundingBox that) {
+    return new BoundingBox(
+        Math.min(this.minX, that.minX), Math.min(this.minY, that.minY),
+        Math.min(this.minZ, that.minZ), Math.max(this.maxX, that.maxX),
+        Math.max(this.maxY, that.maxY), Math.max(this.maxZ, that.maxZ)
+    );
+  }
+
+  /**
+   * Create a box grown by a margin on all sides.
+   *
+   * @param margin margin
+   *
+   * @return grown box
+   */
+  public BoundingBox grow(double margin) {
+    return new BoundingBox(
+        minX - margin, minY - margin, minZ - margin,
+        maxX + margin, maxY + margin, maxZ + margin
+    );
+  }
+
+  /**
+   * Transform box by matrix, returning the axis-aligned box enclosing the transformed box.
+   *
+   * <p>Based on: Jim Arvo, Transforming Axis-Aligned Bounding Boxes, Graphics Gems, 1990</p>
+   *
+   * @param matrix 4x4 transform matrix
+   *
+   * @return transformed box
+   */
+  public BoundingBox transform(Matrix4 matrix) {
+    if (isEmpty() || !isFinite()) {
+      return this;
+    }
+
+    double[] min = new double[3];
+    double[] max = new double[3];
+    double[] fromMin = {minX, minY, minZ};
+    double[] fromMax = {maxX, maxY, maxZ};
+
+    for (int i = 0; i < 3; i++) {
+      min[i] = matrix.get(3, i);
+      max[i] = matrix.get(3, i);
+
+      for (int j = 0; j < 3; j++) {
+        double a = matrix.get(j, i) * fromMin[j];
+        double b = matrix.get(j, i) * fromMax[j];
+
+        min[i] += Math.min(a, b);
+        max[i] += Math.max(a, b);
+      }
+    }
+
+    return new BoundingBox(min[0], min[1], min[2], max[0], max[1], max[2]);
+  }
+
+  /**
+   * Intersect ray with box.
+   *
+   * <p>Based on: https://tavianator.com/2011/ray_box.html</p>
+   *
+   * @param ray ray
+   *
+   * @return distance along ray where it enters the box, zero if the ray starts inside the box,
+   *         or {@link Double#POSITIVE_INFINITY} if the ray misses the box
+   */
+  public double intersect(Ray ray) {
+    if (isEmpty()) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    var from = ray.getFrom();
+    var direction = ray.getDirection();
+
+    return intersect(from.getX(), from.getY(), from.getZ(),
+        1.0 / direction.getX(), 1.0 / direction.getY(), 1.0 / direction.getZ());
+  }
+
+  /**
+   * Intersect ray with box, using precalculated inverse direction.
+   *
+   * <p>Comparisons are written so that NaNs, arising from rays parallel to a slab, are
+   * ignored. The box is assumed to be non-empty.</p>
+   *
+   * @param fromX     ray origin X
+   * @param fromY     ray origin Y
+   * @param fromZ     ray origin Z
+   * @param invDirX   reciprocal of ray direction X
+   * @param invDirY   reciprocal of ray direction Y
+   * @param invDirZ   reciprocal of ray direction Z
+   *
+   * @return entry distance or {@link Double#POSITIVE_INFINITY} on miss
+   */
+  public double intersect(double fromX, double fromY, double fromZ,
+                          double invDirX, double invDirY, double invDirZ) {
+    double tmin = 0.0;
+    double tmax = Double.POSITIVE_INFINITY;
+
+    double t1 = (minX - fromX) * invDirX;
+    double t2 = (maxX - fromX) * invDirX;
+    double near = t1 > t2 ? t2 : t1;
+    double far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (minY - fromY) * invDirY;
+    t2 = (maxY - fromY) * invDirY;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (minZ - fromZ) * invDirZ;
+    t2 = (maxZ - fromZ) * invDirZ;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    return tmax >= tmin ? tmin : Double.POSITIVE_INFINITY;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("BoundingBox{");
+    sb.append("min=[").append(minX).append(", ").append(minY).append(", ").append(minZ);
+    sb.append("], max=[").append(maxX).append(", ").append(maxY).append(", ").append(maxZ);
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    BoundingBox that = (BoundingBox) o;
+
+    return minX == that.minX && minY == that.minY && minZ == that.minZ
+        && maxX == that.maxX && maxY == that.maxY && maxZ == that.maxZ;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(minX, minY, minZ, maxX, maxY, maxZ);
+  }
+}
@@ -0,0 +1,191 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+
+/**
+ * Mutable record of the closest hit found for a ray so far.
+ *
+ * <p>Shapes fill hit records in place, so a single record can be reused for many raycasts without
+ * allocating a {@link RaycastResult} for each. The record's distance doubles as the search limit:
+ * shapes only update it with hits closer than the current one. Hit records are not thread-safe and
+ * are meant to be confined to a single render thread.</p>
+ */
+public final class HitRecord {
+  private Shape shape;
+  private double distance;
+  private double pointX;
+  private double pointY;
+  private double pointZ;
+  private double normalX;
+  private double normalY;
+  private double normalZ;
+  private double texcoordU;
+  private double texcoordV;
+
+  /**
+   * Create an empty hit record.
+   */
+  public HitRecord() {
+    reset();
+  }
+
+  /**
+   * Clear hit, setting the search limit to infinity.
+   */
+  public void reset() {
+    shape = null;
+    distance = Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Store a hit.
+   *
+   * @param shape     shape hit
+   * @param distance  distance from ray origin
+   * @param point     hit point
+   * @param normal    surface normal at hit point
+   * @param texcoordU texture coordinate U
+   * @param texcoordV texture coordinate V
+   */
+  public void set(Shape shape, double distance, Vector3 point, Vector3 normal,
+                  double texcoordU, double texcoordV) {
+    this.shape = shape;
+    this.distance = distance;
+    this.pointX = point.getX();
+    this.pointY = point.getY();
+    this.pointZ = point.getZ();
+    this.normalX = normal.getX();
+    this.normalY = normal.getY();
+    this.normalZ = normal.getZ();
+    this.texcoordU = texcoordU;
+    this.texcoordV = texcoordV;
+  }
+
+  /**
+   * Copy another hit record into this record.
+   *
+   * @param other hit record
+   */
+  public void set(HitRecord other) {
+    shape = other.shape;
+    distance = other.distance;
+    pointX = other.pointX;
+    pointY = other.pointY;
+    pointZ = other.pointZ;
+    normalX = other.normalX;
+    normalY = other.normalY;
+    normalZ = other.normalZ;
+    texcoordU = other.texcoordU;
+    texcoordV = other.texcoordV;
+  }
+
+  /**
+   * Copy a raycast result into this record.
+   *
+   * @param result raycast result
+   */
+  public void set(RaycastResult result) {
+    if (!result.isHit()) {
+      reset();
+      return;
+    }
+
+    set(result.shape(), result.distance(), result.point(), result.normal(),
+        result.texcoords().get(0), result.texcoords().get(1));
+  }
+
+  /**
+   * Override distance, keeping the rest of the hit.
+   * <p>Meant for converting the search limit to another space before a nested raycast, and back
+   * afterwards if nothing closer was found.</p>
+   *
+   * @param distance distance
+   */
+  public void setDistance(double distance) {
+    this.distance = distance;
+  }
+
+  /**
+   * Transform hit from object space to world space.
+   * <p>The point is transformed by the transform matrix, the normal by the normal matrix, and the
+   * distance is recalculated from the world space ray origin.</p>
+   *
+   * @param transform object to world space transform
+   * @param origin    world space ray origin
+   */
+  public void transform(Transform transform, Vector3 origin) {
+    var point = transform.getMatrix().transformPoint(getPoint());
+    var normal = transform.getNormalMatrix().transformDirection(getNormal()).normalized();
+
+    set(shape, Vector3.distance(origin, point), point, normal, texcoordU, texcoordV);
+  }
+
+  /**
+   * Check whether a hit is stored.
+   *
+   * @return true if hit
+   */
+  public boolean isHit() {
+    return shape != null;
+  }
+
+  /**
+   * Get shape hit.
+   *
+   * @return shape, or null if no hit
+   */
+  public Shape getShape() {
+    return shape;
+  }
+
+  /**
+   * Get hit distance, which is also the limit for further hits.
+   *
+   * @return distance, or infinity if no hit
+   */
+  public double getDistance() {
+    return distance;
+  }
+
+  /**
+   * Get hit point.
+   *
+   * @return hit point
+   */
+  public Vector3 getPoint() {
+    return new Vector3(pointX, pointY, pointZ);
+  }
+
+  /**
+   * Get surface normal at hit point.
+   *
+   * @return normal
+   */
+  public Vector3 getNormal() {
+    return new Vector3(normalX, normalY, normalZ);
+  }
+
+  /**
+   * Get texture coordinates at hit point.
+   *
+   * @return texture coordinates
+   */
+  public Vector getTexcoords() {
+    return new Vector(texcoordU, texcoordV);
+  }
+
+  /**
+   * Convert to an immutable raycast result.
+   *
+   * @return raycast result
+   */
+  public RaycastResult toRaycastResult() {
+    if (!isHit()) {
+      return RaycastResult.NO_HIT;
+    }
+
+    return new RaycastResult(true, shape, distance, getPoint(), getNormal(), getTexcoords());
+  }
+}
@@ -1,14 +1,14 @@
 package com.github.elementbound.jamtracer.raytracing;
 
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import java.util.Objects;
 
 /**
  * Immutable class representing a ray.
  */
 public class Ray {
-  private final Vector from;
-  private final Vector direction;
+  private final Vector3 from;
+  private final Vector3 direction;
 
   /**
    * Construct a ray.
@@ -16,7 +16,7 @@ public class Ray {
    * @param from      ray origin
    * @param direction ray direction
    */
-  public Ray(Vector from, Vector direction) {
+  public Ray(Vector3 from, Vector3 direction) {
     this.from = from;
     this.direction = direction.normalized();
   }
@@ -26,7 +26,7 @@ public class Ray {
    *
    * @return ray origin
    */
-  public Vector getFrom() {
+  public Vector3 getFrom() {
     return from;
   }
 
@@ -36,7 +36,7 @@ public class Ray {
    *
    * @return ray direction
    */
-  public Vector getDirection() {
+  public Vector3 getDirection() {
     return direction;
   }
 
@@ -47,7 +47,7 @@ public class Ray {
    *
    * @return point
    */
-  public Vector getPoint(double distance) {
+  public Vector3 getPoint(double distance) {
     return from.add(direction.scale(distance));
   }
 
@@ -59,7 +59,7 @@ public class Ray {
    *
    * @return ray
    */
-  public static Ray lookat(Vector from, Vector at) {
+  public static Ray lookat(Vector3 from, Vector3 at) {
     return new Ray(
             from,
             at.subtract(from)
@@ -0,0 +1,296 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import java.util.Arrays;
+
+/**
+ * Reusable batch of rays, stored as separate arrays per component (structure of arrays).
+ *
+ * <p>Packets are meant for coherent rays, e.g. primary rays of neighboring pixels, or shadow rays
+ * towards a directional light. Acceleration structures can then test the whole packet against a
+ * node at once, and skip nodes the whole packet misses. Besides per-ray components, the packet
+ * keeps the range of ray origins and inverse directions per axis. If the inverse directions along
+ * every axis are finite and share their sign, the packet is considered coherent, and the ranges can
+ * be used for conservative culling.</p>
+ *
+ * <p>Every ray carries a maximum distance, which is only used by occlusion queries. Packets are
+ * not thread-safe and are meant to be confined to a single render thread.</p>
+ */
+public final class RayPacket {
+  private final int capacity;
+  private final Ray[] rays;
+  private final double[] fromX;
+  private final double[] fromY;
+  private final double[] fromZ;
+  private final double[] invDirX;
+  private final double[] invDirY;
+  private final double[] invDirZ;
+  private final double[] maxDistances;
+  private final double[] fromMin = new double[3];
+  private final double[] fromMax = new double[3];
+  private final double[] invDirMin = new double[3];
+  private final double[] invDirMax = new double[3];
+  private int size;
+
+  /**
+   * Create empty packet.
+   *
+   * @param capacity maximum number of rays
+   */
+  public RayPacket(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive!");
+    }
+
+    this.capacity = capacity;
+    this.rays = new Ray[capacity];
+    this.fromX = new double[capacity];
+    this.fromY = new double[capacity];
+    this.fromZ = new double[capacity];
+    this.invDirX = new double[capacity];
+    this.invDirY = new double[capacity];
+    this.invDirZ = new double[capacity];
+    this.maxDistances = new double[capacity];
+    clear();
+  }
+
+  /**
+   * Remove all rays.
+   */
+  public void clear() {
+    Arrays.fill(rays, 0, size, null);
+    size = 0;
+
+    Arrays.fill(fromMin, Double.POSITIVE_INFINITY);
+    Arrays.fill(fromMax, Double.NEGATIVE_INFINITY);
+    Arrays.fill(invDirMin, Double.POSITIVE_INFINITY);
+    Arrays.fill(invDirMax, Double.NEGATIVE_INFINITY);
+  }
+
+  /**
+   * Add ray without distance limit.
+   *
+   * @param ray ray
+   *
+   * @return index of ray in packet
+   */
+  public int add(Ray ray) {
+    return add(ray, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Add ray.
+   *
+   * @param ray         ray
+   * @param maxDistance maximum distance for occlusion queries
+   *
+   * @return index of ray in packet
+   */
+  public int add(Ray ray, double maxDistance) {
+    if (size == capacity) {
+      throw new IllegalStateException("Packet is full!");
+    }
+
+    var from = ray.getFrom();
+    final var direction = ray.getDirection();
+    int i = size++;
+
+    rays[i] = ray;
+    fromX[i] = from.getX();
+    fromY[i] = from.getY();
+    fromZ[i] = from.getZ();
+    invDirX[i] = 1.0 / direction.getX();
+    invDirY[i] = 1.0 / direction.getY();
+    invDirZ[i] = 1.0 / direction.getZ();
+    maxDistances[i] = maxDistance;
+
+    include(0, fromX[i], invDirX[i]);
+    include(1, fromY[i], invDirY[i]);
+    include(2, fromZ[i], invDirZ[i]);
+
+    return i;
+  }
+
+  /**
+   * Fill target packet with this packet's rays transformed to object space.
+   * <p>Maximum distances are converted as well.</p>
+   *
+   * @param transform transform
+   * @param target    target packet, with enough capacity
+   */
+  public void inverseTransform(Transform transform, RayPacket target) {
+    target.clear();
+
+    for (int i = 0; i < size; i++) {
+      target.add(transform.inverseTransformRay(rays[i]),
+          transform.inverseTransformDistance(rays[i], maxDistances[i]));
+    }
+  }
+
+  /**
+   * Get number of rays.
+   *
+   * @return ray count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get packet capacity.
+   *
+   * @return maximum number of rays
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Get ray.
+   *
+   * @param i ray index
+   *
+   * @return ray
+   */
+  public Ray getRay(int i) {
+    return rays[i];
+  }
+
+  /**
+   * Get maximum distance for occlusion queries.
+   *
+   * @param i ray index
+   *
+   * @return maximum distance
+   */
+  public double getMaxDistance(int i) {
+    return maxDistances[i];
+  }
+
+  /**
+   * Check if packet is coherent, i.e. every ray's direction has the same sign along each axis.
+   *
+   * @return true if coherent
+   */
+  public boolean isCoherent() {
+    for (int axis = 0; axis < 3; axis++) {
+      boolean isFinite = Double.isFinite(invDirMin[axis]) && Double.isFinite(invDirMax[axis]);
+
+      if (!isFinite || (invDirMin[axis] < 0.0 && invDirMax[axis] > 0.0)) {
+        return false;
+      }
+    }
+
+    return size > 0;
+  }
+
+  /**
+   * Get ray origin X components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return origin X components
+   */
+  public double[] getFromX() {
+    return fromX;
+  }
+
+  /**
+   * Get ray origin Y components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return origin Y components
+   */
+  public double[] getFromY() {
+    return fromY;
+  }
+
+  /**
+   * Get ray origin Z components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return origin Z components
+   */
+  public double[] getFromZ() {
+    return fromZ;
+  }
+
+  /**
+   * Get reciprocals of ray direction X components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return inverse direction X components
+   */
+  public double[] getInvDirX() {
+    return invDirX;
+  }
+
+  /**
+   * Get reciprocals of ray direction Y components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return inverse direction Y components
+   */
+  public double[] getInvDirY() {
+    return invDirY;
+  }
+
+  /**
+   * Get reciprocals of ray direction Z components.
+   * <p>The array is <em>not</em> copied and may be longer than the packet, do not modify it.</p>
+   *
+   * @return inverse direction Z components
+   */
+  public double[] getInvDirZ() {
+    return invDirZ;
+  }
+
+  /**
+   * Get smallest ray origin component along axis.
+   *
+   * @param axis axis index
+   *
+   * @return minimum
+   */
+  public double getFromMin(int axis) {
+    return fromMin[axis];
+  }
+
+  /**
+   * Get largest ray origin component along axis.
+   *
+   * @param axis axis index
+   *
+   * @return maximum
+   */
+  public double getFromMax(int axis) {
+    return fromMax[axis];
+  }
+
+  /**
+   * Get smallest inverse direction component along axis.
+   *
+   * @param axis axis index
+   *
+   * @return minimum
+   */
+  public double getInvDirMin(int axis) {
+    return invDirMin[axis];
+  }
+
+  /**
+   * Get largest inverse direction component along axis.
+   *
+   * @param axis axis index
+   *
+   * @return maximum
+   */
+  public double getInvDirMax(int axis) {
+    return invDirMax[axis];
+  }
+
+  private void include(int axis, double from, double invDir) {
+    fromMin[axis] = Math.min(fromMin[axis], from);
+    fromMax[axis] = Math.max(fromMax[axis], from);
+    invDirMin[axis] = Math.min(invDirMin[axis], invDir);
+    invDirMax[axis] = Math.max(invDirMax[axis], invDir);
+  }
+}
@@ -1,23 +1,40 @@
 package com.github.elementbound.jamtracer.raytracing;
 
 import com.github.elementbound.jamtracer.core.Color;
-import com.github.elementbound.jamtracer.core.Vector;
 import com.github.elementbound.jamtracer.display.Display;
 import com.github.elementbound.jamtracer.raytracing.camera.Camera;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
 import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
-import java.awt.Point;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Raytracer implementation.
+ *
+ * <p>Primary rays can be traced in square packets of neighboring pixels, see {@link RayPacket} and
+ * {@link #setPacketSize(int)}. For front-facing primary hits on materials that receive shadows,
+ * shadow rays towards directional lights are traced in packets as well, and handed to the
+ * materials as shadow hints of the {@link TraceContext}. Any further rays, e.g. reflections, are
+ * traced one by one, since they are not coherent enough to benefit from packets.</p>
+ *
+ * <p>Alternatively, tiles can be rendered breadth-first, with a {@link Wavefront} tracing every ray
+ * of the same depth in bulk, and shading hits batched by material.</p>
  */
 public class Raytracer {
+  public static final int DEFAULT_PACKET_SIZE = 1;
+
   private Scene scene;
   private Camera camera;
   private Display display;
+  private TileScheduler tileScheduler;
+  private boolean tileSchedulerOwned;
+  private final RenderStatistics statistics = new RenderStatistics();
 
   private int rayDepthLimit;
+  private int packetSize = DEFAULT_PACKET_SIZE;
+  private boolean wavefrontEnabled;
 
   /**
    * Get scene.
@@ -73,6 +90,47 @@ public class Raytracer {
     this.display = display;
   }
 
+  /**
+   * Get tile scheduler used for rendering.
+   * <p>Unless one is set, a scheduler with default settings is created on first use.</p>
+   *
+   * @return tile scheduler
+   */
+  public TileScheduler getTileScheduler() {
+    if (tileScheduler == null) {
+      tileScheduler = new TileScheduler();
+      tileSchedulerOwned = true;
+    }
+
+    return tileScheduler;
+  }
+
+  /**
+   * Set tile scheduler used for rendering.
+   * <p>If it replaces a scheduler created by default, that one is closed. Schedulers set by the
+   * caller are left for the caller to close.</p>
+   *
+   * @param tileScheduler tile scheduler
+   */
+  public void setTileScheduler(TileScheduler tileScheduler) {
+    if (tileSchedulerOwned && this.tileScheduler != tileScheduler) {
+      this.tileScheduler.close();
+    }
+
+    this.tileScheduler = tileScheduler;
+    this.tileSchedulerOwned = false;
+  }
+
+  /**
+   * Get render statistics.
+   * <p>Statistics accumulate over every rendered frame, until reset.</p>
+   *
+   * @return render statistics
+   */
+  public RenderStatistics getStatistics() {
+    return statistics;
+  }
+
   /**
    * Get ray depth limit.
    *
@@ -91,24 +149,227 @@ public class Raytracer {
     this.rayDepthLimit = rayDepthLimit;
   }
 
+  /**
+   * Get packet size.
+   *
+   * @return width and height of primary ray packets in pixels
+   */
+  public int getPacketSize() {
+    return packetSize;
+  }
+
+  /**
+   * Set packet size.
+   * <p>Primary rays are traced in packets of size by size pixels. Sizes of 1 or less disable
+   * packets, tracing every ray one by one, which is the default. Packets only pay off for scenes
+   * that traverse them together, e.g. {@link BvhScene}, and add overhead to others.</p>
+   *
+   * @param packetSize width and height of primary ray packets in pixels
+   */
+  public void setPacketSize(int packetSize) {
+    this.packetSize = packetSize;
+  }
+
+  /**
+   * Check if tiles are rendered breadth-first, with a {@link Wavefront}.
+   *
+   * @return true if wavefront rendering is enabled
+   */
+  public boolean isWavefrontEnabled() {
+    return wavefrontEnabled;
+  }
+
+  /**
+   * Enable or disable wavefront rendering.
+   *
+   * @param wavefrontEnabled true to render breadth-first, false to render depth-first
+   */
+  public void setWavefrontEnabled(boolean wavefrontEnabled) {
+    this.wavefrontEnabled = wavefrontEnabled;
+  }
+
   /**
    * Render scene.
    */
   public void render() {
-    pixelStream(display.getWidth(), display.getHeight())
-        .parallel()
-        .forEach(screenCoords -> {
-          var ray = getRayForPixel(screenCoords, display, camera);
+    long start = System.nanoTime();
+    getTileScheduler().render(display.getWidth(), display.getHeight(), this::renderTile);
+    statistics.recordFrame(rayDepthLimit, System.nanoTime() - start);
+  }
+
+  private void renderTile(Tile tile) {
+    RenderStatistics.bind(statistics);
+    try {
+      renderPixels(tile);
+    } finally {
+      RenderStatistics.bind(null);
+    }
+  }
+
+  private void renderPixels(Tile tile) {
+    if (wavefrontEnabled) {
+      renderWavefront(tile);
+      return;
+    }
+
+    if (packetSize > 1) {
+      renderPackets(tile);
+      return;
+    }
 
-          var rayContext = new RayContext(this, ray, scene, RaycastResult.NO_HIT, 0);
-          Color resultColor = evaluateRay(ray, rayContext);
+    float[] pixels = new float[tile.width() * tile.height() * 3];
+    var context = new TraceContext(this, scene);
+    int i = 0;
 
-          display.setPixel(screenCoords.x, screenCoords.y, resultColor);
-        });
+    for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+      for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+        var ray = getRayForPixel(x, y, display, camera);
+
+        context.reset();
+        Color resultColor = evaluateRay(ray, context);
+
+        pixels[i++] = (float) resultColor.getRed();
+        pixels[i++] = (float) resultColor.getGreen();
+        pixels[i++] = (float) resultColor.getBlue();
+      }
+    }
+
+    display.setPixels(tile.x(), tile.y(), tile.width(), tile.height(), pixels);
+  }
+
+  private void renderPackets(Tile tile) {
+    float[] pixels = new float[tile.width() * tile.height() * 3];
+    var context = new TraceContext(this, scene);
+
+    int capacity = packetSize * packetSize;
+    var packet = new RayPacket(capacity);
+    var shadowPacket = new RayPacket(capacity);
+    var hits = new HitRecord[capacity];
+    var occluded = new boolean[capacity];
+    Arrays.setAll(hits, i -> new HitRecord());
+
+    List<DirectionalLight> shadowLights = new ArrayList<>();
+    for (var light : scene.getLights()) {
+      if (light instanceof DirectionalLight) {
+        shadowLights.add((DirectionalLight) light);
+      }
+    }
+
+    // Per light and pixel: 0 if unknown, 1 if lit, 2 if in shadow
+    var shadows = new byte[shadowLights.size() * capacity];
+    var shadowPixels = new int[capacity];
+
+    for (int blockY = tile.y(); blockY < tile.y() + tile.height(); blockY += packetSize) {
+      for (int blockX = tile.x(); blockX < tile.x() + tile.width(); blockX += packetSize) {
+        int width = Math.min(packetSize, tile.x() + tile.width() - blockX);
+        int height = Math.min(packetSize, tile.y() + tile.height() - blockY);
+
+        packet.clear();
+        for (int y = blockY; y < blockY + height; y++) {
+          for (int x = blockX; x < blockX + width; x++) {
+            hits[packet.add(getRayForPixel(x, y, display, camera))].reset();
+          }
+        }
+
+        if (rayDepthLimit >= 0) {
+          for (int i = 0; i < packet.size(); i++) {
+            statistics.recordRay(0);
+          }
+
+          scene.raycast(packet, hits);
+        }
+
+        // Trace shadow rays of primary hits
+        Arrays.fill(shadows, (byte) 0);
+        for (int l = 0; l < shadowLights.size(); l++) {
+          var light = shadowLights.get(l);
+          var direction = light.getDirection();
+          shadowPacket.clear();
+
+          for (int i = 0; i < packet.size(); i++) {
+            var hit = hits[i];
+
+            // Surfaces facing away from the light are unlit either way
+            if (hit.isHit() && hit.getShape().getMaterial().receivesShadows()
+                && hit.getNormal().dot(direction) < 0.0) {
+              var point = hit.getPoint();
+              shadowPixels[shadowPacket.add(light.getShadowRay(point, hit.getNormal()),
+                  light.getDistanceToSource(point))] = i;
+            }
+          }
+
+          if (shadowPacket.size() > 0) {
+            scene.occludes(shadowPacket, occluded);
+
+            for (int i = 0; i < shadowPacket.size(); i++) {
+              shadows[l * capacity + shadowPixels[i]] = (byte) (occluded[i] ? 2 : 1);
+            }
+          }
+        }
+
+        // Evaluate materials
+        for (int i = 0; i < packet.size(); i++) {
+          context.reset();
+
+          for (int l = 0; l < shadowLights.size(); l++) {
+            byte shadow = shadows[l * capacity + i];
+
+            if (shadow != 0) {
+              context.setShadowHint(shadowLights.get(l), shadow == 2);
+            }
+          }
+
+          context.nextHit().set(hits[i]);
+          Color resultColor = evaluateHit(packet.getRay(i), hits[i].isHit(), context);
+
+          int x = blockX + i % width;
+          int y = blockY + i / width;
+          int pixel = ((y - tile.y()) * tile.width() + (x - tile.x())) * 3;
+
+          pixels[pixel] = (float) resultColor.getRed();
+          pixels[pixel + 1] = (float) resultColor.getGreen();
+          pixels[pixel + 2] = (float) resultColor.getBlue();
+        }
+      }
+    }
+
+    display.setPixels(tile.x(), tile.y(), tile.width(), tile.height(), pixels);
+  }
+
+  private void renderWavefront(Tile tile) {
+    int blockSize = Math.max(packetSize, 1);
+    var wavefront = new Wavefront(this, scene, tile.width() * tile.height(),
+        blockSize * blockSize);
+
+    // Queue primary rays block by block, so neighboring rays are intersected together
+    for (int blockY = tile.y(); blockY < tile.y() + tile.height(); blockY += blockSize) {
+      for (int blockX = tile.x(); blockX < tile.x() + tile.width(); blockX += blockSize) {
+        int toY = Math.min(blockY + blockSize, tile.y() + tile.height());
+        int toX = Math.min(blockX + blockSize, tile.x() + tile.width());
+
+        for (int y = blockY; y < toY; y++) {
+          for (int x = blockX; x < toX; x++) {
+            int pixel = (y - tile.y()) * tile.width() + (x - tile.x());
+            wavefront.addPrimary(pixel, getRayForPixel(x, y, display, camera));
+          }
+        }
+      }
+    }
+
+    wavefront.run();
+
+    double[] colors = wavefront.getColors();
+    float[] pixels = new float[colors.length];
+    for (int i = 0; i < colors.length; i++) {
+      pixels[i] = (float) colors[i];
+    }
+
+    display.setPixels(tile.x(), tile.y(), tile.width(), tile.height(), pixels);
   }
 
   /**
    * Evaluate result of a given ray.
+   * <p>Adapter for {@link #evaluateRay(Ray, TraceContext)}.</p>
    *
    * @param ray        ray
    * @param rayContext ray context
@@ -116,39 +377,48 @@ public class Raytracer {
    * @return traced color
    */
   public Color evaluateRay(Ray ray, RayContext rayContext) {
-    var contextWithRay = new RayContext(this, ray, rayContext.scene(),
-        rayContext.raycastResult(), rayContext.depth());
-
-    if (rayContext.depth() > rayDepthLimit) {
-      return getSkyColor(contextWithRay);
-    }
+    return evaluateRay(ray, TraceContext.fromRayContext(rayContext));
+  }
 
-    var hitResult = scene.raycast(ray);
+  /**
+   * Evaluate result of a given ray.
+   * <p>A frame is pushed to the context for the ray while its material is evaluated. The frame's
+   * depth is increased by one if the ray hits a shape.</p>
+   *
+   * @param ray     ray
+   * @param context trace context
+   *
+   * @return traced color
+   */
+  public Color evaluateRay(Ray ray, TraceContext context) {
+    int depth = context.getDepth();
+    var hit = context.nextHit();
+    boolean isHit = false;
 
-    if (hitResult.isHit()) {
-      var newContext = new RayContext(this, ray, scene, hitResult,
-          rayContext.depth() + 1);
-      return hitResult.shape().getMaterial().evaluate(newContext);
-    } else {
-      return getSkyColor(contextWithRay);
+    if (depth <= rayDepthLimit) {
+      statistics.recordRay(depth);
+      isHit = scene.raycast(ray, hit);
     }
-  }
 
-  private Color getSkyColor(RayContext rayContext) {
-    return scene.getMaterial().evaluate(rayContext);
+    return evaluateHit(ray, isHit, context);
   }
 
-  private Ray getRayForPixel(Point screenCoords, Display display, Camera camera) {
-    double u = (double) screenCoords.x / display.getWidth();
-    double v = (double) screenCoords.y / display.getHeight();
+  // Evaluate a ray whose hit is already stored in the context's next hit record
+  private Color evaluateHit(Ray ray, boolean isHit, TraceContext context) {
+    int depth = context.getDepth();
+    context.push(ray, isHit ? depth + 1 : depth);
+
+    var material = isHit ? context.getHit().getShape().getMaterial() : scene.getMaterial();
+    var color = material.evaluate(context);
 
-    return camera.getRay(new Vector(u, v));
+    context.pop();
+    return color;
   }
 
-  private Stream<Point> pixelStream(int width, int height) {
-    int pixelCount = width * height;
-    return IntStream.range(0, pixelCount)
-        .map(i -> (79 + i * 97) % pixelCount)
-        .mapToObj(i -> new Point(i % width, i / width));
+  private Ray getRayForPixel(int x, int y, Display display, Camera camera) {
+    double u = (double) x / display.getWidth();
+    double v = (double) y / display.getHeight();
+
+    return camera.getRay(u, v);
   }
 }
@@ -0,0 +1,280 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Counters describing the work done by the raytracer.
+ *
+ * <p>Counters are striped, so they can be updated from every render thread without contention.
+ * Use {@link #snapshot()} to read them. Since counters are updated while being read, a snapshot
+ * taken mid-frame is not necessarily consistent, e.g. hits may be counted for a test that isn't
+ * counted yet.</p>
+ *
+ * <p>Shapes report intersection tests through {@link #recordIntersection(boolean)}, which counts
+ * towards the statistics bound to the current thread. The raytracer binds its statistics to its
+ * render threads for the duration of every tile. Since every shape test is reported, these are
+ * counted in a plain counter per thread, reused across binds, and only added to the statistics
+ * when unbound, i.e. at the end of every tile. Snapshots don't include the tiles in progress.
+ * While no statistics are bound to any thread, reporting skips the per-thread lookup.</p>
+ */
+public class RenderStatistics {
+  /**
+   * Number of depth histogram buckets, the last one counts every deeper ray too.
+   */
+  public static final int DEPTH_BUCKETS = 16;
+
+  private static final ThreadLocal<IntersectionCounter> COUNTER =
+      ThreadLocal.withInitial(IntersectionCounter::new);
+  private static final AtomicInteger BOUND_THREADS = new AtomicInteger();
+
+  private final LongAdder primaryRays = new LongAdder();
+  private final LongAdder reflectionRays = new LongAdder();
+  private final LongAdder shadowRays = new LongAdder();
+  private final LongAdder intersectionTests = new LongAdder();
+  private final LongAdder intersectionHits = new LongAdder();
+  private final LongAdder[] depthHistogram = new LongAdder[DEPTH_BUCKETS];
+
+  private final AtomicLong frames = new AtomicLong();
+  private final AtomicLong totalFrameNanos = new AtomicLong();
+  private volatile long lastFrameNanos;
+  private volatile int rayDepthLimit;
+
+  /**
+   * Create statistics with every counter at zero.
+   */
+  public RenderStatistics() {
+    Arrays.setAll(depthHistogram, i -> new LongAdder());
+  }
+
+  /**
+   * Record a ray cast into the scene, either from the camera or by a material.
+   *
+   * @param depth ray depth, 0 for camera rays
+   */
+  public void recordRay(int depth) {
+    if (depth == 0) {
+      primaryRays.increment();
+    } else {
+      reflectionRays.increment();
+    }
+
+    depthHistogram[Math.min(depth, DEPTH_BUCKETS - 1)].increment();
+  }
+
+  /**
+   * Record a ray cast towards a light source.
+   */
+  public void recordShadowRay() {
+    shadowRays.increment();
+  }
+
+  /**
+   * Record a rendered frame.
+   *
+   * @param rayDepthLimit ray depth limit used for the frame
+   * @param nanos         frame wall time in nanoseconds
+   */
+  public void recordFrame(int rayDepthLimit, long nanos) {
+    this.rayDepthLimit = rayDepthLimit;
+    this.lastFrameNanos = nanos;
+    totalFrameNanos.addAndGet(nanos);
+    frames.incrementAndGet();
+  }
+
+  /**
+   * Reset every counter to zero, along with the last frame's ray depth limit.
+   */
+  public void reset() {
+    primaryRays.reset();
+    reflectionRays.reset();
+    shadowRays.reset();
+    intersectionTests.reset();
+    intersectionHits.reset();
+    Arrays.stream(depthHistogram).forEach(LongAdder::reset);
+
+    frames.set(0L);
+    totalFrameNanos.set(0L);
+    lastFrameNanos = 0L;
+    rayDepthLimit = 0;
+  }
+
+  /**
+   * Take a snapshot of the current counter values.
+   *
+   * @return snapshot
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(
+        frames.get(),
+        lastFrameNanos,
+        totalFrameNanos.get(),
+        primaryRays.sum(),
+        reflectionRays.sum(),
+        shadowRays.sum(),
+        intersectionTests.sum(),
+        intersectionHits.sum(),
+        rayDepthLimit,
+        Arrays.stream(depthHistogram).map(LongAdder::sum).collect(Collectors.toList())
+    );
+  }
+
+  /**
+   * Bind statistics to the current thread, so intersection tests are counted towards them.
+   * <p>Tests counted since the previous bind are added to the previously bound statistics.</p>
+   *
+   * @param statistics statistics, or null to unbind
+   */
+  public static void bind(RenderStatistics statistics) {
+    var counter = COUNTER.get();
+
+    if (counter.statistics != null) {
+      counter.flush();
+      BOUND_THREADS.decrementAndGet();
+    }
+
+    counter.bind(statistics);
+
+    if (statistics != null) {
+      BOUND_THREADS.incrementAndGet();
+    }
+  }
+
+  /**
+   * Record a ray-shape intersection test on the statistics bound to the current thread.
+   * <p>Does nothing if no statistics are bound.</p>
+   *
+   * @param hit whether the test found a hit
+   */
+  public static void recordIntersection(boolean hit) {
+    if (BOUND_THREADS.get() == 0) {
+      return;
+    }
+
+    var counter = COUNTER.get();
+
+    if (counter.statistics != null) {
+      counter.tests++;
+      if (hit) {
+        counter.hits++;
+      }
+    }
+  }
+
+  /**
+   * Intersection tests counted on a single thread, until added to the bound statistics.
+   */
+  private static final class IntersectionCounter {
+    private RenderStatistics statistics;
+    private long tests;
+    private long hits;
+
+    private void bind(RenderStatistics statistics) {
+      this.statistics = statistics;
+      tests = 0L;
+      hits = 0L;
+    }
+
+    private void flush() {
+      statistics.intersectionTests.add(tests);
+      statistics.intersectionHits.add(hits);
+    }
+  }
+
+  /**
+   * Point-in-time view of render statistics.
+   *
+   * @param frames            number of frames rendered
+   * @param lastFrameNanos    wall time of the last frame in nanoseconds
+   * @param totalFrameNanos   wall time of all frames in nanoseconds
+   * @param primaryRays       number of rays cast from the camera
+   * @param reflectionRays    number of rays cast by materials, e.g. reflections
+   * @param shadowRays        number of rays cast towards light sources
+   * @param intersectionTests number of ray-shape intersection tests
+   * @param intersectionHits  number of ray-shape intersection tests that found a hit
+   * @param rayDepthLimit     ray depth limit of the last frame
+   * @param depthHistogram    number of rays per depth, see {@link #DEPTH_BUCKETS}, copied and
+   *                          immutable
+   */
+  public record Snapshot(long frames, long lastFrameNanos, long totalFrameNanos,
+                         long primaryRays, long reflectionRays, long shadowRays,
+                         long intersectionTests, long intersectionHits,
+                         int rayDepthLimit, List<Long> depthHistogram) {
+    /**
+     * Create snapshot.
+     */
+    public Snapshot {
+      depthHistogram = List.copyOf(depthHistogram);
+    }
+
+    /**
+     * Get number of all rays cast.
+     *
+     * @return ray count
+     */
+    public long totalRays() {
+      return primaryRays + reflectionRays + shadowRays;
+    }
+
+    /**
+     * Get average ray throughput over all rendered frames.
+     *
+     * @return rays per second, or 0 if no frames were rendered
+     */
+    public double raysPerSecond() {
+      return totalFrameNanos > 0L ? totalRays() * 1e9 / totalFrameNanos : 0.0;
+    }
+
+    /**
+     * Get the difference between two snapshots, e.g. to see the work done in a time period.
+     * <p>Last frame time and depth limit are kept from this snapshot.</p>
+     *
+     * @param earlier earlier snapshot
+     *
+     * @return difference
+     */
+    public Snapshot since(Snapshot earlier) {
+      var histogram = IntStream.range(0, depthHistogram.size())
+          .mapToObj(i -> depthHistogram.get(i) - earlier.depthHistogram.get(i))
+          .collect(Collectors.toList());
+
+      return new Snapshot(
+          frames - earlier.frames,
+          lastFrameNanos,
+          totalFrameNanos - earlier.totalFrameNanos,
+          primaryRays - earlier.primaryRays,
+          reflectionRays - earlier.reflectionRays,
+          shadowRays - earlier.shadowRays,
+          intersectionTests - earlier.intersectionTests,
+          intersectionHits - earlier.intersectionHits,
+          rayDepthLimit,
+          histogram
+      );
+    }
+
+    @Override
+    public String toString() {
+      // Rays are only cast up to the depth limit
+      int shownDepths = Math.min(rayDepthLimit + 1, depthHistogram.size());
+
+      final StringBuilder sb = new StringBuilder("Snapshot{");
+      sb.append("frames=").append(frames);
+      sb.append(", lastFrameMs=").append(lastFrameNanos / 1_000_000L);
+      sb.append(", raysPerSecond=").append(Math.round(raysPerSecond()));
+      sb.append(", primaryRays=").append(primaryRays);
+      sb.append(", reflectionRays=").append(reflectionRays);
+      sb.append(", shadowRays=").append(shadowRays);
+      sb.append(", intersectionTests=").append(intersectionTests);
+      sb.append(", intersectionHits=").append(intersectionHits);
+      sb.append(", rayDepthLimit=").append(rayDepthLimit);
+      sb.append(", depthHistogram=").append(depthHistogram.subList(0, shownDepths));
+      sb.append('}');
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically logs render statistics.
+ *
+ * <p>Every log entry contains the work done since the previous entry. Logging runs on a daemon
+ * timer thread until the logger is closed.</p>
+ */
+public class RenderStatisticsLogger implements AutoCloseable {
+  private static final Logger LOGGER = Logger.getLogger(RenderStatisticsLogger.class.getName());
+
+  private final RenderStatistics statistics;
+  private final Timer timer;
+  private RenderStatistics.Snapshot previous;
+
+  /**
+   * Start logging statistics.
+   *
+   * @param statistics statistics to log
+   * @param periodMs   logging period in milliseconds
+   */
+  public RenderStatisticsLogger(RenderStatistics statistics, long periodMs) {
+    this.statistics = statistics;
+    this.previous = statistics.snapshot();
+    this.timer = new Timer("render-statistics", true);
+
+    timer.scheduleAtFixedRate(new TimerTask() {
+      @Override
+      public void run() {
+        log();
+      }
+    }, periodMs, periodMs);
+  }
+
+  /**
+   * Log statistics since the previous entry.
+   */
+  public synchronized void log() {
+    var current = statistics.snapshot();
+    var delta = current.since(previous);
+    previous = current;
+
+    LOGGER.log(Level.INFO, "Render statistics: {0}", delta);
+  }
+
+  @Override
+  public void close() {
+    timer.cancel();
+  }
+}
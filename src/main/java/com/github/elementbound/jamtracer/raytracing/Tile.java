@@ -0,0 +1,12 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+/**
+ * Record representing a rectangular region of the framebuffer.
+ *
+ * @param x      left edge, inclusive
+ * @param y      top edge, inclusive
+ * @param width  tile width
+ * @param height tile height
+ */
+public record Tile(int x, int y, int width, int height) {
+}
@@ -0,0 +1,157 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.event.EventSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Schedules rendering by splitting the framebuffer into tiles and rendering them in parallel.
+ *
+ * <p>Tiles are rendered on a dedicated work-stealing pool, independent of the common pool. Each
+ * finished tile is reported through {@link #onTileDone()}. Note that listeners are called from
+ * the worker threads.</p>
+ */
+public class TileScheduler implements AutoCloseable {
+  public static final int DEFAULT_TILE_SIZE = 32;
+
+  private final int tileWidth;
+  private final int tileHeight;
+  private final ForkJoinPool pool;
+  private final EventSource<Tile> onTileDone;
+
+  /**
+   * Construct a scheduler with default tile size, using all available processors.
+   */
+  public TileScheduler() {
+    this(DEFAULT_TILE_SIZE, DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Construct a scheduler.
+   *
+   * @param tileWidth   tile width in pixels
+   * @param tileHeight  tile height in pixels
+   * @param threadCount number of worker threads
+   */
+  public TileScheduler(int tileWidth, int tileHeight, int threadCount) {
+    if (tileWidth <= 0 || tileHeight <= 0) {
+      throw new IllegalArgumentException("Tile size must be positive!");
+    }
+
+    this.tileWidth = tileWidth;
+    this.tileHeight = tileHeight;
+    this.pool = new ForkJoinPool(threadCount);
+    this.onTileDone = new EventSource<>();
+  }
+
+  /**
+   * Get tile width.
+   *
+   * @return tile width
+   */
+  public int getTileWidth() {
+    return tileWidth;
+  }
+
+  /**
+   * Get tile height.
+   *
+   * @return tile height
+   */
+  public int getTileHeight() {
+    return tileHeight;
+  }
+
+  /**
+   * Get number of worker threads.
+   *
+   * @return thread count
+   */
+  public int getThreadCount() {
+    return pool.getParallelism();
+  }
+
+  /**
+   * Event source for finished tiles.
+   *
+   * @return event source
+   */
+  public EventSource<Tile> onTileDone() {
+    return onTileDone;
+  }
+
+  /**
+   * Split an area into tiles.
+   * <p>Tiles on the right and bottom edges may be smaller than the configured size.</p>
+   *
+   * @param width  area width
+   * @param height area height
+   *
+   * @return tiles in row-major order
+   */
+  public List<Tile> split(int width, int height) {
+    List<Tile> tiles = new ArrayList<>();
+
+    for (int y = 0; y < height; y += tileHeight) {
+      for (int x = 0; x < width; x += tileWidth) {
+        tiles.add(new Tile(x, y, Math.min(tileWidth, width - x), Math.min(tileHeight, height - y)));
+      }
+    }
+
+    return tiles;
+  }
+
+  /**
+   * Render an area tile by tile, blocking until every tile is done.
+   *
+   * @param width    area width
+   * @param height   area height
+   * @param renderer renderer called for each tile
+   */
+  public void render(int width, int height, Consumer<Tile> renderer) {
+    var tiles = split(width, height);
+
+    pool.invoke(new TileTask(tiles, 0, tiles.size(), renderer));
+  }
+
+  /**
+   * Shut down worker threads.
+   */
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  private class TileTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Tile> tiles;
+    private final int from;
+    private final int to;
+    private final Consumer<Tile> renderer;
+
+    private TileTask(List<Tile> tiles, int from, int to, Consumer<Tile> renderer) {
+      this.tiles = tiles;
+      this.from = from;
+      this.to = to;
+      this.renderer = renderer;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        // Split range in halves, so idle workers can steal the other half
+        int middle = (from + to) / 2;
+        invokeAll(new TileTask(tiles, from, middle, renderer),
+            new TileTask(tiles, middle, to, renderer));
+      } else if (to > from) {
+        var tile = tiles.get(from);
+        renderer.accept(tile);
+        onTileDone.emit(tile);
+      }
+    }
+  }
+}
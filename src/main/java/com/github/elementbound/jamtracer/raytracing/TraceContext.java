@@ -0,0 +1,219 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.raytracing.light.Light;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import java.util.Arrays;
+
+/**
+ * Mutable context of a ray being traced, the allocation-free counterpart of {@link RayContext}.
+ *
+ * <p>Every traced ray pushes a frame holding the ray, its hit record and its depth, which is
+ * popped once the ray is evaluated. Frames, including their hit records, are reused, so a context
+ * can trace any number of pixels without allocating. Contexts are not thread-safe and are meant
+ * to be confined to a single render thread.</p>
+ *
+ * <p>When primary rays are traced in packets, their shadow rays may be traced in packets as well,
+ * ahead of evaluating materials. The results are stored as shadow hints, which only apply to the
+ * primary frame, and are cleared on {@link #reset()}.</p>
+ */
+public final class TraceContext {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final Raytracer raytracer;
+  private final Scene scene;
+
+  private Ray[] rays = new Ray[INITIAL_CAPACITY];
+  private HitRecord[] hits = new HitRecord[INITIAL_CAPACITY];
+  private int[] depths = new int[INITIAL_CAPACITY];
+  private int top;
+
+  private Light[] hintLights = new Light[INITIAL_CAPACITY];
+  private boolean[] hintValues = new boolean[INITIAL_CAPACITY];
+  private int hintCount;
+
+  /**
+   * Create context with a root frame, i.e. no ray, no hit and depth 0.
+   *
+   * @param raytracer raytracer that this context belongs to
+   * @param scene     traced scene
+   */
+  public TraceContext(Raytracer raytracer, Scene scene) {
+    this.raytracer = raytracer;
+    this.scene = scene;
+
+    Arrays.setAll(hits, i -> new HitRecord());
+    reset();
+  }
+
+  /**
+   * Create context from a ray context, with a single frame copied from it.
+   *
+   * @param rayContext ray context
+   *
+   * @return trace context
+   */
+  public static TraceContext fromRayContext(RayContext rayContext) {
+    var context = new TraceContext(rayContext.raytracer(), rayContext.scene());
+    context.rays[0] = rayContext.ray();
+    context.hits[0].set(rayContext.raycastResult());
+    context.depths[0] = rayContext.depth();
+
+    return context;
+  }
+
+  /**
+   * Pop every frame down to an empty root frame, e.g. before tracing the next pixel.
+   */
+  public void reset() {
+    top = 0;
+    rays[0] = null;
+    hits[0].reset();
+    depths[0] = 0;
+
+    Arrays.fill(hintLights, 0, hintCount, null);
+    hintCount = 0;
+  }
+
+  /**
+   * Get the hit record of the next frame, cleared.
+   * <p>Raycast into the record, then {@link #push(Ray, int)} to make it current.</p>
+   *
+   * @return hit record
+   */
+  public HitRecord nextHit() {
+    if (top + 1 == hits.length) {
+      grow();
+    }
+
+    var hit = hits[top + 1];
+    hit.reset();
+    return hit;
+  }
+
+  /**
+   * Push a frame, using the hit record returned by {@link #nextHit()}.
+   *
+   * @param ray   traced ray
+   * @param depth ray depth
+   */
+  public void push(Ray ray, int depth) {
+    if (top + 1 == hits.length) {
+      grow();
+    }
+
+    top++;
+    rays[top] = ray;
+    depths[top] = depth;
+  }
+
+  /**
+   * Pop current frame.
+   */
+  public void pop() {
+    assert top > 0 : "Can't pop root frame!";
+
+    rays[top] = null;
+    top--;
+  }
+
+  /**
+   * Store whether the primary hit is in shadow of a light.
+   *
+   * @param light      light
+   * @param isInShadow true if in shadow
+   */
+  public void setShadowHint(Light light, boolean isInShadow) {
+    if (hintCount == hintLights.length) {
+      hintLights = Arrays.copyOf(hintLights, hintCount * 2);
+      hintValues = Arrays.copyOf(hintValues, hintCount * 2);
+    }
+
+    hintLights[hintCount] = light;
+    hintValues[hintCount] = isInShadow;
+    hintCount++;
+  }
+
+  /**
+   * Get whether the current hit is in shadow of a light, if already known.
+   *
+   * @param light light
+   *
+   * @return true if in shadow, false if lit, null if unknown or not in the primary frame
+   */
+  public Boolean getShadowHint(Light light) {
+    if (top != 1) {
+      return null;
+    }
+
+    for (int i = 0; i < hintCount; i++) {
+      if (hintLights[i] == light) {
+        return hintValues[i];
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Get raytracer.
+   *
+   * @return raytracer
+   */
+  public Raytracer getRaytracer() {
+    return raytracer;
+  }
+
+  /**
+   * Get traced scene.
+   *
+   * @return scene
+   */
+  public Scene getScene() {
+    return scene;
+  }
+
+  /**
+   * Get ray of the current frame.
+   *
+   * @return ray
+   */
+  public Ray getRay() {
+    return rays[top];
+  }
+
+  /**
+   * Get hit record of the current frame.
+   *
+   * @return hit record
+   */
+  public HitRecord getHit() {
+    return hits[top];
+  }
+
+  /**
+   * Get depth of the current frame.
+   *
+   * @return ray depth
+   */
+  public int getDepth() {
+    return depths[top];
+  }
+
+  /**
+   * Convert current frame to a ray context.
+   *
+   * @return ray context
+   */
+  public RayContext toRayContext() {
+    return new RayContext(raytracer, getRay(), scene, getHit().toRaycastResult(), getDepth());
+  }
+
+  private void grow() {
+    int capacity = hits.length * 2;
+
+    rays = Arrays.copyOf(rays, capacity);
+    depths = Arrays.copyOf(depths, capacity);
+    hits = Arrays.copyOf(hits, capacity);
+    Arrays.setAll(hits, i -> hits[i] != null ? hits[i] : new HitRecord());
+  }
+}
@@ -1,30 +1,36 @@
 package com.github.elementbound.jamtracer.raytracing;
 
-import com.github.elementbound.jamtracer.core.Matrix;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Matrix4;
+import com.github.elementbound.jamtracer.core.Vector3;
 
 /**
  * Class to represent a shape's transform.
+ *
+ * <p>Shapes are rotated around the X, Y and Z axes in this order, then scaled, then translated.
+ * The transform, inverse and normal matrices are calculated directly from these components, and
+ * only when first requested after an update, so transforms updated multiple times between renders
+ * don't waste work on matrices never used. Matrices are cached together in an immutable holder, so
+ * concurrent readers always see a consistent set, at worst calculating it more than once.</p>
  */
 public class Transform {
-  private Vector position;
-  private Vector scale;
-  private Vector rotation;
+  private Vector3 position;
+  private Vector3 scale;
+  private Vector3 rotation;
 
-  private Matrix matrix;
-  private Matrix inverseMatrix;
+  /** Cached matrices, null if dirty. */
+  private volatile Matrices matrices;
+  private long version;
 
   /**
    * Create an identity transform.
    * <p>The identity transform does not change anything about the shape.</p>
    */
   public Transform() {
-    position = Vector.ZERO;
-    scale = Vector.ONE;
-    rotation = Vector.ZERO;
+    position = Vector3.ZERO;
+    scale = Vector3.ONE;
+    rotation = Vector3.ZERO;
 
-    matrix = Matrix.identity(4);
-    inverseMatrix = matrix;
+    matrices = Matrices.IDENTITY;
   }
 
   /**
@@ -34,12 +40,12 @@ public class Transform {
    * @param rotation rotation
    * @param scale scale
    */
-  public Transform(Vector position, Vector rotation, Vector scale) {
+  public Transform(Vector3 position, Vector3 rotation, Vector3 scale) {
     this.position = position;
     this.rotation = rotation;
     this.scale = scale;
 
-    updateMatrices();
+    invalidate();
   }
 
   /**
@@ -47,7 +53,7 @@ public class Transform {
    *
    * @return position
    */
-  public Vector getPosition() {
+  public Vector3 getPosition() {
     return position;
   }
 
@@ -56,7 +62,7 @@ public class Transform {
    *
    * @return scale
    */
-  public Vector getScale() {
+  public Vector3 getScale() {
     return scale;
   }
 
@@ -65,7 +71,7 @@ public class Transform {
    *
    * @return rotation
    */
-  public Vector getRotation() {
+  public Vector3 getRotation() {
     return rotation;
   }
 
@@ -74,8 +80,8 @@ public class Transform {
    *
    * @return transform matrix
    */
-  public Matrix getMatrix() {
-    return matrix;
+  public Matrix4 getMatrix() {
+    return getMatrices().matrix;
   }
 
   /**
@@ -83,8 +89,59 @@ public class Transform {
    *
    * @return inverse transform matrix
    */
-  public Matrix getInverseMatrix() {
-    return inverseMatrix;
+  public Matrix4 getInverseMatrix() {
+    return getMatrices().inverseMatrix;
+  }
+
+  /**
+   * Get normal matrix, i.e. the inverse transpose of the transform matrix, without translation.
+   * <p>Transform surface normals with {@link Matrix4#transformDirection(Vector3)} using this
+   * matrix, then normalize them. Unlike the transform matrix, this keeps normals perpendicular to
+   * surfaces under non-uniform scaling.</p>
+   *
+   * @return normal matrix
+   */
+  public Matrix4 getNormalMatrix() {
+    return getMatrices().normalMatrix;
+  }
+
+  /**
+   * Check if transform keeps axes aligned, i.e. it has no rotation and a positive scale along
+   * every axis.
+   * <p>Such transforms only translate and stretch shapes along the world axes, so shapes can be
+   * intersected directly in world space.</p>
+   *
+   * @return true if axis aligned
+   */
+  public boolean isAxisAligned() {
+    return rotation.getX() % 360.0 == 0.0
+        && rotation.getY() % 360.0 == 0.0
+        && rotation.getZ() % 360.0 == 0.0
+        && scale.getX() > 0.0
+        && scale.getY() > 0.0
+        && scale.getZ() > 0.0;
+  }
+
+  /**
+   * Check if transform is the identity, i.e. it doesn't change anything about the shape.
+   *
+   * @return true if identity
+   */
+  public boolean isIdentity() {
+    return position.equals(Vector3.ZERO)
+        && rotation.equals(Vector3.ZERO)
+        && scale.equals(Vector3.ONE);
+  }
+
+  /**
+   * Get transform version.
+   * <p>The version changes every time the transform is updated, so it can be used to detect
+   * changes and invalidate anything derived from the transform.</p>
+   *
+   * @return version
+   */
+  public long getVersion() {
+    return version;
   }
 
   /**
@@ -104,13 +161,11 @@ public class Transform {
    * @return world space ray
    */
   public Ray transformRay(Ray ray) {
-    var from = ray.getFrom().asHeterogeneous();
-    var to = ray.getPoint(1.0).asHeterogeneous();
-
-    from = matrix.transform(from);
-    to = matrix.transform(to);
+    var matrix = getMatrix();
+    var from = matrix.transformPoint(ray.getFrom());
+    var to = matrix.transformPoint(ray.getPoint(1.0));
 
-    return Ray.lookat(from.asHomogeneous(), to.asHomogeneous());
+    return Ray.lookat(from, to);
   }
 
   /**
@@ -121,51 +176,139 @@ public class Transform {
    * @return object space ray
    */
   public Ray inverseTransformRay(Ray ray) {
-    var from = ray.getFrom().asHeterogeneous();
-    var to = ray.getPoint(1.0).asHeterogeneous();
+    var inverseMatrix = getInverseMatrix();
+    var from = inverseMatrix.transformPoint(ray.getFrom());
+    var to = inverseMatrix.transformPoint(ray.getPoint(1.0));
 
-    from = inverseMatrix.transform(from);
-    to = inverseMatrix.transform(to);
+    return Ray.lookat(from, to);
+  }
 
-    return Ray.lookat(from.asHomogeneous(), to.asHomogeneous());
+  /**
+   * Convert a distance along a world space ray to the same distance along its object space
+   * counterpart, as returned by {@link #inverseTransformRay(Ray)}.
+   *
+   * @param ray      world space ray
+   * @param distance world space distance
+   *
+   * @return object space distance
+   */
+  public double inverseTransformDistance(Ray ray, double distance) {
+    return distance * getInverseMatrix().transformDirection(ray.getDirection()).length();
+  }
+
+  private Matrices getMatrices() {
+    var matrices = this.matrices;
+
+    if (matrices == null) {
+      matrices = Matrices.of(position, rotation, scale);
+      this.matrices = matrices;
+    }
+
+    return matrices;
   }
 
-  private void updateMatrices() {
-    Matrix translation = Matrix.translate(position);
-    Matrix scaling = Matrix.scale(scale);
-    Matrix rotX = Matrix.rotateAroundX(Math.toRadians(rotation.get(0)));
-    Matrix rotY = Matrix.rotateAroundY(Math.toRadians(rotation.get(1)));
-    Matrix rotZ = Matrix.rotateAroundZ(Math.toRadians(rotation.get(2)));
-
-    Matrix inverseTranslation = Matrix.translate(position.scale(-1.0));
-    Matrix inverseScaling = Matrix.scale(Vector.ONE.divide(scale));
-    Matrix inverseRotX = Matrix.rotateAroundX(-Math.toRadians(rotation.get(0)));
-    Matrix inverseRotY = Matrix.rotateAroundY(-Math.toRadians(rotation.get(1)));
-    Matrix inverseRotZ = Matrix.rotateAroundZ(-Math.toRadians(rotation.get(2)));
-
-    matrix = rotX
-            .multiply(rotY)
-            .multiply(rotZ)
-            .multiply(scaling)
-            .multiply(translation);
-
-    inverseMatrix = inverseTranslation
-            .multiply(inverseScaling)
-            .multiply(inverseRotZ)
-            .multiply(inverseRotY)
-            .multiply(inverseRotX);
+  private void invalidate() {
+    matrices = null;
+    version++;
+  }
+
+  /**
+   * Immutable set of matrices derived from the transform components.
+   */
+  private static class Matrices {
+    private static final Matrices IDENTITY = new Matrices(Matrix4.identity(), Matrix4.identity(),
+        Matrix4.identity());
+
+    private final Matrix4 matrix;
+    private final Matrix4 inverseMatrix;
+    private final Matrix4 normalMatrix;
+
+    private Matrices(Matrix4 matrix, Matrix4 inverseMatrix, Matrix4 normalMatrix) {
+      this.matrix = matrix;
+      this.inverseMatrix = inverseMatrix;
+      this.normalMatrix = normalMatrix;
+    }
+
+    private static Matrices of(Vector3 position, Vector3 rotation, Vector3 scale) {
+      double sinX = Math.sin(Math.toRadians(rotation.getX()));
+      double cosX = Math.cos(Math.toRadians(rotation.getX()));
+      double sinY = Math.sin(Math.toRadians(rotation.getY()));
+      double cosY = Math.cos(Math.toRadians(rotation.getY()));
+      double sinZ = Math.sin(Math.toRadians(rotation.getZ()));
+      double cosZ = Math.cos(Math.toRadians(rotation.getZ()));
+
+      // Rotation around X, then Y, then Z, for row vectors
+      double r00 = cosY * cosZ;
+      double r01 = cosY * sinZ;
+      double r02 = -sinY;
+      double r10 = sinX * sinY * cosZ - cosX * sinZ;
+      double r11 = sinX * sinY * sinZ + cosX * cosZ;
+      double r12 = sinX * cosY;
+      double r20 = cosX * sinY * cosZ + sinX * sinZ;
+      double r21 = cosX * sinY * sinZ - sinX * cosZ;
+      double r22 = cosX * cosY;
+
+      double scaleX = scale.getX();
+      double scaleY = scale.getY();
+      double scaleZ = scale.getZ();
+      double inverseScaleX = 1.0 / scaleX;
+      double inverseScaleY = 1.0 / scaleY;
+      double inverseScaleZ = 1.0 / scaleZ;
+
+      double positionX = position.getX();
+      double positionY = position.getY();
+      double positionZ = position.getZ();
+
+      var matrix = new Matrix4(
+          r00 * scaleX, r01 * scaleY, r02 * scaleZ, 0.0,
+          r10 * scaleX, r11 * scaleY, r12 * scaleZ, 0.0,
+          r20 * scaleX, r21 * scaleY, r22 * scaleZ, 0.0,
+          positionX, positionY, positionZ, 1.0
+      );
+
+      // Inverse of rotation is its transpose, applied after inverse scaling
+      double i00 = r00 * inverseScaleX;
+      double i01 = r10 * inverseScaleX;
+      double i02 = r20 * inverseScaleX;
+      double i10 = r01 * inverseScaleY;
+      double i11 = r11 * inverseScaleY;
+      double i12 = r21 * inverseScaleY;
+      double i20 = r02 * inverseScaleZ;
+      double i21 = r12 * inverseScaleZ;
+      double i22 = r22 * inverseScaleZ;
+
+      var inverseMatrix = new Matrix4(
+          i00, i01, i02, 0.0,
+          i10, i11, i12, 0.0,
+          i20, i21, i22, 0.0,
+          -(positionX * i00 + positionY * i10 + positionZ * i20),
+          -(positionX * i01 + positionY * i11 + positionZ * i21),
+          -(positionX * i02 + positionY * i12 + positionZ * i22),
+          1.0
+      );
+
+      var normalMatrix = new Matrix4(
+          i00, i10, i20, 0.0,
+          i01, i11, i21, 0.0,
+          i02, i12, i22, 0.0,
+          0.0, 0.0, 0.0, 1.0
+      );
+
+      return new Matrices(matrix, inverseMatrix, normalMatrix);
+    }
   }
 
   /**
    * Static class to enforce matrix update after changing transform.
    */
   public static class TransformUpdater {
-    private Vector position;
-    private Vector scale;
-    private Vector rotation;
+    private Vector3 position;
+    private Vector3 scale;
+    private Vector3 rotation;
     private final Transform transform;
 
-    private TransformUpdater(Vector position, Vector scale, Vector rotation, Transform transform) {
+    private TransformUpdater(Vector3 position, Vector3 scale, Vector3 rotation,
+                             Transform transform) {
       this.position = position;
       this.scale = scale;
       this.rotation = rotation;
@@ -179,9 +322,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater setPosition(Vector position) {
-      assert position.dimensions() == 3 : "Transform position must be 3D!";
-
+    public TransformUpdater setPosition(Vector3 position) {
       this.position = position;
       return this;
     }
@@ -193,9 +334,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater setScale(Vector scale) {
-      assert scale.dimensions() == 3 : "Transform scale must be 3D!";
-
+    public TransformUpdater setScale(Vector3 scale) {
       this.scale = scale;
       return this;
     }
@@ -207,9 +346,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater setRotation(Vector rotation) {
-      assert rotation.dimensions() == 3 : "Transform rotation must be 3D!";
-
+    public TransformUpdater setRotation(Vector3 rotation) {
       this.rotation = rotation;
       return this;
     }
@@ -221,7 +358,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater translate(Vector offset) {
+    public TransformUpdater translate(Vector3 offset) {
       this.position = this.position.add(offset);
       return this;
     }
@@ -233,7 +370,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater scale(Vector scalars) {
+    public TransformUpdater scale(Vector3 scalars) {
       this.scale = this.scale.multiply(scalars);
       return this;
     }
@@ -257,7 +394,7 @@ public class Transform {
      *
      * @return transform update
      */
-    public TransformUpdater rotate(Vector rotation) {
+    public TransformUpdater rotate(Vector3 rotation) {
       this.rotation = this.rotation.add(rotation);
       return this;
     }
@@ -268,13 +405,13 @@ public class Transform {
     public void done() {
       transform.position = this.position;
       transform.scale = this.scale;
-      transform.rotation = new Vector(
-              this.rotation.get(0) % 360.0,
-              this.rotation.get(1) % 360.0,
-              this.rotation.get(2) % 360.0
+      transform.rotation = new Vector3(
+              this.rotation.getX() % 360.0,
+              this.rotation.getY() % 360.0,
+              this.rotation.getZ() % 360.0
       );
 
-      transform.updateMatrices();
+      transform.invalidate();
     }
   }
 }
@@ -0,0 +1,386 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Breadth-first ray pipeline, tracing every ray of a given depth before moving to the next depth.
+ *
+ * <p>Instead of evaluating each pixel depth-first, the wavefront runs in stages. All queued rays
+ * are intersected in bulk, their hits are sorted by material, and every material shades its own
+ * batch of hits. Materials add color directly, or queue shadow rays and secondary rays carrying a
+ * weight, see {@link Material#shade(Wavefront, int[], int, int)}. Shadow rays are then tested in
+ * bulk, and the secondary rays make up the next wavefront. Once no more rays are queued, every
+ * pixel holds the weighted sum of its contributions.</p>
+ *
+ * <p>Rays beyond the raytracer's ray depth limit are not intersected and are shaded by the scene's
+ * material, the same way as with {@link Raytracer#evaluateRay(Ray, TraceContext)}. Shadow rays
+ * are tested with {@link Scene#occludes(Ray, double)} up to
+ * {@link com.github.elementbound.jamtracer.raytracing.light.Light#getDistanceToSource}.</p>
+ *
+ * <p>Wavefronts are not thread-safe and are meant to be confined to a single render thread.</p>
+ *
+ * <p>Based on: Samuli Laine, Tero Karras, Timo Aila, Megakernels Considered Harmful: Wavefront
+ * Path Tracing on GPUs, 2013</p>
+ */
+public final class Wavefront {
+  private final Raytracer raytracer;
+  private final Scene scene;
+  private final double[] colors;
+  private final RayPacket packet;
+  private final HitRecord[] packetHits;
+  private final boolean[] occluded;
+  private final Map<Material, Integer> materialIds = new IdentityHashMap<>();
+  private TraceContext context;
+
+  private Queue rays = new Queue();
+  private Queue nextRays = new Queue();
+  private final Queue shadowRays = new Queue();
+  private HitRecord[] hits = new HitRecord[0];
+  private Material[] materials = new Material[0];
+  private int[] order = new int[0];
+  private int[] materialCounts = new int[0];
+
+  /**
+   * Create an empty wavefront.
+   *
+   * @param raytracer  raytracer that this wavefront belongs to
+   * @param scene      traced scene
+   * @param pixelCount number of pixels
+   * @param packetSize number of rays to intersect at once, 1 to intersect rays one by one
+   */
+  public Wavefront(Raytracer raytracer, Scene scene, int pixelCount, int packetSize) {
+    this.raytracer = raytracer;
+    this.scene = scene;
+    this.colors = new double[pixelCount * 3];
+    this.packet = new RayPacket(Math.max(packetSize, 1));
+    this.packetHits = new HitRecord[packet.capacity()];
+    this.occluded = new boolean[packet.capacity()];
+  }
+
+  /**
+   * Queue a primary ray.
+   *
+   * @param pixel pixel index
+   * @param ray   ray
+   */
+  public void addPrimary(int pixel, Ray ray) {
+    rays.add(ray, Double.POSITIVE_INFINITY, 0, pixel, 1.0, 1.0, 1.0);
+  }
+
+  /**
+   * Trace every queued ray, until no more rays are queued.
+   */
+  public void run() {
+    while (rays.size > 0) {
+      intersect();
+      shade();
+      traceShadows();
+
+      var queue = rays;
+      rays = nextRays;
+      nextRays = queue;
+      nextRays.clear();
+    }
+  }
+
+  /**
+   * Get accumulated pixel colors.
+   * <p>The array is <em>not</em> copied, three components are stored per pixel.</p>
+   *
+   * @return pixel colors
+   */
+  public double[] getColors() {
+    return colors;
+  }
+
+  /**
+   * Get raytracer.
+   *
+   * @return raytracer
+   */
+  public Raytracer getRaytracer() {
+    return raytracer;
+  }
+
+  /**
+   * Get traced scene.
+   *
+   * @return scene
+   */
+  public Scene getScene() {
+    return scene;
+  }
+
+  /**
+   * Get ray of a queued entry.
+   *
+   * @param index entry index
+   *
+   * @return ray
+   */
+  public Ray getRay(int index) {
+    return rays.rays[index];
+  }
+
+  /**
+   * Get hit record of a queued entry.
+   *
+   * @param index entry index
+   *
+   * @return hit record
+   */
+  public HitRecord getHit(int index) {
+    return hits[index];
+  }
+
+  /**
+   * Get depth of a queued entry.
+   * <p>Same as the depth of the frame evaluated with {@link TraceContext}, i.e. increased by one
+   * if the ray hits a shape.</p>
+   *
+   * @param index entry index
+   *
+   * @return depth
+   */
+  public int getDepth(int index) {
+    int depth = rays.depths[index];
+    return hits[index].isHit() ? depth + 1 : depth;
+  }
+
+  /**
+   * Add color to an entry's pixel, scaled by the entry's weight.
+   *
+   * @param index entry index
+   * @param color color
+   */
+  public void addColor(int index, Color color) {
+    int pixel = rays.pixels[index] * 3;
+
+    colors[pixel] += rays.weightsR[index] * color.getRed();
+    colors[pixel + 1] += rays.weightsG[index] * color.getGreen();
+    colors[pixel + 2] += rays.weightsB[index] * color.getBlue();
+  }
+
+  /**
+   * Queue a secondary ray, e.g. a reflection, to be traced in the next wavefront.
+   * <p>The ray's color will be added to the entry's pixel, scaled by both the entry's weight and
+   * the given weight.</p>
+   *
+   * @param index  entry index
+   * @param ray    secondary ray
+   * @param weight weight
+   */
+  public void trace(int index, Ray ray, Color weight) {
+    nextRays.add(ray, Double.POSITIVE_INFINITY, getDepth(index), rays.pixels[index],
+        rays.weightsR[index] * weight.getRed(),
+        rays.weightsG[index] * weight.getGreen(),
+        rays.weightsB[index] * weight.getBlue());
+  }
+
+  /**
+   * Queue a shadow ray, to be tested once every material in the wavefront is shaded.
+   * <p>If nothing occludes the ray before its maximum distance, the contribution will be added to
+   * the entry's pixel, scaled by the entry's weight.</p>
+   *
+   * @param index        entry index
+   * @param ray          shadow ray
+   * @param maxDistance  distance to light source
+   * @param contribution color contribution if not in shadow
+   */
+  public void traceShadow(int index, Ray ray, double maxDistance, Color contribution) {
+    shadowRays.add(ray, maxDistance, 0, rays.pixels[index],
+        rays.weightsR[index] * contribution.getRed(),
+        rays.weightsG[index] * contribution.getGreen(),
+        rays.weightsB[index] * contribution.getBlue());
+    raytracer.getStatistics().recordShadowRay();
+  }
+
+  /**
+   * Get a trace context with an entry as its current frame.
+   * <p>Meant for materials that shade depth-first. The context is reused, so it's only valid until
+   * the next call.</p>
+   *
+   * @param index entry index
+   *
+   * @return trace context
+   */
+  public TraceContext toTraceContext(int index) {
+    if (context == null) {
+      context = new TraceContext(raytracer, scene);
+    }
+
+    context.reset();
+    context.nextHit().set(hits[index]);
+    context.push(rays.rays[index], getDepth(index));
+    return context;
+  }
+
+  private void intersect() {
+    int size = rays.size;
+    int rayDepthLimit = raytracer.getRayDepthLimit();
+    var statistics = raytracer.getStatistics();
+
+    if (hits.length < size) {
+      int capacity = Math.max(size, hits.length * 2);
+      int from = hits.length;
+
+      hits = Arrays.copyOf(hits, capacity);
+      Arrays.setAll(hits, i -> i < from ? hits[i] : new HitRecord());
+      materials = new Material[capacity];
+      order = new int[capacity];
+    }
+
+    packet.clear();
+    for (int i = 0; i < size; i++) {
+      hits[i].reset();
+
+      int depth = rays.depths[i];
+      if (depth > rayDepthLimit) {
+        continue;
+      }
+
+      statistics.recordRay(depth);
+      packetHits[packet.add(rays.rays[i])] = hits[i];
+
+      if (packet.size() == packet.capacity()) {
+        raycastPacket();
+      }
+    }
+
+    raycastPacket();
+  }
+
+  private void raycastPacket() {
+    if (packet.size() == 1) {
+      scene.raycast(packet.getRay(0), packetHits[0]);
+    } else if (packet.size() > 1) {
+      scene.raycast(packet, packetHits);
+    }
+
+    packet.clear();
+  }
+
+  private void shade() {
+    int size = rays.size;
+
+    // Sort entries by material, in order of first appearance
+    materialIds.clear();
+    for (int i = 0; i < size; i++) {
+      var hit = hits[i];
+      var material = hit.isHit() ? hit.getShape().getMaterial() : scene.getMaterial();
+
+      materials[i] = material;
+      materialIds.putIfAbsent(material, materialIds.size());
+    }
+
+    int materialCount = materialIds.size();
+    if (materialCounts.length < materialCount + 1) {
+      materialCounts = new int[materialCount + 1];
+    }
+    Arrays.fill(materialCounts, 0);
+
+    Material[] batchMaterials = new Material[materialCount];
+    for (int i = 0; i < size; i++) {
+      int id = materialIds.get(materials[i]);
+      batchMaterials[id] = materials[i];
+      materialCounts[id + 1]++;
+    }
+
+    for (int id = 0; id < materialCount; id++) {
+      materialCounts[id + 1] += materialCounts[id];
+    }
+
+    int[] offsets = Arrays.copyOf(materialCounts, materialCount);
+    for (int i = 0; i < size; i++) {
+      order[offsets[materialIds.get(materials[i])]++] = i;
+    }
+
+    for (int id = 0; id < materialCount; id++) {
+      batchMaterials[id].shade(this, order, materialCounts[id], materialCounts[id + 1]);
+    }
+
+    Arrays.fill(materials, 0, size, null);
+  }
+
+  private void traceShadows() {
+    int size = shadowRays.size;
+
+    for (int from = 0; from < size; from += packet.capacity()) {
+      int to = Math.min(from + packet.capacity(), size);
+
+      packet.clear();
+      for (int i = from; i < to; i++) {
+        packet.add(shadowRays.rays[i], shadowRays.maxDistances[i]);
+      }
+
+      scene.occludes(packet, occluded);
+
+      for (int i = from; i < to; i++) {
+        if (!occluded[i - from]) {
+          int pixel = shadowRays.pixels[i] * 3;
+
+          colors[pixel] += shadowRays.weightsR[i];
+          colors[pixel + 1] += shadowRays.weightsG[i];
+          colors[pixel + 2] += shadowRays.weightsB[i];
+        }
+      }
+    }
+
+    packet.clear();
+    shadowRays.clear();
+  }
+
+  /**
+   * Growable queue of rays, stored as separate arrays per component.
+   */
+  private static class Queue {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Ray[] rays = new Ray[INITIAL_CAPACITY];
+    private double[] maxDistances = new double[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private int[] pixels = new int[INITIAL_CAPACITY];
+    private double[] weightsR = new double[INITIAL_CAPACITY];
+    private double[] weightsG = new double[INITIAL_CAPACITY];
+    private double[] weightsB = new double[INITIAL_CAPACITY];
+    private int size;
+
+    private void add(Ray ray, double maxDistance, int depth, int pixel,
+                     double weightR, double weightG, double weightB) {
+      if (size == rays.length) {
+        grow();
+      }
+
+      rays[size] = ray;
+      maxDistances[size] = maxDistance;
+      depths[size] = depth;
+      pixels[size] = pixel;
+      weightsR[size] = weightR;
+      weightsG[size] = weightG;
+      weightsB[size] = weightB;
+      size++;
+    }
+
+    private void clear() {
+      Arrays.fill(rays, 0, size, null);
+      size = 0;
+    }
+
+    private void grow() {
+      int capacity = rays.length * 2;
+
+      rays = Arrays.copyOf(rays, capacity);
+      maxDistances = Arrays.copyOf(maxDistances, capacity);
+      depths = Arrays.copyOf(depths, capacity);
+      pixels = Arrays.copyOf(pixels, capacity);
+      weightsR = Arrays.copyOf(weightsR, capacity);
+      weightsG = Arrays.copyOf(weightsG, capacity);
+      weightsB = Arrays.copyOf(weightsB, capacity);
+    }
+  }
+}
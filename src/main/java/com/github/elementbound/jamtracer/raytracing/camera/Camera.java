@@ -16,5 +16,18 @@ public interface Camera extends Transformable {
    *
    * @return ray
    */
-  Ray getRay(Vector texcoords);
+  default Ray getRay(Vector texcoords) {
+    return getRay(texcoords.get(0), texcoords.get(1));
+  }
+
+  /**
+   * Get ray corresponding to given texture coordinates.
+   * <p>Both coordinates are expected to be in the [0,1] range.</p>
+   *
+   * @param u horizontal texture coordinate
+   * @param v vertical texture coordinate
+   *
+   * @return ray
+   */
+  Ray getRay(double u, double v);
 }
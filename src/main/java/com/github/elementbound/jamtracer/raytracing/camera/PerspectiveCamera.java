@@ -1,6 +1,6 @@
 package com.github.elementbound.jamtracer.raytracing.camera;
 
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.Transform;
 
@@ -80,17 +80,17 @@ public class PerspectiveCamera implements Camera {
   }
 
   @Override
-  public Ray getRay(Vector texcoords) {
+  public Ray getRay(double u, double v) {
     double planeHeight = Math.tan(Math.toRadians(this.fieldOfView) / 2.0);
     double planeWidth = planeHeight * aspectRatio;
 
-    Vector target = new Vector(
-            (2.0 * texcoords.get(0) - 1.0) * planeWidth,
+    Vector3 target = new Vector3(
+            (2.0 * u - 1.0) * planeWidth,
             1.0,
-            (1.0 - 2.0 * texcoords.get(1)) * planeHeight
+            (1.0 - 2.0 * v) * planeHeight
     );
 
-    return transform.transformRay(Ray.lookat(Vector.ZERO, target));
+    return transform.transformRay(Ray.lookat(Vector3.ZERO, target));
   }
 
   @Override
@@ -1,9 +1,8 @@
 package com.github.elementbound.jamtracer.raytracing.light;
 
 import com.github.elementbound.jamtracer.core.Color;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Ray;
-import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 
 /**
  * Class representing an omnipresent light source, radiating light in a given direction.
@@ -11,7 +10,8 @@ import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 public class DirectionalLight implements Light {
   private Color color;
   private double intensity;
-  private Vector direction;
+  private Vector3 direction;
+  private Vector3 directionTowardsSource;
 
   @Override
   public Color getColor() {
@@ -28,7 +28,7 @@ public class DirectionalLight implements Light {
    *
    * @return direction
    */
-  public Vector getDirection() {
+  public Vector3 getDirection() {
     return direction;
   }
 
@@ -47,22 +47,28 @@ public class DirectionalLight implements Light {
    *
    * @param direction direction
    */
-  public void setDirection(Vector direction) {
+  public void setDirection(Vector3 direction) {
     this.direction = direction.normalized();
+    this.directionTowardsSource = this.direction.scale(-1.0);
   }
 
   @Override
-  public Ray getRayTowardsSource(Vector point) {
-    return new Ray(point, direction.scale(-1.0));
+  public Ray getRayTowardsSource(Vector3 point) {
+    return new Ray(point, directionTowardsSource);
   }
 
   @Override
-  public boolean isInShadow(Vector point, RaycastResult raycastResult) {
-    return raycastResult.isHit();
+  public Vector3 getDirectionTowardsSource(Vector3 point) {
+    return directionTowardsSource;
   }
 
   @Override
-  public double getContributionStrength(Vector point) {
+  public double getDistanceToSource(Vector3 point) {
+    return Double.POSITIVE_INFINITY;
+  }
+
+  @Override
+  public double getContributionStrength(Vector3 point) {
     return 1.0;
   }
 }
@@ -1,14 +1,18 @@
 package com.github.elementbound.jamtracer.raytracing.light;
 
 import com.github.elementbound.jamtracer.core.Color;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
 
 /**
  * Interface to represent lights.
  */
 public interface Light {
+  /** Offset of shadow ray origins along the surface normal, to avoid self-shadowing. */
+  double SHADOW_BIAS = 0.005;
+
   /**
    * Get light color.
    *
@@ -40,24 +44,100 @@ public interface Light {
   /**
    * Get a ray from surface points towards the light source.
    * <p>This ray can be used to determine whether the surface is in shadow or not using
-   * {@link Light#isInShadow(Vector, RaycastResult)}</p>
+   * {@link Light#isInShadow(Scene, Ray, Vector3)}</p>
    *
    * @param point surface point
    *
    * @return ray towards light
    */
-  Ray getRayTowardsSource(Vector point);
+  Ray getRayTowardsSource(Vector3 point);
+
+  /**
+   * Get direction from surface point towards the light source.
+   * <p>Same as the direction of {@link Light#getRayTowardsSource(Vector3)}, without building a
+   * ray.</p>
+   *
+   * @param point surface point
+   *
+   * @return direction towards light, normalized
+   */
+  default Vector3 getDirectionTowardsSource(Vector3 point) {
+    return getRayTowardsSource(point).getDirection();
+  }
+
+  /**
+   * Get a ray from surface point towards the light source, offset along the surface normal.
+   * <p>Use this ray with {@link Light#isInShadow(Scene, Ray, Vector3)}. Shadow rays traced in
+   * packets are built the same way, so they agree with shadow rays traced one by one.</p>
+   *
+   * @param point  surface point
+   * @param normal surface normal
+   *
+   * @return shadow ray
+   */
+  default Ray getShadowRay(Vector3 point, Vector3 normal) {
+    return new Ray(point.add(normal.scale(SHADOW_BIAS)), getDirectionTowardsSource(point));
+  }
+
+  /**
+   * Get distance from surface point to the light source.
+   * <p>Lights without a position should return {@link Double#POSITIVE_INFINITY}.</p>
+   *
+   * @param point surface point
+   *
+   * @return distance
+   */
+  double getDistanceToSource(Vector3 point);
 
   /**
    * Determine whether a surface point is in shadow based on raycast result.
-   * <p>The ray can be obtained using {@link Light#getRayTowardsSource(Vector)}</p>
+   * <p>The ray can be obtained using {@link Light#getRayTowardsSource(Vector3)}</p>
    *
    * @param point         surface point
    * @param raycastResult raycast result
    *
    * @return true if in shadow, false otherwise
    */
-  boolean isInShadow(Vector point, RaycastResult raycastResult);
+  default boolean isInShadow(Vector3 point, RaycastResult raycastResult) {
+    return raycastResult.isHit() && raycastResult.distance() < getDistanceToSource(point);
+  }
+
+  /**
+   * Determine whether a surface point is in shadow by querying the scene for occluders.
+   * <p>The ray can be obtained using {@link Light#getRayTowardsSource(Vector3)}, its origin may be
+   * biased to avoid self-shadowing. Prefer this over raycasting, since it doesn't search for the
+   * closest hit.</p>
+   *
+   * @param scene            scene
+   * @param rayTowardsSource ray towards light source
+   * @param point            surface point
+   *
+   * @return true if in shadow, false otherwise
+   */
+  default boolean isInShadow(Scene scene, Ray rayTowardsSource, Vector3 point) {
+    return scene.occludes(rayTowardsSource, getDistanceToSource(point));
+  }
+
+  /**
+   * Determine whether a surface point is in shadow by querying the scene for occluders.
+   * <p>Queries the same ray as {@link Light#getShadowRay(Vector3, Vector3)}, but passes its origin
+   * and direction as components, so no ray is built unless the scene needs one.</p>
+   *
+   * @param scene     scene
+   * @param point     surface point
+   * @param normal    surface normal
+   * @param direction direction towards light, see {@link #getDirectionTowardsSource(Vector3)}
+   *
+   * @return true if in shadow, false otherwise
+   */
+  default boolean isInShadow(Scene scene, Vector3 point, Vector3 normal, Vector3 direction) {
+    return scene.occludes(
+        point.getX() + normal.getX() * SHADOW_BIAS,
+        point.getY() + normal.getY() * SHADOW_BIAS,
+        point.getZ() + normal.getZ() * SHADOW_BIAS,
+        direction.getX(), direction.getY(), direction.getZ(),
+        getDistanceToSource(point));
+  }
 
   /**
    * Get light strength at given surface point.
@@ -66,5 +146,5 @@ public interface Light {
    *
    * @return light strength
    */
-  double getContributionStrength(Vector point);
+  double getContributionStrength(Vector3 point);
 }
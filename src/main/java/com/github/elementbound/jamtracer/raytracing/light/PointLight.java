@@ -1,9 +1,8 @@
 package com.github.elementbound.jamtracer.raytracing.light;
 
 import com.github.elementbound.jamtracer.core.Color;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Ray;
-import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 
 /**
  * Class representing a light source emanating from a single point in space.
@@ -11,7 +10,7 @@ import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 public class PointLight implements Light {
   private Color color;
   private double intensity;
-  private Vector position;
+  private Vector3 position;
 
   @Override
   public Color getColor() {
@@ -28,7 +27,7 @@ public class PointLight implements Light {
    *
    * @return light position
    */
-  public Vector getPosition() {
+  public Vector3 getPosition() {
     return position;
   }
 
@@ -47,26 +46,27 @@ public class PointLight implements Light {
    *
    * @param position light position
    */
-  public void setPosition(Vector position) {
+  public void setPosition(Vector3 position) {
     this.position = position;
   }
 
   @Override
-  public Ray getRayTowardsSource(Vector point) {
+  public Ray getRayTowardsSource(Vector3 point) {
     return Ray.lookat(point, position);
   }
 
   @Override
-  public boolean isInShadow(Vector point, RaycastResult raycastResult) {
-    if (!raycastResult.isHit()) {
-      return false;
-    } else {
-      return raycastResult.distance() < Vector.distance(point, position);
-    }
+  public Vector3 getDirectionTowardsSource(Vector3 point) {
+    return position.subtract(point).normalized();
   }
 
   @Override
-  public double getContributionStrength(Vector point) {
-    return 1.0 / (1.0 + Vector.distance(position, point));
+  public double getDistanceToSource(Vector3 point) {
+    return Vector3.distance(point, position);
+  }
+
+  @Override
+  public double getContributionStrength(Vector3 point) {
+    return 1.0 / (1.0 + Vector3.distance(position, point));
   }
 }
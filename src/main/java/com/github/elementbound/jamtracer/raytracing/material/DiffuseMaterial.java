@@ -4,7 +4,8 @@ import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.core.MathUtils;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RayContext;
-import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.TraceContext;
+import com.github.elementbound.jamtracer.raytracing.Wavefront;
 import com.github.elementbound.jamtracer.raytracing.pigment.Pigment;
 
 /**
@@ -27,28 +28,75 @@ public class DiffuseMaterial implements Material {
 
   @Override
   public Color evaluate(RayContext rayContext) {
+    return evaluate(TraceContext.fromRayContext(rayContext));
+  }
+
+  @Override
+  public Color evaluate(TraceContext context) {
     Color contributions = Color.BLACK;
 
-    var scene = rayContext.scene();
-    var point = rayContext.raycastResult().point();
-    var normal = rayContext.raycastResult().normal();
+    var scene = context.getScene();
+    var hit = context.getHit();
+    var point = hit.getPoint();
+    var normal = hit.getNormal();
 
     for (var light : scene.getLights()) {
-      Ray rayTowardsLight = light.getRayTowardsSource(point);
-      RaycastResult shadowResult = scene.raycastWithBias(rayTowardsLight, normal.scale(0.005));
-      boolean isInShadow = light.isInShadow(point, shadowResult);
+      var direction = light.getDirectionTowardsSource(point);
+      double cosine = normal.dot(direction);
+
+      if (cosine <= 0.0) {
+        // Facing away from light, no need to check for shadows
+        continue;
+      }
+
+      Boolean shadowHint = context.getShadowHint(light);
+      boolean isInShadow = shadowHint != null
+          ? shadowHint
+          : light.isInShadow(scene, point, normal, direction);
+      context.getRaytracer().getStatistics().recordShadowRay();
 
       if (isInShadow) {
         // No contribution from light
         continue;
       }
 
-      var f = MathUtils.saturate(normal.dot(rayTowardsLight.getDirection()))
-          * light.getContributionStrength(point);
+      var f = MathUtils.saturate(cosine) * light.getContributionStrength(point);
 
       contributions = contributions.add(light.getColor().multiply(light.getIntensity() * f));
     }
 
-    return pigment.evaluate(rayContext.raycastResult().texcoords()).multiply(contributions);
+    return pigment.evaluate(hit.getTexcoords()).multiply(contributions);
+  }
+
+  @Override
+  public void shade(Wavefront wavefront, int[] indices, int from, int to) {
+    var lights = wavefront.getScene().getLights();
+
+    for (int i = from; i < to; i++) {
+      int index = indices[i];
+      var hit = wavefront.getHit(index);
+      var point = hit.getPoint();
+      var normal = hit.getNormal();
+      var color = pigment.evaluate(hit.getTexcoords());
+
+      for (var light : lights) {
+        Ray shadowRay = light.getShadowRay(point, normal);
+        var f = MathUtils.saturate(normal.dot(shadowRay.getDirection()))
+            * light.getContributionStrength(point);
+
+        if (f <= 0.0) {
+          continue;
+        }
+
+        var contribution = color.multiply(light.getColor().multiply(light.getIntensity() * f));
+
+        wavefront.traceShadow(index, shadowRay, light.getDistanceToSource(point), contribution);
+      }
+    }
+  }
+
+  @Override
+  public boolean receivesShadows() {
+    return true;
   }
 }
@@ -2,6 +2,9 @@ package com.github.elementbound.jamtracer.raytracing.material;
 
 import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.raytracing.RayContext;
+import com.github.elementbound.jamtracer.raytracing.TraceContext;
+import com.github.elementbound.jamtracer.raytracing.Wavefront;
+import com.github.elementbound.jamtracer.raytracing.light.Light;
 import com.github.elementbound.jamtracer.raytracing.pigment.ColorPigment;
 
 /**
@@ -20,4 +23,48 @@ public interface Material {
    * @return material color
    */
   Color evaluate(RayContext rayContext);
+
+  /**
+   * Evaluate material for given point on surface.
+   * <p>This is the allocation-free counterpart of {@link #evaluate(RayContext)}, the point on
+   * surface is described by the context's current frame. The raytracer always calls this, so
+   * materials <em>should</em> override it. The default implementation adapts
+   * {@link #evaluate(RayContext)}.</p>
+   *
+   * @param context trace context
+   *
+   * @return material color
+   */
+  default Color evaluate(TraceContext context) {
+    return evaluate(context.toRayContext());
+  }
+
+  /**
+   * Shade a batch of wavefront entries hitting this material.
+   * <p>Instead of evaluating further rays recursively, materials should queue them on the
+   * wavefront. By default, every entry is evaluated depth-first with
+   * {@link #evaluate(TraceContext)}.</p>
+   *
+   * @param wavefront wavefront
+   * @param indices   entry indices
+   * @param from      first index in batch, inclusive
+   * @param to        last index in batch, exclusive
+   */
+  default void shade(Wavefront wavefront, int[] indices, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int index = indices[i];
+      wavefront.addColor(index, evaluate(wavefront.toTraceContext(index)));
+    }
+  }
+
+  /**
+   * Check if material casts shadow rays when evaluated.
+   * <p>The raytracer traces shadow rays of primary hits in packets ahead of evaluation for
+   * materials that do, see {@link TraceContext#getShadowHint(Light)}.</p>
+   *
+   * @return true if material casts shadow rays
+   */
+  default boolean receivesShadows() {
+    return false;
+  }
 }
@@ -1,9 +1,12 @@
 package com.github.elementbound.jamtracer.raytracing.material;
 
 import com.github.elementbound.jamtracer.core.Color;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RayContext;
+import com.github.elementbound.jamtracer.raytracing.TraceContext;
+import com.github.elementbound.jamtracer.raytracing.Wavefront;
 
 /**
  * Material implementation for purely reflective materials.
@@ -11,13 +14,32 @@ import com.github.elementbound.jamtracer.raytracing.RayContext;
 public class ReflectiveMaterial implements Material {
   @Override
   public Color evaluate(RayContext rayContext) {
-    var point = rayContext.raycastResult().point();
-    var normal = rayContext.raycastResult().normal();
-    var incoming = rayContext.ray().getDirection();
+    return evaluate(TraceContext.fromRayContext(rayContext));
+  }
+
+  @Override
+  public Color evaluate(TraceContext context) {
+    var reflectedRay = reflect(context.getRay(), context.getHit());
+    return context.getRaytracer().evaluateRay(reflectedRay, context);
+  }
+
+  @Override
+  public void shade(Wavefront wavefront, int[] indices, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int index = indices[i];
+      wavefront.trace(index, reflect(wavefront.getRay(index), wavefront.getHit(index)),
+          Color.WHITE);
+    }
+  }
+
+  private static Ray reflect(Ray ray, HitRecord hit) {
+    var point = hit.getPoint();
+    var normal = hit.getNormal();
+    var incoming = ray.getDirection();
     var biasedOrigin = point.add(normal.scale(0.005));
 
-    var reflectTo = Vector.reflect(incoming, normal).normalized();
+    var reflectTo = Vector3.reflect(incoming, normal).normalized();
 
-    return rayContext.raytracer().evaluateRay(new Ray(biasedOrigin, reflectTo), rayContext);
+    return new Ray(biasedOrigin, reflectTo);
   }
 }
@@ -2,6 +2,8 @@ package com.github.elementbound.jamtracer.raytracing.material;
 
 import com.github.elementbound.jamtracer.core.Color;
 import com.github.elementbound.jamtracer.raytracing.RayContext;
+import com.github.elementbound.jamtracer.raytracing.TraceContext;
+import com.github.elementbound.jamtracer.raytracing.Wavefront;
 import com.github.elementbound.jamtracer.raytracing.pigment.Pigment;
 
 /**
@@ -31,6 +33,20 @@ public class SkyMaterial implements Material {
 
   @Override
   public Color evaluate(RayContext rayContext) {
-    return pigment.evaluate(rayContext.ray().getDirection());
+    return pigment.evaluate(rayContext.ray().getDirection().toVector());
+  }
+
+  @Override
+  public Color evaluate(TraceContext context) {
+    return pigment.evaluate(context.getRay().getDirection().toVector());
+  }
+
+  @Override
+  public void shade(Wavefront wavefront, int[] indices, int from, int to) {
+    for (int i = from; i < to; i++) {
+      int index = indices[i];
+      var direction = wavefront.getRay(index).getDirection();
+      wavefront.addColor(index, pigment.evaluate(direction.toVector()));
+    }
   }
 }
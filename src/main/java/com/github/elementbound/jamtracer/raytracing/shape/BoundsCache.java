@@ -0,0 +1,61 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import java.util.function.Supplier;
+
+/**
+ * Cache for a shape's transformed bounding box.
+ *
+ * <p>The cached box is kept until the transform is replaced, updated, or the cache is explicitly
+ * invalidated. The cache can be safely read from multiple threads, at worst the bounds are
+ * calculated more than once.</p>
+ */
+public class BoundsCache {
+  private static final double BOUNDS_MARGIN = 1e-7;
+
+  private Entry entry;
+
+  /**
+   * Get bounds, recalculating if needed.
+   *
+   * @param transform   transform to apply
+   * @param localBounds supplier for untransformed bounds
+   *
+   * @return transformed bounds
+   */
+  public BoundingBox get(Transform transform, Supplier<BoundingBox> localBounds) {
+    var entry = this.entry;
+
+    if (entry == null || entry.transform != transform
+        || entry.version != transform.getVersion()) {
+      var bounds = localBounds.get()
+          .transform(transform.getMatrix())
+          .grow(BOUNDS_MARGIN);
+
+      entry = new Entry(transform, transform.getVersion(), bounds);
+      this.entry = entry;
+    }
+
+    return entry.bounds;
+  }
+
+  /**
+   * Invalidate cache, forcing recalculation on next query.
+   */
+  public void invalidate() {
+    entry = null;
+  }
+
+  private static class Entry {
+    private final Transform transform;
+    private final long version;
+    private final BoundingBox bounds;
+
+    private Entry(Transform transform, long version, BoundingBox bounds) {
+      this.transform = transform;
+      this.version = version;
+      this.bounds = bounds;
+    }
+  }
+}
@@ -1,18 +1,27 @@
 package com.github.elementbound.jamtracer.raytracing.shape;
 
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.RenderStatistics;
 import com.github.elementbound.jamtracer.raytracing.Transform;
 import com.github.elementbound.jamtracer.raytracing.material.Material;
 
 /**
  * Shape representing a unit-cube at origin.
  * <p>Use the transform to move or resize the cube.</p>
+ *
+ * <p>If the transform is {@link Transform#isAxisAligned() axis aligned}, the cube is cached as a
+ * world space axis-aligned box, and rays are intersected with it directly, without transforming
+ * them to object space.</p>
  */
 public class CubeShape implements Shape {
   private Transform transform;
   private Material material;
+  private final BoundsCache boundsCache = new BoundsCache();
+  private WorldBox worldBox;
 
   public CubeShape() {
     transform = new Transform();
@@ -39,50 +48,218 @@ public class CubeShape implements Shape {
     this.material = material;
   }
 
+  @Override
+  public BoundingBox getBounds() {
+    return boundsCache.get(transform, () -> BoundingBox.UNIT);
+  }
+
   @Override
   public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var box = getWorldBox();
+    if (box.isEnabled) {
+      return box.raycast(this, ray, hit);
+    }
+
     // Based on: https://tavianator.com/2011/ray_box.html
     var localRay = transform.inverseTransformRay(ray);
+    var from = localRay.getFrom();
+    var direction = localRay.getDirection();
 
     var tmin = Double.NEGATIVE_INFINITY;
     var tmax = Double.POSITIVE_INFINITY;
 
-    for (int i = 0; i < localRay.getDirection().dimensions(); i++) {
-      var t1 = (+1.0 - localRay.getFrom().get(i)) / localRay.getDirection().get(i);
-      var t2 = (-1.0 - localRay.getFrom().get(i)) / localRay.getDirection().get(i);
+    var t1 = (+1.0 - from.getX()) / direction.getX();
+    var t2 = (-1.0 - from.getX()) / direction.getX();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
 
-      tmin = Math.max(tmin, Math.min(t1, t2));
-      tmax = Math.min(tmax, Math.max(t1, t2));
+    t1 = (+1.0 - from.getY()) / direction.getY();
+    t2 = (-1.0 - from.getY()) / direction.getY();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
+
+    t1 = (+1.0 - from.getZ()) / direction.getZ();
+    t2 = (-1.0 - from.getZ()) / direction.getZ();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
+
+    if (tmax < tmin || tmin < 0.0) {
+      RenderStatistics.recordIntersection(false);
+      return false;
+    }
+
+    RenderStatistics.recordIntersection(true);
+
+    Vector3 localPoint = localRay.getPoint(tmin);
+    Vector3 point = transform.getMatrix().transformPoint(localPoint);
+    double distance = Vector3.distance(ray.getFrom(), point);
+
+    // Skip surface attributes if there's a closer hit already
+    if (distance >= hit.getDistance()) {
+      return false;
+    }
+
+    setSurface(hit, distance, point, localPoint, true);
+    return true;
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    var box = getWorldBox();
+    boolean isOccluded = box.isEnabled
+        ? box.intersects(ray, maxDistance)
+        : intersects(ray, maxDistance);
+    RenderStatistics.recordIntersection(isOccluded);
+    return isOccluded;
+  }
+
+  private void setSurface(HitRecord hit, double distance, Vector3 point, Vector3 localPoint,
+                          boolean transformNormal) {
+    Vector3 normal = Vector3.ZERO;
+    double texcoordU = 0.5;
+    double texcoordV = 0.5;
+
+    var absX = Math.abs(localPoint.getX());
+    var absY = Math.abs(localPoint.getY());
+    var absZ = Math.abs(localPoint.getZ());
+
+    if (absX > absY && absX > absZ) {
+      normal = new Vector3(Math.signum(localPoint.getX()), 0.0, 0.0);
+      texcoordU = (1.0 + localPoint.getY()) / 2.0;
+      texcoordV = (1.0 + localPoint.getZ()) / 2.0;
+    } else if (absY > absX && absY > absZ) {
+      normal = new Vector3(0.0, Math.signum(localPoint.getY()), 0.0);
+      texcoordU = (1.0 + localPoint.getX()) / 2.0;
+      texcoordV = (1.0 + localPoint.getZ()) / 2.0;
+    } else if (absZ > absX && absZ > absY) {
+      normal = new Vector3(0.0, 0.0, Math.signum(localPoint.getZ()));
+      texcoordU = (1.0 + localPoint.getX()) / 2.0;
+      texcoordV = (1.0 + localPoint.getY()) / 2.0;
+    }
+
+    if (transformNormal) {
+      normal = transform.getNormalMatrix().transformDirection(normal).normalized();
+    }
+
+    hit.set(this, distance, point, normal, texcoordU, texcoordV);
+  }
+
+  private boolean intersects(Ray ray, double maxDistance) {
+    // Direction is kept unnormalized, so distances along the local ray match world distances
+    var inverseMatrix = transform.getInverseMatrix();
+    var from = inverseMatrix.transformPoint(ray.getFrom());
+    var direction = inverseMatrix.transformDirection(ray.getDirection());
+
+    var tmin = Double.NEGATIVE_INFINITY;
+    var tmax = Double.POSITIVE_INFINITY;
+
+    var t1 = (+1.0 - from.getX()) / direction.getX();
+    var t2 = (-1.0 - from.getX()) / direction.getX();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
+
+    t1 = (+1.0 - from.getY()) / direction.getY();
+    t2 = (-1.0 - from.getY()) / direction.getY();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
+
+    t1 = (+1.0 - from.getZ()) / direction.getZ();
+    t2 = (-1.0 - from.getZ()) / direction.getZ();
+    tmin = Math.max(tmin, Math.min(t1, t2));
+    tmax = Math.min(tmax, Math.max(t1, t2));
+
+    return tmax >= tmin && tmin >= 0.0 && tmin < maxDistance;
+  }
+
+  private WorldBox getWorldBox() {
+    var box = worldBox;
+
+    if (box == null || box.transform != transform || box.version != transform.getVersion()) {
+      box = new WorldBox(transform);
+      worldBox = box;
+    }
+
+    return box;
+  }
+
+  /**
+   * Cube in world space, enabled only for axis aligned transforms.
+   */
+  private static class WorldBox {
+    private final Transform transform;
+    private final long version;
+    private final boolean isEnabled;
+    private final Vector3 center;
+    private final Vector3 halfSize;
+
+    private WorldBox(Transform transform) {
+      this.transform = transform;
+      this.version = transform.getVersion();
+      this.isEnabled = transform.isAxisAligned();
+      this.center = transform.getPosition();
+      this.halfSize = transform.getScale();
     }
 
-    if (tmax >= tmin && tmin >= 0.0) {
-      Vector localPoint = localRay.getPoint(tmin);
-      Vector normal = Vector.ZERO;
-      Vector texcoords = Vector.ZERO;
-
-      var absVector = localPoint.map(Math::abs);
-
-      if (absVector.get(0) > absVector.get(1) && absVector.get(0) > absVector.get(2)) {
-        normal = new Vector(Math.signum(localPoint.get(0)), 0.0, 0.0);
-        texcoords = new Vector(localPoint.get(1), localPoint.get(2));
-      } else if (absVector.get(1) > absVector.get(0) && absVector.get(1) > absVector.get(2)) {
-        normal = new Vector(0.0, Math.signum(localPoint.get(1)), 0.0);
-        texcoords = new Vector(localPoint.get(0), localPoint.get(2));
-      } else if (absVector.get(2) > absVector.get(0) && absVector.get(2) > absVector.get(1)) {
-        normal = new Vector(0.0, 0.0, Math.signum(localPoint.get(2)));
-        texcoords = new Vector(localPoint.get(0), localPoint.get(1));
+    private boolean raycast(CubeShape shape, Ray ray, HitRecord hit) {
+      var from = ray.getFrom();
+      var direction = ray.getDirection();
+      double tmin = entry(from, direction);
+
+      if (Double.isNaN(tmin)) {
+        RenderStatistics.recordIntersection(false);
+        return false;
+      }
+
+      RenderStatistics.recordIntersection(true);
+
+      double distance = tmin * direction.length();
+
+      // Skip surface attributes if there's a closer hit already
+      if (distance >= hit.getDistance()) {
+        return false;
       }
 
-      normal = transform.getMatrix().transform(normal.asHeterogeneousNormal()).asHomogeneous()
-          .normalized();
-      texcoords = texcoords.map(v -> (1.0 + v) / 2.0);
+      var point = ray.getPoint(tmin);
+      var localPoint = point.subtract(center).divide(halfSize);
+
+      // Axis aligned normals are unchanged by the transform
+      shape.setSurface(hit, distance, point, localPoint, false);
+      return true;
+    }
+
+    private boolean intersects(Ray ray, double maxDistance) {
+      double tmin = entry(ray.getFrom(), ray.getDirection());
+      return tmin < maxDistance;
+    }
+
+    private double entry(Vector3 from, Vector3 direction) {
+      // Same slab test as in object space, returns NaN if missed
+      var tmin = Double.NEGATIVE_INFINITY;
+      var tmax = Double.POSITIVE_INFINITY;
 
-      Vector point = transform.getMatrix().transform(localPoint.asHeterogeneous()).asHomogeneous();
-      double distance = Vector.distance(ray.getFrom(), point);
+      var t1 = (center.getX() + halfSize.getX() - from.getX()) / direction.getX();
+      var t2 = (center.getX() - halfSize.getX() - from.getX()) / direction.getX();
+      tmin = Math.max(tmin, Math.min(t1, t2));
+      tmax = Math.min(tmax, Math.max(t1, t2));
+
+      t1 = (center.getY() + halfSize.getY() - from.getY()) / direction.getY();
+      t2 = (center.getY() - halfSize.getY() - from.getY()) / direction.getY();
+      tmin = Math.max(tmin, Math.min(t1, t2));
+      tmax = Math.min(tmax, Math.max(t1, t2));
+
+      t1 = (center.getZ() + halfSize.getZ() - from.getZ()) / direction.getZ();
+      t2 = (center.getZ() - halfSize.getZ() - from.getZ()) / direction.getZ();
+      tmin = Math.max(tmin, Math.min(t1, t2));
+      tmax = Math.min(tmax, Math.max(t1, t2));
 
-      return new RaycastResult(true, this, distance, point, normal, texcoords);
-    } else {
-      return RaycastResult.NO_HIT;
+      return tmax >= tmin && tmin >= 0.0 ? tmin : Double.NaN;
     }
   }
 }
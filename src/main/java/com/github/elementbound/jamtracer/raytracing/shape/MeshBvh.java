@@ -0,0 +1,524 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import java.util.Arrays;
+
+/**
+ * Bounding volume hierarchy over the triangles of a mesh, stored in flat arrays.
+ *
+ * <p>The layout follows {@link com.github.elementbound.jamtracer.raytracing.shape.scene.FlatBvh}:
+ * nodes are in depth-first order, every interior node's left child directly follows it, and per
+ * node {@code nodes} holds either the first triangle and triangle count, or the right child and
+ * zero. Bounds are stored as floats, which is exact, since they are taken from float vertex
+ * positions. Instead of keeping a triangle permutation, the mesh's index array is reordered into
+ * leaf order, so the hierarchy costs nothing per triangle beyond its nodes.</p>
+ *
+ * <p>The hierarchy is built with binned SAH, like
+ * {@link com.github.elementbound.jamtracer.raytracing.shape.scene.SahBvhBuilder}, except that
+ * nodes with at most {@code maxLeafSize} triangles always become leaves. This gives up a little
+ * traversal speed for a smaller hierarchy, as the heuristic would otherwise split small nodes
+ * down to single triangles.</p>
+ */
+final class MeshBvh {
+  static final int DEFAULT_MAX_LEAF_SIZE = 4;
+
+  private static final int BIN_COUNT = 16;
+  private static final int BOUNDS_STRIDE = 6;
+  private static final int NODE_STRIDE = 2;
+
+  private static final ThreadLocal<TraversalStack> STACK =
+      ThreadLocal.withInitial(TraversalStack::new);
+
+  private final float[] positions;
+  private final int[] indices;
+  private final float[] bounds;
+  private final int[] nodes;
+  private final int depth;
+
+  private MeshBvh(float[] positions, int[] indices, float[] bounds, int[] nodes, int depth) {
+    this.positions = positions;
+    this.indices = indices;
+    this.bounds = bounds;
+    this.nodes = nodes;
+    this.depth = depth;
+  }
+
+  /**
+   * Build hierarchy.
+   * <p>Triangles in the index array are reordered in place, into leaf order.</p>
+   *
+   * @param positions   vertex positions, three per vertex
+   * @param indices     vertex indices, three per triangle, at least one triangle
+   * @param maxLeafSize maximum number of triangles per leaf
+   *
+   * @return hierarchy
+   */
+  static MeshBvh build(float[] positions, int[] indices, int maxLeafSize) {
+    var builder = new Builder(positions, indices, maxLeafSize);
+    builder.build(0, indices.length / 3, 0);
+    builder.reorder();
+
+    return new MeshBvh(positions, indices,
+        Arrays.copyOf(builder.bounds, builder.nodeCount * BOUNDS_STRIDE),
+        Arrays.copyOf(builder.nodes, builder.nodeCount * NODE_STRIDE),
+        builder.depth);
+  }
+
+  /**
+   * Restore hierarchy from its arrays, e.g. ones loaded from a cache.
+   * <p>The arrays are <em>not</em> copied. Triangles in the index array must already be in leaf
+   * order.</p>
+   *
+   * @param positions vertex positions, three per vertex
+   * @param indices   vertex indices, three per triangle, at least one triangle
+   * @param bounds    node bounds, six per node
+   * @param nodes     node links, two per node
+   *
+   * @return hierarchy
+   *
+   * @throws IllegalArgumentException if the arrays don't describe a valid hierarchy
+   */
+  static MeshBvh of(float[] positions, int[] indices, float[] bounds, int[] nodes) {
+    int nodeCount = nodes.length / NODE_STRIDE;
+    int triangleCount = indices.length / 3;
+
+    if (nodeCount == 0 || nodes.length != nodeCount * NODE_STRIDE
+        || bounds.length != nodeCount * BOUNDS_STRIDE) {
+      throw new IllegalArgumentException("Invalid hierarchy size!");
+    }
+
+    var depths = new int[nodeCount];
+    var stack = new int[nodeCount + 1];
+    int stackSize = 0;
+    int nextNode = 0;
+    int nextTriangle = 0;
+    int depth = 0;
+
+    // Walk the tree depth-first, which must visit every node in storage order
+    stack[stackSize++] = 0;
+
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      int link = nodes[node * NODE_STRIDE];
+      int count = nodes[node * NODE_STRIDE + 1];
+
+      if (node != nextNode++) {
+        throw new IllegalArgumentException("Hierarchy nodes out of order!");
+      }
+
+      if (count > 0) {
+        if (link != nextTriangle || count > triangleCount - nextTriangle) {
+          throw new IllegalArgumentException("Hierarchy leaves out of order!");
+        }
+
+        nextTriangle += count;
+        depth = Math.max(depth, depths[node]);
+      } else {
+        if (count < 0 || link <= node + 1 || link >= nodeCount) {
+          throw new IllegalArgumentException("Invalid hierarchy node!");
+        }
+
+        depths[node + 1] = depths[node] + 1;
+        depths[link] = depths[node] + 1;
+        stack[stackSize++] = link;
+        stack[stackSize++] = node + 1;
+      }
+    }
+
+    if (nextNode != nodeCount || nextTriangle != triangleCount) {
+      throw new IllegalArgumentException("Hierarchy doesn't cover every node and triangle!");
+    }
+
+    return new MeshBvh(positions, indices, bounds, nodes, depth);
+  }
+
+  /**
+   * Get number of nodes, including leaves.
+   *
+   * @return node count
+   */
+  int getNodeCount() {
+    return nodes.length / NODE_STRIDE;
+  }
+
+  /**
+   * Get bounds of every node, six per node: min X, Y, Z then max X, Y, Z.
+   *
+   * @return node bounds, not copied
+   */
+  float[] getNodeBounds() {
+    return bounds;
+  }
+
+  /**
+   * Get links of every node, two per node: for leaves the first triangle and the triangle count,
+   * for interior nodes the index of the right child and zero.
+   *
+   * @return node links, not copied
+   */
+  int[] getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Get bounds of every triangle.
+   *
+   * @return bounds
+   */
+  BoundingBox getBounds() {
+    return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+  }
+
+  /**
+   * Find closest triangle hit by ray.
+   *
+   * @param ray ray, tracking the closest hit
+   *
+   * @return true if a hit was found
+   */
+  boolean raycast(TriangleRay ray) {
+    return traverse(ray, false);
+  }
+
+  /**
+   * Check whether ray hits any triangle within its distance limit.
+   *
+   * @param ray ray
+   *
+   * @return true if a hit was found
+   */
+  boolean occludes(TriangleRay ray) {
+    return traverse(ray, true);
+  }
+
+  private boolean traverse(TriangleRay ray, boolean isAnyHit) {
+    if (intersect(0, ray) >= ray.getDistance()) {
+      return false;
+    }
+
+    var stack = STACK.get().ensure(depth + 1);
+    int[] nodeStack = stack.nodes;
+    double[] distanceStack = stack.distances;
+    int top = 0;
+
+    boolean isHit = false;
+    int node = 0;
+
+    while (true) {
+      int offset = nodes[node * NODE_STRIDE];
+      int count = nodes[node * NODE_STRIDE + 1];
+
+      if (count > 0) {
+        for (int i = offset; i < offset + count; i++) {
+          isHit |= ray.intersect(positions, indices, i);
+        }
+
+        if (isHit && isAnyHit) {
+          return true;
+        }
+      } else {
+        int first = node + 1;
+        int second = offset;
+        double firstDistance = intersect(first, ray);
+        double secondDistance = intersect(second, ray);
+
+        if (firstDistance > secondDistance) {
+          first = offset;
+          second = node + 1;
+          double swap = firstDistance;
+          firstDistance = secondDistance;
+          secondDistance = swap;
+        }
+
+        if (firstDistance < ray.getDistance()) {
+          if (secondDistance < ray.getDistance()) {
+            nodeStack[top] = second;
+            distanceStack[top] = secondDistance;
+            top++;
+          }
+
+          node = first;
+          continue;
+        }
+      }
+
+      do {
+        if (top == 0) {
+          return isHit;
+        }
+
+        top--;
+        node = nodeStack[top];
+      } while (distanceStack[top] >= ray.getDistance());
+    }
+  }
+
+  private double intersect(int node, TriangleRay ray) {
+    // Same as BoundingBox#intersect, reading bounds from the array
+    int i = node * BOUNDS_STRIDE;
+    double tmin = 0.0;
+    double tmax = Double.POSITIVE_INFINITY;
+
+    double t1 = (bounds[i] - ray.fromX) * ray.invDirX;
+    double t2 = (bounds[i + 3] - ray.fromX) * ray.invDirX;
+    double near = t1 > t2 ? t2 : t1;
+    double far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (bounds[i + 1] - ray.fromY) * ray.invDirY;
+    t2 = (bounds[i + 4] - ray.fromY) * ray.invDirY;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (bounds[i + 2] - ray.fromZ) * ray.invDirZ;
+    t2 = (bounds[i + 5] - ray.fromZ) * ray.invDirZ;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    return tmax >= tmin ? tmin : Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Builder holding the scratch space of a single build.
+   */
+  private static class Builder {
+    private final int[] indices;
+    private final int maxLeafSize;
+
+    /** Triangles, as indices into the original index array. */
+    private final int[] order;
+    /** Triangle bounds, min X, Y, Z then max X, Y, Z per triangle. */
+    private final float[] triangleBounds;
+    private final float[] centers;
+
+    private final float[] bounds;
+    private final int[] nodes;
+    private int nodeCount;
+    private int depth;
+
+    private final int[] binCounts = new int[BIN_COUNT];
+    private final float[] binBounds = new float[BIN_COUNT * BOUNDS_STRIDE];
+    private final int[] leftCounts = new int[BIN_COUNT];
+    private final double[] leftAreas = new double[BIN_COUNT];
+    private final double[] rightAreas = new double[BIN_COUNT];
+    private final float[] sweepBounds = new float[BOUNDS_STRIDE];
+
+    private Builder(float[] positions, int[] indices, int maxLeafSize) {
+      int triangleCount = indices.length / 3;
+      final int maxNodeCount = 2 * triangleCount - 1;
+
+      this.indices = indices;
+      this.maxLeafSize = maxLeafSize;
+      this.order = new int[triangleCount];
+      this.triangleBounds = new float[triangleCount * BOUNDS_STRIDE];
+      this.centers = new float[triangleCount * 3];
+      this.bounds = new float[maxNodeCount * BOUNDS_STRIDE];
+      this.nodes = new int[maxNodeCount * NODE_STRIDE];
+
+      for (int triangle = 0; triangle < triangleCount; triangle++) {
+        order[triangle] = triangle;
+
+        for (int axis = 0; axis < 3; axis++) {
+          float a = positions[indices[3 * triangle] * 3 + axis];
+          float b = positions[indices[3 * triangle + 1] * 3 + axis];
+          float c = positions[indices[3 * triangle + 2] * 3 + axis];
+          float min = Math.min(a, Math.min(b, c));
+          float max = Math.max(a, Math.max(b, c));
+
+          triangleBounds[triangle * BOUNDS_STRIDE + axis] = min;
+          triangleBounds[triangle * BOUNDS_STRIDE + 3 + axis] = max;
+          centers[triangle * 3 + axis] = 0.5f * (min + max);
+        }
+      }
+    }
+
+    private void build(int from, int to, int nodeDepth) {
+      int node = nodeCount++;
+      int count = to - from;
+      setBounds(node, from, to);
+      depth = Math.max(depth, nodeDepth);
+
+      if (count <= maxLeafSize) {
+        nodes[node * NODE_STRIDE] = from;
+        nodes[node * NODE_STRIDE + 1] = count;
+        return;
+      }
+
+      int bestAxis = -1;
+      int bestSplit = -1;
+      float bestMin = 0.0f;
+      double bestScale = 0.0;
+      double bestCost = Double.POSITIVE_INFINITY;
+
+      for (int axis = 0; axis < 3; axis++) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+
+        for (int i = from; i < to; i++) {
+          float center = centers[order[i] * 3 + axis];
+          min = Math.min(min, center);
+          max = Math.max(max, center);
+        }
+
+        if (!(max > min)) {
+          continue;
+        }
+
+        double scale = BIN_COUNT / (double) (max - min);
+        fillBins(from, to, axis, min, scale);
+
+        for (int split = 0; split < BIN_COUNT - 1; split++) {
+          int leftCount = leftCounts[split];
+          int rightCount = count - leftCount;
+
+          if (leftCount == 0 || rightCount == 0) {
+            continue;
+          }
+
+          // Traversal cost and the parent's area are the same for every split, so leave them out
+          double cost = leftAreas[split] * leftCount + rightAreas[split + 1] * rightCount;
+
+          if (cost < bestCost) {
+            bestCost = cost;
+            bestAxis = axis;
+            bestSplit = split;
+            bestMin = min;
+            bestScale = scale;
+          }
+        }
+      }
+
+      // Without a split, centroids coincide and any split is as good as another
+      int middle = bestAxis < 0
+          ? (from + to) / 2
+          : partition(from, to, bestAxis, bestMin, bestScale, bestSplit);
+
+      build(from, middle, nodeDepth + 1);
+      nodes[node * NODE_STRIDE] = nodeCount;
+      nodes[node * NODE_STRIDE + 1] = 0;
+      build(middle, to, nodeDepth + 1);
+    }
+
+    private void setBounds(int node, int from, int to) {
+      int i = node * BOUNDS_STRIDE;
+      Arrays.fill(bounds, i, i + 3, Float.POSITIVE_INFINITY);
+      Arrays.fill(bounds, i + 3, i + 6, Float.NEGATIVE_INFINITY);
+
+      for (int triangle = from; triangle < to; triangle++) {
+        int j = order[triangle] * BOUNDS_STRIDE;
+
+        for (int axis = 0; axis < 3; axis++) {
+          bounds[i + axis] = Math.min(bounds[i + axis], triangleBounds[j + axis]);
+          bounds[i + 3 + axis] = Math.max(bounds[i + 3 + axis], triangleBounds[j + 3 + axis]);
+        }
+      }
+    }
+
+    private void fillBins(int from, int to, int axis, float min, double scale) {
+      Arrays.fill(binCounts, 0);
+      for (int bin = 0; bin < BIN_COUNT; bin++) {
+        Arrays.fill(binBounds, bin * BOUNDS_STRIDE, bin * BOUNDS_STRIDE + 3,
+            Float.POSITIVE_INFINITY);
+        Arrays.fill(binBounds, bin * BOUNDS_STRIDE + 3, bin * BOUNDS_STRIDE + 6,
+            Float.NEGATIVE_INFINITY);
+      }
+
+      for (int i = from; i < to; i++) {
+        int triangle = order[i];
+        int bin = binIndex(centers[triangle * 3 + axis], min, scale);
+        int j = triangle * BOUNDS_STRIDE;
+        int k = bin * BOUNDS_STRIDE;
+
+        binCounts[bin]++;
+        for (int a = 0; a < 3; a++) {
+          binBounds[k + a] = Math.min(binBounds[k + a], triangleBounds[j + a]);
+          binBounds[k + 3 + a] = Math.max(binBounds[k + 3 + a], triangleBounds[j + 3 + a]);
+        }
+      }
+
+      sweep(0, BIN_COUNT, 1, leftAreas, leftCounts);
+      sweep(BIN_COUNT - 1, -1, -1, rightAreas, null);
+    }
+
+    private void sweep(int start, int end, int step, double[] areas, int[] sums) {
+      Arrays.fill(sweepBounds, 0, 3, Float.POSITIVE_INFINITY);
+      Arrays.fill(sweepBounds, 3, 6, Float.NEGATIVE_INFINITY);
+      int sum = 0;
+
+      for (int bin = start; bin != end; bin += step) {
+        int k = bin * BOUNDS_STRIDE;
+
+        for (int a = 0; a < 3; a++) {
+          sweepBounds[a] = Math.min(sweepBounds[a], binBounds[k + a]);
+          sweepBounds[3 + a] = Math.max(sweepBounds[3 + a], binBounds[k + 3 + a]);
+        }
+        sum += binCounts[bin];
+
+        areas[bin] = sum == 0 ? 0.0 : surfaceArea(sweepBounds, 0);
+        if (sums != null) {
+          sums[bin] = sum;
+        }
+      }
+    }
+
+    private int partition(int from, int to, int axis, float min, double scale, int split) {
+      int left = from;
+      int right = to - 1;
+
+      while (left <= right) {
+        if (binIndex(centers[order[left] * 3 + axis], min, scale) <= split) {
+          left++;
+        } else {
+          int swap = order[left];
+          order[left] = order[right];
+          order[right] = swap;
+          right--;
+        }
+      }
+
+      return left;
+    }
+
+    private void reorder() {
+      var original = indices.clone();
+
+      for (int i = 0; i < order.length; i++) {
+        System.arraycopy(original, 3 * order[i], indices, 3 * i, 3);
+      }
+    }
+
+    private static int binIndex(float center, float min, double scale) {
+      return Math.min((int) ((center - min) * scale), BIN_COUNT - 1);
+    }
+
+    private static double surfaceArea(float[] bounds, int offset) {
+      double dx = (double) bounds[offset + 3] - bounds[offset];
+      double dy = (double) bounds[offset + 4] - bounds[offset + 1];
+      double dz = (double) bounds[offset + 5] - bounds[offset + 2];
+
+      return 2.0 * (dx * dy + dy * dz + dz * dx);
+    }
+  }
+
+  /**
+   * Per-thread traversal stack. Mesh traversals never nest, so a single stack is enough.
+   */
+  private static class TraversalStack {
+    private int[] nodes = new int[64];
+    private double[] distances = new double[64];
+
+    private TraversalStack ensure(int length) {
+      if (nodes.length < length) {
+        nodes = new int[length];
+        distances = new double[length];
+      }
+
+      return this;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.github.elementbound.jamtracer.raytracing.shape;
 
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 import com.github.elementbound.jamtracer.raytracing.Transformable;
@@ -21,6 +23,60 @@ public interface Shape extends Transformable {
    */
   RaycastResult raycast(Ray ray);
 
+  /**
+   * Cast ray against the shape, storing the hit in place if it's closer than the record's.
+   *
+   * <p>This is the allocation-free counterpart of {@link #raycast(Ray)}. The record's current
+   * distance acts as a limit, so the same record can be passed to multiple shapes to find the
+   * closest hit among them. The default implementation adapts {@link #raycast(Ray)}.</p>
+   *
+   * @param ray ray
+   * @param hit hit record to update
+   *
+   * @return true if the record was updated, false otherwise
+   */
+  default boolean raycast(Ray ray, HitRecord hit) {
+    var result = raycast(ray);
+
+    if (result.isHit() && result.distance() < hit.getDistance()) {
+      hit.set(result);
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Check whether the ray hits the shape closer than a given distance.
+   *
+   * <p>Used for shadow rays, where only the existence of a blocker matters. Implementations
+   * <em>should</em> return as soon as any hit is found and avoid building a
+   * {@link RaycastResult}. The default implementation falls back to {@link #raycast(Ray)}.</p>
+   *
+   * @param ray         ray
+   * @param maxDistance distance limit, exclusive
+   *
+   * @return true if hit within distance, false otherwise
+   */
+  default boolean occludes(Ray ray, double maxDistance) {
+    var result = raycast(ray);
+    return result.isHit() && result.distance() < maxDistance;
+  }
+
+  /**
+   * Get the shape's axis-aligned bounding box, with its transform applied.
+   *
+   * <p>Any ray hitting the shape <em>must</em> also hit its bounds, so containers can use it to
+   * skip raycasts. Implementations are expected to cache the result until the transform
+   * changes. Shapes that can't be bounded should return {@link BoundingBox#INFINITE}, which is
+   * also the default.</p>
+   *
+   * @return bounding box
+   */
+  default BoundingBox getBounds() {
+    return BoundingBox.INFINITE;
+  }
+
   Material getMaterial();
 
   void setMaterial(Material material);
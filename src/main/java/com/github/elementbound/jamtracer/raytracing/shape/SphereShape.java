@@ -1,18 +1,27 @@
 package com.github.elementbound.jamtracer.raytracing.shape;
 
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.RenderStatistics;
 import com.github.elementbound.jamtracer.raytracing.Transform;
 import com.github.elementbound.jamtracer.raytracing.material.Material;
 
 /**
  * Shape representing a unit-sphere at origin.
  * <p>Use the transform to move or resize the sphere.</p>
+ *
+ * <p>If the transform is {@link Transform#isAxisAligned() axis aligned} and scales uniformly, the
+ * sphere is cached as a world space center and radius, and rays are intersected with it directly,
+ * without transforming them to object space.</p>
  */
 public class SphereShape implements Shape {
   private Transform transform;
   private Material material;
+  private final BoundsCache boundsCache = new BoundsCache();
+  private WorldSphere worldSphere;
 
   public SphereShape() {
     transform = new Transform();
@@ -39,8 +48,25 @@ public class SphereShape implements Shape {
     this.material = material;
   }
 
+  @Override
+  public BoundingBox getBounds() {
+    return boundsCache.get(transform, () -> BoundingBox.UNIT);
+  }
+
   @Override
   public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var sphere = getWorldSphere();
+    if (sphere.isEnabled) {
+      return sphere.raycast(this, ray, hit);
+    }
+
     var localRay = transform.inverseTransformRay(ray);
 
     var localDirection = localRay.getDirection();
@@ -54,32 +80,188 @@ public class SphereShape implements Shape {
     var discriminant = b * b - 4 * a * c;
 
     if (discriminant < 0.0) {
-      return RaycastResult.NO_HIT;
+      RenderStatistics.recordIntersection(false);
+      return false;
+    }
+
+    var t1 = (-b + Math.sqrt(discriminant)) / 2.0 * a;
+    var t2 = (-b - Math.sqrt(discriminant)) / 2.0 * a;
+    var t = 0.0;
+
+    if (t1 < 0.0 && t2 < 0.0) {
+      RenderStatistics.recordIntersection(false);
+      return false;
+    } else if (Math.signum(t1) != Math.signum(t2)) {
+      t = Math.max(t1, t2);
     } else {
-      var t1 = (-b + Math.sqrt(discriminant)) / 2.0 * a;
-      var t2 = (-b - Math.sqrt(discriminant)) / 2.0 * a;
-      var t = 0.0;
-
-      if (t1 < 0.0 && t2 < 0.0) {
-        return RaycastResult.NO_HIT;
-      } else if (Math.signum(t1) != Math.signum(t2)) {
-        t = Math.max(t1, t2);
-      } else {
-        t = Math.min(t1, t2);
+      t = Math.min(t1, t2);
+    }
+
+    RenderStatistics.recordIntersection(true);
+
+    var localPoint = localRay.getPoint(t);
+    var hitPoint = transform.getMatrix().transformPoint(localPoint);
+    double distance = Vector3.distance(ray.getFrom(), hitPoint);
+
+    // Skip surface attributes if there's a closer hit already
+    if (distance >= hit.getDistance()) {
+      return false;
+    }
+
+    var localNormal = localPoint.normalized();
+    var normal = transform.getNormalMatrix().transformDirection(localNormal).normalized();
+
+    hit.set(this, distance, hitPoint, normal,
+        (Math.PI + Math.atan2(localNormal.getY(), localNormal.getX())) / (2.0 * Math.PI),
+        (Math.PI / 2.0 + Math.asin(localNormal.getZ())) / Math.PI);
+    return true;
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    var sphere = getWorldSphere();
+    boolean isOccluded = sphere.isEnabled
+        ? sphere.intersects(ray, maxDistance)
+        : intersects(ray, maxDistance);
+    RenderStatistics.recordIntersection(isOccluded);
+    return isOccluded;
+  }
+
+  private boolean intersects(Ray ray, double maxDistance) {
+    // Direction is kept unnormalized, so distances along the local ray match world distances
+    var inverseMatrix = transform.getInverseMatrix();
+    var origin = inverseMatrix.transformPoint(ray.getFrom());
+    var direction = inverseMatrix.transformDirection(ray.getDirection());
+
+    var a = direction.dot(direction);
+    var b = 2.0 * origin.dot(direction);
+    var c = origin.dot(origin) - 1.0;
+
+    var discriminant = b * b - 4 * a * c;
+
+    if (discriminant < 0.0) {
+      return false;
+    }
+
+    var near = (-b - Math.sqrt(discriminant)) / (2.0 * a);
+    var far = (-b + Math.sqrt(discriminant)) / (2.0 * a);
+    var t = near >= 0.0 ? near : far;
+
+    return t >= 0.0 && t < maxDistance;
+  }
+
+  private WorldSphere getWorldSphere() {
+    var sphere = worldSphere;
+
+    if (sphere == null || sphere.transform != transform
+        || sphere.version != transform.getVersion()) {
+      sphere = new WorldSphere(transform);
+      worldSphere = sphere;
+    }
+
+    return sphere;
+  }
+
+  /**
+   * Sphere in world space, enabled only for transforms of translation and uniform scale.
+   */
+  private static class WorldSphere {
+    private final Transform transform;
+    private final long version;
+    private final boolean isEnabled;
+    private final double centerX;
+    private final double centerY;
+    private final double centerZ;
+    private final double radius;
+
+    private WorldSphere(Transform transform) {
+      var scale = transform.getScale();
+      final var position = transform.getPosition();
+
+      this.transform = transform;
+      this.version = transform.getVersion();
+      this.isEnabled = transform.isAxisAligned()
+          && scale.getX() == scale.getY() && scale.getY() == scale.getZ();
+      this.centerX = position.getX();
+      this.centerY = position.getY();
+      this.centerZ = position.getZ();
+      this.radius = scale.getX();
+    }
+
+    private boolean raycast(SphereShape shape, Ray ray, HitRecord hit) {
+      var from = ray.getFrom();
+      var direction = ray.getDirection();
+      double directionX = direction.getX();
+      double directionY = direction.getY();
+      double directionZ = direction.getZ();
+      double offsetX = from.getX() - centerX;
+      double offsetY = from.getY() - centerY;
+      double offsetZ = from.getZ() - centerZ;
+
+      double a = directionX * directionX + directionY * directionY + directionZ * directionZ;
+      double halfB = offsetX * directionX + offsetY * directionY + offsetZ * directionZ;
+      double c = offsetX * offsetX + offsetY * offsetY + offsetZ * offsetZ - radius * radius;
+      double discriminant = halfB * halfB - a * c;
+
+      if (discriminant < 0.0) {
+        RenderStatistics.recordIntersection(false);
+        return false;
+      }
+
+      double root = Math.sqrt(discriminant);
+      double far = (-halfB + root) / a;
+
+      if (far < 0.0) {
+        RenderStatistics.recordIntersection(false);
+        return false;
+      }
+
+      double near = (-halfB - root) / a;
+      double t = near >= 0.0 ? near : far;
+
+      RenderStatistics.recordIntersection(true);
+
+      double distance = t * Math.sqrt(a);
+
+      // Skip surface attributes if there's a closer hit already
+      if (distance >= hit.getDistance()) {
+        return false;
       }
 
-      var localPoint = localRay.getPoint(t);
-      var hitPoint = transform.getMatrix().transform(localPoint.asHeterogeneous()).asHomogeneous();
-      var normal = localPoint.normalized();
-      var texcoords = new Vector(
-          (Math.PI + Math.atan2(normal.get(1), normal.get(0))) / (2.0 * Math.PI),
-          (Math.PI / 2.0 + Math.asin(normal.get(2))) / Math.PI
-      );
-      normal = transform.getMatrix().transform(normal.asHeterogeneousNormal()).asHomogeneous()
-          .normalized();
-      double distance = Vector.distance(ray.getFrom(), hitPoint);
-
-      return new RaycastResult(true, this, distance, hitPoint, normal, texcoords);
+      double normalX = (offsetX + directionX * t) / radius;
+      double normalY = (offsetY + directionY * t) / radius;
+      double normalZ = (offsetZ + directionZ * t) / radius;
+      var normal = new Vector3(normalX, normalY, normalZ).normalized();
+
+      hit.set(shape, distance, ray.getPoint(t), normal,
+          (Math.PI + Math.atan2(normal.getY(), normal.getX())) / (2.0 * Math.PI),
+          (Math.PI / 2.0 + Math.asin(normal.getZ())) / Math.PI);
+      return true;
+    }
+
+    private boolean intersects(Ray ray, double maxDistance) {
+      var from = ray.getFrom();
+      var direction = ray.getDirection();
+      double offsetX = from.getX() - centerX;
+      double offsetY = from.getY() - centerY;
+      double offsetZ = from.getZ() - centerZ;
+
+      double a = direction.dot(direction);
+      double halfB = offsetX * direction.getX() + offsetY * direction.getY()
+          + offsetZ * direction.getZ();
+      double c = offsetX * offsetX + offsetY * offsetY + offsetZ * offsetZ - radius * radius;
+      double discriminant = halfB * halfB - a * c;
+
+      if (discriminant < 0.0) {
+        return false;
+      }
+
+      double root = Math.sqrt(discriminant);
+      double near = (-halfB - root) / a;
+      double far = (-halfB + root) / a;
+      double t = near >= 0.0 ? near : far;
+
+      return t >= 0.0 && t < maxDistance;
     }
   }
 }
@@ -0,0 +1,165 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+
+/**
+ * Ray prepared for watertight triangle intersection, tracking the closest triangle hit.
+ *
+ * <p>Triangles are translated to the ray origin and sheared so the ray points along the positive
+ * Z axis, then tested with 2D edge functions. Edges shared by two triangles are evaluated with the
+ * same products for both, giving exactly opposite signs, so rays can't slip through the gap
+ * between neighbouring triangles. Hits exactly on an edge count for both triangles.</p>
+ *
+ * <p>Based on: Sven Woop, Carsten Benthin, Ingo Wald, Watertight Ray/Triangle Intersection,
+ * 2013</p>
+ */
+final class TriangleRay {
+  final double fromX;
+  final double fromY;
+  final double fromZ;
+  final double invDirX;
+  final double invDirY;
+  final double invDirZ;
+
+  private final int axisX;
+  private final int axisY;
+  private final int axisZ;
+  private final double shearX;
+  private final double shearY;
+  private final double shearZ;
+  private final double[] from;
+
+  private double distance;
+  private int triangle = -1;
+  private double weight1;
+  private double weight2;
+
+  /**
+   * Prepare ray.
+   *
+   * @param from        ray origin
+   * @param direction   ray direction, not necessarily normalized
+   * @param maxDistance distance limit, exclusive, in multiples of the direction
+   */
+  TriangleRay(Vector3 from, Vector3 direction, double maxDistance) {
+    final var dir = new double[]{direction.getX(), direction.getY(), direction.getZ()};
+
+    this.from = new double[]{from.getX(), from.getY(), from.getZ()};
+    this.fromX = from.getX();
+    this.fromY = from.getY();
+    this.fromZ = from.getZ();
+    this.invDirX = 1.0 / dir[0];
+    this.invDirY = 1.0 / dir[1];
+    this.invDirZ = 1.0 / dir[2];
+    this.distance = maxDistance;
+
+    // Use the dominant axis as Z, swapping the other two if it points backwards, to keep winding
+    int dominant = Math.abs(dir[0]) > Math.abs(dir[1])
+        ? (Math.abs(dir[0]) > Math.abs(dir[2]) ? 0 : 2)
+        : (Math.abs(dir[1]) > Math.abs(dir[2]) ? 1 : 2);
+    int next = (dominant + 1) % 3;
+    int last = (next + 1) % 3;
+
+    this.axisZ = dominant;
+    this.axisX = dir[dominant] < 0.0 ? last : next;
+    this.axisY = dir[dominant] < 0.0 ? next : last;
+    this.shearX = dir[axisX] / dir[axisZ];
+    this.shearY = dir[axisY] / dir[axisZ];
+    this.shearZ = 1.0 / dir[axisZ];
+  }
+
+  /**
+   * Intersect triangle, keeping it if it's closer than the closest hit so far.
+   *
+   * @param positions vertex positions, three per vertex
+   * @param indices   vertex indices, three per triangle
+   * @param index     triangle index
+   *
+   * @return true if the triangle is the closest hit so far
+   */
+  boolean intersect(float[] positions, int[] indices, int index) {
+    int a = indices[3 * index] * 3;
+    int b = indices[3 * index + 1] * 3;
+    int c = indices[3 * index + 2] * 3;
+
+    double az = positions[a + axisZ] - from[axisZ];
+    double bz = positions[b + axisZ] - from[axisZ];
+    double cz = positions[c + axisZ] - from[axisZ];
+    double ax = positions[a + axisX] - from[axisX] - shearX * az;
+    double ay = positions[a + axisY] - from[axisY] - shearY * az;
+    double bx = positions[b + axisX] - from[axisX] - shearX * bz;
+    double by = positions[b + axisY] - from[axisY] - shearY * bz;
+    double cx = positions[c + axisX] - from[axisX] - shearX * cz;
+    double cy = positions[c + axisY] - from[axisY] - shearY * cz;
+
+    // Edge functions, each one is the weight of the opposite vertex
+    double u = cx * by - cy * bx;
+    double v = ax * cy - ay * cx;
+    double w = bx * ay - by * ax;
+
+    if ((u < 0.0 || v < 0.0 || w < 0.0) && (u > 0.0 || v > 0.0 || w > 0.0)) {
+      return false;
+    }
+
+    double determinant = u + v + w;
+    if (determinant == 0.0) {
+      return false;
+    }
+
+    double t = (u * az + v * bz + w * cz) * shearZ / determinant;
+    if (!(t >= 0.0) || t >= distance) {
+      return false;
+    }
+
+    distance = t;
+    triangle = index;
+    weight1 = v / determinant;
+    weight2 = w / determinant;
+    return true;
+  }
+
+  /**
+   * Get distance of the closest hit, or the distance limit if there's none.
+   *
+   * @return distance, in multiples of the direction
+   */
+  double getDistance() {
+    return distance;
+  }
+
+  /**
+   * Get the closest triangle hit.
+   *
+   * @return triangle index, or -1 if none
+   */
+  int getTriangle() {
+    return triangle;
+  }
+
+  /**
+   * Get barycentric weight of the closest triangle's first vertex.
+   *
+   * @return weight
+   */
+  double getWeight0() {
+    return 1.0 - weight1 - weight2;
+  }
+
+  /**
+   * Get barycentric weight of the closest triangle's second vertex.
+   *
+   * @return weight
+   */
+  double getWeight1() {
+    return weight1;
+  }
+
+  /**
+   * Get barycentric weight of the closest triangle's third vertex.
+   *
+   * @return weight
+   */
+  double getWeight2() {
+    return weight2;
+  }
+}
@@ -0,0 +1,43 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import java.util.Arrays;
+
+/**
+ * Box kernel testing the whole packet one axis at a time.
+ *
+ * <p>Every loop runs over consecutive rays without branches or calls, reading and writing flat
+ * arrays only, so the JIT compiler can turn them into SIMD instructions.</p>
+ */
+final class BatchBoxKernel implements BoxKernel {
+  @Override
+  public void intersect(double[] bounds, int offset, RayPacket packet, int from, int to,
+                        double[] distances, double[] exits) {
+    Arrays.fill(distances, from, to, 0.0);
+    Arrays.fill(exits, from, to, Double.POSITIVE_INFINITY);
+
+    slab(bounds[offset], bounds[offset + 3], packet.getFromX(), packet.getInvDirX(),
+        from, to, distances, exits);
+    slab(bounds[offset + 1], bounds[offset + 4], packet.getFromY(), packet.getInvDirY(),
+        from, to, distances, exits);
+    slab(bounds[offset + 2], bounds[offset + 5], packet.getFromZ(), packet.getInvDirZ(),
+        from, to, distances, exits);
+
+    for (int r = from; r < to; r++) {
+      distances[r] = exits[r] >= distances[r] ? distances[r] : Double.POSITIVE_INFINITY;
+    }
+  }
+
+  private static void slab(double lower, double upper, double[] origins, double[] invDirs,
+                           int from, int to, double[] entries, double[] exits) {
+    for (int r = from; r < to; r++) {
+      double t1 = (lower - origins[r]) * invDirs[r];
+      double t2 = (upper - origins[r]) * invDirs[r];
+      double near = t1 > t2 ? t2 : t1;
+      double far = t1 > t2 ? t1 : t2;
+
+      entries[r] = near > entries[r] ? near : entries[r];
+      exits[r] = far < exits[r] ? far : exits[r];
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Kernel intersecting the rays of a packet with a single bounding box, using the slab method.
+ *
+ * <p>Two implementations are available, giving equal results. The scalar kernel tests each ray
+ * in turn. The batch kernel processes the packet one axis at a time, with straight-line loops over
+ * the packet's component arrays, which the JIT compiler can unroll and vectorize. The kernel is
+ * selected once, when the class is loaded. It can be forced with the {@value #KERNEL_PROPERTY}
+ * system property, set to either {@value #SCALAR} or {@value #BATCH}. Unknown values are logged
+ * and ignored.</p>
+ *
+ * <p>Otherwise the batch kernel is used, unless the JVM runs in interpreted mode, where it only
+ * adds overhead. Whether the JIT compiler would actually vectorize the batch kernel can't be
+ * queried, so this is only a stand-in: the java.vm.info system property is checked for
+ * "interpreted mode", as set by the -Xint flag.</p>
+ */
+interface BoxKernel {
+  String KERNEL_PROPERTY = "jamtracer.boxKernel";
+  String SCALAR = "scalar";
+  String BATCH = "batch";
+
+  BoxKernel DEFAULT = select(System.getProperty(KERNEL_PROPERTY),
+      System.getProperty("java.vm.info", ""));
+
+  /**
+   * Intersect rays with a box.
+   * <p>Distances are the same as {@link com.github.elementbound.jamtracer.raytracing.BoundingBox}
+   * returns for each ray.</p>
+   *
+   * @param bounds    array holding the box, as minimum then maximum coordinates
+   * @param offset    offset of the box in the array
+   * @param packet    rays
+   * @param from      first ray to test, inclusive
+   * @param to        last ray to test, exclusive
+   * @param distances entry distances per ray, infinity if missed
+   * @param exits     scratch array, at least as long as the packet
+   */
+  void intersect(double[] bounds, int offset, RayPacket packet, int from, int to,
+                 double[] distances, double[] exits);
+
+  /**
+   * Select kernel.
+   *
+   * @param kernel kernel name, or null to select based on the JVM
+   * @param vmInfo JVM info, as in the java.vm.info system property
+   *
+   * @return kernel, selected based on the JVM if the name is unknown
+   */
+  static BoxKernel select(String kernel, String vmInfo) {
+    if (SCALAR.equals(kernel)) {
+      return new ScalarBoxKernel();
+    } else if (BATCH.equals(kernel)) {
+      return new BatchBoxKernel();
+    } else if (kernel != null) {
+      // Called during class init, so throwing would break every BVH scene over a typo
+      Logger.getLogger(BoxKernel.class.getName()).log(Level.WARNING,
+          "Unknown box kernel {0}, expected {1} or {2}", new Object[]{kernel, SCALAR, BATCH});
+    }
+
+    return vmInfo.contains("interpreted mode") ? new ScalarBoxKernel() : new BatchBoxKernel();
+  }
+}
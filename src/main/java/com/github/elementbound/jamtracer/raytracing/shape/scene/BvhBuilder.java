@@ -0,0 +1,22 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.List;
+
+/**
+ * Strategy for building bounding volume hierarchies.
+ *
+ * <p>See {@link BvhScene#setBuilder(BvhBuilder)}.</p>
+ */
+public interface BvhBuilder {
+  /**
+   * Build hierarchy over shapes.
+   * <p>Every shape <em>must</em> have finite bounds. Builders must be deterministic, i.e. return
+   * the same tree for the same shapes in the same order.</p>
+   *
+   * @param shapes shapes, at least one
+   *
+   * @return root node
+   */
+  BvhNode build(List<Shape> shapes);
+}
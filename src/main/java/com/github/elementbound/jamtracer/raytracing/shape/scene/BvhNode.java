@@ -0,0 +1,94 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+
+/**
+ * Node of a bounding volume hierarchy.
+ *
+ * <p>Nodes are either leaves holding shapes, or interior nodes with exactly two children. Every
+ * node's bounds enclose everything below it.</p>
+ */
+public final class BvhNode {
+  private final BoundingBox bounds;
+  private final BvhNode left;
+  private final BvhNode right;
+  private final Shape[] shapes;
+
+  private BvhNode(BoundingBox bounds, BvhNode left, BvhNode right, Shape[] shapes) {
+    this.bounds = bounds;
+    this.left = left;
+    this.right = right;
+    this.shapes = shapes;
+  }
+
+  /**
+   * Create leaf node.
+   *
+   * @param bounds bounds enclosing every shape
+   * @param shapes shapes
+   *
+   * @return leaf node
+   */
+  public static BvhNode leaf(BoundingBox bounds, Shape[] shapes) {
+    return new BvhNode(bounds, null, null, shapes);
+  }
+
+  /**
+   * Create interior node.
+   *
+   * @param left  left child
+   * @param right right child
+   *
+   * @return interior node, enclosing both children
+   */
+  public static BvhNode interior(BvhNode left, BvhNode right) {
+    return new BvhNode(left.bounds.union(right.bounds), left, right, null);
+  }
+
+  /**
+   * Get node bounds.
+   *
+   * @return bounds
+   */
+  public BoundingBox getBounds() {
+    return bounds;
+  }
+
+  /**
+   * Check if node is a leaf.
+   *
+   * @return true if leaf, false if interior node
+   */
+  public boolean isLeaf() {
+    return shapes != null;
+  }
+
+  /**
+   * Get left child.
+   *
+   * @return left child, or null for leaves
+   */
+  public BvhNode getLeft() {
+    return left;
+  }
+
+  /**
+   * Get right child.
+   *
+   * @return right child, or null for leaves
+   */
+  public BvhNode getRight() {
+    return right;
+  }
+
+  /**
+   * Get shapes in leaf.
+   * <p>The array is <em>not</em> copied, do not modify it.</p>
+   *
+   * @return shapes, or null for interior nodes
+   */
+  public Shape[] getShapes() {
+    return shapes;
+  }
+}
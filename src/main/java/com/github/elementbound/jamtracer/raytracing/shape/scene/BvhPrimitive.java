@@ -0,0 +1,117 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.List;
+
+/**
+ * Shape with its bounds and bounds centroid, as used during hierarchy construction.
+ */
+final class BvhPrimitive {
+  final Shape shape;
+  final BoundingBox bounds;
+  final double centerX;
+  final double centerY;
+  final double centerZ;
+
+  private BvhPrimitive(Shape shape, BoundingBox bounds) {
+    this.shape = shape;
+    this.bounds = bounds;
+    this.centerX = bounds.getCenter(0);
+    this.centerY = bounds.getCenter(1);
+    this.centerZ = bounds.getCenter(2);
+  }
+
+  /**
+   * Create primitives from shapes.
+   *
+   * @param shapes   shapes
+   * @param parallel gather shape bounds in parallel
+   *
+   * @return primitives, in the same order as the shapes
+   */
+  static BvhPrimitive[] of(List<Shape> shapes, boolean parallel) {
+    return (parallel ? shapes.parallelStream() : shapes.stream())
+        .map(shape -> new BvhPrimitive(shape, shape.getBounds()))
+        .toArray(BvhPrimitive[]::new);
+  }
+
+  /**
+   * Get bounds centroid coordinate.
+   *
+   * @param axis axis index
+   *
+   * @return centroid coordinate
+   */
+  double getCenter(int axis) {
+    return axis == 0 ? centerX : (axis == 1 ? centerY : centerZ);
+  }
+
+  /**
+   * Get union of primitive bounds.
+   *
+   * @param primitives primitives
+   * @param from       first index, inclusive
+   * @param to         last index, exclusive
+   *
+   * @return bounds
+   */
+  static BoundingBox bounds(BvhPrimitive[] primitives, int from, int to) {
+    var bounds = BoundingBox.EMPTY;
+
+    for (int i = from; i < to; i++) {
+      bounds = bounds.union(primitives[i].bounds);
+    }
+
+    return bounds;
+  }
+
+  /**
+   * Get bounds enclosing primitive centroids.
+   *
+   * @param primitives primitives
+   * @param from       first index, inclusive
+   * @param to         last index, exclusive
+   *
+   * @return centroid bounds
+   */
+  static BoundingBox centroidBounds(BvhPrimitive[] primitives, int from, int to) {
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double minZ = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    double maxZ = Double.NEGATIVE_INFINITY;
+
+    for (int i = from; i < to; i++) {
+      var primitive = primitives[i];
+      minX = Math.min(minX, primitive.centerX);
+      minY = Math.min(minY, primitive.centerY);
+      minZ = Math.min(minZ, primitive.centerZ);
+      maxX = Math.max(maxX, primitive.centerX);
+      maxY = Math.max(maxY, primitive.centerY);
+      maxZ = Math.max(maxZ, primitive.centerZ);
+    }
+
+    return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+  }
+
+  /**
+   * Create leaf from primitives.
+   *
+   * @param primitives primitives
+   * @param from       first index, inclusive
+   * @param to         last index, exclusive
+   *
+   * @return leaf node
+   */
+  static BvhNode leaf(BvhPrimitive[] primitives, int from, int to) {
+    var shapes = new Shape[to - from];
+
+    for (int i = from; i < to; i++) {
+      shapes[i - from] = primitives[i].shape;
+    }
+
+    return BvhNode.leaf(bounds(primitives, from, to), shapes);
+  }
+}
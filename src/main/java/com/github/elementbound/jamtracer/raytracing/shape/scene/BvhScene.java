@@ -0,0 +1,485 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.light.Light;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.BoundsCache;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link Scene} using a bounding volume hierarchy to speed up raycasts.
+ *
+ * <p>The hierarchy is built in {@link #prepare()} from the shapes' bounds. Shapes without finite
+ * bounds are tested for every ray. Until the scene is prepared, or after shapes are added or
+ * removed, raycasts fall back to testing every shape, the same way {@link SimpleScene} does.
+ * Shapes moved after preparation require another call to {@link #prepare()}.</p>
+ *
+ * <p>If no shapes were added or removed since the last build, {@link #prepare()} refits the
+ * existing hierarchy instead of rebuilding it. Moved shapes are detected by their transform
+ * changing, either replaced or updated, and only their leaves and ancestors are refit. Once the
+ * refit hierarchy's SAH cost exceeds the cost at build time by the rebuild threshold, it is rebuilt
+ * from scratch. Changes inside nested scenes are not detected, call {@link #invalidate()} after
+ * moving them.</p>
+ *
+ * <p>The hierarchy is built by a {@link SahBvhBuilder} unless another {@link BvhBuilder} is set.
+ * Build time and tree quality of the last build are available from
+ * {@link #getBuildStatistics()}. The built tree is flattened into a {@link FlatBvh} for
+ * traversal. A hierarchy built earlier, e.g. one loaded from a cache, can be used instead of
+ * building one through {@link #prepare(FlatBvh)}.</p>
+ *
+ * <p>Packets of rays are transformed to the scene's space together and traverse the hierarchy as a
+ * packet, see {@link FlatBvh#raycast(RayPacket, HitRecord[])}.</p>
+ */
+public class BvhScene implements Scene {
+  public static final double DEFAULT_REBUILD_THRESHOLD = 1.5;
+
+  private Transform transform;
+  private final Set<Shape> shapes;
+  private final Set<Light> lights;
+  private Material material;
+  private Hierarchy hierarchy;
+  private BvhBuilder builder;
+  private BvhStatistics buildStatistics;
+  private boolean refitEnabled;
+  private double rebuildThreshold;
+  private long refitCount;
+  private final BoundsCache boundsCache = new BoundsCache();
+  private final ThreadLocal<RayPacket[]> localPackets = ThreadLocal.withInitial(() ->
+      new RayPacket[1]);
+
+  /**
+   * Construct an empty scene.
+   */
+  public BvhScene() {
+    transform = new Transform();
+    shapes = new HashSet<>();
+    lights = new HashSet<>();
+    material = Material.DEFAULT_SCENE_MATERIAL;
+    hierarchy = null;
+    builder = new SahBvhBuilder();
+    buildStatistics = BvhStatistics.EMPTY;
+    refitEnabled = true;
+    rebuildThreshold = DEFAULT_REBUILD_THRESHOLD;
+    refitCount = 0L;
+  }
+
+  /**
+   * Get hierarchy builder.
+   *
+   * @return builder
+   */
+  public BvhBuilder getBuilder() {
+    return builder;
+  }
+
+  /**
+   * Set hierarchy builder.
+   * <p>Takes effect on the next call to {@link #prepare()}.</p>
+   *
+   * @param builder builder
+   */
+  public void setBuilder(BvhBuilder builder) {
+    this.builder = builder;
+    hierarchy = null;
+  }
+
+  /**
+   * Get statistics of the last hierarchy build.
+   *
+   * @return statistics, empty if the scene was never prepared
+   */
+  public BvhStatistics getBuildStatistics() {
+    return buildStatistics;
+  }
+
+  /**
+   * Check if hierarchy is refit on {@link #prepare()} instead of rebuilt.
+   *
+   * @return true if refitting is enabled
+   */
+  public boolean isRefitEnabled() {
+    return refitEnabled;
+  }
+
+  /**
+   * Enable or disable refitting on {@link #prepare()}.
+   *
+   * @param refitEnabled true to refit when possible, false to always rebuild
+   */
+  public void setRefitEnabled(boolean refitEnabled) {
+    this.refitEnabled = refitEnabled;
+  }
+
+  /**
+   * Get rebuild threshold.
+   *
+   * @return rebuild threshold
+   */
+  public double getRebuildThreshold() {
+    return rebuildThreshold;
+  }
+
+  /**
+   * Set rebuild threshold.
+   * <p>The hierarchy is rebuilt once its SAH cost after refitting exceeds its cost at build time
+   * multiplied by this threshold.</p>
+   *
+   * @param rebuildThreshold threshold, at least 1
+   */
+  public void setRebuildThreshold(double rebuildThreshold) {
+    if (!(rebuildThreshold >= 1.0)) {
+      throw new IllegalArgumentException("Rebuild threshold must be at least 1!");
+    }
+
+    this.rebuildThreshold = rebuildThreshold;
+  }
+
+  /**
+   * Get hierarchy built by the last {@link #prepare()}.
+   *
+   * @return hierarchy, or null if the scene isn't prepared or has no shapes with finite bounds
+   */
+  public FlatBvh getHierarchy() {
+    var hierarchy = this.hierarchy;
+    return hierarchy == null ? null : hierarchy.bvh;
+  }
+
+  /**
+   * Get number of refits since the last full build.
+   *
+   * @return refit count
+   */
+  public long getRefitCount() {
+    return refitCount;
+  }
+
+  /**
+   * Discard hierarchy, forcing a full rebuild on the next {@link #prepare()}.
+   */
+  public void invalidate() {
+    hierarchy = null;
+    boundsCache.invalidate();
+  }
+
+  @Override
+  public Transform getTransform() {
+    return transform;
+  }
+
+  @Override
+  public void setTransform(Transform transform) {
+    this.transform = transform;
+  }
+
+  @Override
+  public Material getMaterial() {
+    return material;
+  }
+
+  @Override
+  public void setMaterial(Material material) {
+    this.material = material;
+  }
+
+  @Override
+  public BoundingBox getBounds() {
+    return boundsCache.get(transform, () -> shapes.stream()
+        .map(Shape::getBounds)
+        .reduce(BoundingBox.EMPTY, BoundingBox::union));
+  }
+
+  @Override
+  public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var localRay = transform.inverseTransformRay(ray);
+    var hierarchy = this.hierarchy;
+
+    if (hierarchy == null) {
+      return raycastAll(shapes, localRay, hit);
+    }
+
+    boolean isHit = raycastAll(hierarchy.unbounded, localRay, hit);
+
+    if (hierarchy.bvh != null) {
+      isHit |= hierarchy.bvh.raycast(localRay, hit);
+    }
+
+    return isHit;
+  }
+
+  @Override
+  public void raycast(RayPacket packet, HitRecord[] hits) {
+    var hierarchy = this.hierarchy;
+
+    if (hierarchy == null) {
+      Scene.super.raycast(packet, hits);
+      return;
+    }
+
+    var localPacket = toLocal(packet);
+
+    for (int i = 0; i < localPacket.size(); i++) {
+      raycastAll(hierarchy.unbounded, localPacket.getRay(i), hits[i]);
+    }
+
+    if (hierarchy.bvh != null) {
+      hierarchy.bvh.raycast(localPacket, hits);
+    }
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    var localRay = transform.inverseTransformRay(ray);
+    var localDistance = transform.inverseTransformDistance(ray, maxDistance);
+    var hierarchy = this.hierarchy;
+
+    if (hierarchy == null) {
+      return occludesAny(shapes, localRay, localDistance);
+    }
+
+    return occludesAny(hierarchy.unbounded, localRay, localDistance)
+        || (hierarchy.bvh != null && hierarchy.bvh.occludes(localRay, localDistance));
+  }
+
+  @Override
+  public boolean occludes(double fromX, double fromY, double fromZ,
+                          double directionX, double directionY, double directionZ,
+                          double maxDistance) {
+    var hierarchy = this.hierarchy;
+
+    if (hierarchy == null || !hierarchy.unbounded.isEmpty() || !transform.isIdentity()) {
+      return Scene.super.occludes(fromX, fromY, fromZ, directionX, directionY, directionZ,
+          maxDistance);
+    }
+
+    return hierarchy.bvh != null && hierarchy.bvh.occludes(fromX, fromY, fromZ,
+        directionX, directionY, directionZ, maxDistance);
+  }
+
+  @Override
+  public void occludes(RayPacket packet, boolean[] occluded) {
+    var hierarchy = this.hierarchy;
+
+    if (hierarchy == null || !hierarchy.unbounded.isEmpty()) {
+      Scene.super.occludes(packet, occluded);
+      return;
+    }
+
+    if (hierarchy.bvh == null) {
+      Arrays.fill(occluded, 0, packet.size(), false);
+      return;
+    }
+
+    hierarchy.bvh.occludes(toLocal(packet), occluded);
+  }
+
+  @Override
+  public void prepare() {
+    var hierarchy = this.hierarchy;
+
+    if (refitEnabled && hierarchy != null && refit(hierarchy)) {
+      return;
+    }
+
+    List<Shape> unbounded = new ArrayList<>();
+    List<Shape> bounded = new ArrayList<>();
+
+    for (var shape : shapes) {
+      if (shape.getBounds().isFinite()) {
+        bounded.add(shape);
+      } else {
+        unbounded.add(shape);
+      }
+    }
+
+    long buildStart = System.nanoTime();
+    var root = bounded.isEmpty() ? null : builder.build(bounded);
+    long buildNanos = System.nanoTime() - buildStart;
+
+    this.hierarchy = new Hierarchy(root == null ? null : FlatBvh.of(root), unbounded);
+    buildStatistics = BvhStatistics.of(root, buildNanos);
+    refitCount = 0L;
+    boundsCache.invalidate();
+  }
+
+  /**
+   * Prepare scene with a hierarchy built earlier, e.g. one loaded from a cache, instead of building
+   * one.
+   * <p>The hierarchy must hold every shape of the scene with finite bounds, as they were when it
+   * was built. Shapes not in the hierarchy are tested for every ray. Build statistics report the
+   * given hierarchy with zero build time.</p>
+   *
+   * @param bvh hierarchy, or null if no shape has finite bounds
+   *
+   * @throws IllegalArgumentException if the hierarchy holds shapes not in the scene
+   */
+  public void prepare(FlatBvh bvh) {
+    var bounded = Collections.newSetFromMap(new IdentityHashMap<Shape, Boolean>());
+
+    for (int i = 0; bvh != null && i < bvh.getShapeCount(); i++) {
+      if (!shapes.contains(bvh.getShape(i)) || !bounded.add(bvh.getShape(i))) {
+        throw new IllegalArgumentException("Hierarchy doesn't match the scene's shapes!");
+      }
+    }
+
+    List<Shape> unbounded = new ArrayList<>();
+    for (var shape : shapes) {
+      if (!bounded.contains(shape)) {
+        unbounded.add(shape);
+      }
+    }
+
+    this.hierarchy = new Hierarchy(bvh, unbounded);
+    buildStatistics = bvh == null ? BvhStatistics.EMPTY : BvhStatistics.of(bvh, 0L);
+    refitCount = 0L;
+    boundsCache.invalidate();
+  }
+
+  @Override
+  public Scene addShape(Shape shape) {
+    shapes.add(shape);
+    hierarchy = null;
+    boundsCache.invalidate();
+    return this;
+  }
+
+  @Override
+  public Scene removeShape(Shape shape) {
+    shapes.remove(shape);
+    hierarchy = null;
+    boundsCache.invalidate();
+    return this;
+  }
+
+  @Override
+  public Set<Shape> getShapes() {
+    return Collections.unmodifiableSet(shapes);
+  }
+
+  @Override
+  public Scene addLight(Light light) {
+    lights.add(light);
+    return this;
+  }
+
+  @Override
+  public Scene removeLight(Light light) {
+    lights.remove(light);
+    return this;
+  }
+
+  @Override
+  public Set<Light> getLights() {
+    return Collections.unmodifiableSet(lights);
+  }
+
+  private boolean refit(Hierarchy hierarchy) {
+    var bvh = hierarchy.bvh;
+
+    if (bvh == null) {
+      return true;
+    }
+
+    boolean changed = false;
+
+    for (int i = 0; i < bvh.getShapeCount(); i++) {
+      var shapeTransform = bvh.getShape(i).getTransform();
+
+      if (shapeTransform != hierarchy.transforms[i]
+          || shapeTransform.getVersion() != hierarchy.versions[i]) {
+        if (!bvh.refit(i)) {
+          return false;
+        }
+
+        hierarchy.transforms[i] = shapeTransform;
+        hierarchy.versions[i] = shapeTransform.getVersion();
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      if (bvh.sahCost() > rebuildThreshold * hierarchy.buildCost) {
+        return false;
+      }
+
+      refitCount++;
+      boundsCache.invalidate();
+    }
+
+    return true;
+  }
+
+  private RayPacket toLocal(RayPacket packet) {
+    var packets = localPackets.get();
+
+    if (packets[0] == null || packets[0].capacity() < packet.size()) {
+      packets[0] = new RayPacket(packet.capacity());
+    }
+
+    packet.inverseTransform(transform, packets[0]);
+    return packets[0];
+  }
+
+  private static boolean occludesAny(Iterable<Shape> shapes, Ray ray, double maxDistance) {
+    for (var shape : shapes) {
+      if (shape.occludes(ray, maxDistance)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean raycastAll(Iterable<Shape> shapes, Ray ray, HitRecord hit) {
+    boolean isHit = false;
+
+    for (var shape : shapes) {
+      isHit |= shape.raycast(ray, hit);
+    }
+
+    return isHit;
+  }
+
+  private static class Hierarchy {
+    private final FlatBvh bvh;
+    private final List<Shape> unbounded;
+    private final double buildCost;
+
+    /** Shape transforms and their versions at the last build or refit, in leaf order. */
+    private final Transform[] transforms;
+    private final long[] versions;
+
+    private Hierarchy(FlatBvh bvh, List<Shape> unbounded) {
+      this.bvh = bvh;
+      this.unbounded = unbounded;
+
+      int shapeCount = bvh == null ? 0 : bvh.getShapeCount();
+      this.buildCost = bvh == null ? 0.0 : bvh.sahCost();
+      this.transforms = new Transform[shapeCount];
+      this.versions = new long[shapeCount];
+
+      for (int i = 0; i < shapeCount; i++) {
+        transforms[i] = bvh.getShape(i).getTransform();
+        versions[i] = transforms[i].getVersion();
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+/**
+ * Build time and quality metrics of a bounding volume hierarchy.
+ *
+ * <p>The SAH cost is the expected cost of a raycast through the tree, using the default
+ * {@link SahBvhBuilder} cost constants regardless of the builder used, so trees from different
+ * builders can be compared directly. Lower is better.</p>
+ *
+ * @param buildNanos      time taken to build the hierarchy
+ * @param primitiveCount  number of shapes in the hierarchy
+ * @param nodeCount       number of nodes, including leaves
+ * @param leafCount       number of leaves
+ * @param maxDepth        depth of the deepest leaf, with the root at depth 0
+ * @param averageLeafSize average number of shapes per leaf
+ * @param sahCost         expected raycast cost by the surface area heuristic
+ */
+public record BvhStatistics(long buildNanos, int primitiveCount, int nodeCount, int leafCount,
+                            int maxDepth, double averageLeafSize, double sahCost) {
+  /**
+   * Statistics of an empty hierarchy.
+   */
+  public static final BvhStatistics EMPTY = new BvhStatistics(0L, 0, 0, 0, 0, 0.0, 0.0);
+
+  /**
+   * Gather statistics of a hierarchy.
+   *
+   * @param root       root node, may be null for empty hierarchies
+   * @param buildNanos time taken to build the hierarchy
+   *
+   * @return statistics
+   */
+  public static BvhStatistics of(BvhNode root, long buildNanos) {
+    if (root == null) {
+      return new BvhStatistics(buildNanos, 0, 0, 0, 0, 0.0, 0.0);
+    }
+
+    var accumulator = new Accumulator(root.getBounds().surfaceArea());
+    accumulator.visit(root, 0);
+
+    return new BvhStatistics(
+        buildNanos,
+        accumulator.primitiveCount,
+        accumulator.nodeCount,
+        accumulator.leafCount,
+        accumulator.maxDepth,
+        (double) accumulator.primitiveCount / accumulator.leafCount,
+        accumulator.cost
+    );
+  }
+
+  /**
+   * Gather statistics of a flattened hierarchy.
+   *
+   * @param bvh        hierarchy
+   * @param buildNanos time taken to build the hierarchy
+   *
+   * @return statistics
+   */
+  public static BvhStatistics of(FlatBvh bvh, long buildNanos) {
+    // Every interior node has two children, so there is one more leaf than interior nodes
+    int leafCount = (bvh.getNodeCount() + 1) / 2;
+
+    return new BvhStatistics(
+        buildNanos,
+        bvh.getShapeCount(),
+        bvh.getNodeCount(),
+        leafCount,
+        bvh.getDepth(),
+        (double) bvh.getShapeCount() / leafCount,
+        bvh.sahCost()
+    );
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("BvhStatistics{");
+    sb.append("buildMs=").append(buildNanos / 1e6);
+    sb.append(", primitiveCount=").append(primitiveCount);
+    sb.append(", nodeCount=").append(nodeCount);
+    sb.append(", leafCount=").append(leafCount);
+    sb.append(", maxDepth=").append(maxDepth);
+    sb.append(", averageLeafSize=").append(averageLeafSize);
+    sb.append(", sahCost=").append(sahCost);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  private static class Accumulator {
+    private final double rootAreaScale;
+
+    private int primitiveCount;
+    private int nodeCount;
+    private int leafCount;
+    private int maxDepth;
+    private double cost;
+
+    private Accumulator(double rootArea) {
+      this.rootAreaScale = rootArea > 0.0 ? 1.0 / rootArea : 0.0;
+    }
+
+    private void visit(BvhNode node, int depth) {
+      // Probability of a ray hitting the node, given that it hits the root
+      double probability = node.getBounds().surfaceArea() * rootAreaScale;
+
+      nodeCount++;
+
+      if (node.isLeaf()) {
+        int size = node.getShapes().length;
+
+        leafCount++;
+        primitiveCount += size;
+        maxDepth = Math.max(maxDepth, depth);
+        cost += probability * SahBvhBuilder.DEFAULT_INTERSECTION_COST * size;
+      } else {
+        cost += probability * SahBvhBuilder.DEFAULT_TRAVERSAL_COST;
+        visit(node.getLeft(), depth + 1);
+        visit(node.getRight(), depth + 1);
+      }
+    }
+  }
+}
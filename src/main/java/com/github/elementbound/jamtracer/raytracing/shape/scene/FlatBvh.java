@@ -0,0 +1,832 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.Arrays;
+
+/**
+ * Bounding volume hierarchy flattened into arrays, for traversal without pointer chasing.
+ *
+ * <p>Nodes are stored in depth-first order, so every interior node's left child directly follows
+ * it. Per node, {@code bounds} holds six values, min X, Y, Z then max X, Y, Z, and {@code nodes}
+ * holds two: for leaves the index of the first shape and the shape count, for interior nodes the
+ * index of the right child and zero. Shapes are stored in leaf order.</p>
+ *
+ * <p>Node bounds can be refit in place after shapes move, see {@link #refit(int)}. Refitting keeps
+ * the tree valid, but its quality degrades as shapes move further from where they were at build
+ * time.</p>
+ *
+ * <p>Traversal is iterative, using a per-thread stack that is grown once and reused afterwards, so
+ * raycasts don't allocate. Traversals may nest, e.g. when a shape itself raycasts another
+ * hierarchy, as each one claims its own region of the stack.</p>
+ *
+ * <p>Packets of rays traverse the hierarchy together: every node is visited once per packet, along
+ * with the index of the first ray still active in it, so rays known to miss the node are skipped.
+ * Coherent packets are first tested as a whole using interval arithmetic over the packet's ranges
+ * of origins and directions, so nodes the whole packet misses are rejected with a single test.
+ * Shapes are transformed individually, so shapes in leaves are still tested ray by ray. Leaf
+ * bounds are tested against every active ray at once by a {@link BoxKernel}.</p>
+ *
+ * <p>Based on: Ingo Wald, Realtime Ray Tracing and Interactive Global Illumination, 2004</p>
+ */
+public final class FlatBvh {
+  private static final int BOUNDS_STRIDE = 6;
+  private static final int NODE_STRIDE = 2;
+  private static final BoxKernel KERNEL = BoxKernel.DEFAULT;
+
+  private static final ThreadLocal<TraversalStack> STACK =
+      ThreadLocal.withInitial(TraversalStack::new);
+
+  private final double[] bounds;
+  private final int[] nodes;
+  private final int[] parents;
+  private final Shape[] shapes;
+  private final int[] shapeLeaves;
+  private final int depth;
+
+  private FlatBvh(double[] bounds, int[] nodes, int[] parents, Shape[] shapes, int[] shapeLeaves,
+                  int depth) {
+    this.bounds = bounds;
+    this.nodes = nodes;
+    this.parents = parents;
+    this.shapes = shapes;
+    this.shapeLeaves = shapeLeaves;
+    this.depth = depth;
+  }
+
+  /**
+   * Flatten hierarchy.
+   *
+   * @param root root node
+   *
+   * @return flattened hierarchy
+   */
+  public static FlatBvh of(BvhNode root) {
+    var flattener = new Flattener(countNodes(root), countShapes(root));
+    flattener.add(root, -1, 0);
+
+    return new FlatBvh(flattener.bounds, flattener.nodes, flattener.parents, flattener.shapes,
+        flattener.shapeLeaves, flattener.depth);
+  }
+
+  /**
+   * Restore flattened hierarchy from its arrays, e.g. ones loaded from a cache.
+   * <p>The arrays are <em>not</em> copied, do not modify them afterwards. See
+   * {@link #getNodeBounds()} and {@link #getNodes()} for their layout.</p>
+   *
+   * @param bounds node bounds, six per node
+   * @param nodes  node links, two per node
+   * @param shapes shapes, in leaf order
+   *
+   * @return flattened hierarchy
+   *
+   * @throws IllegalArgumentException if the arrays don't describe a valid hierarchy
+   */
+  public static FlatBvh of(double[] bounds, int[] nodes, Shape[] shapes) {
+    int nodeCount = nodes.length / NODE_STRIDE;
+
+    if (nodeCount == 0 || nodes.length != nodeCount * NODE_STRIDE
+        || bounds.length != nodeCount * BOUNDS_STRIDE) {
+      throw new IllegalArgumentException("Invalid hierarchy size!");
+    }
+
+    var parents = new int[nodeCount];
+    var shapeLeaves = new int[shapes.length];
+    var depths = new int[nodeCount];
+    var stack = new int[nodeCount + 1];
+    int stackSize = 0;
+    int nextNode = 0;
+    int shapeCount = 0;
+    int depth = 0;
+
+    // Walk the tree depth-first, which must visit every node in storage order
+    parents[0] = -1;
+    stack[stackSize++] = 0;
+
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      int link = nodes[node * NODE_STRIDE];
+      int count = nodes[node * NODE_STRIDE + 1];
+
+      if (node != nextNode++) {
+        throw new IllegalArgumentException("Hierarchy nodes out of order!");
+      }
+
+      if (count > 0) {
+        if (link != shapeCount || count > shapes.length - shapeCount) {
+          throw new IllegalArgumentException("Hierarchy leaves out of order!");
+        }
+
+        Arrays.fill(shapeLeaves, shapeCount, shapeCount + count, node);
+        shapeCount += count;
+        depth = Math.max(depth, depths[node]);
+      } else {
+        if (count < 0 || link <= node + 1 || link >= nodeCount) {
+          throw new IllegalArgumentException("Invalid hierarchy node!");
+        }
+
+        parents[node + 1] = node;
+        parents[link] = node;
+        depths[node + 1] = depths[node] + 1;
+        depths[link] = depths[node] + 1;
+        stack[stackSize++] = link;
+        stack[stackSize++] = node + 1;
+      }
+    }
+
+    if (nextNode != nodeCount || shapeCount != shapes.length) {
+      throw new IllegalArgumentException("Hierarchy doesn't cover every node and shape!");
+    }
+
+    return new FlatBvh(bounds, nodes, parents, shapes, shapeLeaves, depth);
+  }
+
+  /**
+   * Get number of nodes, including leaves.
+   *
+   * @return node count
+   */
+  public int getNodeCount() {
+    return nodes.length / NODE_STRIDE;
+  }
+
+  /**
+   * Get number of shapes.
+   *
+   * @return shape count
+   */
+  public int getShapeCount() {
+    return shapes.length;
+  }
+
+  /**
+   * Get shape.
+   *
+   * @param index shape index, in leaf order
+   *
+   * @return shape
+   */
+  public Shape getShape(int index) {
+    return shapes[index];
+  }
+
+  /**
+   * Get depth of the deepest leaf, with the root at depth 0.
+   *
+   * @return depth
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Get node bounds.
+   *
+   * @param node node index
+   *
+   * @return bounds
+   */
+  public BoundingBox getBounds(int node) {
+    int i = node * BOUNDS_STRIDE;
+    return new BoundingBox(bounds[i], bounds[i + 1], bounds[i + 2],
+        bounds[i + 3], bounds[i + 4], bounds[i + 5]);
+  }
+
+  /**
+   * Get bounds of every node, six per node: min X, Y, Z then max X, Y, Z.
+   * <p>The array is <em>not</em> copied, do not modify it.</p>
+   *
+   * @return node bounds
+   */
+  public double[] getNodeBounds() {
+    return bounds;
+  }
+
+  /**
+   * Get links of every node, two per node: for leaves the index of the first shape and the shape
+   * count, for interior nodes the index of the right child and zero.
+   * <p>The array is <em>not</em> copied, do not modify it.</p>
+   *
+   * @return node links
+   */
+  public int[] getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Update bounds after a shape has moved.
+   * <p>The shape's leaf is refit to its shapes' current bounds, then its ancestors are refit
+   * bottom-up, stopping at the first one whose bounds don't change. Must not be called while the
+   * hierarchy is being traversed.</p>
+   *
+   * @param index index of moved shape, in leaf order
+   *
+   * @return true on success, false if the shape's bounds are no longer finite, in which case the
+   *         hierarchy must be rebuilt
+   */
+  public boolean refit(int index) {
+    int leaf = shapeLeaves[index];
+    int offset = nodes[leaf * NODE_STRIDE];
+    int count = nodes[leaf * NODE_STRIDE + 1];
+    var leafBounds = BoundingBox.EMPTY;
+
+    for (int i = offset; i < offset + count; i++) {
+      leafBounds = leafBounds.union(shapes[i].getBounds());
+    }
+
+    if (!leafBounds.isFinite()) {
+      return false;
+    }
+
+    setBounds(leaf, leafBounds.getMin(0), leafBounds.getMin(1), leafBounds.getMin(2),
+        leafBounds.getMax(0), leafBounds.getMax(1), leafBounds.getMax(2));
+
+    for (int node = parents[leaf]; node >= 0; node = parents[node]) {
+      int left = (node + 1) * BOUNDS_STRIDE;
+      int right = nodes[node * NODE_STRIDE] * BOUNDS_STRIDE;
+
+      boolean changed = setBounds(node,
+          Math.min(bounds[left], bounds[right]),
+          Math.min(bounds[left + 1], bounds[right + 1]),
+          Math.min(bounds[left + 2], bounds[right + 2]),
+          Math.max(bounds[left + 3], bounds[right + 3]),
+          Math.max(bounds[left + 4], bounds[right + 4]),
+          Math.max(bounds[left + 5], bounds[right + 5]));
+
+      if (!changed) {
+        break;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Get expected raycast cost by the surface area heuristic.
+   * <p>Uses the same cost constants as {@link BvhStatistics}, so it can be compared to the cost
+   * reported on build.</p>
+   *
+   * @return cost
+   */
+  public double sahCost() {
+    double rootArea = surfaceArea(0);
+    double cost = 0.0;
+
+    for (int node = 0; node < getNodeCount(); node++) {
+      int count = nodes[node * NODE_STRIDE + 1];
+
+      cost += surfaceArea(node) * (count > 0
+          ? SahBvhBuilder.DEFAULT_INTERSECTION_COST * count
+          : SahBvhBuilder.DEFAULT_TRAVERSAL_COST);
+    }
+
+    return rootArea > 0.0 ? cost / rootArea : 0.0;
+  }
+
+  /**
+   * Raycast hierarchy, updating hit record if a closer hit is found.
+   *
+   * @param ray ray
+   * @param hit hit record
+   *
+   * @return true if a closer hit was found
+   */
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var from = ray.getFrom();
+    var direction = ray.getDirection();
+    double fromX = from.getX();
+    double fromY = from.getY();
+    double fromZ = from.getZ();
+    double invDirX = 1.0 / direction.getX();
+    double invDirY = 1.0 / direction.getY();
+    double invDirZ = 1.0 / direction.getZ();
+
+    if (intersect(0, fromX, fromY, fromZ, invDirX, invDirY, invDirZ) >= hit.getDistance()) {
+      return false;
+    }
+
+    var stack = STACK.get();
+    int base = stack.acquire(depth + 1);
+    int[] nodeStack = stack.nodes;
+    double[] distanceStack = stack.distances;
+    int top = base;
+
+    boolean isHit = false;
+    int node = 0;
+
+    try {
+      while (true) {
+        int offset = nodes[node * NODE_STRIDE];
+        int count = nodes[node * NODE_STRIDE + 1];
+
+        if (count > 0) {
+          for (int i = offset; i < offset + count; i++) {
+            isHit |= shapes[i].raycast(ray, hit);
+          }
+        } else {
+          int first = node + 1;
+          int second = offset;
+          double firstDistance = intersect(first, fromX, fromY, fromZ, invDirX, invDirY, invDirZ);
+          double secondDistance = intersect(second, fromX, fromY, fromZ,
+              invDirX, invDirY, invDirZ);
+
+          // Visit nearer child first, so the farther one can be skipped if a closer hit is found
+          if (firstDistance > secondDistance) {
+            first = offset;
+            second = node + 1;
+            double swap = firstDistance;
+            firstDistance = secondDistance;
+            secondDistance = swap;
+          }
+
+          if (firstDistance < hit.getDistance()) {
+            if (secondDistance < hit.getDistance()) {
+              nodeStack[top] = second;
+              distanceStack[top] = secondDistance;
+              top++;
+            }
+
+            node = first;
+            continue;
+          }
+        }
+
+        // Pop next node, skipping the ones behind the closest hit so far
+        do {
+          if (top == base) {
+            return isHit;
+          }
+
+          top--;
+          node = nodeStack[top];
+        } while (distanceStack[top] >= hit.getDistance());
+      }
+    } finally {
+      stack.release(base);
+    }
+  }
+
+  /**
+   * Raycast every ray of a packet, updating each ray's hit record if a closer hit is found.
+   *
+   * @param packet rays
+   * @param hits   hit records, one per ray
+   */
+  public void raycast(RayPacket packet, HitRecord[] hits) {
+    int size = packet.size();
+    double[] fromX = packet.getFromX();
+    double[] fromY = packet.getFromY();
+    double[] fromZ = packet.getFromZ();
+    double[] invDirX = packet.getInvDirX();
+    double[] invDirY = packet.getInvDirY();
+    double[] invDirZ = packet.getInvDirZ();
+    boolean isCoherent = packet.isCoherent();
+
+    var stack = STACK.get();
+    int base = stack.acquire(depth + 1);
+    int[] nodeStack = stack.nodes;
+    int[] firstStack = stack.firsts;
+    double[] rayDistances = stack.rayDistances(size);
+    double[] rayExits = stack.rayExits;
+    int top = base;
+
+    int node = 0;
+    int first = 0;
+
+    try {
+      while (true) {
+        // Find first ray that hits the node closer than its current hit
+        if (isCoherent && missesPacket(node, packet)) {
+          first = size;
+        }
+
+        while (first < size && intersect(node, fromX[first], fromY[first], fromZ[first],
+            invDirX[first], invDirY[first], invDirZ[first]) >= hits[first].getDistance()) {
+          first++;
+        }
+
+        if (first < size) {
+          int offset = nodes[node * NODE_STRIDE];
+          int count = nodes[node * NODE_STRIDE + 1];
+
+          if (count == 0) {
+            // Visit the child nearer to the first active ray first
+            int near = node + 1;
+            int far = offset;
+            double nearDistance = intersect(near, fromX[first], fromY[first], fromZ[first],
+                invDirX[first], invDirY[first], invDirZ[first]);
+            double farDistance = intersect(far, fromX[first], fromY[first], fromZ[first],
+                invDirX[first], invDirY[first], invDirZ[first]);
+
+            if (nearDistance > farDistance) {
+              near = offset;
+              far = node + 1;
+            }
+
+            nodeStack[top] = far;
+            firstStack[top] = first;
+            top++;
+
+            node = near;
+            continue;
+          }
+
+          KERNEL.intersect(bounds, node * BOUNDS_STRIDE, packet, first, size, rayDistances,
+              rayExits);
+
+          for (int r = first; r < size; r++) {
+            var hit = hits[r];
+
+            if (rayDistances[r] < hit.getDistance()) {
+              var ray = packet.getRay(r);
+
+              for (int i = offset; i < offset + count; i++) {
+                shapes[i].raycast(ray, hit);
+              }
+            }
+          }
+        }
+
+        if (top == base) {
+          return;
+        }
+
+        top--;
+        node = nodeStack[top];
+        first = firstStack[top];
+      }
+    } finally {
+      stack.release(base);
+    }
+  }
+
+  /**
+   * Check if anything in the hierarchy blocks the ray before a given distance.
+   *
+   * @param ray         ray
+   * @param maxDistance distance along ray
+   *
+   * @return true if occluded
+   */
+  public boolean occludes(Ray ray, double maxDistance) {
+    var from = ray.getFrom();
+    var direction = ray.getDirection();
+
+    return occludes(from.getX(), from.getY(), from.getZ(),
+        direction.getX(), direction.getY(), direction.getZ(), maxDistance, ray);
+  }
+
+  /**
+   * Check if anything in the hierarchy blocks the ray before a given distance.
+   * <p>The ray is only built once it reaches a leaf.</p>
+   *
+   * @param fromX       ray origin X
+   * @param fromY       ray origin Y
+   * @param fromZ       ray origin Z
+   * @param directionX  ray direction X
+   * @param directionY  ray direction Y
+   * @param directionZ  ray direction Z
+   * @param maxDistance distance along ray
+   *
+   * @return true if occluded
+   */
+  public boolean occludes(double fromX, double fromY, double fromZ,
+                          double directionX, double directionY, double directionZ,
+                          double maxDistance) {
+    return occludes(fromX, fromY, fromZ, directionX, directionY, directionZ, maxDistance, null);
+  }
+
+  private boolean occludes(double fromX, double fromY, double fromZ,
+                           double directionX, double directionY, double directionZ,
+                           double maxDistance, Ray ray) {
+    double invDirX = 1.0 / directionX;
+    double invDirY = 1.0 / directionY;
+    double invDirZ = 1.0 / directionZ;
+
+    var stack = STACK.get();
+    int base = stack.acquire(depth + 1);
+    int[] nodeStack = stack.nodes;
+    int top = base;
+
+    int node = 0;
+
+    try {
+      while (true) {
+        // Any hit will do, so no need to order children
+        if (intersect(node, fromX, fromY, fromZ, invDirX, invDirY, invDirZ) < maxDistance) {
+          int offset = nodes[node * NODE_STRIDE];
+          int count = nodes[node * NODE_STRIDE + 1];
+
+          if (count == 0) {
+            nodeStack[top++] = offset;
+            node++;
+            continue;
+          }
+
+          if (ray == null) {
+            ray = new Ray(new Vector3(fromX, fromY, fromZ),
+                new Vector3(directionX, directionY, directionZ));
+          }
+
+          for (int i = offset; i < offset + count; i++) {
+            if (shapes[i].occludes(ray, maxDistance)) {
+              return true;
+            }
+          }
+        }
+
+        if (top == base) {
+          return false;
+        }
+
+        node = nodeStack[--top];
+      }
+    } finally {
+      stack.release(base);
+    }
+  }
+
+  /**
+   * Check every ray of a packet for occlusion before its maximum distance.
+   *
+   * @param packet   rays, with maximum distances
+   * @param occluded results, one per ray
+   */
+  public void occludes(RayPacket packet, boolean[] occluded) {
+    int size = packet.size();
+    double[] fromX = packet.getFromX();
+    double[] fromY = packet.getFromY();
+    double[] fromZ = packet.getFromZ();
+    double[] invDirX = packet.getInvDirX();
+    double[] invDirY = packet.getInvDirY();
+    double[] invDirZ = packet.getInvDirZ();
+    boolean isCoherent = packet.isCoherent();
+
+    Arrays.fill(occluded, 0, size, false);
+
+    var stack = STACK.get();
+    int base = stack.acquire(depth + 1);
+    int[] nodeStack = stack.nodes;
+    int[] firstStack = stack.firsts;
+    double[] rayDistances = stack.rayDistances(size);
+    double[] rayExits = stack.rayExits;
+    int top = base;
+
+    int node = 0;
+    int first = 0;
+    int remaining = size;
+
+    try {
+      while (remaining > 0) {
+        if (isCoherent && missesPacket(node, packet)) {
+          first = size;
+        }
+
+        while (first < size && (occluded[first]
+            || intersect(node, fromX[first], fromY[first], fromZ[first],
+            invDirX[first], invDirY[first], invDirZ[first]) >= packet.getMaxDistance(first))) {
+          first++;
+        }
+
+        if (first < size) {
+          int offset = nodes[node * NODE_STRIDE];
+          int count = nodes[node * NODE_STRIDE + 1];
+
+          if (count == 0) {
+            // Any hit will do, so no need to order children
+            nodeStack[top] = offset;
+            firstStack[top] = first;
+            top++;
+
+            node++;
+            continue;
+          }
+
+          KERNEL.intersect(bounds, node * BOUNDS_STRIDE, packet, first, size, rayDistances,
+              rayExits);
+
+          for (int r = first; r < size; r++) {
+            double maxDistance = packet.getMaxDistance(r);
+
+            if (!occluded[r] && rayDistances[r] < maxDistance) {
+              var ray = packet.getRay(r);
+
+              for (int i = offset; i < offset + count; i++) {
+                if (shapes[i].occludes(ray, maxDistance)) {
+                  occluded[r] = true;
+                  remaining--;
+                  break;
+                }
+              }
+            }
+          }
+        }
+
+        if (top == base) {
+          return;
+        }
+
+        top--;
+        node = nodeStack[top];
+        first = firstStack[top];
+      }
+    } finally {
+      stack.release(base);
+    }
+  }
+
+  private boolean missesPacket(int node, RayPacket packet) {
+    // Bound every ray's slab distances by intervals over the packet's origins and directions
+    int i = node * BOUNDS_STRIDE;
+    double entry = 0.0;
+    double exit = Double.POSITIVE_INFINITY;
+
+    for (int axis = 0; axis < 3; axis++) {
+      double fromMin = packet.getFromMin(axis);
+      double fromMax = packet.getFromMax(axis);
+      double invDirMin = packet.getInvDirMin(axis);
+      double invDirMax = packet.getInvDirMax(axis);
+
+      double lower = bounds[i + axis];
+      double upper = bounds[i + 3 + axis];
+      boolean isPositive = invDirMin >= 0.0;
+
+      double nearBound = isPositive ? lower : upper;
+      double farBound = isPositive ? upper : lower;
+
+      entry = Math.max(entry, productMin(nearBound - fromMax, nearBound - fromMin,
+          invDirMin, invDirMax));
+      exit = Math.min(exit, productMax(farBound - fromMax, farBound - fromMin,
+          invDirMin, invDirMax));
+    }
+
+    return entry > exit;
+  }
+
+  private static double productMin(double lhsMin, double lhsMax, double rhsMin, double rhsMax) {
+    return Math.min(Math.min(lhsMin * rhsMin, lhsMin * rhsMax),
+        Math.min(lhsMax * rhsMin, lhsMax * rhsMax));
+  }
+
+  private static double productMax(double lhsMin, double lhsMax, double rhsMin, double rhsMax) {
+    return Math.max(Math.max(lhsMin * rhsMin, lhsMin * rhsMax),
+        Math.max(lhsMax * rhsMin, lhsMax * rhsMax));
+  }
+
+  private boolean setBounds(int node, double minX, double minY, double minZ,
+                            double maxX, double maxY, double maxZ) {
+    int i = node * BOUNDS_STRIDE;
+    final boolean changed = bounds[i] != minX || bounds[i + 1] != minY || bounds[i + 2] != minZ
+        || bounds[i + 3] != maxX || bounds[i + 4] != maxY || bounds[i + 5] != maxZ;
+
+    bounds[i] = minX;
+    bounds[i + 1] = minY;
+    bounds[i + 2] = minZ;
+    bounds[i + 3] = maxX;
+    bounds[i + 4] = maxY;
+    bounds[i + 5] = maxZ;
+
+    return changed;
+  }
+
+  private double surfaceArea(int node) {
+    int i = node * BOUNDS_STRIDE;
+    double dx = bounds[i + 3] - bounds[i];
+    double dy = bounds[i + 4] - bounds[i + 1];
+    double dz = bounds[i + 5] - bounds[i + 2];
+
+    return 2.0 * (dx * dy + dy * dz + dz * dx);
+  }
+
+  private double intersect(int node, double fromX, double fromY, double fromZ,
+                           double invDirX, double invDirY, double invDirZ) {
+    // Same as BoundingBox#intersect, reading bounds from the array
+    int i = node * BOUNDS_STRIDE;
+    double tmin = 0.0;
+    double tmax = Double.POSITIVE_INFINITY;
+
+    double t1 = (bounds[i] - fromX) * invDirX;
+    double t2 = (bounds[i + 3] - fromX) * invDirX;
+    double near = t1 > t2 ? t2 : t1;
+    double far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (bounds[i + 1] - fromY) * invDirY;
+    t2 = (bounds[i + 4] - fromY) * invDirY;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    t1 = (bounds[i + 2] - fromZ) * invDirZ;
+    t2 = (bounds[i + 5] - fromZ) * invDirZ;
+    near = t1 > t2 ? t2 : t1;
+    far = t1 > t2 ? t1 : t2;
+    tmin = near > tmin ? near : tmin;
+    tmax = far < tmax ? far : tmax;
+
+    return tmax >= tmin ? tmin : Double.POSITIVE_INFINITY;
+  }
+
+  private static int countNodes(BvhNode node) {
+    return node.isLeaf() ? 1 : 1 + countNodes(node.getLeft()) + countNodes(node.getRight());
+  }
+
+  private static int countShapes(BvhNode node) {
+    return node.isLeaf()
+        ? node.getShapes().length
+        : countShapes(node.getLeft()) + countShapes(node.getRight());
+  }
+
+  private static class Flattener {
+    private final double[] bounds;
+    private final int[] nodes;
+    private final int[] parents;
+    private final Shape[] shapes;
+    private final int[] shapeLeaves;
+    private int nodeCount;
+    private int shapeCount;
+    private int depth;
+
+    private Flattener(int nodeCount, int shapeCount) {
+      this.bounds = new double[nodeCount * BOUNDS_STRIDE];
+      this.nodes = new int[nodeCount * NODE_STRIDE];
+      this.parents = new int[nodeCount];
+      this.shapes = new Shape[shapeCount];
+      this.shapeLeaves = new int[shapeCount];
+    }
+
+    private void add(BvhNode node, int parent, int nodeDepth) {
+      int index = nodeCount++;
+      var nodeBounds = node.getBounds();
+      parents[index] = parent;
+
+      for (int axis = 0; axis < 3; axis++) {
+        bounds[index * BOUNDS_STRIDE + axis] = nodeBounds.getMin(axis);
+        bounds[index * BOUNDS_STRIDE + 3 + axis] = nodeBounds.getMax(axis);
+      }
+
+      if (node.isLeaf()) {
+        var leafShapes = node.getShapes();
+        System.arraycopy(leafShapes, 0, shapes, shapeCount, leafShapes.length);
+        Arrays.fill(shapeLeaves, shapeCount, shapeCount + leafShapes.length, index);
+
+        nodes[index * NODE_STRIDE] = shapeCount;
+        nodes[index * NODE_STRIDE + 1] = leafShapes.length;
+        shapeCount += leafShapes.length;
+        depth = Math.max(depth, nodeDepth);
+      } else {
+        add(node.getLeft(), index, nodeDepth + 1);
+        nodes[index * NODE_STRIDE] = nodeCount;
+        nodes[index * NODE_STRIDE + 1] = 0;
+        add(node.getRight(), index, nodeDepth + 1);
+      }
+    }
+  }
+
+  /**
+   * Per-thread traversal stack, shared by nested traversals.
+   */
+  private static class TraversalStack {
+    private int[] nodes = new int[64];
+    private double[] distances = new double[64];
+    private int[] firsts = new int[64];
+    private double[] rayDistances = new double[0];
+    private double[] rayExits = new double[0];
+    private int size;
+
+    private int acquire(int length) {
+      int base = size;
+      size += length;
+
+      if (size > nodes.length) {
+        // Outer traversals keep using the previous arrays, so their entries stay intact
+        int capacity = Math.max(size, 2 * nodes.length);
+        nodes = Arrays.copyOf(nodes, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        firsts = Arrays.copyOf(firsts, capacity);
+      }
+
+      return base;
+    }
+
+    private void release(int base) {
+      size = base;
+    }
+
+    // Packet traversals don't nest, as leaves are tested ray by ray, so these can be shared
+    private double[] rayDistances(int length) {
+      if (rayDistances.length < length) {
+        rayDistances = new double[length];
+        rayExits = new double[length];
+      }
+
+      return rayDistances;
+    }
+  }
+}
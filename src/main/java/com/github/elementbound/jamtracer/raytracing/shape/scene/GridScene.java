@@ -0,0 +1,530 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.light.Light;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.BoundsCache;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link Scene} using a uniform grid to speed up raycasts.
+ *
+ * <p>The grid is built in {@link #prepare()}: the scene's bounds are split into equal cells, and
+ * each shape is listed in every cell its bounds overlap. The resolution is picked so that the grid
+ * has roughly {@code density} cells per shape, with cells as close to cubes as possible. Building
+ * is a single counting pass and a single filling pass, so the grid can be rebuilt every frame.
+ * Works best for many similarly sized, evenly spread shapes; for uneven scenes prefer
+ * {@link BvhScene}.</p>
+ *
+ * <p>Rays walk the grid cell by cell, in order, using 3D-DDA, stopping at the first cell that ends
+ * behind the closest hit. Shapes spanning multiple cells are tested only once per ray, by stamping
+ * them with a per-thread ray id (mailboxing).</p>
+ *
+ * <p>Based on: John Amanatides, Andrew Woo, A Fast Voxel Traversal Algorithm for Ray Tracing,
+ * Eurographics, 1987</p>
+ *
+ * <p>Shapes without finite bounds are tested for every ray. Until the scene is prepared, or after
+ * shapes are added or removed, raycasts fall back to testing every shape.</p>
+ */
+public class GridScene implements Scene {
+  public static final double DEFAULT_DENSITY = 2.0;
+  public static final int MAX_RESOLUTION = 256;
+
+  private Transform transform;
+  private final Set<Shape> shapes;
+  private final Set<Light> lights;
+  private Material material;
+  private Grid grid;
+  private final double density;
+  private final BoundsCache boundsCache = new BoundsCache();
+  private final ThreadLocal<Mailbox> mailboxes = ThreadLocal.withInitial(Mailbox::new);
+
+  /**
+   * Construct an empty scene with default density.
+   */
+  public GridScene() {
+    this(DEFAULT_DENSITY);
+  }
+
+  /**
+   * Construct an empty scene.
+   *
+   * @param density target number of cells per shape
+   */
+  public GridScene(double density) {
+    if (!(density > 0.0)) {
+      throw new IllegalArgumentException("Density must be positive!");
+    }
+
+    this.transform = new Transform();
+    this.shapes = new HashSet<>();
+    this.lights = new HashSet<>();
+    this.material = Material.DEFAULT_SCENE_MATERIAL;
+    this.grid = null;
+    this.density = density;
+  }
+
+  /**
+   * Get target number of cells per shape.
+   *
+   * @return density
+   */
+  public double getDensity() {
+    return density;
+  }
+
+  /**
+   * Get grid resolution along an axis.
+   *
+   * @param axis axis index
+   *
+   * @return number of cells along axis, or 0 if there's no grid
+   */
+  public int getResolution(int axis) {
+    var grid = this.grid;
+    return grid == null ? 0 : grid.resolution[axis];
+  }
+
+  @Override
+  public Transform getTransform() {
+    return transform;
+  }
+
+  @Override
+  public void setTransform(Transform transform) {
+    this.transform = transform;
+  }
+
+  @Override
+  public Material getMaterial() {
+    return material;
+  }
+
+  @Override
+  public void setMaterial(Material material) {
+    this.material = material;
+  }
+
+  @Override
+  public BoundingBox getBounds() {
+    return boundsCache.get(transform, () -> shapes.stream()
+        .map(Shape::getBounds)
+        .reduce(BoundingBox.EMPTY, BoundingBox::union));
+  }
+
+  @Override
+  public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var localRay = transform.inverseTransformRay(ray);
+    var grid = this.grid;
+
+    if (grid == null) {
+      return raycastAll(shapes, localRay, hit);
+    }
+
+    boolean isHit = raycastAll(grid.unbounded, localRay, hit);
+
+    if (grid.shapes.length > 0) {
+      isHit |= grid.raycast(localRay, hit, mailboxes.get());
+    }
+
+    return isHit;
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    var localRay = transform.inverseTransformRay(ray);
+    var localDistance = transform.inverseTransformDistance(ray, maxDistance);
+    var grid = this.grid;
+
+    if (grid == null) {
+      return occludesAny(shapes, localRay, localDistance);
+    }
+
+    return occludesAny(grid.unbounded, localRay, localDistance)
+        || (grid.shapes.length > 0 && grid.occludes(localRay, localDistance, mailboxes.get()));
+  }
+
+  @Override
+  public void prepare() {
+    List<Shape> unbounded = new ArrayList<>();
+    List<Shape> bounded = new ArrayList<>();
+
+    for (var shape : shapes) {
+      if (shape.getBounds().isFinite()) {
+        bounded.add(shape);
+      } else {
+        unbounded.add(shape);
+      }
+    }
+
+    grid = new Grid(bounded.toArray(Shape[]::new), unbounded, density);
+    boundsCache.invalidate();
+  }
+
+  @Override
+  public Scene addShape(Shape shape) {
+    shapes.add(shape);
+    grid = null;
+    boundsCache.invalidate();
+    return this;
+  }
+
+  @Override
+  public Scene removeShape(Shape shape) {
+    shapes.remove(shape);
+    grid = null;
+    boundsCache.invalidate();
+    return this;
+  }
+
+  @Override
+  public Set<Shape> getShapes() {
+    return Collections.unmodifiableSet(shapes);
+  }
+
+  @Override
+  public Scene addLight(Light light) {
+    lights.add(light);
+    return this;
+  }
+
+  @Override
+  public Scene removeLight(Light light) {
+    lights.remove(light);
+    return this;
+  }
+
+  @Override
+  public Set<Light> getLights() {
+    return Collections.unmodifiableSet(lights);
+  }
+
+  private static boolean raycastAll(Iterable<Shape> shapes, Ray ray, HitRecord hit) {
+    boolean isHit = false;
+
+    for (var shape : shapes) {
+      isHit |= shape.raycast(ray, hit);
+    }
+
+    return isHit;
+  }
+
+  private static boolean occludesAny(Iterable<Shape> shapes, Ray ray, double maxDistance) {
+    for (var shape : shapes) {
+      if (shape.occludes(ray, maxDistance)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Grid cells in compressed form: shapes of cell {@code i} are listed in {@code cellShapes} from
+   * {@code cellStarts[i]} to {@code cellStarts[i + 1]}, as indices into {@code shapes}. Cells are
+   * stored X first, then Y, then Z.
+   */
+  private static class Grid {
+    private final Shape[] shapes;
+    private final List<Shape> unbounded;
+    private final BoundingBox bounds;
+    private final double[] min = new double[3];
+    private final double[] cellSize = new double[3];
+    private final int[] resolution = new int[3];
+    private final int[] cellStarts;
+    private final int[] cellShapes;
+
+    private Grid(Shape[] shapes, List<Shape> unbounded, double density) {
+      this.shapes = shapes;
+      this.unbounded = unbounded;
+
+      var bounds = BoundingBox.EMPTY;
+      for (var shape : shapes) {
+        bounds = bounds.union(shape.getBounds());
+      }
+      this.bounds = bounds;
+
+      if (shapes.length == 0) {
+        Arrays.fill(resolution, 1);
+        cellStarts = new int[2];
+        cellShapes = new int[0];
+        return;
+      }
+
+      pickResolution(bounds, shapes.length * density);
+
+      int cellCount = resolution[0] * resolution[1] * resolution[2];
+      int[] ranges = new int[6 * shapes.length];
+      cellStarts = new int[cellCount + 1];
+
+      // Count shapes per cell, offset by one, so prefix sums give start indices
+      for (int i = 0; i < shapes.length; i++) {
+        cellRange(shapes[i].getBounds(), ranges, 6 * i);
+        forEachCell(ranges, 6 * i, cell -> cellStarts[cell + 1]++);
+      }
+
+      for (int i = 0; i < cellCount; i++) {
+        cellStarts[i + 1] += cellStarts[i];
+      }
+
+      cellShapes = new int[cellStarts[cellCount]];
+      int[] fill = Arrays.copyOf(cellStarts, cellCount);
+
+      for (int i = 0; i < shapes.length; i++) {
+        final int shape = i;
+        forEachCell(ranges, 6 * i, cell -> cellShapes[fill[cell]++] = shape);
+      }
+    }
+
+    private void pickResolution(BoundingBox bounds, double targetCells) {
+      double[] extent = new double[3];
+      double maxExtent = 0.0;
+
+      for (int axis = 0; axis < 3; axis++) {
+        extent[axis] = bounds.getMax(axis) - bounds.getMin(axis);
+        maxExtent = Math.max(maxExtent, extent[axis]);
+      }
+
+      // Flat scenes would have zero volume, so give every axis at least a sliver of thickness
+      for (int axis = 0; axis < 3; axis++) {
+        extent[axis] = Math.max(extent[axis], maxExtent / MAX_RESOLUTION);
+      }
+
+      double cellsPerUnit = Math.cbrt(targetCells / (extent[0] * extent[1] * extent[2]));
+
+      for (int axis = 0; axis < 3; axis++) {
+        resolution[axis] = (int) Math.max(1L,
+            Math.min(MAX_RESOLUTION, Math.round(extent[axis] * cellsPerUnit)));
+        min[axis] = bounds.getMin(axis);
+        cellSize[axis] = (bounds.getMax(axis) - min[axis]) / resolution[axis];
+      }
+    }
+
+    private void cellRange(BoundingBox bounds, int[] ranges, int offset) {
+      for (int axis = 0; axis < 3; axis++) {
+        ranges[offset + axis] = cellIndex(bounds.getMin(axis), axis);
+        ranges[offset + 3 + axis] = cellIndex(bounds.getMax(axis), axis);
+      }
+    }
+
+    private int cellIndex(double coordinate, int axis) {
+      if (!(cellSize[axis] > 0.0)) {
+        return 0;
+      }
+
+      int index = (int) Math.floor((coordinate - min[axis]) / cellSize[axis]);
+      return Math.max(0, Math.min(resolution[axis] - 1, index));
+    }
+
+    private void forEachCell(int[] ranges, int offset, CellConsumer consumer) {
+      for (int z = ranges[offset + 2]; z <= ranges[offset + 5]; z++) {
+        for (int y = ranges[offset + 1]; y <= ranges[offset + 4]; y++) {
+          for (int x = ranges[offset]; x <= ranges[offset + 3]; x++) {
+            consumer.accept(x + resolution[0] * (y + resolution[1] * z));
+          }
+        }
+      }
+    }
+
+    private boolean raycast(Ray ray, HitRecord hit, Mailbox mailbox) {
+      var walk = mailbox.walk;
+      if (!walk.begin(this, ray, hit.getDistance())) {
+        return false;
+      }
+
+      int rayId = mailbox.begin(shapes.length);
+      int[] stamps = mailbox.stamps;
+      boolean isHit = false;
+
+      do {
+        int cell = walk.cell();
+
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+          int shape = cellShapes[i];
+
+          if (stamps[shape] != rayId) {
+            stamps[shape] = rayId;
+            isHit |= shapes[shape].raycast(ray, hit);
+          }
+        }
+
+        // Hits in later cells can't be closer than one before this cell's exit
+      } while (hit.getDistance() > walk.exitDistance() && walk.advance());
+
+      return isHit;
+    }
+
+    private boolean occludes(Ray ray, double maxDistance, Mailbox mailbox) {
+      var walk = mailbox.walk;
+      if (!walk.begin(this, ray, maxDistance)) {
+        return false;
+      }
+
+      int rayId = mailbox.begin(shapes.length);
+      int[] stamps = mailbox.stamps;
+
+      do {
+        int cell = walk.cell();
+
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+          int shape = cellShapes[i];
+
+          if (stamps[shape] != rayId) {
+            stamps[shape] = rayId;
+
+            if (shapes[shape].occludes(ray, maxDistance)) {
+              return true;
+            }
+          }
+        }
+      } while (walk.exitDistance() < maxDistance && walk.advance());
+
+      return false;
+    }
+  }
+
+  /**
+   * State of a ray walking through grid cells.
+   * <p>Reused for every ray walked on the same thread, see {@link Mailbox}.</p>
+   */
+  private static class Walk {
+    private int[] resolution;
+    private int cellX;
+    private int cellY;
+    private int cellZ;
+    private int stepX;
+    private int stepY;
+    private int stepZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+    private double deltaX;
+    private double deltaY;
+    private double deltaZ;
+
+    /**
+     * Start walking a ray from the cell where it enters the grid.
+     *
+     * @param grid        grid
+     * @param ray         ray
+     * @param maxDistance distance beyond which the ray is not walked
+     *
+     * @return whether the ray enters the grid before the given distance
+     */
+    private boolean begin(Grid grid, Ray ray, double maxDistance) {
+      var from = ray.getFrom();
+      var direction = ray.getDirection();
+      double invDirX = 1.0 / direction.getX();
+      double invDirY = 1.0 / direction.getY();
+      double invDirZ = 1.0 / direction.getZ();
+
+      double entry = grid.bounds.intersect(from.getX(), from.getY(), from.getZ(),
+          invDirX, invDirY, invDirZ);
+
+      if (!(entry < maxDistance)) {
+        return false;
+      }
+
+      resolution = grid.resolution;
+      cellX = grid.cellIndex(from.getX() + entry * direction.getX(), 0);
+      cellY = grid.cellIndex(from.getY() + entry * direction.getY(), 1);
+      cellZ = grid.cellIndex(from.getZ() + entry * direction.getZ(), 2);
+
+      stepX = direction.getX() > 0.0 ? 1 : (direction.getX() < 0.0 ? -1 : 0);
+      stepY = direction.getY() > 0.0 ? 1 : (direction.getY() < 0.0 ? -1 : 0);
+      stepZ = direction.getZ() > 0.0 ? 1 : (direction.getZ() < 0.0 ? -1 : 0);
+
+      maxX = boundary(grid, 0, cellX, stepX, from.getX(), invDirX);
+      maxY = boundary(grid, 1, cellY, stepY, from.getY(), invDirY);
+      maxZ = boundary(grid, 2, cellZ, stepZ, from.getZ(), invDirZ);
+
+      deltaX = stepX != 0 ? grid.cellSize[0] * Math.abs(invDirX) : Double.POSITIVE_INFINITY;
+      deltaY = stepY != 0 ? grid.cellSize[1] * Math.abs(invDirY) : Double.POSITIVE_INFINITY;
+      deltaZ = stepZ != 0 ? grid.cellSize[2] * Math.abs(invDirZ) : Double.POSITIVE_INFINITY;
+
+      return true;
+    }
+
+    private static double boundary(Grid grid, int axis, int cell, int step,
+                                   double from, double invDir) {
+      // Distance along ray to the cell boundary it crosses next along this axis
+      if (step == 0) {
+        return Double.POSITIVE_INFINITY;
+      }
+
+      int boundaryCell = step > 0 ? cell + 1 : cell;
+      return (grid.min[axis] + boundaryCell * grid.cellSize[axis] - from) * invDir;
+    }
+
+    private int cell() {
+      return cellX + resolution[0] * (cellY + resolution[1] * cellZ);
+    }
+
+    private double exitDistance() {
+      return Math.min(maxX, Math.min(maxY, maxZ));
+    }
+
+    private boolean advance() {
+      if (maxX <= maxY && maxX <= maxZ) {
+        cellX += stepX;
+        maxX += deltaX;
+        return cellX >= 0 && cellX < resolution[0];
+      } else if (maxY <= maxZ) {
+        cellY += stepY;
+        maxY += deltaY;
+        return cellY >= 0 && cellY < resolution[1];
+      } else {
+        cellZ += stepZ;
+        maxZ += deltaZ;
+        return cellZ >= 0 && cellZ < resolution[2];
+      }
+    }
+  }
+
+  /**
+   * Per-thread traversal state: shape stamps, so shapes spanning multiple cells are only tested
+   * once per ray, and the walk, so walking a ray allocates nothing. Scenes can't contain
+   * themselves, so walks of the same grid never nest on a thread.
+   */
+  private static class Mailbox {
+    private final Walk walk = new Walk();
+    private int[] stamps = new int[0];
+    private int rayId;
+
+    private int begin(int shapeCount) {
+      if (stamps.length < shapeCount) {
+        stamps = new int[shapeCount];
+      }
+
+      if (++rayId == 0) {
+        // Ids wrapped around, old stamps could collide with new ids
+        Arrays.fill(stamps, 0);
+        rayId = 1;
+      }
+
+      return rayId;
+    }
+  }
+
+  @FunctionalInterface
+  private interface CellConsumer {
+    void accept(int cell);
+  }
+}
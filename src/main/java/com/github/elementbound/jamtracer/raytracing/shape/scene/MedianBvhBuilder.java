@@ -0,0 +1,68 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds hierarchies by splitting shapes in half along the axis of largest spread.
+ *
+ * <p>Fast to build, but produces poor trees for scenes with uneven shape sizes or
+ * distribution.</p>
+ */
+public class MedianBvhBuilder implements BvhBuilder {
+  public static final int DEFAULT_MAX_LEAF_SIZE = 4;
+
+  private final int maxLeafSize;
+
+  /**
+   * Create builder with default leaf size.
+   */
+  public MedianBvhBuilder() {
+    this(DEFAULT_MAX_LEAF_SIZE);
+  }
+
+  /**
+   * Create builder.
+   *
+   * @param maxLeafSize maximum number of shapes per leaf
+   */
+  public MedianBvhBuilder(int maxLeafSize) {
+    if (maxLeafSize < 1) {
+      throw new IllegalArgumentException("Leaf size must be positive!");
+    }
+
+    this.maxLeafSize = maxLeafSize;
+  }
+
+  @Override
+  public BvhNode build(List<Shape> shapes) {
+    var primitives = BvhPrimitive.of(shapes, false);
+    return build(primitives, 0, primitives.length);
+  }
+
+  private BvhNode build(BvhPrimitive[] primitives, int from, int to) {
+    if (to - from <= maxLeafSize) {
+      return BvhPrimitive.leaf(primitives, from, to);
+    }
+
+    // Split at the median along the axis with the largest centroid spread
+    var centroidBounds = BvhPrimitive.centroidBounds(primitives, from, to);
+    int axis = 0;
+    for (int i = 1; i < 3; i++) {
+      if (centroidBounds.getMax(i) - centroidBounds.getMin(i)
+          > centroidBounds.getMax(axis) - centroidBounds.getMin(axis)) {
+        axis = i;
+      }
+    }
+
+    final int splitAxis = axis;
+    Arrays.sort(primitives, from, to,
+        Comparator.comparingDouble(primitive -> primitive.getCenter(splitAxis)));
+
+    int middle = (from + to) / 2;
+
+    return BvhNode.interior(build(primitives, from, middle), build(primitives, middle, to));
+  }
+}
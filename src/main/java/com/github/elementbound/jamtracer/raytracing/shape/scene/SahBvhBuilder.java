@@ -0,0 +1,330 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds hierarchies using the surface area heuristic (SAH).
+ *
+ * <p>At every node, shape centroids are sorted into a fixed number of equal-width bins along each
+ * axis, and the node is split at the bin boundary with the lowest estimated raycast cost. The cost
+ * of a split is {@code traversalCost + intersectionCost * (A_l * N_l + A_r * N_r) / A}, where
+ * {@code A} is the surface area of the node's bounds, {@code A_l} and {@code A_r} are the surface
+ * areas of the two halves and {@code N_l} and {@code N_r} their shape counts. Nodes with at most
+ * {@code maxLeafSize} shapes become leaves when no split beats {@code intersectionCost * N}.</p>
+ *
+ * <p>Binning keeps construction linear per tree level, instead of sorting shapes at every node,
+ * so building stays cheap enough to do on every {@link BvhScene#prepare()}.</p>
+ *
+ * <p>Given a {@link ForkJoinPool}, subtrees with at least {@code parallelThreshold} shapes are
+ * built as separate tasks. Every subtree works on its own range of shapes, so the resulting tree
+ * is identical to the one built sequentially.</p>
+ */
+public class SahBvhBuilder implements BvhBuilder {
+  public static final int DEFAULT_MAX_LEAF_SIZE = 4;
+  public static final int DEFAULT_BIN_COUNT = 16;
+  public static final double DEFAULT_TRAVERSAL_COST = 1.0;
+  public static final double DEFAULT_INTERSECTION_COST = 2.0;
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+
+  private final int maxLeafSize;
+  private final int binCount;
+  private final double traversalCost;
+  private final double intersectionCost;
+  private final ForkJoinPool pool;
+  private final int parallelThreshold;
+
+  /**
+   * Create sequential builder with default parameters.
+   */
+  public SahBvhBuilder() {
+    this(DEFAULT_MAX_LEAF_SIZE, DEFAULT_BIN_COUNT, DEFAULT_TRAVERSAL_COST,
+        DEFAULT_INTERSECTION_COST);
+  }
+
+  /**
+   * Create parallel builder with default parameters.
+   *
+   * @param pool pool to run build tasks in
+   */
+  public SahBvhBuilder(ForkJoinPool pool) {
+    this(DEFAULT_MAX_LEAF_SIZE, DEFAULT_BIN_COUNT, DEFAULT_TRAVERSAL_COST,
+        DEFAULT_INTERSECTION_COST, pool, DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * Create builder.
+   *
+   * @param maxLeafSize      maximum number of shapes per leaf
+   * @param binCount         number of bins per axis
+   * @param traversalCost    estimated cost of visiting an interior node
+   * @param intersectionCost estimated cost of intersecting a shape
+   */
+  public SahBvhBuilder(int maxLeafSize, int binCount, double traversalCost,
+                       double intersectionCost) {
+    this(maxLeafSize, binCount, traversalCost, intersectionCost, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Create builder.
+   *
+   * @param maxLeafSize       maximum number of shapes per leaf
+   * @param binCount          number of bins per axis
+   * @param traversalCost     estimated cost of visiting an interior node
+   * @param intersectionCost  estimated cost of intersecting a shape
+   * @param pool              pool to run build tasks in, or null to build sequentially
+   * @param parallelThreshold minimum number of shapes to build a subtree as a separate task
+   */
+  public SahBvhBuilder(int maxLeafSize, int binCount, double traversalCost,
+                       double intersectionCost, ForkJoinPool pool, int parallelThreshold) {
+    if (maxLeafSize < 1) {
+      throw new IllegalArgumentException("Leaf size must be positive!");
+    }
+
+    if (binCount < 2) {
+      throw new IllegalArgumentException("At least two bins are needed!");
+    }
+
+    if (!(traversalCost >= 0.0) || !(intersectionCost > 0.0)) {
+      throw new IllegalArgumentException("Invalid costs: " + traversalCost + ", "
+          + intersectionCost);
+    }
+
+    if (parallelThreshold < 2) {
+      throw new IllegalArgumentException("Parallel threshold must be at least 2!");
+    }
+
+    this.maxLeafSize = maxLeafSize;
+    this.binCount = binCount;
+    this.traversalCost = traversalCost;
+    this.intersectionCost = intersectionCost;
+    this.pool = pool;
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  @Override
+  public BvhNode build(List<Shape> shapes) {
+    if (pool == null) {
+      var primitives = BvhPrimitive.of(shapes, false);
+      return build(primitives, 0, primitives.length, new Bins(binCount));
+    }
+
+    return pool.invoke(ForkJoinTask.adapt(() -> {
+      var primitives = BvhPrimitive.of(shapes, true);
+      return new BuildTask(primitives, 0, primitives.length).compute();
+    }));
+  }
+
+  private BvhNode build(BvhPrimitive[] primitives, int from, int to, Bins bins) {
+    int count = to - from;
+
+    if (count == 1) {
+      return BvhPrimitive.leaf(primitives, from, to);
+    }
+
+    var bounds = BvhPrimitive.bounds(primitives, from, to);
+    var centroidBounds = BvhPrimitive.centroidBounds(primitives, from, to);
+    double area = bounds.surfaceArea();
+    double areaScale = area > 0.0 ? 1.0 / area : 0.0;
+
+    int bestAxis = -1;
+    int bestSplit = -1;
+    double bestCost = Double.POSITIVE_INFINITY;
+
+    for (int axis = 0; axis < 3; axis++) {
+      double min = centroidBounds.getMin(axis);
+      double extent = centroidBounds.getMax(axis) - min;
+
+      if (!(extent > 0.0)) {
+        continue;
+      }
+
+      bins.fill(primitives, from, to, axis, min, binCount / extent);
+
+      for (int split = 0; split < binCount - 1; split++) {
+        int leftCount = bins.leftCounts[split];
+        int rightCount = count - leftCount;
+
+        if (leftCount == 0 || rightCount == 0) {
+          continue;
+        }
+
+        double cost = traversalCost + intersectionCost * areaScale
+            * (bins.leftAreas[split] * leftCount + bins.rightAreas[split + 1] * rightCount);
+
+        if (cost < bestCost) {
+          bestCost = cost;
+          bestAxis = axis;
+          bestSplit = split;
+        }
+      }
+    }
+
+    if (count <= maxLeafSize && intersectionCost * count <= bestCost) {
+      return BvhPrimitive.leaf(primitives, from, to);
+    }
+
+    int middle;
+    if (bestAxis < 0) {
+      // Centroids coincide, no split is better than any other
+      middle = (from + to) / 2;
+    } else {
+      double min = centroidBounds.getMin(bestAxis);
+      double scale = binCount / (centroidBounds.getMax(bestAxis) - min);
+      middle = partition(primitives, from, to, bestAxis, min, scale, bestSplit);
+    }
+
+    if (pool != null && count >= parallelThreshold) {
+      var leftTask = new BuildTask(primitives, from, middle);
+      leftTask.fork();
+
+      var right = build(primitives, middle, to, bins);
+      return BvhNode.interior(leftTask.join(), right);
+    }
+
+    return BvhNode.interior(build(primitives, from, middle, bins),
+        build(primitives, middle, to, bins));
+  }
+
+  private int partition(BvhPrimitive[] primitives, int from, int to,
+                        int axis, double min, double scale, int split) {
+    int left = from;
+    int right = to - 1;
+
+    while (left <= right) {
+      if (binIndex(primitives[left].getCenter(axis), min, scale, binCount) <= split) {
+        left++;
+      } else {
+        var swap = primitives[left];
+        primitives[left] = primitives[right];
+        primitives[right] = swap;
+        right--;
+      }
+    }
+
+    return left;
+  }
+
+  private static int binIndex(double center, double min, double scale, int binCount) {
+    return Math.min((int) ((center - min) * scale), binCount - 1);
+  }
+
+  /**
+   * Task to build a subtree, with its own scratch space.
+   */
+  private class BuildTask extends RecursiveTask<BvhNode> {
+    private static final long serialVersionUID = 1L;
+
+    private final BvhPrimitive[] primitives;
+    private final int from;
+    private final int to;
+
+    private BuildTask(BvhPrimitive[] primitives, int from, int to) {
+      this.primitives = primitives;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected BvhNode compute() {
+      return build(primitives, from, to, new Bins(binCount));
+    }
+  }
+
+  /**
+   * Reusable per-task scratch space for binning.
+   */
+  private static class Bins {
+    private final int[] counts;
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] minZ;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final double[] maxZ;
+
+    /** Number of shapes in bins up to and including index. */
+    private final int[] leftCounts;
+    /** Surface area of bounds over bins up to and including index. */
+    private final double[] leftAreas;
+    /** Surface area of bounds over bins from index onwards. */
+    private final double[] rightAreas;
+
+    private Bins(int binCount) {
+      counts = new int[binCount];
+      minX = new double[binCount];
+      minY = new double[binCount];
+      minZ = new double[binCount];
+      maxX = new double[binCount];
+      maxY = new double[binCount];
+      maxZ = new double[binCount];
+      leftCounts = new int[binCount];
+      leftAreas = new double[binCount];
+      rightAreas = new double[binCount];
+    }
+
+    private void fill(BvhPrimitive[] primitives, int from, int to,
+                      int axis, double min, double scale) {
+      int binCount = counts.length;
+
+      for (int i = 0; i < binCount; i++) {
+        counts[i] = 0;
+        minX[i] = Double.POSITIVE_INFINITY;
+        minY[i] = Double.POSITIVE_INFINITY;
+        minZ[i] = Double.POSITIVE_INFINITY;
+        maxX[i] = Double.NEGATIVE_INFINITY;
+        maxY[i] = Double.NEGATIVE_INFINITY;
+        maxZ[i] = Double.NEGATIVE_INFINITY;
+      }
+
+      for (int i = from; i < to; i++) {
+        var primitive = primitives[i];
+        var bounds = primitive.bounds;
+        int bin = binIndex(primitive.getCenter(axis), min, scale, binCount);
+
+        counts[bin]++;
+        minX[bin] = Math.min(minX[bin], bounds.getMin(0));
+        minY[bin] = Math.min(minY[bin], bounds.getMin(1));
+        minZ[bin] = Math.min(minZ[bin], bounds.getMin(2));
+        maxX[bin] = Math.max(maxX[bin], bounds.getMax(0));
+        maxY[bin] = Math.max(maxY[bin], bounds.getMax(1));
+        maxZ[bin] = Math.max(maxZ[bin], bounds.getMax(2));
+      }
+
+      sweep(0, binCount, 1, leftAreas, leftCounts);
+      sweep(binCount - 1, -1, -1, rightAreas, null);
+    }
+
+    private void sweep(int start, int end, int step, double[] areas, int[] sums) {
+      double x0 = Double.POSITIVE_INFINITY;
+      double y0 = Double.POSITIVE_INFINITY;
+      double z0 = Double.POSITIVE_INFINITY;
+      double x1 = Double.NEGATIVE_INFINITY;
+      double y1 = Double.NEGATIVE_INFINITY;
+      double z1 = Double.NEGATIVE_INFINITY;
+      int sum = 0;
+
+      for (int i = start; i != end; i += step) {
+        x0 = Math.min(x0, minX[i]);
+        y0 = Math.min(y0, minY[i]);
+        z0 = Math.min(z0, minZ[i]);
+        x1 = Math.max(x1, maxX[i]);
+        y1 = Math.max(y1, maxY[i]);
+        z1 = Math.max(z1, maxZ[i]);
+        sum += counts[i];
+
+        areas[i] = sum == 0 ? 0.0 : surfaceArea(x1 - x0, y1 - y0, z1 - z0);
+        if (sums != null) {
+          sums[i] = sum;
+        }
+      }
+    }
+
+    private static double surfaceArea(double dx, double dy, double dz) {
+      return 2.0 * (dx * dy + dy * dz + dz * dx);
+    }
+  }
+}
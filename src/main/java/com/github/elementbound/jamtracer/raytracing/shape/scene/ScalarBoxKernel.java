@@ -0,0 +1,47 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+
+/**
+ * Box kernel testing one ray at a time.
+ */
+final class ScalarBoxKernel implements BoxKernel {
+  @Override
+  public void intersect(double[] bounds, int offset, RayPacket packet, int from, int to,
+                        double[] distances, double[] exits) {
+    double[] fromX = packet.getFromX();
+    double[] fromY = packet.getFromY();
+    double[] fromZ = packet.getFromZ();
+    double[] invDirX = packet.getInvDirX();
+    double[] invDirY = packet.getInvDirY();
+    double[] invDirZ = packet.getInvDirZ();
+
+    for (int r = from; r < to; r++) {
+      double tmin = 0.0;
+      double tmax = Double.POSITIVE_INFINITY;
+
+      double t1 = (bounds[offset] - fromX[r]) * invDirX[r];
+      double t2 = (bounds[offset + 3] - fromX[r]) * invDirX[r];
+      double near = t1 > t2 ? t2 : t1;
+      double far = t1 > t2 ? t1 : t2;
+      tmin = near > tmin ? near : tmin;
+      tmax = far < tmax ? far : tmax;
+
+      t1 = (bounds[offset + 1] - fromY[r]) * invDirY[r];
+      t2 = (bounds[offset + 4] - fromY[r]) * invDirY[r];
+      near = t1 > t2 ? t2 : t1;
+      far = t1 > t2 ? t1 : t2;
+      tmin = near > tmin ? near : tmin;
+      tmax = far < tmax ? far : tmax;
+
+      t1 = (bounds[offset + 2] - fromZ[r]) * invDirZ[r];
+      t2 = (bounds[offset + 5] - fromZ[r]) * invDirZ[r];
+      near = t1 > t2 ? t2 : t1;
+      far = t1 > t2 ? t1 : t2;
+      tmin = near > tmin ? near : tmin;
+      tmax = far < tmax ? far : tmax;
+
+      distances[r] = tmax >= tmin ? tmin : Double.POSITIVE_INFINITY;
+    }
+  }
+}
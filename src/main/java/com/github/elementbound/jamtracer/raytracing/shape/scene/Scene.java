@@ -1,7 +1,9 @@
 package com.github.elementbound.jamtracer.raytracing.shape.scene;
 
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 import com.github.elementbound.jamtracer.raytracing.light.Light;
 import com.github.elementbound.jamtracer.raytracing.shape.Shape;
@@ -16,6 +18,8 @@ import java.util.Set;
 public interface Scene extends Shape {
   /**
    * Prepare scene for raytracing.
+   * <p>Call after shapes are added, removed or moved, so any data derived from them, e.g. the
+   * scene's bounds, is updated.</p>
    */
   void prepare();
 
@@ -27,13 +31,63 @@ public interface Scene extends Shape {
    *
    * @return raycast result
    */
-  default RaycastResult raycastWithBias(Ray ray, Vector bias) {
+  default RaycastResult raycastWithBias(Ray ray, Vector3 bias) {
     var biasedOrigin = ray.getFrom().add(bias);
     var biasedRay = new Ray(biasedOrigin, ray.getDirection());
 
     return raycast(biasedRay);
   }
 
+  /**
+   * Raycast every ray of a packet, updating each ray's hit record if a closer hit is found.
+   * <p>The default implementation raycasts rays one by one.</p>
+   *
+   * @param packet rays
+   * @param hits   hit records, one per ray
+   */
+  default void raycast(RayPacket packet, HitRecord[] hits) {
+    for (int i = 0; i < packet.size(); i++) {
+      raycast(packet.getRay(i), hits[i]);
+    }
+  }
+
+  /**
+   * Check whether the ray hits the scene closer than a given distance.
+   * <p>Same as {@link #occludes(Ray, double)}, for rays built on the fly, e.g. shadow rays, so
+   * scenes can skip building the ray unless it reaches a shape. The default implementation builds
+   * the ray right away.</p>
+   *
+   * @param fromX       ray origin X
+   * @param fromY       ray origin Y
+   * @param fromZ       ray origin Z
+   * @param directionX  ray direction X
+   * @param directionY  ray direction Y
+   * @param directionZ  ray direction Z
+   * @param maxDistance distance limit, exclusive
+   *
+   * @return true if hit within distance, false otherwise
+   */
+  default boolean occludes(double fromX, double fromY, double fromZ,
+                           double directionX, double directionY, double directionZ,
+                           double maxDistance) {
+    var ray = new Ray(new Vector3(fromX, fromY, fromZ),
+        new Vector3(directionX, directionY, directionZ));
+    return occludes(ray, maxDistance);
+  }
+
+  /**
+   * Check every ray of a packet for occlusion before its maximum distance.
+   * <p>The default implementation checks rays one by one.</p>
+   *
+   * @param packet   rays, with maximum distances
+   * @param occluded results, one per ray
+   */
+  default void occludes(RayPacket packet, boolean[] occluded) {
+    for (int i = 0; i < packet.size(); i++) {
+      occluded[i] = occludes(packet.getRay(i), packet.getMaxDistance(i));
+    }
+  }
+
   /**
    * Add shape to scene.
    *
@@ -52,6 +106,14 @@ public interface Scene extends Shape {
    */
   Scene removeShape(Shape shape);
 
+  /**
+   * Get shapes in scene.
+   * <p>The resulting set is immutable!</p>
+   *
+   * @return shapes
+   */
+  Set<Shape> getShapes();
+
   /**
    * Add light source to the scene.
    *
@@ -0,0 +1,123 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RaycastResult;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.BoundsCache;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+
+/**
+ * Shape placing a shared scene in the world with its own transform.
+ *
+ * <p>Instances enable two-level acceleration: the instanced scene, e.g. a {@link BvhScene}, keeps
+ * its acceleration structure in its own space, while the scene containing the instances indexes
+ * their transformed bounds. Rays are transformed into the instance's space once, and hits are
+ * transformed back to world space. An instance only holds its transform, so any number of
+ * instances can share the same scene without copying it.</p>
+ *
+ * <p>The instanced scene should be prepared before rendering, and keep an identity transform, as
+ * scenes report hits in their own space. Hits report the shapes inside the instanced scene, so the
+ * instance's material is not used for shading.</p>
+ */
+public class SceneInstance implements Shape {
+  private final Scene scene;
+  private Transform transform;
+  private Material material;
+  private BoundingBox sceneBounds;
+  private final BoundsCache boundsCache = new BoundsCache();
+
+  /**
+   * Create instance with identity transform.
+   *
+   * @param scene instanced scene
+   */
+  public SceneInstance(Scene scene) {
+    this(scene, new Transform());
+  }
+
+  /**
+   * Create instance.
+   *
+   * @param scene     instanced scene
+   * @param transform instance transform
+   */
+  public SceneInstance(Scene scene, Transform transform) {
+    this.scene = scene;
+    this.transform = transform;
+    this.material = Material.DEFAULT_MATERIAL;
+  }
+
+  /**
+   * Get instanced scene.
+   *
+   * @return scene
+   */
+  public Scene getScene() {
+    return scene;
+  }
+
+  @Override
+  public Transform getTransform() {
+    return transform;
+  }
+
+  @Override
+  public void setTransform(Transform transform) {
+    this.transform = transform;
+  }
+
+  @Override
+  public Material getMaterial() {
+    return material;
+  }
+
+  @Override
+  public void setMaterial(Material material) {
+    this.material = material;
+  }
+
+  @Override
+  public BoundingBox getBounds() {
+    var sceneBounds = scene.getBounds();
+
+    // Scene bounds are cached by the scene, so a new instance means they've changed
+    if (sceneBounds != this.sceneBounds) {
+      this.sceneBounds = sceneBounds;
+      boundsCache.invalidate();
+    }
+
+    return boundsCache.get(transform, () -> sceneBounds);
+  }
+
+  @Override
+  public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
+    var localRay = transform.inverseTransformRay(ray);
+    double distance = hit.getDistance();
+
+    hit.setDistance(transform.inverseTransformDistance(ray, distance));
+
+    if (scene.raycast(localRay, hit)) {
+      hit.transform(transform, ray.getFrom());
+      return true;
+    }
+
+    hit.setDistance(distance);
+    return false;
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    return scene.occludes(transform.inverseTransformRay(ray),
+        transform.inverseTransformDistance(ray, maxDistance));
+  }
+}
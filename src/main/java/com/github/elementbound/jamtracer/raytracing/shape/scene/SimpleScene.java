@@ -1,13 +1,16 @@
 package com.github.elementbound.jamtracer.raytracing.shape.scene;
 
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import com.github.elementbound.jamtracer.raytracing.RaycastResult;
 import com.github.elementbound.jamtracer.raytracing.Transform;
 import com.github.elementbound.jamtracer.raytracing.light.Light;
 import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.BoundsCache;
 import com.github.elementbound.jamtracer.raytracing.shape.Shape;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,6 +22,7 @@ public class SimpleScene implements Scene {
   private final Set<Shape> shapes;
   private final Set<Light> lights;
   private Material material;
+  private final BoundsCache boundsCache = new BoundsCache();
 
   /**
    * Construct an empty scene.
@@ -50,35 +54,119 @@ public class SimpleScene implements Scene {
     this.material = material;
   }
 
+  @Override
+  public BoundingBox getBounds() {
+    return boundsCache.get(transform, () -> shapes.stream()
+        .map(Shape::getBounds)
+        .reduce(BoundingBox.EMPTY, BoundingBox::union));
+  }
+
   @Override
   public RaycastResult raycast(Ray ray) {
+    var hit = new HitRecord();
+    raycast(ray, hit);
+    return hit.toRaycastResult();
+  }
+
+  @Override
+  public boolean raycast(Ray ray, HitRecord hit) {
     var localRay = transform.inverseTransformRay(ray);
+    var from = localRay.getFrom();
+    var direction = localRay.getDirection();
+    double invDirX = 1.0 / direction.getX();
+    double invDirY = 1.0 / direction.getY();
+    double invDirZ = 1.0 / direction.getZ();
+    boolean isHit = false;
 
-    // Raycast all shapes and return closest hit
-    return shapes.stream()
-        .map(shape -> shape.raycast(localRay))
-        .filter(RaycastResult::isHit)
-        .min(Comparator.comparingDouble(RaycastResult::distance))
-        .orElse(RaycastResult.NO_HIT);
+    // Raycast all shapes whose bounds are hit before the closest hit so far
+    for (var shape : shapes) {
+      if (shape.getBounds().intersect(from.getX(), from.getY(), from.getZ(),
+          invDirX, invDirY, invDirZ) < hit.getDistance()) {
+        isHit |= shape.raycast(localRay, hit);
+      }
+    }
+
+    return isHit;
+  }
+
+  @Override
+  public boolean occludes(Ray ray, double maxDistance) {
+    var localRay = transform.inverseTransformRay(ray);
+    var localDistance = transform.inverseTransformDistance(ray, maxDistance);
+    var from = localRay.getFrom();
+    var direction = localRay.getDirection();
+    double invDirX = 1.0 / direction.getX();
+    double invDirY = 1.0 / direction.getY();
+    double invDirZ = 1.0 / direction.getZ();
+
+    for (var shape : shapes) {
+      if (shape.getBounds().intersect(from.getX(), from.getY(), from.getZ(),
+          invDirX, invDirY, invDirZ) < localDistance
+          && shape.occludes(localRay, localDistance)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public boolean occludes(double fromX, double fromY, double fromZ,
+                          double directionX, double directionY, double directionZ,
+                          double maxDistance) {
+    if (!transform.isIdentity()) {
+      return Scene.super.occludes(fromX, fromY, fromZ, directionX, directionY, directionZ,
+          maxDistance);
+    }
+
+    double invDirX = 1.0 / directionX;
+    double invDirY = 1.0 / directionY;
+    double invDirZ = 1.0 / directionZ;
+    Ray ray = null;
+
+    // Only build the ray once it reaches a shape's bounds
+    for (var shape : shapes) {
+      if (shape.getBounds().intersect(fromX, fromY, fromZ, invDirX, invDirY, invDirZ)
+          < maxDistance) {
+        if (ray == null) {
+          ray = new Ray(new Vector3(fromX, fromY, fromZ),
+              new Vector3(directionX, directionY, directionZ));
+        }
+
+        if (shape.occludes(ray, maxDistance)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
   }
 
   @Override
   public void prepare() {
-    // Do nothing.
+    // Pick up any changes to the shapes' transforms
+    boundsCache.invalidate();
   }
 
   @Override
   public Scene addShape(Shape shape) {
     shapes.add(shape);
+    boundsCache.invalidate();
     return this;
   }
 
   @Override
   public Scene removeShape(Shape shape) {
     shapes.remove(shape);
+    boundsCache.invalidate();
     return this;
   }
 
+  @Override
+  public Set<Shape> getShapes() {
+    return Collections.unmodifiableSet(shapes);
+  }
+
   @Override
   public Scene addLight(Light light) {
     lights.add(light);
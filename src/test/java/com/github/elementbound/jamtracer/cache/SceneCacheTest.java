@@ -0,0 +1,270 @@
+package com.github.elementbound.jamtracer.cache;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.light.PointLight;
+import com.github.elementbound.jamtracer.raytracing.material.DiffuseMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.material.ReflectiveMaterial;
+import com.github.elementbound.jamtracer.raytracing.material.SkyMaterial;
+import com.github.elementbound.jamtracer.raytracing.pigment.ColorPigment;
+import com.github.elementbound.jamtracer.raytracing.pigment.GradientPigment;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.GridScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SceneInstance;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SimpleScene;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertEquivalentHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SceneCacheTest {
+  private static final long KEY = 42L;
+
+  @Test(dataProvider = "sceneProvider")
+  public void readShouldRestoreWrittenScene(Supplier<Scene> sceneFactory) throws IOException {
+    // Given
+    var random = new Random(61L);
+    var expected = createScene(sceneFactory);
+    var cache = new SceneCache(cachePath());
+    cache.write(expected, KEY);
+
+    // When
+    var actual = cache.read(KEY);
+
+    // Then
+    assertThat(actual.getClass(), is(sameInstance(expected.getClass())));
+    assertThat(actual.getShapes().size(), is(expected.getShapes().size()));
+    assertThat(actual.getLights().size(), is(expected.getLights().size()));
+    assertThat(actual.getBounds(), is(expected.getBounds()));
+    assertEquivalentHits(expected, actual, random, 0.0);
+  }
+
+  @Test
+  public void readShouldRestoreHierarchy() throws IOException {
+    // Given
+    var expected = (BvhScene) createScene(BvhScene::new);
+    var cache = new SceneCache(cachePath());
+    cache.write(expected, KEY);
+
+    // When
+    var actual = (BvhScene) cache.read(KEY);
+
+    // Then
+    var expectedStatistics = expected.getBuildStatistics();
+    var actualStatistics = actual.getBuildStatistics();
+    assertThat(actualStatistics.nodeCount(), is(expectedStatistics.nodeCount()));
+    assertThat(actualStatistics.primitiveCount(), is(expectedStatistics.primitiveCount()));
+    assertThat(actualStatistics.maxDepth(), is(expectedStatistics.maxDepth()));
+    assertThat(actualStatistics.sahCost(), is(expectedStatistics.sahCost()));
+  }
+
+  @Test
+  public void readShouldKeepSharedObjectsShared() throws IOException {
+    // Given
+    var material = new DiffuseMaterial(new ColorPigment(Color.BLUE));
+    var instanced = new SimpleScene();
+    instanced.addShape(new SphereShape());
+
+    var expected = new SimpleScene();
+    for (int i = 0; i < 2; i++) {
+      var sphere = new SphereShape();
+      sphere.setMaterial(material);
+      expected.addShape(sphere);
+      expected.addShape(new SceneInstance(instanced));
+    }
+
+    var cache = new SceneCache(cachePath());
+    cache.write(expected, KEY);
+
+    // When
+    var actual = cache.read(KEY);
+
+    // Then
+    var materials = actual.getShapes().stream()
+        .filter(shape -> shape instanceof SphereShape)
+        .map(Shape::getMaterial)
+        .distinct()
+        .count();
+    var scenes = actual.getShapes().stream()
+        .filter(shape -> shape instanceof SceneInstance)
+        .map(shape -> ((SceneInstance) shape).getScene())
+        .distinct()
+        .count();
+
+    assertThat(materials, is(1L));
+    assertThat(scenes, is(1L));
+  }
+
+  @Test
+  public void loadShouldBuildSceneOnlyIfCacheIsStale() throws IOException {
+    // Given
+    var cache = new SceneCache(cachePath());
+    var buildCount = new AtomicInteger();
+    Supplier<Scene> factory = () -> {
+      buildCount.incrementAndGet();
+      return createScene(BvhScene::new);
+    };
+
+    // When
+    cache.load(KEY, factory);
+    cache.load(KEY, factory);
+    cache.load(KEY + 1, factory);
+    cache.load(KEY + 1, factory);
+
+    // Then
+    assertThat(buildCount.get(), is(2));
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void readShouldThrowOnStaleKey() throws IOException {
+    // Given
+    var cache = new SceneCache(cachePath());
+    cache.write(createScene(BvhScene::new), KEY);
+
+    // When
+    cache.read(KEY + 1);
+
+    // Then throws
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void readShouldThrowOnCorruptCache() throws IOException {
+    // Given
+    var cache = new SceneCache(cachePath());
+    cache.write(createScene(BvhScene::new), KEY);
+
+    try (var channel = FileChannel.open(cache.getPath(), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{0x55}), channel.size() / 2);
+    }
+
+    // When
+    cache.read(KEY);
+
+    // Then throws
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void writeShouldThrowOnUnsupportedType() throws IOException {
+    // Given
+    Material material = context -> Color.BLACK;
+    var scene = new SimpleScene();
+    var sphere = new SphereShape();
+    sphere.setMaterial(material);
+    scene.addShape(sphere);
+
+    // When
+    new SceneCache(cachePath()).write(scene, KEY);
+
+    // Then throws
+  }
+
+  @DataProvider
+  public Object[][] sceneProvider() {
+    return new Object[][]{
+        {(Supplier<Scene>) SimpleScene::new},
+        {(Supplier<Scene>) BvhScene::new},
+        {(Supplier<Scene>) GridScene::new}
+    };
+  }
+
+  private static Path cachePath() throws IOException {
+    return Files.createTempDirectory("jamtracer-cache").resolve("scene.jtsc");
+  }
+
+  /**
+   * Scene of random spheres and cubes, instances of a mesh, and every material, pigment and light.
+   */
+  private static Scene createScene(Supplier<Scene> sceneFactory) {
+    var random = new Random(59L);
+    var scene = sceneFactory.get();
+    Material[] materials = {
+        new DiffuseMaterial(new ColorPigment(Color.GREEN)),
+        new ReflectiveMaterial(),
+        Material.DEFAULT_MATERIAL
+    };
+
+    scene.setMaterial(new SkyMaterial(new GradientPigment(Color.BLACK, Color.WHITE,
+        new Vector(0.25, 1.0))));
+
+    var sun = new DirectionalLight();
+    sun.setColor(Color.WHITE);
+    sun.setIntensity(0.75);
+    sun.setDirection(new Vector3(-1.0, -1.0, -1.0));
+    scene.addLight(sun);
+
+    var lamp = new PointLight();
+    lamp.setColor(Color.RED);
+    lamp.setIntensity(2.0);
+    lamp.setPosition(new Vector3(0.0, 0.0, 4.0));
+    scene.addLight(lamp);
+
+    for (int i = 0; i < 64; i++) {
+      Shape shape = random.nextBoolean() ? new SphereShape() : new CubeShape();
+      shape.setTransform(new Transform(randomVector(random, 8.0), randomVector(random, 180.0),
+          Vector3.ONE.scale(0.25 + 0.5 * random.nextDouble())));
+      shape.setMaterial(materials[random.nextInt(materials.length)]);
+      scene.addShape(shape);
+    }
+
+    var meshScene = new BvhScene();
+    meshScene.addShape(gridMesh(random, 16));
+    meshScene.prepare();
+
+    for (int i = 0; i < 4; i++) {
+      scene.addShape(new SceneInstance(meshScene, new Transform(randomVector(random, 8.0),
+          randomVector(random, 180.0), Vector3.ONE)));
+    }
+
+    scene.prepare();
+    return scene;
+  }
+
+  private static MeshShape gridMesh(Random random, int size) {
+    var positions = new float[3 * (size + 1) * (size + 1)];
+    var texcoords = new float[2 * (size + 1) * (size + 1)];
+    var indices = new int[6 * size * size];
+
+    for (int y = 0; y <= size; y++) {
+      for (int x = 0; x <= size; x++) {
+        int vertex = y * (size + 1) + x;
+        positions[3 * vertex] = (float) x / size;
+        positions[3 * vertex + 1] = (float) y / size;
+        positions[3 * vertex + 2] = 0.1f * random.nextFloat();
+        texcoords[2 * vertex] = (float) x / size;
+        texcoords[2 * vertex + 1] = (float) y / size;
+      }
+    }
+
+    for (int y = 0; y < size; y++) {
+      for (int x = 0; x < size; x++) {
+        int vertex = y * (size + 1) + x;
+        int[] quad = {vertex, vertex + 1, vertex + size + 2, vertex, vertex + size + 2,
+            vertex + size + 1};
+        System.arraycopy(quad, 0, indices, 6 * (y * size + x), 6);
+      }
+    }
+
+    return new MeshShape(positions, null, texcoords, indices);
+  }
+}
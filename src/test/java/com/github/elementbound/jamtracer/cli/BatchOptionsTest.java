@@ -0,0 +1,98 @@
+package com.github.elementbound.jamtracer.cli;
+
+import java.nio.file.Path;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BatchOptionsTest {
+  @Test
+  public void parseShouldReadOptions() {
+    // Given
+    String[] args = {
+        "--demo", "Sphere", "--width", "320", "--height", "180", "--frames", "10",
+        "--threads", "3", "--depth", "2", "--output", "out/frame.png", "--log-interval", "500"
+    };
+
+    // When
+    var actual = BatchOptions.parse(args);
+
+    // Then
+    assertThat(actual, is(new BatchOptions("sphere", 320, 180, 10, 3, 2, "out/frame.png", 500L)));
+  }
+
+  @Test
+  public void parseShouldKeepDefaults() {
+    // Given
+    String[] args = {"--frames", "2"};
+
+    // When
+    var actual = BatchOptions.parse(args);
+
+    // Then
+    var defaults = BatchOptions.defaults();
+    assertThat(actual.demo(), is(defaults.demo()));
+    assertThat(actual.width(), is(defaults.width()));
+    assertThat(actual.frames(), is(2));
+    assertThat(actual.output(), is(nullValue()));
+  }
+
+  @Test
+  public void parseShouldAcceptZeroDepth() {
+    // Given
+    String[] args = {"--depth", "0"};
+
+    // When
+    var actual = BatchOptions.parse(args);
+
+    // Then
+    assertThat(actual.rayDepthLimit(), is(0));
+  }
+
+  @Test(dataProvider = "invalidArgsProvider", expectedExceptions = IllegalArgumentException.class)
+  public void parseShouldThrowOnInvalidArgs(String[] args) {
+    // Given
+
+    // When
+    BatchOptions.parse(args);
+
+    // Then throw
+  }
+
+  @Test(dataProvider = "outputPathProvider")
+  public void getOutputPathShouldReturnExpected(String output, int frames, int frame,
+                                                Path expected) {
+    // Given
+    var options = new BatchOptions("parrot", 16, 16, frames, 1, 4, output, 0L);
+
+    // When
+    var actual = options.getOutputPath(frame);
+
+    // Then
+    assertThat(actual, is(expected));
+  }
+
+  @DataProvider
+  public Object[][] invalidArgsProvider() {
+    return new Object[][]{
+        {new String[]{"--width"}},
+        {new String[]{"--width", "wide"}},
+        {new String[]{"--frames", "0"}},
+        {new String[]{"--depth", "-1"}},
+        {new String[]{"--color", "red"}}
+    };
+  }
+
+  @DataProvider
+  public Object[][] outputPathProvider() {
+    return new Object[][]{
+        {null, 1, 0, null},
+        {"frame.png", 1, 0, Path.of("frame.png")},
+        {"frame.png", 3, 2, Path.of("frame-0002.png")},
+        {"out/%03d.pfm", 3, 1, Path.of("out/001.pfm")},
+        {"frame", 2, 1, Path.of("frame-0001")}
+    };
+  }
+}
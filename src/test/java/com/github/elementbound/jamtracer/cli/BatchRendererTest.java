@@ -0,0 +1,44 @@
+package com.github.elementbound.jamtracer.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BatchRendererTest {
+  @Test
+  public void runShouldRenderAndSaveEveryFrame() throws IOException {
+    // Given
+    var directory = Files.createTempDirectory("jamtracer-batch");
+    var output = directory.resolve("frames/frame-%d.ppm").toString();
+    var options = new BatchOptions("sphere", 16, 9, 2, 2, 2, output, 0L);
+    var out = new ByteArrayOutputStream();
+
+    // When
+    var actual = new BatchRenderer(options)
+        .run(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+    // Then
+    assertThat(actual.frames(), is(2L));
+    assertThat(actual.primaryRays(), is(2L * 16L * 9L));
+    assertThat(Files.size(directory.resolve("frames/frame-0.ppm")), is(12L + 16L * 9L * 3L));
+    assertThat(Files.size(directory.resolve("frames/frame-1.ppm")), is(12L + 16L * 9L * 3L));
+    assertThat(out.toString(StandardCharsets.UTF_8), containsString("Rendered 2 frame(s)"));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void constructorShouldThrowOnUnknownDemo() {
+    // Given
+    var options = new BatchOptions("teapot", 16, 9, 1, 1, 2, null, 0L);
+
+    // When
+    new BatchRenderer(options);
+
+    // Then throw
+  }
+}
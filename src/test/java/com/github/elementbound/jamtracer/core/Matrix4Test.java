@@ -0,0 +1,76 @@
+package com.github.elementbound.jamtracer.core;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class Matrix4Test {
+  @Test(dataProvider = "matrixProvider")
+  public void shouldMatchGenericMatrix(Matrix4 matrix, Matrix expected) {
+    // Given
+
+    // When
+    Matrix actual = matrix.toMatrix();
+
+    // Then
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void multiplyShouldMatchGenericMatrix() {
+    // Given
+    Matrix4 left = Matrix4.rotateAroundX(0.5).multiply(Matrix4.scale(new Vector3(1.0, 2.0, 3.0)));
+    Matrix4 right = Matrix4.rotateAroundZ(-0.25).multiply(Matrix4.translate(Vector3.ONE));
+    Matrix expected = left.toMatrix().multiply(right.toMatrix());
+
+    // When
+    Matrix actual = left.multiply(right).toMatrix();
+
+    // Then
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void transformPointShouldMatchGenericMatrix() {
+    // Given
+    Matrix4 matrix = Matrix4.rotateAroundY(0.75)
+        .multiply(Matrix4.scale(new Vector3(2.0, 1.0, 0.5)))
+        .multiply(Matrix4.translate(new Vector3(1.0, 2.0, 3.0)));
+    Vector3 point = new Vector3(-1.0, 0.5, 2.0);
+    Vector expected = matrix.toMatrix().transform(point.toVector().asHeterogeneous())
+        .asHomogeneous();
+
+    // When
+    Vector actual = matrix.transformPoint(point).toVector();
+
+    // Then
+    assertThat(Vector.distance(actual, expected) < 1e-12, is(true));
+  }
+
+  @Test
+  public void transformDirectionShouldIgnoreTranslation() {
+    // Given
+    Matrix4 matrix = Matrix4.translate(new Vector3(1.0, 2.0, 3.0));
+
+    // When
+    Vector3 actual = matrix.transformDirection(Vector3.UP);
+
+    // Then
+    assertThat(actual, is(Vector3.UP));
+  }
+
+  @DataProvider
+  public Object[][] matrixProvider() {
+    var vector = new Vector3(2.0, -3.0, 4.0);
+
+    return new Object[][]{
+        {Matrix4.identity(), Matrix.identity(4)},
+        {Matrix4.translate(vector), Matrix.translate(vector.toVector())},
+        {Matrix4.scale(vector), Matrix.scale(vector.toVector())},
+        {Matrix4.rotateAroundX(0.5), Matrix.rotateAroundX(0.5)},
+        {Matrix4.rotateAroundY(0.5), Matrix.rotateAroundY(0.5)},
+        {Matrix4.rotateAroundZ(0.5), Matrix.rotateAroundZ(0.5)},
+    };
+  }
+}
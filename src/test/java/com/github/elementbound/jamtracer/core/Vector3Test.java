@@ -0,0 +1,77 @@
+package com.github.elementbound.jamtracer.core;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class Vector3Test {
+  @Test(dataProvider = "crossProvider")
+  public void crossShouldReturnExpected(Vector3 left, Vector3 right, Vector3 expected) {
+    // Given
+
+    // When
+    Vector3 actual = left.cross(right);
+
+    // Then
+    assertThat(actual, is(expected));
+    assertThat(left.dot(actual), is(0.0)); // result should be perpendicular to left vector
+    assertThat(right.dot(actual), is(0.0)); // result should be perpendicular to right vector
+  }
+
+  @Test
+  public void normalizedShouldReturnUnitLength() {
+    // Given
+    Vector3 vector = new Vector3(2.0, 2.0, 1.0);
+    Vector3 expected = new Vector3(2.0 / 3.0, 2.0 / 3.0, 1.0 / 3.0);
+
+    // When
+    Vector3 actual = vector.normalized();
+
+    // Then
+    assertThat(actual, is(expected));
+    assertThat(vector.length(), is(3.0));
+  }
+
+  @Test
+  public void reflectShouldReturnExpected() {
+    // Given
+    var incidence = new Vector3(1.0, -1.0, 0.0).normalized();
+    var normal = Vector3.FORWARD;
+    var expected = new Vector3(1.0, 1.0, 0.0).normalized();
+
+    // When
+    var actual = Vector3.reflect(incidence, normal);
+
+    // Then
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void shouldMatchGenericVector() {
+    // Given
+    Vector generic = new Vector(1.0, -2.0, 4.0);
+    Vector3 vector = Vector3.fromVector(generic);
+
+    // When
+    Vector actual = vector.add(Vector3.ONE).scale(2.0).toVector();
+
+    // Then
+    assertThat(actual, is(generic.add(Vector.ONE).scale(2.0)));
+    assertThat(vector.dot(Vector3.ONE), is(generic.dot(Vector.ONE)));
+  }
+
+  @DataProvider
+  public Object[][] crossProvider() {
+    return new Object[][]{
+        {Vector3.RIGHT, Vector3.FORWARD, Vector3.UP},
+        {Vector3.LEFT, Vector3.BACKWARD, Vector3.UP},
+
+        {Vector3.FORWARD, Vector3.UP, Vector3.RIGHT},
+        {Vector3.BACKWARD, Vector3.DOWN, Vector3.RIGHT},
+
+        {Vector3.UP, Vector3.RIGHT, Vector3.FORWARD},
+        {Vector3.DOWN, Vector3.LEFT, Vector3.FORWARD},
+    };
+  }
+}
@@ -0,0 +1,60 @@
+package com.github.elementbound.jamtracer.display;
+
+import com.github.elementbound.jamtracer.core.Color;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FramebufferDisplayTest {
+  @Test
+  public void setPixelsShouldWriteBlock() {
+    // Given
+    var display = new FramebufferDisplay(4, 4);
+    float[] block = {
+        1.0f, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f,
+        0.0f, 0.0f, 1.0f, 2.0f, 2.0f, 2.0f
+    };
+
+    // When
+    display.setPixels(1, 2, 2, 2, block);
+
+    // Then
+    assertThat(display.getPixel(1, 2), is(Color.RED));
+    assertThat(display.getPixel(2, 2), is(Color.GREEN));
+    assertThat(display.getPixel(1, 3), is(Color.BLUE));
+    assertThat(display.getPixel(2, 3), is(new Color(2.0, 2.0, 2.0)));
+    assertThat(display.getPixel(0, 2), is(Color.BLACK));
+    assertThat(display.getPixel(3, 3), is(Color.BLACK));
+  }
+
+  @Test
+  public void setRowShouldWriteRow() {
+    // Given
+    var display = new FramebufferDisplay(2, 2);
+    float[] row = {0.5f, 0.5f, 0.5f, 1.0f, 1.0f, 1.0f};
+
+    // When
+    display.setRow(1, row);
+
+    // Then
+    assertThat(display.getPixel(0, 1), is(Color.GRAY));
+    assertThat(display.getPixel(1, 1), is(Color.WHITE));
+    assertThat(display.getPixel(0, 0), is(Color.BLACK));
+  }
+
+  @Test
+  public void closeShouldEmitOnce() {
+    // Given
+    var display = new FramebufferDisplay(1, 1);
+    var closeCount = new int[1];
+    display.onClose().subscribe(v -> closeCount[0]++);
+
+    // When
+    display.close();
+    display.close();
+
+    // Then
+    assertThat(display.isOpen(), is(false));
+    assertThat(closeCount[0], is(1));
+  }
+}
@@ -0,0 +1,259 @@
+package com.github.elementbound.jamtracer.input;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.shape.MeshShape;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class ObjMeshReaderTest {
+  private static final String QUAD = String.join("\n",
+      "# Unit quad",
+      "o quad",
+      "v -1.0 -1.0 0.0",
+      "v 1.0 -1.0 0.0",
+      "v 1.0 1.0 0.0",
+      "v -1.0 1.0 0.0 1.0",
+      "vt 0 0",
+      "vt 1 0",
+      "vt 1 1",
+      "vt 0 1 0",
+      "vn 0 0 1",
+      "vn 0 0 1",
+      "vn 0 0 1",
+      "vn 0 0 1",
+      "usemtl default",
+      "s off",
+      "f 1/1/1 2/2/2 3/3/3 4/4/4",
+      ""
+  );
+
+  @Test
+  public void readShouldTriangulatePolygons() throws IOException {
+    // Given
+    var reader = new ObjMeshReader();
+
+    // When
+    var mesh = read(reader, QUAD);
+
+    // Then
+    assertThat(mesh.getVertexCount(), is(4));
+    assertThat(mesh.getTriangleCount(), is(2));
+
+    var hit = new HitRecord();
+    mesh.raycast(new Ray(new Vector3(0.5, -0.5, 2.0), Vector3.DOWN), hit);
+    assertThat(hit.getDistance(), is(closeTo(2.0, 1e-9)));
+    assertThat(hit.getTexcoords().get(0), is(closeTo(0.75, 1e-6)));
+    assertThat(hit.getTexcoords().get(1), is(closeTo(0.25, 1e-6)));
+  }
+
+  @Test
+  public void readShouldMapFile() throws IOException {
+    // Given
+    var path = Files.createTempFile("quad", ".obj");
+    Files.writeString(path, QUAD.replace("\n", "\r\n"));
+
+    try {
+      // When
+      var mesh = new ObjMeshReader().read(path);
+
+      // Then
+      assertThat(mesh.getVertexCount(), is(4));
+      assertThat(mesh.getTriangleCount(), is(2));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void readShouldSplitVerticesWithDifferentAttributes() throws IOException {
+    // Given
+    var reader = new ObjMeshReader();
+    var obj = String.join("\n",
+        "v -1 -1 -1", "v 1 -1 -1", "v 1 1 -1", "v -1 1 -1",
+        "v -1 -1 1", "v 1 -1 1", "v 1 1 1", "v -1 1 1",
+        "vn 0 0 -1", "vn 0 0 1", "vn 0 -1 0", "vn 1 0 0", "vn 0 1 0", "vn -1 0 0",
+        "f 1//1 4//1 3//1 2//1",
+        "f 5//2 6//2 7//2 8//2",
+        "f 1//3 2//3 6//3 5//3",
+        "f 2//4 3//4 7//4 6//4",
+        "f 3//5 4//5 8//5 7//5",
+        "f 4//6 1//6 5//6 8//6"
+    );
+
+    // When
+    var mesh = read(reader, obj);
+
+    // Then
+    assertThat(mesh.getVertexCount(), is(24));
+    assertThat(mesh.getTriangleCount(), is(12));
+
+    var hit = new HitRecord();
+    mesh.raycast(new Ray(new Vector3(4.0, 0.5, 0.25), Vector3.LEFT), hit);
+    assertThat(hit.getDistance(), is(closeTo(3.0, 1e-9)));
+    assertThat(hit.getNormal(), is(Vector3.RIGHT));
+  }
+
+  @Test
+  public void readShouldResolveRelativeIndices() throws IOException {
+    // Given
+    var reader = new ObjMeshReader();
+    var obj = String.join("\n",
+        "v 0 0 0", "v 1 0 0", "v 0 1 0",
+        "f -3 -2 -1",
+        "v 0 0 1", "v 1 0 1", "v 0 1 1",
+        "f -3 -2 -1",
+        "f 1 -2 6"
+    );
+
+    // When
+    var mesh = read(reader, obj);
+
+    // Then
+    assertThat(mesh.getTriangleCount(), is(3));
+
+    var hit = new HitRecord();
+    mesh.raycast(new Ray(new Vector3(0.25, 0.25, 2.0), Vector3.DOWN), hit);
+    assertThat(hit.getDistance(), is(closeTo(1.0, 1e-9)));
+  }
+
+  @Test
+  public void parallelReadShouldMatchSequential() throws IOException {
+    // Given
+    var random = new Random(79L);
+    var obj = gridObj(random, 40);
+    var pool = new ForkJoinPool(4);
+
+    // When
+    var expected = read(new ObjMeshReader(), obj);
+    var actual = read(new ObjMeshReader(pool, 256), obj);
+    pool.shutdown();
+
+    // Then
+    assertThat(actual.getVertexCount(), is(expected.getVertexCount()));
+    assertThat(actual.getTriangleCount(), is(expected.getTriangleCount()));
+
+    for (int i = 0; i < 1000; i++) {
+      var ray = Ray.lookat(new Vector3(20.0 * random.nextDouble(), 20.0 * random.nextDouble(),
+          10.0), new Vector3(20.0 * random.nextDouble(), 20.0 * random.nextDouble(), 0.0));
+      var actualHit = new HitRecord();
+      var expectedHit = new HitRecord();
+      actual.raycast(ray, actualHit);
+      expected.raycast(ray, expectedHit);
+
+      assertThat(actualHit.getDistance(), is(expectedHit.getDistance()));
+      assertThat(actualHit.getNormal(), is(expectedHit.getNormal()));
+      assertThat(actualHit.getTexcoords(), is(expectedHit.getTexcoords()));
+    }
+  }
+
+  @Test(dataProvider = "numberProvider")
+  public void parseShouldReadNumbers(String number) throws IOException {
+    // Given
+    var bytes = ("v " + number + " 0 0\n").getBytes(StandardCharsets.US_ASCII);
+    var chunk = new ObjChunk(ByteBuffer.wrap(bytes), 0, bytes.length);
+
+    // When
+    chunk.parse();
+
+    // Then
+    assertThat(chunk.positions.get(0), is(Float.parseFloat(number)));
+  }
+
+  @Test(dataProvider = "invalidObjProvider", expectedExceptions = IOException.class)
+  public void readShouldThrowOnInvalidData(String obj) throws IOException {
+    // Given
+    var reader = new ObjMeshReader();
+
+    // When
+    read(reader, obj);
+
+    // Then throws
+  }
+
+  @DataProvider
+  public Object[][] numberProvider() {
+    return new Object[][]{
+        {"1"},
+        {"-2.5"},
+        {"+.5"},
+        {"3."},
+        {"0.000001"},
+        {"-0.0"},
+        {"1e3"},
+        {"-1.5E-2"},
+        {"6.02214076e+23"},
+        {"0.1234567890123456789012"},
+        {"123456789012345678901234"},
+        {"1e-40"},
+        {"1e30"}
+    };
+  }
+
+  @DataProvider
+  public Object[][] invalidObjProvider() {
+    return new Object[][]{
+        {""},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\n"},
+        {"v 0 0\nf 1 1 1\n"},
+        {"v 0 0 x\nf 1 1 1\n"},
+        {"v 0 0 1.5.5\nf 1 1 1\n"},
+        {"v 0 0 1e\nf 1 1 1\n"},
+        {"v 0 0 1e50\nf 1 1 1\n"},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2\n"},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\nf 0 1 2\n"},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n"},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\nf -4 -2 -1\n"},
+        {"v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1/1 2/1 3/1\n"}
+    };
+  }
+
+  private static MeshShape read(ObjMeshReader reader, String obj) throws IOException {
+    return reader.read(ByteBuffer.wrap(obj.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  /**
+   * Grid of bumpy quads with texture coordinates, mixing absolute and relative indices.
+   */
+  private static String gridObj(Random random, int size) {
+    var obj = new StringBuilder();
+
+    for (int y = 0; y <= size; y++) {
+      for (int x = 0; x <= size; x++) {
+        obj.append(String.format(Locale.ROOT, "v %f %f %f%n",
+            x * 0.5, y * 0.5, random.nextDouble()));
+      }
+    }
+
+    for (int y = 0; y < size; y++) {
+      for (int x = 0; x < size; x++) {
+        int vertex = y * (size + 1) + x + 1;
+        obj.append(String.format(Locale.ROOT, "vt %f %f%nvt %f %f%n", random.nextDouble(),
+            random.nextDouble(), random.nextDouble(), random.nextDouble()));
+
+        if (random.nextBoolean()) {
+          obj.append(String.format(Locale.ROOT, "f %d/-2 %d/-1 %d/-2 %d/-1%n",
+              vertex, vertex + 1, vertex + size + 2, vertex + size + 1));
+        } else {
+          int texcoord = 2 * (y * size + x) + 1;
+          obj.append(String.format(Locale.ROOT, "f %d/%d %d/%d %d/%d%nf %d/%d %d/%d %d/%d%n",
+              vertex, texcoord, vertex + 1, texcoord + 1, vertex + size + 2, texcoord,
+              vertex, texcoord, vertex + size + 2, texcoord, vertex + size + 1, texcoord + 1));
+        }
+      }
+    }
+
+    return obj.toString();
+  }
+}
@@ -0,0 +1,135 @@
+package com.github.elementbound.jamtracer.output;
+
+import com.github.elementbound.jamtracer.display.FramebufferDisplay;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ImageWriterTest {
+  @Test
+  public void ppmShouldWriteClampedBytes() throws IOException {
+    // Given
+    var display = givenDisplay();
+
+    // When
+    var actual = write(new PpmImageWriter(), display);
+
+    // Then
+    var header = "P6\n2 2\n255\n";
+    assertThat(new String(actual, 0, header.length(), StandardCharsets.US_ASCII), is(header));
+    assertThat(Arrays.copyOfRange(actual, header.length(), actual.length), is(new byte[]{
+        (byte) 255, 0, 0, 0, (byte) 127, 0,
+        0, 0, (byte) 255, (byte) 255, (byte) 255, (byte) 255
+    }));
+  }
+
+  @Test
+  public void pfmShouldWriteFloatRowsBottomUp() throws IOException {
+    // Given
+    var display = givenDisplay();
+
+    // When
+    var actual = write(new PfmImageWriter(), display);
+
+    // Then
+    var header = "PF\n2 2\n-1.0\n";
+    assertThat(new String(actual, 0, header.length(), StandardCharsets.US_ASCII), is(header));
+
+    var pixels = new float[12];
+    ByteBuffer.wrap(actual, header.length(), actual.length - header.length())
+        .order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer()
+        .get(pixels);
+    assertThat(pixels, is(new float[]{
+        0.0f, 0.0f, 1.0f, 2.0f, 2.0f, 2.0f,
+        1.0f, 0.0f, 0.0f, 0.0f, 0.5f, 0.0f
+    }));
+  }
+
+  @Test
+  public void pngShouldBeReadableByImageIo() throws IOException {
+    // Given
+    var display = new FramebufferDisplay(97, 61);
+    var data = display.getData();
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (i % 7) / 6.0f;
+    }
+
+    // When
+    var actual = ImageIO.read(new ByteArrayInputStream(write(new PngImageWriter(), display)));
+
+    // Then
+    assertThat(actual.getWidth(), is(97));
+    assertThat(actual.getHeight(), is(61));
+    for (int y = 0; y < 61; y++) {
+      for (int x = 0; x < 97; x++) {
+        int offset = (y * 97 + x) * 3;
+        int expected = (toByte(data[offset]) << 16)
+            | (toByte(data[offset + 1]) << 8)
+            | toByte(data[offset + 2]);
+
+        assertThat(actual.getRGB(x, y) & 0xffffff, is(expected));
+      }
+    }
+  }
+
+  @Test(dataProvider = "forPathProvider")
+  public void forPathShouldPickWriterByExtension(String path, Class<?> expected) {
+    // Given
+
+    // When
+    var actual = ImageWriter.forPath(Path.of(path));
+
+    // Then
+    assertThat(actual, is(instanceOf(expected)));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void forPathShouldThrowOnUnknownExtension() {
+    // Given
+
+    // When
+    ImageWriter.forPath(Path.of("frame.gif"));
+
+    // Then throw
+  }
+
+  @DataProvider
+  public Object[][] forPathProvider() {
+    return new Object[][]{
+        {"frame.ppm", PpmImageWriter.class},
+        {"out/frame.PFM", PfmImageWriter.class},
+        {"frame.0001.png", PngImageWriter.class}
+    };
+  }
+
+  private static FramebufferDisplay givenDisplay() {
+    var display = new FramebufferDisplay(2, 2);
+    display.setRow(0, new float[]{1.0f, 0.0f, 0.0f, 0.0f, 0.5f, 0.0f});
+    display.setRow(1, new float[]{0.0f, 0.0f, 1.0f, 2.0f, 2.0f, 2.0f});
+    return display;
+  }
+
+  private static byte[] write(ImageWriter writer, FramebufferDisplay display)
+      throws IOException {
+    var output = new ByteArrayOutputStream();
+    writer.write(display, Channels.newChannel(output));
+    return output.toByteArray();
+  }
+
+  private static int toByte(float value) {
+    return ChannelUtils.toByte(value) & 0xff;
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class BoundingBoxTest {
+  @Test
+  public void transformShouldEncloseTransformedBox() {
+    // Given
+    var transform = new Transform(
+        new Vector3(1.0, 2.0, 3.0),
+        new Vector3(0.0, 0.0, 45.0),
+        new Vector3(1.0, 1.0, 2.0)
+    );
+    var diagonal = Math.sqrt(2.0);
+
+    // When
+    var actual = BoundingBox.UNIT.transform(transform.getMatrix());
+
+    // Then
+    assertThat(actual.getMin(0), is(closeTo(1.0 - diagonal, 1e-9)));
+    assertThat(actual.getMax(0), is(closeTo(1.0 + diagonal, 1e-9)));
+    assertThat(actual.getMin(1), is(closeTo(2.0 - diagonal, 1e-9)));
+    assertThat(actual.getMax(1), is(closeTo(2.0 + diagonal, 1e-9)));
+    assertThat(actual.getMin(2), is(closeTo(1.0, 1e-9)));
+    assertThat(actual.getMax(2), is(closeTo(5.0, 1e-9)));
+  }
+
+  @Test(dataProvider = "intersectProvider")
+  public void intersectShouldReturnExpected(Ray ray, double expected) {
+    // Given
+
+    // When
+    var actual = BoundingBox.UNIT.intersect(ray);
+
+    // Then
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void intersectShouldMissEmptyBox() {
+    // Given
+    var ray = Ray.lookat(Vector3.ZERO, Vector3.FORWARD);
+
+    // When
+    var actual = BoundingBox.EMPTY.intersect(ray);
+
+    // Then
+    assertThat(actual, is(Double.POSITIVE_INFINITY));
+  }
+
+  @Test
+  public void shapeBoundsShouldFollowTransformUpdates() {
+    // Given
+    var shape = new SphereShape();
+    var initial = shape.getBounds();
+
+    // When
+    shape.getTransform().update()
+        .setPosition(new Vector3(4.0, 0.0, 0.0))
+        .done();
+    var actual = shape.getBounds();
+
+    // Then
+    assertThat(initial.getCenter(0), is(closeTo(0.0, 1e-6)));
+    assertThat(actual.getCenter(0), is(closeTo(4.0, 1e-6)));
+  }
+
+  @DataProvider
+  public Object[][] intersectProvider() {
+    return new Object[][]{
+        {Ray.lookat(new Vector3(0.0, -4.0, 0.0), Vector3.ZERO), 3.0},
+        {Ray.lookat(new Vector3(0.0, -4.0, 0.0), new Vector3(0.0, -5.0, 0.0)),
+            Double.POSITIVE_INFINITY},
+        {Ray.lookat(new Vector3(2.0, -4.0, 0.0), new Vector3(2.0, 0.0, 0.0)),
+            Double.POSITIVE_INFINITY},
+        {Ray.lookat(Vector3.ZERO, Vector3.UP), 0.0},
+        {Ray.lookat(new Vector3(1.0, -4.0, 0.0), new Vector3(1.0, 0.0, 0.0)), 3.0},
+    };
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.display.FramebufferDisplay;
+import com.github.elementbound.jamtracer.raytracing.camera.PerspectiveCamera;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.light.PointLight;
+import com.github.elementbound.jamtracer.raytracing.material.ReflectiveMaterial;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.BvhScene;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.Scene;
+import java.util.concurrent.RejectedExecutionException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class RaytracerTest {
+  @Test(dataProvider = "packetSizeProvider")
+  public void renderShouldMatchWithoutPackets(int packetSize) {
+    // Given
+    var scene = createScene();
+    var expected = render(scene, 1, false);
+
+    // When
+    var actual = render(scene, packetSize, false);
+
+    // Then
+    assertThat(actual.getData(), is(expected.getData()));
+  }
+
+  @Test(dataProvider = "packetSizeProvider")
+  public void wavefrontRenderShouldMatchDepthFirst(int packetSize) {
+    // Given
+    var scene = createScene();
+    var expected = render(scene, 1, false).getData();
+
+    // When
+    var actual = render(scene, packetSize, true).getData();
+
+    // Then
+    assertThat(actual.length, is(expected.length));
+    for (int i = 0; i < expected.length; i++) {
+      assertThat((double) actual[i], is(closeTo(expected[i], 1e-5)));
+    }
+  }
+
+  @Test(expectedExceptions = RejectedExecutionException.class)
+  public void setTileSchedulerShouldCloseDefaultScheduler() {
+    // Given
+    var raytracer = new Raytracer();
+    var defaultScheduler = raytracer.getTileScheduler();
+
+    try (var scheduler = new TileScheduler(16, 16, 1)) {
+      // When
+      raytracer.setTileScheduler(scheduler);
+    }
+
+    // Then throws
+    defaultScheduler.render(1, 1, tile -> {
+    });
+  }
+
+  @DataProvider
+  public Object[][] packetSizeProvider() {
+    return new Object[][]{
+        {1},
+        {2},
+        {4},
+        {8}
+    };
+  }
+
+  private static FramebufferDisplay render(Scene scene, int packetSize, boolean isWavefront) {
+    var camera = new PerspectiveCamera();
+    camera.setFieldOfView(60.0);
+    camera.getTransform().update()
+        .setPosition(new Vector3(0.0, -6.0, 1.0))
+        .done();
+
+    var display = new FramebufferDisplay(30, 21);
+    var raytracer = new Raytracer();
+    raytracer.setTileScheduler(new TileScheduler(16, 16, 2));
+    raytracer.setDisplay(display);
+    raytracer.setCamera(camera);
+    raytracer.setScene(scene);
+    raytracer.setRayDepthLimit(3);
+    raytracer.setPacketSize(packetSize);
+    raytracer.setWavefrontEnabled(isWavefront);
+
+    raytracer.render();
+    raytracer.getTileScheduler().close();
+
+    return display;
+  }
+
+  private static Scene createScene() {
+    var scene = new BvhScene();
+
+    var floor = new CubeShape();
+    floor.getTransform().update()
+        .setPosition(new Vector3(0.0, 0.0, -1.5))
+        .setScale(new Vector3(8.0, 8.0, 0.5))
+        .done();
+    scene.addShape(floor);
+
+    for (int i = 0; i < 5; i++) {
+      var sphere = new SphereShape();
+      sphere.getTransform().update()
+          .setPosition(new Vector3(i * 1.5 - 3.0, i % 2, 0.0))
+          .setScale(Vector3.ONE.scale(0.6))
+          .done();
+
+      if (i == 2) {
+        sphere.setMaterial(new ReflectiveMaterial());
+      }
+
+      scene.addShape(sphere);
+    }
+
+    var sun = new DirectionalLight();
+    sun.setColor(Color.WHITE);
+    sun.setIntensity(0.8);
+    sun.setDirection(new Vector3(1.0, 1.0, -2.0).normalized());
+    scene.addLight(sun);
+
+    var lamp = new PointLight();
+    lamp.setColor(Color.WHITE);
+    lamp.setIntensity(0.5);
+    lamp.setPosition(new Vector3(-2.0, -2.0, 3.0));
+    scene.addLight(lamp);
+
+    scene.prepare();
+    return scene;
+  }
+}
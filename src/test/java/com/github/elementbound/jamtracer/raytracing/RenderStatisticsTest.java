@@ -0,0 +1,179 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.display.FramebufferDisplay;
+import com.github.elementbound.jamtracer.raytracing.camera.PerspectiveCamera;
+import com.github.elementbound.jamtracer.raytracing.light.DirectionalLight;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import com.github.elementbound.jamtracer.raytracing.shape.scene.SimpleScene;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class RenderStatisticsTest {
+  @Test
+  public void renderShouldRecordStatistics() {
+    // Given
+    var sphere = new SphereShape();
+    sphere.getTransform().update()
+        .setPosition(new Vector3(0.0, 4.0, 0.0))
+        .done();
+
+    var light = new DirectionalLight();
+    light.setColor(Color.WHITE);
+    light.setIntensity(1.0);
+    light.setDirection(Vector3.DOWN);
+
+    var scene = new SimpleScene();
+    scene.addShape(sphere);
+    scene.addLight(light);
+    scene.prepare();
+
+    var camera = new PerspectiveCamera();
+    camera.setFieldOfView(60.0);
+
+    var raytracer = new Raytracer();
+    raytracer.setTileScheduler(new TileScheduler(4, 4, 2));
+    raytracer.setDisplay(new FramebufferDisplay(8, 8));
+    raytracer.setCamera(camera);
+    raytracer.setScene(scene);
+    raytracer.setRayDepthLimit(2);
+
+    // When
+    raytracer.render();
+    raytracer.getTileScheduler().close();
+    var actual = raytracer.getStatistics().snapshot();
+
+    // Then
+    assertThat(actual.frames(), is(1L));
+    assertThat(actual.lastFrameNanos(), is(greaterThan(0L)));
+    assertThat(actual.primaryRays(), is(64L));
+    assertThat(actual.reflectionRays(), is(0L));
+    assertThat(actual.depthHistogram().get(0), is(64L));
+    assertThat(actual.rayDepthLimit(), is(2));
+
+    // Every camera ray hitting the sphere casts one shadow ray
+    assertThat(actual.shadowRays(), is(greaterThan(0L)));
+    assertThat(actual.shadowRays(), is(lessThan(64L)));
+    assertThat(actual.intersectionHits(), is(greaterThanOrEqualTo(actual.shadowRays())));
+    assertThat(actual.intersectionTests(), is(greaterThanOrEqualTo(actual.intersectionHits())));
+  }
+
+  @Test
+  public void recordIntersectionShouldOnlyCountBoundStatistics() {
+    // Given
+    var statistics = new RenderStatistics();
+
+    // When
+    RenderStatistics.recordIntersection(true);
+    RenderStatistics.bind(statistics);
+    RenderStatistics.recordIntersection(true);
+    RenderStatistics.recordIntersection(false);
+    RenderStatistics.bind(null);
+    RenderStatistics.recordIntersection(true);
+
+    // Then
+    var actual = statistics.snapshot();
+    assertThat(actual.intersectionTests(), is(2L));
+    assertThat(actual.intersectionHits(), is(1L));
+  }
+
+  @Test
+  public void bindShouldAddIntersectionsToPreviouslyBoundStatistics() {
+    // Given
+    var first = new RenderStatistics();
+    var second = new RenderStatistics();
+
+    // When
+    RenderStatistics.bind(first);
+    RenderStatistics.recordIntersection(true);
+    var pending = first.snapshot();
+    RenderStatistics.bind(second);
+    RenderStatistics.recordIntersection(false);
+    RenderStatistics.recordIntersection(false);
+    RenderStatistics.bind(null);
+
+    // Then
+    assertThat(pending.intersectionTests(), is(0L));
+    assertThat(first.snapshot().intersectionTests(), is(1L));
+    assertThat(first.snapshot().intersectionHits(), is(1L));
+    assertThat(second.snapshot().intersectionTests(), is(2L));
+    assertThat(second.snapshot().intersectionHits(), is(0L));
+  }
+
+  @Test
+  public void resetShouldClearStatistics() {
+    // Given
+    var statistics = new RenderStatistics();
+    var expected = statistics.snapshot();
+    statistics.recordRay(0);
+    statistics.recordShadowRay();
+    statistics.recordFrame(4, 1_000L);
+
+    // When
+    statistics.reset();
+
+    // Then
+    assertThat(statistics.snapshot(), is(expected));
+  }
+
+  @Test
+  public void snapshotsShouldCompareByValue() {
+    // Given
+    var statistics = new RenderStatistics();
+    statistics.recordRay(1);
+
+    // When
+    var first = statistics.snapshot();
+    var second = statistics.snapshot();
+
+    // Then
+    assertThat(first, is(second));
+    assertThat(first.hashCode(), is(second.hashCode()));
+    assertThat(first.depthHistogram().get(1), is(1L));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void snapshotHistogramShouldBeImmutable() {
+    // Given
+    var snapshot = new RenderStatistics().snapshot();
+
+    // When
+    snapshot.depthHistogram().set(0, 1L);
+
+    // Then throws
+  }
+
+  @Test
+  public void sinceShouldReturnDifference() {
+    // Given
+    var statistics = new RenderStatistics();
+    statistics.recordRay(0);
+    statistics.recordFrame(4, 1_000L);
+    var earlier = statistics.snapshot();
+
+    statistics.recordRay(0);
+    statistics.recordRay(1);
+    statistics.recordRay(40);
+    statistics.recordShadowRay();
+    statistics.recordFrame(4, 3_000L);
+
+    // When
+    var actual = statistics.snapshot().since(earlier);
+
+    // Then
+    assertThat(actual.frames(), is(1L));
+    assertThat(actual.totalFrameNanos(), is(3_000L));
+    assertThat(actual.primaryRays(), is(1L));
+    assertThat(actual.reflectionRays(), is(2L));
+    assertThat(actual.shadowRays(), is(1L));
+    assertThat(actual.totalRays(), is(4L));
+    assertThat(actual.depthHistogram().get(0), is(1L));
+    assertThat(actual.depthHistogram().get(1), is(1L));
+    assertThat(actual.depthHistogram().get(RenderStatistics.DEPTH_BUCKETS - 1), is(1L));
+  }
+}
@@ -0,0 +1,37 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TileSchedulerTest {
+  @Test
+  public void renderShouldVisitEveryPixelOnce() {
+    // Given
+    int width = 70;
+    int height = 45;
+    var visits = new AtomicIntegerArray(width * height);
+    var tilesDone = new AtomicInteger();
+
+    try (var scheduler = new TileScheduler(16, 8, 4)) {
+      scheduler.onTileDone().subscribe(tile -> tilesDone.incrementAndGet());
+
+      // When
+      scheduler.render(width, height, tile -> {
+        for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+          for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+            visits.incrementAndGet(y * width + x);
+          }
+        }
+      });
+    }
+
+    // Then
+    for (int i = 0; i < visits.length(); i++) {
+      assertThat(visits.get(i), is(1));
+    }
+    assertThat(tilesDone.get(), is(5 * 6));
+  }
+}
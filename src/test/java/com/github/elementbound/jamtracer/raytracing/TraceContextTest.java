@@ -0,0 +1,97 @@
+package com.github.elementbound.jamtracer.raytracing;
+
+import com.github.elementbound.jamtracer.core.Color;
+import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.material.Material;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TraceContextTest {
+  @Test
+  public void pushShouldMakeNextHitCurrent() {
+    // Given
+    var context = new TraceContext(new Raytracer(), null);
+    var rays = new Ray[20];
+
+    // When
+    for (int i = 0; i < rays.length; i++) {
+      rays[i] = Ray.lookat(Vector3.ZERO, new Vector3(1.0, i + 1.0, 0.0));
+      var hit = context.nextHit();
+      context.push(rays[i], i);
+
+      // Then
+      assertThat(context.getHit(), is(sameInstance(hit)));
+      assertThat(context.getRay(), is(sameInstance(rays[i])));
+      assertThat(context.getDepth(), is(i));
+    }
+
+    for (int i = rays.length - 1; i > 0; i--) {
+      context.pop();
+
+      assertThat(context.getRay(), is(sameInstance(rays[i - 1])));
+      assertThat(context.getDepth(), is(i - 1));
+    }
+  }
+
+  @Test
+  public void resetShouldReturnToRootFrame() {
+    // Given
+    var context = new TraceContext(new Raytracer(), null);
+    context.nextHit();
+    context.push(Ray.lookat(Vector3.ZERO, Vector3.UP), 1);
+
+    // When
+    context.reset();
+
+    // Then
+    assertThat(context.getRay(), is(nullValue()));
+    assertThat(context.getDepth(), is(0));
+    assertThat(context.getHit().isHit(), is(false));
+  }
+
+  @Test
+  public void fromRayContextShouldCopyRayContext() {
+    // Given
+    var ray = Ray.lookat(Vector3.ZERO, Vector3.UP);
+    var shape = new SphereShape();
+    var result = new RaycastResult(true, shape, 2.0, new Vector3(0.0, 0.0, 2.0), Vector3.DOWN,
+        new Vector(0.25, 0.75));
+    var rayContext = new RayContext(new Raytracer(), ray, null, result, 3);
+
+    // When
+    var actual = TraceContext.fromRayContext(rayContext);
+
+    // Then
+    assertThat(actual.getRay(), is(sameInstance(ray)));
+    assertThat(actual.getDepth(), is(3));
+    assertThat(actual.getHit().toRaycastResult(), is(result));
+    assertThat(actual.toRayContext(), is(rayContext));
+  }
+
+  @Test
+  public void materialShouldEvaluateRayContextByDefault() {
+    // Given
+    var ray = Ray.lookat(Vector3.ZERO, Vector3.UP);
+    var context = new TraceContext(new Raytracer(), null);
+    context.nextHit();
+    context.push(ray, 2);
+
+    var evaluated = new RayContext[1];
+    Material material = rayContext -> {
+      evaluated[0] = rayContext;
+      return Color.WHITE;
+    };
+
+    // When
+    var actual = material.evaluate(context);
+
+    // Then
+    assertThat(actual, is(Color.WHITE));
+    assertThat(evaluated[0], is(context.toRayContext()));
+  }
+}
@@ -1,10 +1,14 @@
 package com.github.elementbound.jamtracer.raytracing;
 
-import com.github.elementbound.jamtracer.core.Matrix;
-import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Matrix4;
+import com.github.elementbound.jamtracer.core.Vector3;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 
 public class TransformTest {
   @Test
@@ -12,17 +16,86 @@ public class TransformTest {
     // Given
     Transform transform = new Transform();
     transform.update()
-            .setPosition(new Vector(1.0, 2.0, 3.0))
-            .setRotation(new Vector(30.0, 45.0, 60.0))
-            .setScale(new Vector(1.0, 2.0, 4.0))
+            .setPosition(new Vector3(1.0, 2.0, 3.0))
+            .setRotation(new Vector3(30.0, 45.0, 60.0))
+            .setScale(new Vector3(1.0, 2.0, 4.0))
             .done();
 
-    Matrix expected = Matrix.identity(4);
+    Matrix4 expected = Matrix4.identity();
 
     // When
-    Matrix actual = transform.getInverseMatrix().multiply(transform.getMatrix());
+    Matrix4 actual = transform.getInverseMatrix().multiply(transform.getMatrix());
 
     // Then
     assertThat(actual, is(expected));
   }
+
+  @Test(dataProvider = "transformProvider")
+  public void matrixShouldMatchComposedMatrices(Vector3 position, Vector3 rotation, Vector3 scale) {
+    // Given
+    var transform = new Transform(position, rotation, scale);
+    var expected = Matrix4.rotateAroundX(Math.toRadians(rotation.getX()))
+        .multiply(Matrix4.rotateAroundY(Math.toRadians(rotation.getY())))
+        .multiply(Matrix4.rotateAroundZ(Math.toRadians(rotation.getZ())))
+        .multiply(Matrix4.scale(scale))
+        .multiply(Matrix4.translate(position));
+
+    // When
+    var actual = transform.getMatrix();
+
+    // Then
+    assertThat(actual, is(expected));
+    assertThat(transform.getMatrix().multiply(transform.getInverseMatrix()),
+        is(Matrix4.identity()));
+  }
+
+  @Test(dataProvider = "transformProvider")
+  public void normalMatrixShouldKeepNormalsPerpendicular(Vector3 position, Vector3 rotation,
+                                                         Vector3 scale) {
+    // Given
+    var transform = new Transform(position, rotation, scale);
+    var normal = new Vector3(1.0, 1.0, 1.0).normalized();
+    var tangent = new Vector3(1.0, -1.0, 0.0).normalized();
+
+    // When
+    var actualNormal = transform.getNormalMatrix().transformDirection(normal).normalized();
+    var actualTangent = transform.getMatrix().transformDirection(tangent).normalized();
+
+    // Then
+    assertThat(actualNormal.dot(actualTangent), is(closeTo(0.0, 1e-9)));
+  }
+
+  @Test
+  public void matricesShouldBeCachedUntilUpdate() {
+    // Given
+    var transform = new Transform();
+    transform.update()
+        .setPosition(new Vector3(1.0, 2.0, 3.0))
+        .done();
+    var matrix = transform.getMatrix();
+    var version = transform.getVersion();
+
+    // When
+    var cached = transform.getMatrix();
+    transform.update()
+        .setScale(new Vector3(1.0, 2.0, 3.0))
+        .done();
+    var updated = transform.getMatrix();
+
+    // Then
+    assertThat(cached, is(sameInstance(matrix)));
+    assertThat(updated, is(not(sameInstance(matrix))));
+    assertThat(transform.getVersion(), is(version + 1));
+    assertThat(updated.get(1, 1), is(2.0));
+  }
+
+  @DataProvider
+  public Object[][] transformProvider() {
+    return new Object[][]{
+        {Vector3.ZERO, Vector3.ZERO, Vector3.ONE},
+        {new Vector3(1.0, 2.0, 3.0), new Vector3(30.0, 45.0, 60.0), new Vector3(1.0, 2.0, 4.0)},
+        {new Vector3(-4.0, 0.5, 8.0), new Vector3(-90.0, 10.0, 170.0),
+            new Vector3(0.25, 3.0, 0.5)}
+    };
+  }
 }
\ No newline at end of file
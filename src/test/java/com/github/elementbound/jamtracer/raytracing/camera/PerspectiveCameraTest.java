@@ -1,6 +1,7 @@
 package com.github.elementbound.jamtracer.raytracing.camera;
 
 import com.github.elementbound.jamtracer.core.Vector;
+import com.github.elementbound.jamtracer.core.Vector3;
 import com.github.elementbound.jamtracer.raytracing.Ray;
 import org.testng.annotations.Test;
 import static org.hamcrest.CoreMatchers.is;
@@ -11,7 +12,7 @@ public class PerspectiveCameraTest {
   public void centerRayShouldReturnForward() {
     // Given
     PerspectiveCamera camera = new PerspectiveCamera();
-    Ray expected = Ray.lookat(Vector.ZERO, Vector.FORWARD);
+    Ray expected = Ray.lookat(Vector3.ZERO, Vector3.FORWARD);
 
     // When
     Ray actual = camera.getRay(new Vector(0.5, 0.5));
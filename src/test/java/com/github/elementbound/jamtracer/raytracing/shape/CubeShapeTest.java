@@ -0,0 +1,43 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertEquivalentHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameOcclusion;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+
+public class CubeShapeTest {
+  @Test
+  public void worldSpaceRaycastShouldMatchObjectSpace() {
+    // Given
+    var random = new Random(61L);
+    var position = new Vector3(-1.0, 3.0, 0.5);
+    var scale = new Vector3(2.0, 0.5, 1.25);
+
+    var cube = new CubeShape();
+    cube.getTransform().update()
+        .setPosition(position)
+        .setScale(scale)
+        .done();
+
+    // A negligible rotation forces the object space path
+    var reference = new CubeShape();
+    reference.getTransform().update()
+        .setPosition(position)
+        .setScale(scale)
+        .setRotation(new Vector3(0.0, 0.0, 1e-9))
+        .done();
+
+    Supplier<Ray> rays =
+        () -> Ray.lookat(randomVector(random, 6.0), position.add(randomVector(random, 2.0)));
+
+    // When
+
+    // Then
+    assertEquivalentHits(reference, cube, 1e-6, rays);
+    assertSameOcclusion(reference, cube, random, 8.0, rays);
+  }
+}
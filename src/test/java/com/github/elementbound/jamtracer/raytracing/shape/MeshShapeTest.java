@@ -0,0 +1,231 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import java.util.Random;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertEquivalentHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class MeshShapeTest {
+  private static final float[] QUAD_POSITIONS = {
+      -1.0f, -1.0f, 0.0f,
+      1.0f, -1.0f, 0.0f,
+      1.0f, 1.0f, 0.0f,
+      -1.0f, 1.0f, 0.0f
+  };
+  private static final int[] QUAD_INDICES = {0, 1, 2, 0, 2, 3};
+
+  @Test
+  public void raycastShouldMatchCube() {
+    // Given
+    var random = new Random(67L);
+    var mesh = cubeMesh();
+    var cube = new CubeShape();
+
+    for (var shape : new Shape[]{mesh, cube}) {
+      shape.getTransform().update()
+          .setPosition(new Vector3(1.0, -2.0, 0.5))
+          .setRotation(new Vector3(30.0, 45.0, 60.0))
+          .setScale(new Vector3(2.0, 0.5, 1.5))
+          .done();
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      // Cubes don't report hits from inside, so start outside
+      var center = new Vector3(1.0, -2.0, 0.5);
+      var ray = Ray.lookat(center.add(randomVector(random, 1.0).normalized().scale(8.0)),
+          center.add(randomVector(random, 2.0)));
+
+      // When
+      var actual = new HitRecord();
+      var expected = new HitRecord();
+      mesh.raycast(ray, actual);
+      cube.raycast(ray, expected);
+
+      // Then
+      assertThat(actual.isHit(), is(expected.isHit()));
+      if (expected.isHit()) {
+        assertThat(actual.getDistance(), is(closeTo(expected.getDistance(), 1e-6)));
+        assertThat(actual.getNormal().dot(expected.getNormal()), is(closeTo(1.0, 1e-6)));
+      }
+    }
+
+    assertThat(mesh.getBounds(), is(cube.getBounds()));
+  }
+
+  @Test
+  public void raycastShouldMatchBruteForce() {
+    // Given
+    var random = new Random(71L);
+    int triangleCount = 500;
+    var positions = new float[9 * triangleCount];
+    var indices = new int[3 * triangleCount];
+
+    for (int i = 0; i < triangleCount; i++) {
+      var center = randomVector(random, 4.0);
+
+      for (int v = 0; v < 3; v++) {
+        var vertex = center.add(randomVector(random, 0.5));
+        positions[9 * i + 3 * v] = (float) vertex.getX();
+        positions[9 * i + 3 * v + 1] = (float) vertex.getY();
+        positions[9 * i + 3 * v + 2] = (float) vertex.getZ();
+        indices[3 * i + v] = 3 * i + v;
+      }
+    }
+
+    var mesh = new MeshShape(positions.clone(), null, null, indices.clone());
+    assertThat(mesh.getNodeCount(), is(lessThan(triangleCount)));
+
+    for (int i = 0; i < 1000; i++) {
+      var ray = Ray.lookat(randomVector(random, 8.0), randomVector(random, 4.0));
+      var maxDistance = 12.0 * random.nextDouble();
+
+      var expected = new TriangleRay(ray.getFrom(), ray.getDirection(),
+          Double.POSITIVE_INFINITY);
+      for (int triangle = 0; triangle < triangleCount; triangle++) {
+        expected.intersect(positions, indices, triangle);
+      }
+
+      // When
+      var actual = new HitRecord();
+      mesh.raycast(ray, actual);
+
+      // Then
+      assertThat(actual.getDistance(), is(expected.getDistance()));
+      assertThat(mesh.occludes(ray, maxDistance), is(expected.getDistance() < maxDistance));
+    }
+  }
+
+  @Test
+  public void raycastShouldNotMissSharedEdges() {
+    // Given
+    var random = new Random(73L);
+    var mesh = new MeshShape(QUAD_POSITIONS.clone(), null, null, QUAD_INDICES.clone());
+
+    for (int i = 0; i < 10000; i++) {
+      // Aim at the diagonal shared by both triangles
+      double s = 2.0 * random.nextDouble() - 1.0;
+      var ray = Ray.lookat(randomVector(random, 4.0).add(new Vector3(0.0, 0.0, 5.0)),
+          new Vector3(s, s, 0.0));
+
+      // When
+      var isHit = mesh.raycast(ray, new HitRecord());
+
+      // Then
+      assertThat(isHit, is(true));
+    }
+  }
+
+  @Test
+  public void raycastShouldInterpolateAttributes() {
+    // Given
+    var normals = new float[]{
+        -1.0f, 0.0f, 1.0f,
+        1.0f, 0.0f, 1.0f,
+        1.0f, 0.0f, 1.0f,
+        -1.0f, 0.0f, 1.0f
+    };
+    var texcoords = new float[]{0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f, 0.0f, 1.0f};
+    var mesh = new MeshShape(QUAD_POSITIONS.clone(), normals, texcoords, QUAD_INDICES.clone());
+    var ray = new Ray(new Vector3(0.5, -0.5, 2.0), Vector3.DOWN);
+
+    // When
+    var hit = new HitRecord();
+    mesh.raycast(ray, hit);
+
+    // Then
+    assertThat(hit.getDistance(), is(closeTo(2.0, 1e-9)));
+    assertThat(hit.getTexcoords().get(0), is(closeTo(0.75, 1e-9)));
+    assertThat(hit.getTexcoords().get(1), is(closeTo(0.25, 1e-9)));
+    assertThat(hit.getNormal().getX(), is(closeTo(0.5 / Math.sqrt(1.25), 1e-6)));
+    assertThat(hit.getNormal().getZ(), is(closeTo(1.0 / Math.sqrt(1.25), 1e-6)));
+  }
+
+  @Test
+  public void restoredMeshShouldMatchBuiltMesh() {
+    // Given
+    var random = new Random(41L);
+    var expected = cubeMesh();
+
+    // When
+    var actual = new MeshShape(expected.getPositions(), expected.getNormals(),
+        expected.getTexcoords(), expected.getIndices(), expected.getHierarchyBounds(),
+        expected.getHierarchyNodes());
+
+    // Then
+    assertThat(actual.getNodeCount(), is(expected.getNodeCount()));
+    assertThat(actual.getBounds(), is(expected.getBounds()));
+    assertEquivalentHits(expected, actual, 0.0,
+        () -> Ray.lookat(randomVector(random, 4.0), randomVector(random, 1.0)));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void restoreShouldThrowOnInvalidHierarchy() {
+    // Given
+    var mesh = cubeMesh();
+
+    // When
+    new MeshShape(mesh.getPositions(), null, null, mesh.getIndices(), new float[6],
+        new int[]{0, 1});
+
+    // Then throws
+  }
+
+  @Test(dataProvider = "invalidMeshProvider", expectedExceptions = IllegalArgumentException.class)
+  public void constructorShouldThrowOnInvalidMesh(float[] positions, float[] normals,
+                                                  float[] texcoords, int[] indices) {
+    // Given
+
+    // When
+    new MeshShape(positions, normals, texcoords, indices);
+
+    // Then throws
+  }
+
+  @DataProvider
+  public Object[][] invalidMeshProvider() {
+    return new Object[][]{
+        {new float[]{0.0f, 0.0f}, null, null, new int[]{0, 0, 0}},
+        {QUAD_POSITIONS.clone(), new float[3], null, QUAD_INDICES.clone()},
+        {QUAD_POSITIONS.clone(), null, new float[6], QUAD_INDICES.clone()},
+        {QUAD_POSITIONS.clone(), null, null, new int[0]},
+        {QUAD_POSITIONS.clone(), null, null, new int[]{0, 1}},
+        {QUAD_POSITIONS.clone(), null, null, new int[]{0, 1, 4}},
+        {new float[]{0.0f, 0.0f, Float.NaN}, null, null, new int[]{0, 0, 0}}
+    };
+  }
+
+  private static MeshShape cubeMesh() {
+    var positions = new float[6 * 4 * 3];
+    var indices = new int[6 * 2 * 3];
+    var corners = new int[][]{{-1, -1}, {1, -1}, {1, 1}, {-1, 1}};
+
+    for (int face = 0; face < 6; face++) {
+      int axis = face / 2;
+      int sign = face % 2 == 0 ? 1 : -1;
+
+      for (int corner = 0; corner < 4; corner++) {
+        // Walk corners counter-clockwise, as seen from outside
+        int[] uv = corners[sign > 0 ? corner : 3 - corner];
+        int vertex = 4 * face + corner;
+        positions[3 * vertex + axis] = sign;
+        positions[3 * vertex + (axis + 1) % 3] = uv[0];
+        positions[3 * vertex + (axis + 2) % 3] = uv[1];
+      }
+
+      var quad = new int[]{0, 1, 2, 0, 2, 3};
+      for (int i = 0; i < 6; i++) {
+        indices[6 * face + i] = 4 * face + quad[i];
+      }
+    }
+
+    return new MeshShape(positions, null, null, indices);
+  }
+}
@@ -0,0 +1,192 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+/**
+ * Random shapes and rays, and assertions comparing shapes against a reference on random rays.
+ */
+public final class ShapeFixtures {
+  public static final int RAY_COUNT = 2000;
+
+  private ShapeFixtures() {
+  }
+
+  /**
+   * Random vector, each component within [-extent, extent].
+   *
+   * @param random random source
+   * @param extent maximum absolute value of each component
+   *
+   * @return vector
+   */
+  public static Vector3 randomVector(Random random, double extent) {
+    return new Vector3(
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent,
+        (2.0 * random.nextDouble() - 1.0) * extent
+    );
+  }
+
+  /**
+   * Random ray from within 16 units of the origin, towards a point within 8 units.
+   *
+   * @param random random source
+   *
+   * @return ray
+   */
+  public static Ray randomRay(Random random) {
+    return Ray.lookat(randomVector(random, 16.0), randomVector(random, 8.0));
+  }
+
+  /**
+   * Random sphere or cube within 8 units of the origin, randomly rotated and scaled.
+   *
+   * @param random random source
+   * @param scale  scale of the shape, each axis is scaled by 0.1 to 1.1 times this
+   *
+   * @return shape
+   */
+  public static Shape randomShape(Random random, double scale) {
+    Shape shape = random.nextBoolean() ? new SphereShape() : new CubeShape();
+
+    shape.getTransform().update()
+        .setPosition(randomVector(random, 8.0))
+        .setRotation(randomVector(random, 180.0))
+        .setScale(new Vector3(
+            scale * (0.1 + random.nextDouble()),
+            scale * (0.1 + random.nextDouble()),
+            scale * (0.1 + random.nextDouble())))
+        .done();
+
+    return shape;
+  }
+
+  /**
+   * Random shapes, see {@link #randomShape(Random, double)}.
+   *
+   * @param random random source
+   * @param count  number of shapes
+   * @param scale  scale of the shapes
+   *
+   * @return shapes
+   */
+  public static List<Shape> randomShapes(Random random, int count, double scale) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> randomShape(random, scale))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Assert that a shape hits the same shapes as a reference holding the very same shapes, e.g. an
+   * acceleration structure against a simple scene, for {@link #RAY_COUNT} random rays.
+   *
+   * @param expected reference shape
+   * @param actual   shape under test
+   * @param random   random source
+   */
+  public static void assertSameHits(Shape expected, Shape actual, Random random) {
+    for (int i = 0; i < RAY_COUNT; i++) {
+      var ray = randomRay(random);
+      var expectedHit = expected.raycast(ray);
+      var actualHit = actual.raycast(ray);
+
+      assertThat(actualHit.isHit(), is(expectedHit.isHit()));
+      if (expectedHit.isHit()) {
+        assertThat(actualHit.shape(), is(sameInstance(expectedHit.shape())));
+        assertThat(actualHit.distance(), is(closeTo(expectedHit.distance(), 1e-9)));
+      }
+    }
+  }
+
+  /**
+   * Assert that a shape is hit the same as an equivalent reference, for {@link #RAY_COUNT} random
+   * rays.
+   * <p>Unlike {@link #assertSameHits(Shape, Shape, Random)}, the shapes hit may be different
+   * instances, as long as distances, points, normals and texture coordinates match.</p>
+   *
+   * @param expected  reference shape
+   * @param actual    shape under test
+   * @param random    random source
+   * @param tolerance tolerance of hit distances, points, normals and texture coordinates
+   */
+  public static void assertEquivalentHits(Shape expected, Shape actual, Random random,
+                                          double tolerance) {
+    assertEquivalentHits(expected, actual, tolerance, () -> randomRay(random));
+  }
+
+  /**
+   * Assert that a shape is hit the same as an equivalent reference, for {@link #RAY_COUNT} rays.
+   *
+   * @param expected  reference shape
+   * @param actual    shape under test
+   * @param tolerance tolerance of hit distances, points, normals and texture coordinates
+   * @param rays      ray source
+   */
+  public static void assertEquivalentHits(Shape expected, Shape actual, double tolerance,
+                                          Supplier<Ray> rays) {
+    for (int i = 0; i < RAY_COUNT; i++) {
+      var ray = rays.get();
+      var expectedHit = expected.raycast(ray);
+      var actualHit = actual.raycast(ray);
+
+      assertThat(actualHit.isHit(), is(expectedHit.isHit()));
+      if (expectedHit.isHit()) {
+        assertThat(actualHit.distance(), is(closeTo(expectedHit.distance(), tolerance)));
+        assertThat(Vector3.distance(actualHit.point(), expectedHit.point()),
+            is(closeTo(0.0, tolerance)));
+        assertThat(Vector3.distance(actualHit.normal(), expectedHit.normal()),
+            is(closeTo(0.0, tolerance)));
+        assertThat(actualHit.texcoords().subtract(expectedHit.texcoords()).length(),
+            is(closeTo(0.0, tolerance)));
+      }
+    }
+  }
+
+  /**
+   * Assert that a shape occludes the same as a reference, for {@link #RAY_COUNT} random rays and
+   * random distances up to 32.
+   *
+   * @param expected reference shape
+   * @param actual   shape under test
+   * @param random   random source
+   */
+  public static void assertSameOcclusion(Shape expected, Shape actual, Random random) {
+    assertSameOcclusion(expected, actual, random, 32.0, () -> randomRay(random));
+  }
+
+  /**
+   * Assert that a shape occludes the same as a reference, for {@link #RAY_COUNT} rays and random
+   * distances.
+   *
+   * @param expected    reference shape
+   * @param actual      shape under test
+   * @param random      random source of distances
+   * @param maxDistance maximum distance
+   * @param rays        ray source
+   */
+  public static void assertSameOcclusion(Shape expected, Shape actual, Random random,
+                                         double maxDistance, Supplier<Ray> rays) {
+    for (int i = 0; i < RAY_COUNT; i++) {
+      var ray = rays.get();
+      var distance = maxDistance * random.nextDouble();
+      var expectedHit = expected.raycast(ray);
+
+      // Skip grazing hits, where the two queries may round differently
+      if (expectedHit.isHit() && Math.abs(expectedHit.distance() - distance) < 1e-6) {
+        continue;
+      }
+
+      assertThat(actual.occludes(ray, distance), is(expected.occludes(ray, distance)));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.elementbound.jamtracer.raytracing.shape;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertEquivalentHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameOcclusion;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class SphereShapeTest {
+  @Test
+  public void raycastShouldMatchRecordBasedRaycast() {
+    // Given
+    var sphere = new SphereShape();
+    sphere.getTransform().update()
+        .setPosition(new Vector3(0.0, 4.0, 0.0))
+        .setScale(new Vector3(1.0, 2.0, 1.0))
+        .done();
+    var ray = Ray.lookat(new Vector3(0.5, 0.0, 0.25), new Vector3(0.0, 4.0, 0.0));
+    var hit = new HitRecord();
+
+    // When
+    var isHit = sphere.raycast(ray, hit);
+    var expected = sphere.raycast(ray);
+
+    // Then
+    assertThat(isHit, is(true));
+    assertThat(hit.toRaycastResult(), is(expected));
+  }
+
+  @Test
+  public void raycastShouldOnlyUpdateCloserHits() {
+    // Given
+    var near = new SphereShape();
+    near.getTransform().update().setPosition(new Vector3(0.0, 4.0, 0.0)).done();
+
+    var far = new SphereShape();
+    far.getTransform().update().setPosition(new Vector3(0.0, 8.0, 0.0)).done();
+
+    var ray = Ray.lookat(Vector3.ZERO, Vector3.FORWARD);
+    var hit = new HitRecord();
+
+    // When
+    var isNearHit = near.raycast(ray, hit);
+    var isFarHit = far.raycast(ray, hit);
+
+    // Then
+    assertThat(isNearHit, is(true));
+    assertThat(isFarHit, is(false));
+    assertThat(hit.getShape(), is(sameInstance(near)));
+    assertThat(hit.getDistance(), is(closeTo(3.0, 1e-9)));
+  }
+
+  @Test
+  public void worldSpaceRaycastShouldMatchObjectSpace() {
+    // Given
+    var random = new Random(59L);
+    var position = new Vector3(1.0, 4.0, -2.0);
+    var scale = Vector3.ONE.scale(1.5);
+
+    var sphere = new SphereShape();
+    sphere.getTransform().update()
+        .setPosition(position)
+        .setScale(scale)
+        .done();
+
+    // A negligible rotation forces the object space path
+    var reference = new SphereShape();
+    reference.getTransform().update()
+        .setPosition(position)
+        .setScale(scale)
+        .setRotation(new Vector3(0.0, 0.0, 1e-9))
+        .done();
+
+    Supplier<Ray> rays =
+        () -> Ray.lookat(randomVector(random, 6.0), position.add(randomVector(random, 2.0)));
+
+    // When
+
+    // Then
+    assertEquivalentHits(reference, sphere, 1e-6, rays);
+    assertSameOcclusion(reference, sphere, random, 8.0, rays);
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.BoundingBox;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import java.util.Random;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BoxKernelTest {
+  private static final int PACKET_SIZE = 64;
+  private static final int BOX_COUNT = 500;
+
+  @Test
+  public void kernelsShouldMatchBoundingBox() {
+    // Given
+    var random = new Random(53L);
+    var scalar = new ScalarBoxKernel();
+    var batch = new BatchBoxKernel();
+    var packet = randomPacket(random);
+
+    var scalarDistances = new double[PACKET_SIZE];
+    var batchDistances = new double[PACKET_SIZE];
+    var exits = new double[PACKET_SIZE];
+
+    for (int i = 0; i < BOX_COUNT; i++) {
+      // Snap to a coarse grid, so rays often start on or travel along the slabs
+      var min = snap(randomVector(random, 4.0));
+      var max = min.add(snap(new Vector3(random.nextDouble(), random.nextDouble(),
+          random.nextDouble()).scale(4.0)));
+      var box = new BoundingBox(min, max);
+      var bounds = new double[]{
+          0.0, min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ()
+      };
+      int from = random.nextInt(PACKET_SIZE / 2);
+
+      // When
+      scalar.intersect(bounds, 1, packet, from, PACKET_SIZE, scalarDistances, exits);
+      batch.intersect(bounds, 1, packet, from, PACKET_SIZE, batchDistances, exits);
+
+      // Then
+      for (int r = from; r < PACKET_SIZE; r++) {
+        var expected = box.intersect(packet.getRay(r));
+        assertThat(scalarDistances[r], is(expected));
+        assertThat(batchDistances[r], is(expected));
+      }
+    }
+  }
+
+  @Test(dataProvider = "selectProvider")
+  public void selectShouldReturnExpected(String kernel, String vmInfo, Class<?> expected) {
+    // Given
+
+    // When
+    var actual = BoxKernel.select(kernel, vmInfo);
+
+    // Then
+    assertThat(actual, is(instanceOf(expected)));
+  }
+
+  @DataProvider
+  public Object[][] selectProvider() {
+    return new Object[][]{
+        {BoxKernel.SCALAR, "mixed mode, sharing", ScalarBoxKernel.class},
+        {BoxKernel.BATCH, "interpreted mode, sharing", BatchBoxKernel.class},
+        {null, "mixed mode, sharing", BatchBoxKernel.class},
+        {null, "interpreted mode, sharing", ScalarBoxKernel.class},
+        {"simd", "mixed mode, sharing", BatchBoxKernel.class},
+        {"simd", "interpreted mode, sharing", ScalarBoxKernel.class}
+    };
+  }
+
+  private static RayPacket randomPacket(Random random) {
+    var packet = new RayPacket(PACKET_SIZE);
+
+    for (int i = 0; i < PACKET_SIZE; i++) {
+      var from = snap(randomVector(random, 8.0));
+      var direction = randomVector(random, 1.0);
+
+      // Some rays run parallel to an axis plane
+      if (i % 4 == 0) {
+        direction = new Vector3(direction.getX(), 0.0, direction.getZ());
+      }
+
+      packet.add(new Ray(from, direction.normalized()));
+    }
+
+    return packet;
+  }
+
+  private static Vector3 snap(Vector3 vector) {
+    return new Vector3(Math.rint(vector.getX()), Math.rint(vector.getY()),
+        Math.rint(vector.getZ()));
+  }
+}
@@ -0,0 +1,194 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomShape;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomShapes;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class BvhBuilderTest {
+  private static final int SHAPE_COUNT = 300;
+
+  @Test(dataProvider = "builderProvider")
+  public void raycastShouldMatchSimpleScene(BvhBuilder builder) {
+    // Given
+    var random = new Random(31L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+    actualScene.setBuilder(builder);
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+      expectedScene.addShape(shape);
+      actualScene.addShape(shape);
+    });
+
+    // When
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertSameHits(expectedScene, actualScene, random);
+  }
+
+  @Test(dataProvider = "builderProvider")
+  public void buildShouldContainEveryShapeOnce(BvhBuilder builder) {
+    // Given
+    var shapes = randomShapes(new Random(37L), SHAPE_COUNT, 1.0);
+
+    // When
+    var root = builder.build(shapes);
+    var statistics = BvhStatistics.of(root, 0L);
+
+    // Then
+    Set<Shape> actual = new HashSet<>();
+    collectShapes(root, actual);
+
+    assertThat(actual, is(new HashSet<>(shapes)));
+    assertThat(statistics.primitiveCount(), is(shapes.size()));
+    assertThat(statistics.nodeCount(), is(2 * statistics.leafCount() - 1));
+    assertThat(statistics.averageLeafSize(),
+        is(closeTo((double) shapes.size() / statistics.leafCount(), 1e-9)));
+  }
+
+  @Test
+  public void buildShouldHandleCoincidentShapes() {
+    // Given
+    var shapes = IntStream.range(0, 64)
+        .mapToObj(i -> (Shape) new SphereShape())
+        .collect(Collectors.toList());
+    var builder = new SahBvhBuilder(2, 8, 1.0, 2.0);
+
+    // When
+    var statistics = BvhStatistics.of(builder.build(shapes), 0L);
+
+    // Then
+    assertThat(statistics.primitiveCount(), is(64));
+    assertThat(statistics.averageLeafSize(), is(lessThanOrEqualTo(2.0)));
+  }
+
+  @Test
+  public void sahShouldBeatMedianOnClusteredScene() {
+    // Given
+    var random = new Random(41L);
+    var shapes = IntStream.range(0, SHAPE_COUNT)
+        .mapToObj(i -> clusteredShape(random, i))
+        .collect(Collectors.toList());
+
+    // When
+    var median = BvhStatistics.of(new MedianBvhBuilder().build(shapes), 0L);
+    var sah = BvhStatistics.of(new SahBvhBuilder().build(shapes), 0L);
+
+    // Then
+    assertThat(sah.sahCost(), is(lessThan(median.sahCost())));
+  }
+
+  @Test
+  public void parallelBuildShouldMatchSequential() {
+    // Given
+    var random = new Random(47L);
+    var shapes = IntStream.range(0, 16 * SHAPE_COUNT)
+        .mapToObj(i -> random.nextInt(4) == 0 ? clusteredShape(random, i) : randomShape(random, 1.0))
+        .collect(Collectors.toList());
+    var pool = new ForkJoinPool(4);
+
+    try {
+      var sequentialBuilder = new SahBvhBuilder();
+      var parallelBuilder = new SahBvhBuilder(SahBvhBuilder.DEFAULT_MAX_LEAF_SIZE,
+          SahBvhBuilder.DEFAULT_BIN_COUNT, SahBvhBuilder.DEFAULT_TRAVERSAL_COST,
+          SahBvhBuilder.DEFAULT_INTERSECTION_COST, pool, 16);
+
+      // When
+      var expected = sequentialBuilder.build(shapes);
+      var actual = parallelBuilder.build(shapes);
+
+      // Then
+      assertSameTree(actual, expected);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void prepareShouldReportBuildStatistics() {
+    // Given
+    var scene = new BvhScene();
+    randomShapes(new Random(43L), SHAPE_COUNT, 1.0).forEach(scene::addShape);
+
+    // When
+    scene.prepare();
+    var actual = scene.getBuildStatistics();
+
+    // Then
+    assertThat(actual.primitiveCount(), is(SHAPE_COUNT));
+    assertThat(0L, is(lessThanOrEqualTo(actual.buildNanos())));
+    assertThat(0.0, is(lessThan(actual.sahCost())));
+  }
+
+  @DataProvider
+  public Object[][] builderProvider() {
+    return new Object[][]{
+        {new MedianBvhBuilder()},
+        {new MedianBvhBuilder(1)},
+        {new SahBvhBuilder()},
+        {new SahBvhBuilder(1, 4, 1.0, 1.0)},
+        {new SahBvhBuilder(8, 32, 0.5, 4.0)},
+    };
+  }
+
+  private static void assertSameTree(BvhNode actual, BvhNode expected) {
+    assertThat(actual.getBounds(), is(expected.getBounds()));
+    assertThat(actual.isLeaf(), is(expected.isLeaf()));
+
+    if (expected.isLeaf()) {
+      assertThat(actual.getShapes().length, is(expected.getShapes().length));
+      for (int i = 0; i < expected.getShapes().length; i++) {
+        assertThat(actual.getShapes()[i], is(sameInstance(expected.getShapes()[i])));
+      }
+    } else {
+      assertSameTree(actual.getLeft(), expected.getLeft());
+      assertSameTree(actual.getRight(), expected.getRight());
+    }
+  }
+
+  private static void collectShapes(BvhNode node, Set<Shape> shapes) {
+    if (node.isLeaf()) {
+      for (var shape : node.getShapes()) {
+        assertThat(shapes.add(shape), is(true));
+      }
+    } else {
+      collectShapes(node.getLeft(), shapes);
+      collectShapes(node.getRight(), shapes);
+    }
+  }
+
+  private static Shape clusteredShape(Random random, int index) {
+    // A few large shapes spread out, with dense clusters of small ones
+    var shape = new SphereShape();
+    var cluster = new Vector3(index % 3 * 40.0, 0.0, 0.0);
+
+    shape.getTransform().update()
+        .setPosition(index % 10 == 0
+            ? randomVector(random, 60.0)
+            : cluster.add(randomVector(random, 1.0)))
+        .setScale(Vector3.ONE.scale(index % 10 == 0 ? 4.0 : 0.05))
+        .done();
+
+    return shape;
+  }
+}
@@ -0,0 +1,338 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.HitRecord;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RayPacket;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.RAY_COUNT;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomRay;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomShapes;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class BvhSceneTest {
+  private static final int SHAPE_COUNT = 200;
+  private static final int PACKET_SIZE = 16;
+
+  @Test
+  public void raycastShouldMatchSimpleScene() {
+    // Given
+    var random = new Random(17L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+      expectedScene.addShape(shape);
+      actualScene.addShape(shape);
+    });
+
+    // When
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertSameHits(expectedScene, actualScene, random);
+  }
+
+  @Test
+  public void occludesShouldMatchRaycast() {
+    // Given
+    var random = new Random(23L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+      expectedScene.addShape(shape);
+      actualScene.addShape(shape);
+    });
+
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    for (int i = 0; i < RAY_COUNT; i++) {
+      var ray = randomRay(random);
+      var maxDistance = 32.0 * random.nextDouble();
+      var result = expectedScene.raycast(ray);
+
+      // Skip grazing hits, where the two queries may round differently
+      if (result.isHit() && Math.abs(result.distance() - maxDistance) < 1e-6) {
+        continue;
+      }
+
+      var expected = result.isHit() && result.distance() < maxDistance;
+
+      // When
+      var actualSimple = expectedScene.occludes(ray, maxDistance);
+      var actualBvh = actualScene.occludes(ray, maxDistance);
+
+      // Then
+      assertThat(actualSimple, is(expected));
+      assertThat(actualBvh, is(expected));
+    }
+  }
+
+  @Test
+  public void componentOccludesShouldMatchRays() {
+    // Given
+    var random = new Random(29L);
+    var simpleScene = new SimpleScene();
+    var bvhScene = new BvhScene();
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+      simpleScene.addShape(shape);
+      bvhScene.addShape(shape);
+    });
+
+    simpleScene.prepare();
+    bvhScene.prepare();
+
+    for (int i = 0; i < RAY_COUNT; i++) {
+      var ray = randomRay(random);
+      var maxDistance = 32.0 * random.nextDouble();
+      var from = ray.getFrom();
+      var direction = ray.getDirection();
+
+      for (Scene scene : List.of(simpleScene, bvhScene)) {
+        // When
+        var actual = scene.occludes(from.getX(), from.getY(), from.getZ(),
+            direction.getX(), direction.getY(), direction.getZ(), maxDistance);
+
+        // Then
+        assertThat(actual, is(scene.occludes(ray, maxDistance)));
+      }
+    }
+  }
+
+  @Test
+  public void raycastShouldTraverseNestedScenes() {
+    // Given
+    var random = new Random(29L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+
+    for (int i = 0; i < 8; i++) {
+      var innerScene = new BvhScene();
+
+      randomShapes(random, SHAPE_COUNT / 8, 1.0).forEach(shape -> {
+        expectedScene.addShape(shape);
+        innerScene.addShape(shape);
+      });
+
+      innerScene.prepare();
+      actualScene.addShape(innerScene);
+    }
+
+    // When
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertSameHits(expectedScene, actualScene, random);
+  }
+
+  @Test(dataProvider = "packetProvider")
+  public void packetRaycastShouldMatchSingleRays(boolean isCoherent) {
+    // Given
+    var random = new Random(43L);
+    var scene = new BvhScene();
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(scene::addShape);
+    scene.getTransform().update()
+        .setPosition(new Vector3(0.5, -0.5, 1.0))
+        .done();
+    scene.prepare();
+
+    var packet = new RayPacket(PACKET_SIZE);
+    var hits = new HitRecord[PACKET_SIZE];
+
+    for (int i = 0; i < RAY_COUNT / PACKET_SIZE; i++) {
+      fillPacket(packet, random, isCoherent);
+      for (int j = 0; j < PACKET_SIZE; j++) {
+        hits[j] = new HitRecord();
+      }
+
+      // When
+      scene.raycast(packet, hits);
+
+      // Then
+      assertThat(packet.isCoherent(), is(isCoherent));
+      for (int j = 0; j < PACKET_SIZE; j++) {
+        var expected = scene.raycast(packet.getRay(j));
+
+        assertThat(hits[j].isHit(), is(expected.isHit()));
+        if (expected.isHit()) {
+          assertThat(hits[j].getShape(), is(sameInstance(expected.shape())));
+          assertThat(hits[j].getDistance(), is(closeTo(expected.distance(), 1e-9)));
+        }
+      }
+    }
+  }
+
+  @Test(dataProvider = "packetProvider")
+  public void packetOccludesShouldMatchSingleRays(boolean isCoherent) {
+    // Given
+    var random = new Random(47L);
+    var scene = new BvhScene();
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(scene::addShape);
+    scene.prepare();
+
+    var packet = new RayPacket(PACKET_SIZE);
+    var occluded = new boolean[PACKET_SIZE];
+
+    for (int i = 0; i < RAY_COUNT / PACKET_SIZE; i++) {
+      fillPacket(packet, random, isCoherent);
+
+      // When
+      scene.occludes(packet, occluded);
+
+      // Then
+      for (int j = 0; j < PACKET_SIZE; j++) {
+        var expected = scene.occludes(packet.getRay(j), packet.getMaxDistance(j));
+        assertThat(occluded[j], is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void prepareShouldRefitMovedShapes() {
+    // Given
+    var random = new Random(31L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+    List<Shape> shapes = new ArrayList<>();
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+          shapes.add(shape);
+          expectedScene.addShape(shape);
+          actualScene.addShape(shape);
+        });
+
+    actualScene.prepare();
+    var buildStatistics = actualScene.getBuildStatistics();
+
+    // When
+    for (int i = 0; i < SHAPE_COUNT; i += 10) {
+      shapes.get(i).getTransform().update()
+          .translate(randomVector(random, 0.25))
+          .done();
+    }
+    shapes.get(1).setTransform(new Transform(randomVector(random, 8.0), Vector3.ZERO,
+        Vector3.ONE.scale(0.5)));
+
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertThat(actualScene.getRefitCount(), is(1L));
+    assertThat(actualScene.getBuildStatistics(), is(sameInstance(buildStatistics)));
+    assertSameHits(expectedScene, actualScene, random);
+  }
+
+  @Test
+  public void prepareShouldRebuildWhenRefitDegrades() {
+    // Given
+    var random = new Random(37L);
+    var scene = new BvhScene();
+    List<Shape> shapes = new ArrayList<>();
+
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(shape -> {
+          shapes.add(shape);
+          scene.addShape(shape);
+        });
+
+    scene.prepare();
+    var buildStatistics = scene.getBuildStatistics();
+
+    // When
+    shapes.forEach(shape -> shape.getTransform().update()
+        .setPosition(randomVector(random, 8.0))
+        .done());
+    scene.prepare();
+
+    // Then
+    assertThat(scene.getRefitCount(), is(0L));
+    assertThat(scene.getBuildStatistics() == buildStatistics, is(false));
+  }
+
+  @Test
+  public void prepareShouldKeepHierarchyWithoutChanges() {
+    // Given
+    var random = new Random(41L);
+    var scene = new BvhScene();
+    randomShapes(random, SHAPE_COUNT, 1.0).forEach(scene::addShape);
+
+    scene.prepare();
+    var expected = scene.getBuildStatistics();
+
+    // When
+    scene.prepare();
+
+    // Then
+    assertThat(scene.getRefitCount(), is(0L));
+    assertThat(scene.getBuildStatistics(), is(sameInstance(expected)));
+  }
+
+  @Test
+  public void raycastShouldHitShapesAddedAfterPrepare() {
+    // Given
+    var scene = new BvhScene();
+    scene.prepare();
+
+    var sphere = new SphereShape();
+    scene.addShape(sphere);
+
+    // When
+    var actual = scene.raycast(Ray.lookat(new Vector3(0.0, -4.0, 0.0), Vector3.ZERO));
+
+    // Then
+    assertThat(actual.isHit(), is(true));
+    assertThat(actual.shape(), is(sameInstance(sphere)));
+  }
+
+  @DataProvider
+  public Object[][] packetProvider() {
+    return new Object[][]{
+        {true},
+        {false}
+    };
+  }
+
+  private static void fillPacket(RayPacket packet, Random random, boolean isCoherent) {
+    packet.clear();
+
+    if (isCoherent) {
+      // Rays of a small pinhole camera, all pointing the same way, away from the axis planes
+      var direction = new Vector3(
+          (random.nextBoolean() ? 1.0 : -1.0) * (0.5 + random.nextDouble()),
+          (random.nextBoolean() ? 1.0 : -1.0) * (0.5 + random.nextDouble()),
+          (random.nextBoolean() ? 1.0 : -1.0) * (0.5 + random.nextDouble())
+      ).normalized();
+      var from = randomVector(random, 4.0).subtract(direction.scale(20.0));
+      var side = direction.cross(Vector3.UP).normalized().scale(0.05);
+      var up = side.cross(direction).normalized().scale(0.05);
+
+      for (int i = 0; i < PACKET_SIZE; i++) {
+        var offset = side.scale(i % 4 - 1.5).add(up.scale(i / 4 - 1.5));
+        packet.add(new Ray(from, direction.add(offset).normalized()), 32.0 * random.nextDouble());
+      }
+    } else {
+      packet.add(Ray.lookat(Vector3.ZERO, Vector3.ONE));
+      packet.add(Ray.lookat(Vector3.ZERO, Vector3.NEGATIVE_ONE));
+
+      for (int i = 2; i < PACKET_SIZE; i++) {
+        packet.add(randomRay(random), 32.0 * random.nextDouble());
+      }
+    }
+  }
+}
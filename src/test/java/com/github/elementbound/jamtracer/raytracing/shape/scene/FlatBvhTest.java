@@ -0,0 +1,102 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FlatBvhTest {
+  @Test
+  public void ofShouldStoreNodesInDepthFirstOrder() {
+    // Given
+    var shapes = IntStream.range(0, 16)
+        .mapToObj(i -> {
+          Shape shape = new SphereShape();
+          shape.getTransform().update()
+              .setPosition(new Vector3(4.0 * i, 0.0, 0.0))
+              .done();
+          return shape;
+        })
+        .collect(Collectors.toList());
+    var root = new MedianBvhBuilder(2).build(shapes);
+
+    // When
+    var actual = FlatBvh.of(root);
+
+    // Then
+    var statistics = BvhStatistics.of(root, 0L);
+    assertThat(actual.getNodeCount(), is(statistics.nodeCount()));
+    assertThat(actual.getDepth(), is(statistics.maxDepth()));
+    assertThat(actual.getBounds(0), is(root.getBounds()));
+    assertThat(actual.getBounds(1), is(root.getLeft().getBounds()));
+    assertThat(actual.getBounds(2), is(root.getLeft().getLeft().getBounds()));
+  }
+
+  @Test
+  public void ofArraysShouldRestoreHierarchy() {
+    // Given
+    var shapes = IntStream.range(0, 16)
+        .mapToObj(i -> {
+          Shape shape = new SphereShape();
+          shape.getTransform().update()
+              .setPosition(new Vector3(4.0 * i, 2.0 * (i % 3), 0.0))
+              .done();
+          return shape;
+        })
+        .collect(Collectors.toList());
+    var expected = FlatBvh.of(new SahBvhBuilder().build(shapes));
+    var leafShapes = IntStream.range(0, expected.getShapeCount())
+        .mapToObj(expected::getShape)
+        .toArray(Shape[]::new);
+
+    // When
+    var actual = FlatBvh.of(expected.getNodeBounds().clone(), expected.getNodes().clone(),
+        leafShapes);
+
+    // Then
+    assertThat(actual.getNodeCount(), is(expected.getNodeCount()));
+    assertThat(actual.getShapeCount(), is(expected.getShapeCount()));
+    assertThat(actual.getDepth(), is(expected.getDepth()));
+    assertThat(actual.sahCost(), is(expected.sahCost()));
+
+    for (int i = 0; i < actual.getShapeCount(); i++) {
+      shapes.get(i).getTransform().update()
+          .setPosition(new Vector3(0.0, 0.0, 8.0 * i))
+          .done();
+      assertThat(actual.refit(i), is(expected.refit(i)));
+    }
+
+    assertThat(actual.sahCost(), is(expected.sahCost()));
+  }
+
+  @Test(dataProvider = "invalidHierarchyProvider",
+      expectedExceptions = IllegalArgumentException.class)
+  public void ofArraysShouldThrowOnInvalidHierarchy(int nodeCount, int[] nodes) {
+    // Given
+    var shapes = new Shape[]{new SphereShape(), new SphereShape()};
+
+    // When
+    FlatBvh.of(new double[6 * nodeCount], nodes, shapes);
+
+    // Then throws
+  }
+
+  @DataProvider
+  public Object[][] invalidHierarchyProvider() {
+    return new Object[][]{
+        {0, new int[0]},
+        {2, new int[]{2, 0, 0, 1, 1, 1}},
+        {3, new int[]{1, 0, 0, 1, 1, 1}},
+        {3, new int[]{3, 0, 0, 1, 1, 1}},
+        {3, new int[]{2, 0, 1, 1, 0, 1}},
+        {3, new int[]{2, 0, 0, 1, 1, 2}},
+        {3, new int[]{2, 0, 0, 1, 1, -1}},
+        {1, new int[]{0, 1}}
+    };
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.RenderStatistics;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameOcclusion;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomShapes;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class GridSceneTest {
+  @Test(dataProvider = "sceneProvider")
+  public void raycastShouldMatchSimpleScene(int shapeCount, double scale, double density) {
+    // Given
+    var random = new Random(59L);
+    var expectedScene = new SimpleScene();
+    var actualScene = new GridScene(density);
+
+    randomShapes(random, shapeCount, scale).forEach(shape -> {
+      expectedScene.addShape(shape);
+      actualScene.addShape(shape);
+    });
+
+    // When
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertSameHits(expectedScene, actualScene, random);
+    assertSameOcclusion(expectedScene, actualScene, random);
+  }
+
+  @Test
+  public void raycastShouldTestSpanningShapesOnce() {
+    // Given
+    // Long ellipsoid spanning many cells, with a ray passing through its bounds but missing it
+    var scene = new GridScene();
+    var large = new SphereShape();
+    large.getTransform().update().setScale(new Vector3(8.0, 1.0, 1.0)).done();
+    scene.addShape(large);
+
+    IntStream.range(0, 63)
+        .mapToObj(i -> {
+          Shape shape = new SphereShape();
+          shape.getTransform().update()
+              .setPosition(new Vector3(i % 8 - 4.0, i / 8 * 0.25 - 1.0, 20.0))
+              .setScale(Vector3.ONE.scale(0.25))
+              .done();
+          return shape;
+        })
+        .forEach(scene::addShape);
+    scene.prepare();
+
+    var statistics = new RenderStatistics();
+    var ray = Ray.lookat(new Vector3(-16.0, 0.9, 0.9), new Vector3(16.0, 0.9, 0.9));
+
+    // When
+    RenderStatistics.bind(statistics);
+    try {
+      scene.raycast(ray);
+    } finally {
+      RenderStatistics.bind(null);
+    }
+
+    // Then
+    assertThat(scene.getResolution(0), is(greaterThan(1)));
+    assertThat(statistics.snapshot().intersectionTests(), is(1L));
+  }
+
+  @DataProvider
+  public Object[][] sceneProvider() {
+    return new Object[][]{
+        {1, 1.0, GridScene.DEFAULT_DENSITY},
+        {200, 1.0, GridScene.DEFAULT_DENSITY},
+        {200, 0.1, GridScene.DEFAULT_DENSITY},
+        {1000, 0.2, 8.0},
+        {50, 4.0, 0.5},
+    };
+  }
+}
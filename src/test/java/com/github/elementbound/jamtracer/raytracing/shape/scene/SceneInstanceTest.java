@@ -0,0 +1,107 @@
+package com.github.elementbound.jamtracer.raytracing.shape.scene;
+
+import com.github.elementbound.jamtracer.core.Vector3;
+import com.github.elementbound.jamtracer.raytracing.Ray;
+import com.github.elementbound.jamtracer.raytracing.Transform;
+import com.github.elementbound.jamtracer.raytracing.shape.CubeShape;
+import com.github.elementbound.jamtracer.raytracing.shape.Shape;
+import com.github.elementbound.jamtracer.raytracing.shape.SphereShape;
+import java.util.Random;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertEquivalentHits;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.assertSameOcclusion;
+import static com.github.elementbound.jamtracer.raytracing.shape.ShapeFixtures.randomVector;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class SceneInstanceTest {
+  private static final int INSTANCE_COUNT = 50;
+
+  @Test(dataProvider = "transformProvider")
+  public void raycastShouldMatchTransformedShape(Transform transform) {
+    // Given
+    var prototype = new SphereShape();
+    var scene = new BvhScene();
+    scene.addShape(prototype);
+    scene.prepare();
+
+    var instance = new SceneInstance(scene, transform);
+    var expectedShape = new SphereShape();
+    expectedShape.setTransform(transform);
+
+    var ray = Ray.lookat(new Vector3(1.0, -8.0, 2.0), transform.getPosition());
+
+    // When
+    var expected = expectedShape.raycast(ray);
+    var actual = instance.raycast(ray);
+
+    // Then
+    assertThat(actual.isHit(), is(true));
+    assertThat(actual.shape(), is(sameInstance(prototype)));
+    assertThat(actual.distance(), is(closeTo(expected.distance(), 1e-9)));
+    assertThat(Vector3.distance(actual.point(), expected.point()), is(closeTo(0.0, 1e-9)));
+    assertThat(Vector3.distance(actual.normal(), expected.normal()), is(closeTo(0.0, 1e-9)));
+  }
+
+  @Test
+  public void instancesShouldMatchTransformedShapes() {
+    // Given
+    var random = new Random(53L);
+    var model = new BvhScene();
+    model.addShape(new SphereShape());
+
+    var cube = new CubeShape();
+    cube.getTransform().update()
+        .setPosition(new Vector3(0.0, 0.0, 1.5))
+        .setScale(Vector3.ONE.scale(0.5))
+        .done();
+    model.addShape(cube);
+    model.prepare();
+
+    var expectedScene = new SimpleScene();
+    var actualScene = new BvhScene();
+
+    for (int i = 0; i < INSTANCE_COUNT; i++) {
+      var transform = new Transform(randomVector(random, 8.0), randomVector(random, 180.0),
+          Vector3.ONE.scale(0.25 + random.nextDouble()));
+
+      actualScene.addShape(new SceneInstance(model, transform));
+
+      // Same shapes, transformed individually
+      Shape sphere = new SphereShape();
+      sphere.setTransform(transform);
+      expectedScene.addShape(sphere);
+
+      Shape transformedCube = new CubeShape();
+      transformedCube.getTransform().update()
+          .setPosition(transform.getMatrix().transformPoint(new Vector3(0.0, 0.0, 1.5)))
+          .setRotation(transform.getRotation())
+          .setScale(transform.getScale().scale(0.5))
+          .done();
+      expectedScene.addShape(transformedCube);
+    }
+
+    // When
+    expectedScene.prepare();
+    actualScene.prepare();
+
+    // Then
+    assertEquivalentHits(expectedScene, actualScene, random, 1e-6);
+    assertSameOcclusion(expectedScene, actualScene, random);
+  }
+
+  @DataProvider
+  public Object[][] transformProvider() {
+    return new Object[][]{
+        {new Transform()},
+        {new Transform(new Vector3(2.0, 1.0, -1.0), Vector3.ZERO, Vector3.ONE)},
+        {new Transform(new Vector3(0.0, 4.0, 0.0), new Vector3(30.0, 0.0, 45.0), Vector3.ONE)},
+        {new Transform(new Vector3(-1.0, 2.0, 3.0), Vector3.ZERO, Vector3.ONE.scale(2.5))},
+        {new Transform(new Vector3(1.0, 3.0, 0.0), new Vector3(10.0, 20.0, 30.0),
+            new Vector3(0.5, 2.0, 1.0))},
+    };
+  }
+}